@@ -0,0 +1,69 @@
+package com.transmissionnumerique.benchmark;
+
+import com.transmissionnumerique.model.ChannelCoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit du codage de canal : une opération = un bit utile, le score en ops/µs se lit
+ * directement en Mbit/s. LLR bruités à 3 dB par bit codé.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChannelCoderBenchmark {
+
+    private static final int NUM_BITS = 100_000;
+
+    @Param({"CONVOLUTIONAL", "HAMMING_7_4", "BCH_15_7"})
+    public ChannelCoder.FecType fecType;
+
+    private ChannelCoder coder;
+    private boolean[] data;
+    private double[] llr;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        data = new boolean[NUM_BITS];
+        for (int i = 0; i < NUM_BITS; i++) {
+            data[i] = random.nextBoolean();
+        }
+        coder = new ChannelCoder(fecType);
+        boolean[] coded = coder.encode(data);
+        double sigma = Math.pow(10, -3.0 / 20.0);
+        llr = new double[coded.length];
+        for (int i = 0; i < coded.length; i++) {
+            double x = (coded[i] ? 1.0 : -1.0) + sigma * random.nextGaussian();
+            llr[i] = 2.0 * x / (sigma * sigma);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_BITS)
+    public boolean[] encode() {
+        return coder.encode(data);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_BITS)
+    public boolean[] decodeSoft() {
+        return coder.decodeSoft(llr, NUM_BITS);
+    }
+}
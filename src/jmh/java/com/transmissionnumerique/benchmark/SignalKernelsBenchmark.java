@@ -0,0 +1,116 @@
+package com.transmissionnumerique.benchmark;
+
+import com.transmissionnumerique.model.SignalKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit des noyaux au rythme d'échantillonnage, scalaires et actifs : une opération = un
+ * échantillon, le score en ops/µs se lit en méga-échantillons par seconde. Le RIF a la
+ * longueur des filtres de mise en forme (6 symboles de 8 échantillons).
+ *
+ * Les noyaux vectoriels demandent le profil {@code simd} et une JVM lancée avec
+ * {@code --add-modules jdk.incubator.vector} (option reprise par les JVM filles) :
+ * mvn -Pjmh,simd package, puis
+ * java --add-modules jdk.incubator.vector -jar target/benchmarks.jar SignalKernels
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalKernelsBenchmark {
+
+    private static final int NUM_SAMPLES = 1 << 16;
+    private static final int NUM_TAPS = 6 * 8 + 1;
+
+    /**
+     * scalar : implémentation de référence ; active : celle choisie au chargement
+     */
+    @Param({"scalar", "active"})
+    public String implementation;
+
+    private SignalKernels kernels;
+    private double[] signal;
+    private double[] noise;
+    private double[] taps;
+    private double[] output;
+    private float[] signal32;
+    private float[] taps32;
+    private float[] output32;
+    private boolean[] decisions;
+    private long[] words;
+
+    @Setup
+    public void setUp() {
+        kernels = "scalar".equals(implementation) ? SignalKernels.scalar() : SignalKernels.get();
+        Random random = new Random(1);
+        signal = new double[NUM_SAMPLES];
+        noise = new double[NUM_SAMPLES];
+        signal32 = new float[NUM_SAMPLES];
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            signal[i] = random.nextGaussian();
+            noise[i] = random.nextGaussian();
+            signal32[i] = (float) signal[i];
+        }
+        taps = new double[NUM_TAPS];
+        taps32 = new float[NUM_TAPS];
+        for (int k = 0; k < NUM_TAPS; k++) {
+            taps[k] = random.nextGaussian();
+            taps32[k] = (float) taps[k];
+        }
+        output = new double[NUM_SAMPLES];
+        output32 = new float[NUM_SAMPLES];
+        decisions = new boolean[NUM_SAMPLES];
+        words = new long[(NUM_SAMPLES + 63) / 64];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_SAMPLES)
+    public double[] fir() {
+        kernels.fir(signal, taps, NUM_TAPS / 2, output);
+        return output;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_SAMPLES)
+    public float[] firFloat() {
+        kernels.fir(signal32, taps32, NUM_TAPS / 2, output32);
+        return output32;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_SAMPLES)
+    public double[] addScaled() {
+        kernels.addScaled(signal, noise, 0.5, output);
+        return output;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_SAMPLES)
+    public boolean[] slice() {
+        kernels.slice(signal, 0.0, decisions);
+        return decisions;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_SAMPLES)
+    public long[] slicePacked() {
+        kernels.slicePacked(signal, 0.0, words);
+        return words;
+    }
+}
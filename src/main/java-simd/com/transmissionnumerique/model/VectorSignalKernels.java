@@ -0,0 +1,125 @@
+package com.transmissionnumerique.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Noyaux vectoriels (API Vector, JDK 17 et plus), chargés par {@link SignalKernels}.
+ * Compilés uniquement par le profil Maven {@code simd}.
+ */
+class VectorSignalKernels extends SignalKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int FLOAT_LANES = FLOAT_SPECIES.length();
+
+    VectorSignalKernels() {
+        if (LANES < 2) {
+            throw new UnsupportedOperationException("Pas de registres vectoriels sur cette machine");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vectoriel (" + LANES + " x double)";
+    }
+
+    /**
+     * Intérieur : toutes les prises tombent dans le signal, LANES sorties (deux vecteurs
+     * lorsque c'est possible) sont accumulées ensemble prise par prise. Bords en scalaire.
+     */
+    @Override
+    public void fir(double[] signal, double[] taps, int delay, double[] out) {
+        int first = Math.max(0, Math.min(out.length, taps.length - 1 - delay));
+        int end = Math.max(first, Math.min(out.length, signal.length - delay));
+        firRange(signal, taps, delay, out, 0, first);
+
+        int i = first;
+        for (; i + 2 * LANES <= end; i += 2 * LANES) {
+            DoubleVector a = DoubleVector.zero(SPECIES);
+            DoubleVector b = DoubleVector.zero(SPECIES);
+            int n = i + delay;
+            for (int k = 0; k < taps.length; k++) {
+                double tap = taps[k];
+                a = a.add(DoubleVector.fromArray(SPECIES, signal, n - k).mul(tap));
+                b = b.add(DoubleVector.fromArray(SPECIES, signal, n - k + LANES).mul(tap));
+            }
+            a.intoArray(out, i);
+            b.intoArray(out, i + LANES);
+        }
+        for (; i + LANES <= end; i += LANES) {
+            DoubleVector a = DoubleVector.zero(SPECIES);
+            int n = i + delay;
+            for (int k = 0; k < taps.length; k++) {
+                a = a.add(DoubleVector.fromArray(SPECIES, signal, n - k).mul(taps[k]));
+            }
+            a.intoArray(out, i);
+        }
+        firRange(signal, taps, delay, out, i, out.length);
+    }
+
+    /**
+     * Même découpage qu'en double, deux fois plus de sorties par vecteur
+     */
+    @Override
+    public void fir(float[] signal, float[] taps, int delay, float[] out) {
+        int first = Math.max(0, Math.min(out.length, taps.length - 1 - delay));
+        int end = Math.max(first, Math.min(out.length, signal.length - delay));
+        firRange(signal, taps, delay, out, 0, first);
+
+        int i = first;
+        for (; i + 2 * FLOAT_LANES <= end; i += 2 * FLOAT_LANES) {
+            FloatVector a = FloatVector.zero(FLOAT_SPECIES);
+            FloatVector b = FloatVector.zero(FLOAT_SPECIES);
+            int n = i + delay;
+            for (int k = 0; k < taps.length; k++) {
+                float tap = taps[k];
+                a = a.add(FloatVector.fromArray(FLOAT_SPECIES, signal, n - k).mul(tap));
+                b = b.add(FloatVector.fromArray(FLOAT_SPECIES, signal, n - k + FLOAT_LANES).mul(tap));
+            }
+            a.intoArray(out, i);
+            b.intoArray(out, i + FLOAT_LANES);
+        }
+        for (; i + FLOAT_LANES <= end; i += FLOAT_LANES) {
+            FloatVector a = FloatVector.zero(FLOAT_SPECIES);
+            int n = i + delay;
+            for (int k = 0; k < taps.length; k++) {
+                a = a.add(FloatVector.fromArray(FLOAT_SPECIES, signal, n - k).mul(taps[k]));
+            }
+            a.intoArray(out, i);
+        }
+        firRange(signal, taps, delay, out, i, out.length);
+    }
+
+    @Override
+    public void addScaled(double[] signal, double[] noise, double scale, double[] out) {
+        int bound = SPECIES.loopBound(out.length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, signal, i)
+                        .add(DoubleVector.fromArray(SPECIES, noise, i).mul(scale))
+                        .intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = signal[i] + noise[i] * scale;
+        }
+    }
+
+    @Override
+    public void slice(double[] signal, double threshold, boolean[] out) {
+        int bound = SPECIES.loopBound(out.length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            VectorMask<Double> decision = DoubleVector.fromArray(SPECIES, signal, i)
+                                                      .compare(VectorOperators.GT, threshold);
+            decision.intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = signal[i] > threshold;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.io.CaptureHeader;
+import com.transmissionnumerique.io.SampleSource;
+import com.transmissionnumerique.model.ClockRecovery;
+import com.transmissionnumerique.model.ComplexSignal;
+import com.transmissionnumerique.model.ConstellationMapper;
+import com.transmissionnumerique.model.Decoder;
+import com.transmissionnumerique.model.Demodulator;
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.ReceptionFilter;
+import com.transmissionnumerique.model.SignalAnalyzer;
+import com.transmissionnumerique.model.TransmissionFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejeu d'un enregistrement dans la moitié réception de la chaîne (démodulateur, filtre
+ * de réception, récupération d'horloge, décodeur), bloc par bloc : la mémoire utilisée
+ * ne dépend que de la taille des blocs, pas de celle de l'enregistrement.
+ *
+ * Les étages conçus pour un signal complet sont appliqués sur des fenêtres recouvrantes :
+ * le filtre de réception voit une marge d'une longueur de réponse impulsionnelle de chaque
+ * côté du bloc, et le décodeur un contexte de {@value #DECODE_CONTEXT} symboles avant et
+ * après les symboles décidés. Avec un filtre RIF, le signal filtré est exactement celui du
+ * traitement complet ; l'horloge est acquise sur le premier bloc puis conservée, et seul
+ * le seuil adaptatif du décodeur, estimé par fenêtre, peut différer.
+ */
+public class ReplayReceiver {
+
+    /**
+     * Symboles de contexte de part et d'autre d'une fenêtre de décodage : couvre les motifs
+     * de substitution HDB3/B8ZS et la profondeur de remontée de la détection de séquence
+     */
+    public static final int DECODE_CONTEXT = 64;
+
+    /**
+     * Reçoit les bits décidés au fil du rejeu
+     */
+    public interface BitListener {
+        void onBits(boolean[] bits, int offset, int count, long firstBit);
+    }
+
+    /**
+     * Bilan d'un rejeu
+     */
+    public static class Result {
+        public final long samples;
+        public final long symbols;
+        public final long bits;
+        public final long comparedBits;
+        public final long errors;
+        public final int samplingOffset;
+        public final long elapsedNanos;
+
+        Result(long samples, long symbols, long bits, long comparedBits, long errors, int samplingOffset,
+               long elapsedNanos) {
+            this.samples = samples;
+            this.symbols = symbols;
+            this.bits = bits;
+            this.comparedBits = comparedBits;
+            this.errors = errors;
+            this.samplingOffset = samplingOffset;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Taux d'erreur sur les bits comparés à la référence (NaN sans référence)
+         */
+        public double getBer() {
+            return comparedBits > 0 ? (double) errors / comparedBits : Double.NaN;
+        }
+
+        public double getSamplesPerSecond() {
+            return elapsedNanos > 0 ? samples * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private final LineEncoder.EncodingType encodingType;
+    private final TransmissionFilter.FilterType filterType;
+    private final Modulator.ModulationType modulationType;
+    private final int samplesPerSymbol;
+    private final double rollOff;
+    private final double carrierFrequency;
+    private final double sampleRate;
+
+    private boolean passband;
+    private boolean carrierRecoveryEnabled;
+    private boolean sequenceDetection;
+    private int samplingOffset = -1;
+    private int blockSize = 1 << 16;
+    private CaptureHeader.Stage entryStage = CaptureHeader.Stage.NOISY;
+    private boolean[] reference;
+    private BitListener listener;
+
+    // État d'un rejeu en cours
+    private Demodulator demodulator;
+    private ReceptionFilter rxFilter;
+    private ClockRecovery clockRecovery;
+    private Decoder decoder;
+    private boolean demodulate;
+    private boolean filter;
+    private int filterMargin;
+    private int passbandDelay;
+    private long demodulatedCount;
+    private int offset;
+
+    private double[] pendingRe;
+    private double[] pendingIm;
+    private int pendingLength;
+    private long pendingBase;
+    private long filteredDone;
+
+    private double[] symbols;
+    private int symbolLength;
+    private long symbolBase;
+    private long symbolsDone;
+    private long symbolCount;
+
+    private long bitCount;
+    private long comparedBits;
+    private long errors;
+
+    public ReplayReceiver(LineEncoder.EncodingType encodingType, TransmissionFilter.FilterType filterType,
+                          Modulator.ModulationType modulationType, int samplesPerSymbol, double rollOff,
+                          double carrierFrequency, double sampleRate) {
+        if (samplesPerSymbol <= 0) {
+            throw new IllegalArgumentException("Nombre d'échantillons par symbole invalide : " + samplesPerSymbol);
+        }
+        this.encodingType = encodingType;
+        this.filterType = filterType;
+        this.modulationType = modulationType;
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.rollOff = rollOff;
+        this.carrierFrequency = carrierFrequency;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Démodulation cohérente sur porteuse (chaîne réelle)
+     */
+    public void setPassband(boolean passband) {
+        this.passband = passband;
+    }
+
+    public void setCarrierRecoveryEnabled(boolean carrierRecoveryEnabled) {
+        this.carrierRecoveryEnabled = carrierRecoveryEnabled;
+    }
+
+    public void setSequenceDetection(boolean sequenceDetection) {
+        this.sequenceDetection = sequenceDetection;
+    }
+
+    /**
+     * Impose l'instant d'échantillonnage (négatif : acquisition sur le premier bloc)
+     */
+    public void setSamplingOffset(int samplingOffset) {
+        this.samplingOffset = samplingOffset;
+    }
+
+    /**
+     * Taille des blocs lus sur la source (en échantillons)
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize < samplesPerSymbol) {
+            throw new IllegalArgumentException("Bloc plus court qu'un symbole : " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Étage enregistré : NOISY, EXTERNAL ou MODULATED pour toute la réception,
+     * DEMODULATED, RX_FILTERED/EQUALIZED ou RECOVERED pour n'en rejouer que la fin
+     */
+    public void setEntryStage(CaptureHeader.Stage entryStage) {
+        switch (entryStage) {
+            case ENCODED:
+            case FILTERED:
+                throw new IllegalArgumentException("Étage d'émission, pas de réception à rejouer : " + entryStage);
+            default:
+                this.entryStage = entryStage;
+        }
+    }
+
+    /**
+     * Bits émis servant à compter les erreurs (null : pas de comptage)
+     */
+    public void setReference(boolean[] reference) {
+        this.reference = reference;
+    }
+
+    public void setBitListener(BitListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Rejoue la source jusqu'à son terme. La source n'est pas fermée.
+     */
+    public Result run(SampleSource source) throws IOException {
+        boolean complex = Modulator.isComplex(modulationType);
+        if (source.getChannels() != (complex ? 2 : 1)) {
+            throw new IllegalArgumentException("Source à " + source.getChannels() + " voie(s) pour une modulation "
+                    + modulationType);
+        }
+        long start = System.nanoTime();
+        reset(complex);
+
+        boolean symbolRate = entryStage == CaptureHeader.Stage.RECOVERED;
+        int channels = source.getChannels();
+        double[] input = new double[blockSize * channels];
+        double[] re = new double[blockSize];
+        double[] im = complex ? new double[blockSize] : null;
+        long samples = 0;
+        int n;
+        while ((n = source.read(input, 0, blockSize)) >= 0) {
+            if (n == 0) {
+                continue;
+            }
+            samples += n;
+            if (complex) {
+                for (int i = 0; i < n; i++) {
+                    re[i] = input[2 * i];
+                    im[i] = input[2 * i + 1];
+                }
+            } else {
+                System.arraycopy(input, 0, re, 0, n);
+            }
+            if (symbolRate) {
+                acceptSymbols(re, im, n, false);
+            } else {
+                demodulate(re, im, n);
+            }
+        }
+        if (symbolRate) {
+            acceptSymbols(re, im, 0, true);
+        } else {
+            flushDemodulator();
+            processFiltered(true);
+        }
+        return new Result(samples, symbolCount, bitCount, comparedBits, errors, offset, System.nanoTime() - start);
+    }
+
+    private void reset(boolean complex) {
+        demodulator = new Demodulator(modulationType, carrierFrequency, sampleRate);
+        demodulator.setPassband(passband && !complex);
+        if (complex && carrierRecoveryEnabled) {
+            demodulator.setCarrierLoopBandwidth(0.02);
+        }
+        demodulator.setCarrierRecoveryEnabled(carrierRecoveryEnabled && (complex || passband));
+        rxFilter = new ReceptionFilter(filterType, samplesPerSymbol, rollOff);
+        rxFilter.setEncodingType(encodingType);
+        clockRecovery = new ClockRecovery(samplesPerSymbol);
+        clockRecovery.setDebugMode(false);
+        decoder = new Decoder(0.0);
+        decoder.setDebugMode(false);
+        decoder.setModulationType(modulationType);
+        decoder.setEncodingType(encodingType);
+        decoder.setSequenceDetection(sequenceDetection, DECODE_CONTEXT);
+
+        demodulate = entryStage == CaptureHeader.Stage.NOISY || entryStage == CaptureHeader.Stage.EXTERNAL
+                || entryStage == CaptureHeader.Stage.MODULATED;
+        filter = demodulate || entryStage == CaptureHeader.Stage.DEMODULATED;
+        filterMargin = filter ? rxFilter.getImpulseResponse().length : 0;
+        // Retard du passe-bas du démodulateur (compensé comme pour un signal complet)
+        passbandDelay = demodulator.isPassband() && demodulate
+                ? Math.max(1, (int) Math.round(sampleRate / carrierFrequency)) / 2 : 0;
+        demodulatedCount = 0;
+        offset = samplingOffset;
+
+        int capacity = blockSize + 2 * filterMargin + 2 * samplesPerSymbol;
+        pendingRe = new double[capacity];
+        pendingIm = complex ? new double[capacity] : null;
+        pendingLength = 0;
+        pendingBase = 0;
+        filteredDone = 0;
+        symbols = new double[blockSize / samplesPerSymbol + 4 * DECODE_CONTEXT + 2];
+        symbolLength = 0;
+        symbolBase = 0;
+        symbolsDone = 0;
+        symbolCount = 0;
+        bitCount = 0;
+        comparedBits = 0;
+        errors = 0;
+    }
+
+    private void demodulate(double[] re, double[] im, int n) {
+        if (!demodulate || im != null || !demodulator.isPassband()) {
+            // Bande de base : démodulation ponctuelle (identité)
+            appendPending(re, im, 0, n);
+        } else {
+            double[] out = new double[n];
+            int written = demodulator.demodulatePassband(re, 0, n, out, 0);
+            int skip = (int) Math.max(0, Math.min(written, passbandDelay - demodulatedCount));
+            demodulatedCount += written;
+            appendPending(out, null, skip, written - skip);
+        }
+        processFiltered(false);
+    }
+
+    private void flushDemodulator() {
+        if (passbandDelay > 0) {
+            double[] tail = new double[passbandDelay];
+            double[] out = new double[passbandDelay];
+            int written = demodulator.demodulatePassband(tail, 0, passbandDelay, out, 0);
+            int skip = (int) Math.max(0, Math.min(written, passbandDelay - demodulatedCount));
+            demodulatedCount += written;
+            appendPending(out, null, skip, written - skip);
+        }
+    }
+
+    private void appendPending(double[] re, double[] im, int from, int n) {
+        if (pendingLength + n > pendingRe.length) {
+            int capacity = Math.max(2 * pendingRe.length, pendingLength + n);
+            pendingRe = java.util.Arrays.copyOf(pendingRe, capacity);
+            if (pendingIm != null) {
+                pendingIm = java.util.Arrays.copyOf(pendingIm, capacity);
+            }
+        }
+        System.arraycopy(re, from, pendingRe, pendingLength, n);
+        if (pendingIm != null) {
+            System.arraycopy(im, from, pendingIm, pendingLength, n);
+        }
+        pendingLength += n;
+    }
+
+    /**
+     * Filtre la partie du signal dont la marge droite est disponible. Les blocs émis
+     * commencent sur une frontière de symbole pour que l'horloge reste alignée.
+     */
+    private void processFiltered(boolean last) {
+        long available = pendingBase + pendingLength;
+        long emitEnd = last ? available
+                : ((available - filterMargin) / samplesPerSymbol) * samplesPerSymbol;
+        if (emitEnd <= filteredDone || (!last && emitEnd - filteredDone < blockSize / 2)) {
+            return;
+        }
+        long windowStart = Math.max(pendingBase, filteredDone - filterMargin);
+        long windowEnd = last ? available : Math.min(available, emitEnd + filterMargin);
+        int from = (int) (windowStart - pendingBase);
+        int length = (int) (windowEnd - windowStart);
+        int skip = (int) (filteredDone - windowStart);
+        int count = (int) (emitEnd - filteredDone);
+
+        double[] re = java.util.Arrays.copyOfRange(pendingRe, from, from + length);
+        double[] im = pendingIm != null ? java.util.Arrays.copyOfRange(pendingIm, from, from + length) : null;
+        if (filter) {
+            if (im != null) {
+                ComplexSignal filtered = rxFilter.filter(new ComplexSignal(re, im));
+                re = filtered.getReal();
+                im = filtered.getImag();
+            } else {
+                re = rxFilter.filter(re);
+            }
+        }
+        double[] blockRe = java.util.Arrays.copyOfRange(re, skip, skip + count);
+        double[] blockIm = im != null ? java.util.Arrays.copyOfRange(im, skip, skip + count) : null;
+        filteredDone = emitEnd;
+
+        // On ne garde que la marge gauche du prochain bloc
+        long keepFrom = Math.max(pendingBase, filteredDone - filterMargin);
+        int drop = (int) (keepFrom - pendingBase);
+        System.arraycopy(pendingRe, drop, pendingRe, 0, pendingLength - drop);
+        if (pendingIm != null) {
+            System.arraycopy(pendingIm, drop, pendingIm, 0, pendingLength - drop);
+        }
+        pendingLength -= drop;
+        pendingBase = keepFrom;
+
+        recoverSymbols(blockRe, blockIm, last);
+    }
+
+    private void recoverSymbols(double[] re, double[] im, boolean last) {
+        if (offset < 0) {
+            // Acquisition de l'horloge sur le premier bloc : maximum d'énergie (la recherche
+            // d'ouverture du signal complet dépend trop des extrêmes d'un bloc court),
+            // instant du diagramme de l'œil en passe-bande comme dans le contrôleur
+            if (im != null) {
+                offset = clockRecovery.estimateSamplingOffset(new ComplexSignal(re, im));
+            } else if (demodulator.isPassband()) {
+                offset = SignalAnalyzer.analyzeEyePattern(re, samplesPerSymbol).bestSamplingPoint;
+            } else {
+                offset = clockRecovery.estimateMaxEnergyOffset(re);
+            }
+        }
+        clockRecovery.setSamplingOffset(offset);
+        if (re.length < samplesPerSymbol) {
+            acceptSymbols(new double[0], im != null ? new double[0] : null, 0, last);
+        } else if (im != null) {
+            ComplexSignal recovered = clockRecovery.recover(new ComplexSignal(re, im));
+            if (carrierRecoveryEnabled) {
+                recovered = demodulator.recoverCarrier(recovered);
+            }
+            acceptSymbols(recovered.getReal(), recovered.getImag(), recovered.getLength(), last);
+        } else {
+            double[] recovered = clockRecovery.recover(re);
+            acceptSymbols(recovered, null, recovered.length, last);
+        }
+    }
+
+    private void acceptSymbols(double[] re, double[] im, int n, boolean last) {
+        symbolCount += n;
+        if (im != null) {
+            // Constellation sans mémoire : chaque bloc est démappé indépendamment
+            if (n > 0) {
+                ComplexSignal block = new ComplexSignal(java.util.Arrays.copyOf(re, n), java.util.Arrays.copyOf(im, n));
+                int bitsPerSymbol = ConstellationMapper.forModulation(modulationType).bitsPerSymbol;
+                boolean[] bits = decoder.decode(block, n * bitsPerSymbol);
+                emitBits(bits, 0, bits.length);
+            }
+            return;
+        }
+        if (symbolLength + n > symbols.length) {
+            symbols = java.util.Arrays.copyOf(symbols, Math.max(2 * symbols.length, symbolLength + n));
+        }
+        System.arraycopy(re, 0, symbols, symbolLength, n);
+        symbolLength += n;
+        decodeSymbols(last);
+    }
+
+    /**
+     * Décode les symboles dont le contexte droit est disponible. En Manchester, les
+     * fenêtres et les décisions restent alignées sur les paires de symboles.
+     */
+    private void decodeSymbols(boolean last) {
+        int symbolsPerBit = encodingType == LineEncoder.EncodingType.MANCHESTER ? 2 : 1;
+        long available = symbolBase + symbolLength;
+        long emitEnd = last ? available : available - DECODE_CONTEXT;
+        if (!last) {
+            emitEnd -= (emitEnd - symbolsDone) % symbolsPerBit;
+        }
+        if (emitEnd <= symbolsDone || (!last && emitEnd - symbolsDone < DECODE_CONTEXT)) {
+            return;
+        }
+        long windowStart = Math.max(symbolBase, symbolsDone - DECODE_CONTEXT);
+        int from = (int) (windowStart - symbolBase);
+        double[] window = java.util.Arrays.copyOfRange(symbols, from, symbolLength);
+        boolean[] bits = decoder.decode(window);
+
+        int firstBit = (int) ((symbolsDone - windowStart) / symbolsPerBit);
+        int endBit = last ? bits.length : (int) ((emitEnd - windowStart) / symbolsPerBit);
+        emitBits(bits, firstBit, Math.min(endBit, bits.length) - firstBit);
+        symbolsDone = emitEnd;
+
+        long keepFrom = Math.max(symbolBase, symbolsDone - DECODE_CONTEXT);
+        int drop = (int) (keepFrom - symbolBase);
+        System.arraycopy(symbols, drop, symbols, 0, symbolLength - drop);
+        symbolLength -= drop;
+        symbolBase = keepFrom;
+    }
+
+    private void emitBits(boolean[] bits, int from, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (reference != null) {
+            int compared = (int) Math.max(0, Math.min(count, reference.length - bitCount));
+            for (int i = 0; i < compared; i++) {
+                if (bits[from + i] != reference[(int) bitCount + i]) {
+                    errors++;
+                }
+            }
+            comparedBits += compared;
+        }
+        if (listener != null) {
+            listener.onBits(bits, from, count, bitCount);
+        }
+        bitCount += count;
+    }
+}
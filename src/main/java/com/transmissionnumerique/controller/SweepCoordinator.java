@@ -0,0 +1,467 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.io.SweepCheckpoint;
+import com.transmissionnumerique.io.SweepProtocol;
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.TransmissionFilter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Coordinateur d'une campagne de BER répartie sur plusieurs processus. La grille SNR ×
+ * essais est découpée en unités de quelques essais confiées aux workers
+ * ({@link SweepWorker}) connectés par socket ; chaque résultat rapporte les erreurs de
+ * chaque essai.
+ *
+ * Les essais d'un point sont comptabilisés dans l'ordre de leur rang, avec le critère
+ * d'arrêt de {@link SweepJob} appliqué après chacun : le résultat est identique à celui
+ * d'une campagne locale, quel que soit le nombre de workers. Les essais reçus au-delà du
+ * critère d'arrêt sont ignorés. Une unité dont le worker se déconnecte ou ne répond plus
+ * est remise en file et confiée à un autre worker.
+ *
+ * Le point de reprise a le même format et la même empreinte que celui de {@link SweepJob}.
+ */
+public class SweepCoordinator implements Closeable {
+
+    private final TransmissionController controller;
+    private final LineEncoder.EncodingType encodingType;
+    private final TransmissionFilter.FilterType filterType;
+    private final Modulator.ModulationType modulationType;
+    private final double[] snrValues;
+    private final int blockLength;
+    private final long targetErrors;
+    private final long maxBits;
+    private final long seed;
+    private final long maxTrials;
+
+    private int unitTrials = 4;
+    private int workerTimeoutMillis = 300_000;
+    private long idleTimeoutMillis = 60_000;
+    private Path checkpointPath;
+    private long checkpointIntervalMillis = 10_000;
+    private SweepJob.ProgressListener listener;
+
+    private ServerSocket server;
+    private final Set<Socket> sockets = Collections.synchronizedSet(new HashSet<Socket>());
+
+    // État partagé, protégé par le moniteur de l'instance
+    private SweepCheckpoint state;
+    private long[] nextTrial;
+    private int[] inFlight;
+    private List<TreeMap<Long, long[]>> received;
+    private final PriorityQueue<SweepProtocol.Unit> retry = new PriorityQueue<>(16,
+            (a, b) -> a.pointIndex != b.pointIndex ? Integer.compare(a.pointIndex, b.pointIndex)
+                                                    : Long.compare(a.firstTrial, b.firstTrial));
+    private long nextUnitId;
+    private int connectedWorkers;
+    private long requeuedUnits;
+    private String lastWorkerError;
+    private boolean running;
+    private boolean pointFinished;
+    private volatile boolean cancelled;
+
+    public SweepCoordinator(TransmissionController controller, LineEncoder.EncodingType encodingType,
+                            TransmissionFilter.FilterType filterType, Modulator.ModulationType modulationType,
+                            double[] snrValues, int blockLength, long targetErrors, long maxBits, long seed) {
+        if (blockLength <= 0 || maxBits < blockLength || targetErrors <= 0) {
+            throw new IllegalArgumentException("Critères d'arrêt invalides : bloc " + blockLength
+                    + ", erreurs " + targetErrors + ", bits " + maxBits);
+        }
+        this.controller = controller;
+        this.encodingType = encodingType;
+        this.filterType = filterType;
+        this.modulationType = modulationType;
+        this.snrValues = snrValues.clone();
+        this.blockLength = blockLength;
+        this.targetErrors = targetErrors;
+        this.maxBits = maxBits;
+        this.seed = seed;
+        this.maxTrials = maxBits / blockLength;
+    }
+
+    /**
+     * Nombre d'essais par unité de travail (granularité de la répartition et de la reprise
+     * après la perte d'un worker)
+     */
+    public void setUnitTrials(int unitTrials) {
+        if (unitTrials <= 0) {
+            throw new IllegalArgumentException("Nombre d'essais par unité invalide : " + unitTrials);
+        }
+        this.unitTrials = unitTrials;
+    }
+
+    /**
+     * Délai au-delà duquel un worker qui n'a pas rendu son unité est considéré perdu
+     */
+    public void setWorkerTimeout(int millis) {
+        this.workerTimeoutMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Délai au-delà duquel la campagne échoue si aucun worker n'est connecté
+     */
+    public void setIdleTimeout(long millis) {
+        this.idleTimeoutMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Active les points de reprise (voir {@link SweepJob#setCheckpoint})
+     */
+    public void setCheckpoint(Path path, long intervalMillis) {
+        this.checkpointPath = path;
+        this.checkpointIntervalMillis = Math.max(0, intervalMillis);
+    }
+
+    public void setProgressListener(SweepJob.ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    public String getJobKey() {
+        return SweepJob.jobKey(controller, encodingType, filterType, modulationType, snrValues, blockLength,
+                               targetErrors, maxBits, seed);
+    }
+
+    /**
+     * Ouvre le port d'écoute sur l'interface locale
+     * @param port Port, ou 0 pour un port libre
+     * @return Port effectif
+     */
+    public int start(int port) throws IOException {
+        return start(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Ouvre le port d'écoute sur une interface donnée (workers sur d'autres hôtes)
+     */
+    public synchronized int start(InetAddress bindAddress, int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Coordinateur déjà démarré");
+        }
+        server = new ServerSocket();
+        server.bind(new InetSocketAddress(bindAddress, port));
+        Thread acceptor = new Thread(this::acceptWorkers, "sweep-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server.getLocalPort();
+    }
+
+    public synchronized int getPort() {
+        return server != null ? server.getLocalPort() : -1;
+    }
+
+    /**
+     * Lance des workers dans des JVM locales, avec le classpath du processus courant
+     */
+    public List<Process> launchLocalWorkers(int count) throws IOException {
+        if (server == null) {
+            start(0);
+        }
+        InetAddress address = server.getInetAddress();
+        String host = address.isAnyLocalAddress() ? InetAddress.getLoopbackAddress().getHostAddress()
+                                                  : address.getHostAddress();
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    SweepWorker.class.getName(), host, String.valueOf(server.getLocalPort()))
+                    .inheritIO().start());
+        }
+        return processes;
+    }
+
+    /**
+     * Demande l'arrêt : les unités en cours sont abandonnées et le point de reprise écrit
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    public synchronized int getConnectedWorkers() {
+        return connectedWorkers;
+    }
+
+    /**
+     * Nombre d'unités remises en file après la perte de leur worker
+     */
+    public synchronized long getRequeuedUnits() {
+        return requeuedUnits;
+    }
+
+    /**
+     * Exécute (ou reprend) la campagne avec les workers connectés
+     * @return Tableau [SNR, BER, bits, erreurs], comme {@link SweepJob#run()}
+     */
+    public double[][] run() throws IOException {
+        if (server == null) {
+            start(0);
+        }
+        cancelled = false;
+        String jobKey = getJobKey();
+        SweepCheckpoint restored = checkpointPath != null ? SweepCheckpoint.read(checkpointPath) : null;
+        if (restored != null && !restored.getJobKey().equals(jobKey)) {
+            throw new IllegalStateException("Le point de reprise " + checkpointPath
+                    + " appartient à une autre campagne");
+        }
+
+        boolean completed = false;
+        synchronized (this) {
+            state = restored != null ? restored : new SweepCheckpoint(jobKey, snrValues);
+            nextTrial = new long[snrValues.length];
+            inFlight = new int[snrValues.length];
+            received = new ArrayList<>();
+            retry.clear();
+            for (int i = 0; i < snrValues.length; i++) {
+                nextTrial[i] = state.getTrials(i);
+                received.add(new TreeMap<Long, long[]>());
+                advance(i);
+            }
+            pointFinished = false;
+            running = true;
+            notifyAll();
+            try {
+                long lastCheckpoint = System.currentTimeMillis();
+                long idleSince = lastCheckpoint;
+                while (!state.isComplete() && !cancelled) {
+                    wait(100);
+                    long now = System.currentTimeMillis();
+                    if (pointFinished || now - lastCheckpoint >= checkpointIntervalMillis) {
+                        // Écrit par ce seul thread : une erreur d'écriture arrête la campagne
+                        pointFinished = false;
+                        writeCheckpoint();
+                        lastCheckpoint = now;
+                    }
+                    if (connectedWorkers > 0) {
+                        idleSince = now;
+                    } else if (now - idleSince > idleTimeoutMillis) {
+                        throw new IOException("Aucun worker connecté depuis " + idleTimeoutMillis + " ms"
+                                + (lastWorkerError != null ? " (" + lastWorkerError + ")" : ""));
+                    }
+                }
+                completed = !cancelled;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Campagne interrompue", e);
+            } finally {
+                running = false;
+                notifyAll();
+                if (!completed) {
+                    writeCheckpoint();
+                }
+            }
+            return SweepJob.results(state, snrValues);
+        }
+    }
+
+    public synchronized boolean isComplete() {
+        return state != null && state.isComplete();
+    }
+
+    /**
+     * Ferme le port d'écoute et les connexions restantes
+     */
+    @Override
+    public void close() throws IOException {
+        cancel();
+        if (server != null) {
+            server.close();
+        }
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    private void acceptWorkers() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serveWorker(socket), "sweep-worker-" + socket.getPort());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // Port fermé : fin de l'acceptation
+                return;
+            }
+        }
+    }
+
+    /**
+     * Dialogue avec un worker : une unité à la fois jusqu'à la fin de la campagne
+     */
+    private void serveWorker(Socket socket) {
+        SweepProtocol.Unit current = null;
+        boolean accepted = false;
+        sockets.add(socket);
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(workerTimeoutMillis);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            SweepProtocol.readHello(in);
+            SweepProtocol.writeJob(out, new SweepProtocol.Job(encodingType.name(), filterType.name(),
+                    modulationType.name(), blockLength, seed,
+                    controller.configurationKey(encodingType, filterType, modulationType)));
+            SweepProtocol.readStatus(in);
+            workerConnected();
+            accepted = true;
+
+            long[] unitId = new long[1];
+            while ((current = nextUnit()) != null) {
+                SweepProtocol.writeUnit(out, current);
+                long[] errors = SweepProtocol.readResult(in, unitId);
+                if (unitId[0] != current.id || errors.length != current.trials) {
+                    throw new IOException("Résultat incohérent pour l'unité " + current.id);
+                }
+                complete(current, errors);
+                current = null;
+            }
+            SweepProtocol.writeShutdown(out);
+        } catch (IOException e) {
+            synchronized (this) {
+                lastWorkerError = e.getMessage();
+            }
+            if (current != null) {
+                requeue(current);
+            }
+        } finally {
+            sockets.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Déjà fermée
+            }
+            if (accepted) {
+                workerDisconnected();
+            }
+        }
+    }
+
+    private synchronized void workerConnected() {
+        connectedWorkers++;
+        notifyAll();
+    }
+
+    private synchronized void workerDisconnected() {
+        connectedWorkers--;
+        notifyAll();
+    }
+
+    /**
+     * Unité suivante : d'abord les unités perdues, puis de nouveaux essais du premier point
+     * non terminé dont le nombre d'unités en cours ne dépasse pas le nombre de workers
+     * (ce qui borne les essais calculés au-delà du critère d'arrêt)
+     * @return L'unité, ou null en fin de campagne
+     */
+    private synchronized SweepProtocol.Unit nextUnit() throws IOException {
+        try {
+            while (true) {
+                if (state != null && (state.isComplete() || cancelled)) {
+                    return null;
+                }
+                if (running) {
+                    SweepProtocol.Unit unit;
+                    while ((unit = retry.poll()) != null) {
+                        if (!state.isFinished(unit.pointIndex)) {
+                            inFlight[unit.pointIndex]++;
+                            return unit;
+                        }
+                    }
+                    int lookahead = Math.max(1, connectedWorkers);
+                    for (int i = 0; i < snrValues.length; i++) {
+                        if (state.isFinished(i) || inFlight[i] >= lookahead || nextTrial[i] >= maxTrials) {
+                            continue;
+                        }
+                        int trials = (int) Math.min(unitTrials, maxTrials - nextTrial[i]);
+                        unit = new SweepProtocol.Unit(nextUnitId++, i, snrValues[i], nextTrial[i], trials);
+                        nextTrial[i] += trials;
+                        inFlight[i]++;
+                        return unit;
+                    }
+                }
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Worker interrompu", e);
+        }
+    }
+
+    private synchronized void complete(SweepProtocol.Unit unit, long[] errors) {
+        int index = unit.pointIndex;
+        inFlight[index]--;
+        if (!state.isFinished(index)) {
+            received.get(index).put(unit.firstTrial, errors);
+            advance(index);
+        }
+        notifyAll();
+    }
+
+    private synchronized void requeue(SweepProtocol.Unit unit) {
+        if (inFlight == null) {
+            return;
+        }
+        inFlight[unit.pointIndex]--;
+        requeuedUnits++;
+        retry.add(unit);
+        notifyAll();
+    }
+
+    /**
+     * Comptabilise dans l'ordre les essais reçus à la suite des essais déjà comptés, en
+     * appliquant le critère d'arrêt avant chacun
+     */
+    private void advance(int index) {
+        TreeMap<Long, long[]> pending = received.get(index);
+        while (!state.isFinished(index)) {
+            if (state.getErrors(index) >= targetErrors || state.getBits(index) + blockLength > maxBits) {
+                state.setFinished(index);
+                pending.clear();
+                pointFinished = true;
+                return;
+            }
+            long trial = state.getTrials(index);
+            Map.Entry<Long, long[]> entry = pending.floorEntry(trial);
+            if (entry == null || entry.getKey() + entry.getValue().length <= trial) {
+                return;
+            }
+            int offset = (int) (trial - entry.getKey());
+            state.addTrial(index, blockLength, entry.getValue()[offset]);
+            if (offset == entry.getValue().length - 1) {
+                pending.remove(entry.getKey());
+            }
+            if (listener != null) {
+                listener.onProgress(index, snrValues[index], state.getBits(index), state.getErrors(index));
+            }
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        if (checkpointPath != null && state != null) {
+            state.write(checkpointPath);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.io.ResultCache;
+import com.transmissionnumerique.io.SweepCheckpoint;
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.TransmissionFilter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Campagne de BER de longue durée, reprenable. Chaque point de SNR accumule des essais
+ * de blockLength bits jusqu'à targetErrors erreurs ou maxBits bits. La graine de chaque
+ * essai ne dépend que de son rang ({@link TransmissionController#trialSeed}) et les
+ * accumulateurs sont entiers : une campagne reprise depuis son point de reprise donne
+ * exactement le même résultat qu'une campagne ininterrompue.
+ *
+ * Le point de reprise est écrit périodiquement, à la fin de chaque point de SNR, et à
+ * l'arrêt (annulation ou exception) ; il ne contient que des essais terminés.
+ */
+public class SweepJob {
+
+    /**
+     * Avancement : appelé après chaque essai
+     */
+    public interface ProgressListener {
+        void onProgress(int pointIndex, double snr, long bits, long errors);
+    }
+
+    private final TransmissionController controller;
+    private final LineEncoder.EncodingType encodingType;
+    private final TransmissionFilter.FilterType filterType;
+    private final Modulator.ModulationType modulationType;
+    private final double[] snrValues;
+    private final int blockLength;
+    private final long targetErrors;
+    private final long maxBits;
+    private final long seed;
+
+    private Path checkpointPath;
+    private long checkpointIntervalMillis = 10_000;
+    private ProgressListener listener;
+    private volatile boolean cancelled;
+    private SweepCheckpoint state;
+
+    public SweepJob(TransmissionController controller, LineEncoder.EncodingType encodingType,
+                    TransmissionFilter.FilterType filterType, Modulator.ModulationType modulationType,
+                    double[] snrValues, int blockLength, long targetErrors, long maxBits, long seed) {
+        if (blockLength <= 0 || maxBits < blockLength || targetErrors <= 0) {
+            throw new IllegalArgumentException("Critères d'arrêt invalides : bloc " + blockLength
+                    + ", erreurs " + targetErrors + ", bits " + maxBits);
+        }
+        this.controller = controller;
+        this.encodingType = encodingType;
+        this.filterType = filterType;
+        this.modulationType = modulationType;
+        this.snrValues = snrValues.clone();
+        this.blockLength = blockLength;
+        this.targetErrors = targetErrors;
+        this.maxBits = maxBits;
+        this.seed = seed;
+    }
+
+    /**
+     * Active les points de reprise (fichier relu au démarrage s'il existe)
+     * @param intervalMillis Intervalle minimal entre deux écritures
+     */
+    public void setCheckpoint(Path path, long intervalMillis) {
+        this.checkpointPath = path;
+        this.checkpointIntervalMillis = Math.max(0, intervalMillis);
+    }
+
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Demande l'arrêt après l'essai en cours (le point de reprise est alors écrit)
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Empreinte de la campagne : configuration de la chaîne, code, paramètres et graine.
+     * Un point de reprise d'une autre campagne est refusé.
+     */
+    public String getJobKey() {
+        return jobKey(controller, encodingType, filterType, modulationType, snrValues, blockLength,
+                      targetErrors, maxBits, seed);
+    }
+
+    /**
+     * Empreinte partagée avec {@link SweepCoordinator} : une campagne distribuée et une
+     * campagne locale de mêmes paramètres ont des points de reprise interchangeables
+     */
+    static String jobKey(TransmissionController controller, LineEncoder.EncodingType encodingType,
+                         TransmissionFilter.FilterType filterType, Modulator.ModulationType modulationType,
+                         double[] snrValues, int blockLength, long targetErrors, long maxBits, long seed) {
+        return ResultCache.key("sweep", controller.configurationKey(encodingType, filterType, modulationType),
+                snrValues, blockLength, targetErrors, maxBits, seed);
+    }
+
+    /**
+     * Exécute (ou reprend) la campagne
+     * @return Tableau [SNR, BER, bits, erreurs] ; les points non terminés après une
+     *         annulation contiennent les accumulateurs partiels
+     */
+    public double[][] run() throws IOException {
+        cancelled = false;
+        String jobKey = getJobKey();
+        state = checkpointPath != null ? SweepCheckpoint.read(checkpointPath) : null;
+        if (state != null && !state.getJobKey().equals(jobKey)) {
+            throw new IllegalStateException("Le point de reprise " + checkpointPath
+                    + " appartient à une autre campagne");
+        }
+        if (state == null) {
+            state = new SweepCheckpoint(jobKey, snrValues);
+        }
+
+        long lastCheckpoint = System.currentTimeMillis();
+        boolean completed = false;
+        try {
+            for (int i = 0; i < snrValues.length && !cancelled; i++) {
+                double snr = snrValues[i];
+                while (!state.isFinished(i) && !cancelled) {
+                    if (state.getErrors(i) >= targetErrors || state.getBits(i) + blockLength > maxBits) {
+                        state.setFinished(i);
+                        writeCheckpoint();
+                        lastCheckpoint = System.currentTimeMillis();
+                        break;
+                    }
+                    long trial = state.getTrials(i);
+                    controller.generateRandomSequence(blockLength,
+                            TransmissionController.trialSeed(seed, modulationType, snr, trial));
+                    controller.runSimulation(blockLength, encodingType, filterType, modulationType, snr);
+                    state.addTrial(i, blockLength, controller.countBitErrors());
+                    controller.recordTrial(encodingType, filterType, modulationType, snr, trial);
+
+                    if (listener != null) {
+                        listener.onProgress(i, snr, state.getBits(i), state.getErrors(i));
+                    }
+                    if (System.currentTimeMillis() - lastCheckpoint >= checkpointIntervalMillis) {
+                        writeCheckpoint();
+                        lastCheckpoint = System.currentTimeMillis();
+                    }
+                }
+            }
+            completed = !cancelled;
+        } finally {
+            if (!completed) {
+                // Arrêt anticipé : seuls les essais terminés figurent dans les accumulateurs
+                writeCheckpoint();
+            }
+        }
+        return results();
+    }
+
+    /**
+     * Vrai lorsque tous les points ont atteint leur critère d'arrêt
+     */
+    public boolean isComplete() {
+        return state != null && state.isComplete();
+    }
+
+    private void writeCheckpoint() throws IOException {
+        if (checkpointPath != null) {
+            state.write(checkpointPath);
+        }
+    }
+
+    private double[][] results() {
+        return results(state, snrValues);
+    }
+
+    /**
+     * Tableau [SNR, BER, bits, erreurs] des accumulateurs d'un point de reprise
+     */
+    static double[][] results(SweepCheckpoint state, double[] snrValues) {
+        double[][] results = new double[snrValues.length][4];
+        for (int i = 0; i < snrValues.length; i++) {
+            long bits = state.getBits(i);
+            results[i][0] = snrValues[i];
+            results[i][1] = bits > 0 ? (double) state.getErrors(i) / bits : 0.0;
+            results[i][2] = bits;
+            results[i][3] = state.getErrors(i);
+        }
+        return results;
+    }
+}
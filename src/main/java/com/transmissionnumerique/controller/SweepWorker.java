@@ -0,0 +1,99 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.io.SweepProtocol;
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.TransmissionFilter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.Socket;
+
+/**
+ * Worker d'une campagne distribuée : se connecte au {@link SweepCoordinator}, exécute les
+ * unités reçues sur sa propre chaîne et renvoie les erreurs de chaque essai. Les graines
+ * sont celles de {@link SweepJob} ({@link TransmissionController#trialSeed}) : le résultat
+ * d'un essai ne dépend pas du worker qui l'exécute.
+ *
+ * Le worker utilise la configuration par défaut de la chaîne ; il est refusé si son
+ * empreinte (configuration et bytecode) diffère de celle du coordinateur.
+ */
+public class SweepWorker {
+
+    private final String host;
+    private final int port;
+
+    public SweepWorker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Point d'entrée d'un processus worker : {@code SweepWorker <hôte> <port>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : SweepWorker <hôte> <port>");
+            System.exit(2);
+        }
+        // La chaîne journalise sur la sortie standard : inutile dans un worker
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+        new SweepWorker(args[0], Integer.parseInt(args[1])).run();
+    }
+
+    /**
+     * Traite les unités jusqu'au message SHUTDOWN du coordinateur
+     * @return Nombre d'unités traitées
+     */
+    public long run() throws IOException {
+        long units = 0;
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            SweepProtocol.writeHello(out);
+            SweepProtocol.Job job = SweepProtocol.readJob(in);
+
+            TransmissionController controller = new TransmissionController();
+            LineEncoder.EncodingType encodingType;
+            TransmissionFilter.FilterType filterType;
+            Modulator.ModulationType modulationType;
+            try {
+                encodingType = LineEncoder.EncodingType.valueOf(job.encoding);
+                filterType = TransmissionFilter.FilterType.valueOf(job.filter);
+                modulationType = Modulator.ModulationType.valueOf(job.modulation);
+            } catch (IllegalArgumentException e) {
+                SweepProtocol.writeStatus(out, "Configuration inconnue : " + e.getMessage());
+                return 0;
+            }
+            if (!controller.configurationKey(encodingType, filterType, modulationType).equals(job.configurationKey)) {
+                SweepProtocol.writeStatus(out, "Empreinte de configuration différente");
+                return 0;
+            }
+            SweepProtocol.writeStatus(out, null);
+
+            SweepProtocol.Unit unit;
+            while ((unit = SweepProtocol.readUnit(in)) != null) {
+                long[] errors = new long[unit.trials];
+                for (int t = 0; t < unit.trials; t++) {
+                    controller.generateRandomSequence(job.blockLength, TransmissionController.trialSeed(
+                            job.seed, modulationType, unit.snr, unit.firstTrial + t));
+                    controller.runSimulation(job.blockLength, encodingType, filterType, modulationType, unit.snr);
+                    errors[t] = controller.countBitErrors();
+                }
+                SweepProtocol.writeResult(out, unit.id, errors);
+                units++;
+            }
+        }
+        return units;
+    }
+}
@@ -1,5 +1,15 @@
 package com.transmissionnumerique.controller;
 
+import com.transmissionnumerique.io.CaptureHeader;
+import com.transmissionnumerique.io.MappedSampleSource;
+import com.transmissionnumerique.io.PrefetchSource;
+import com.transmissionnumerique.io.ResultCache;
+import com.transmissionnumerique.io.ResultStore;
+import com.transmissionnumerique.io.SampleStreamWriter;
+import com.transmissionnumerique.io.SigMfMetadata;
+import com.transmissionnumerique.io.SigMfWriter;
+import com.transmissionnumerique.io.SignalCapture;
+import com.transmissionnumerique.io.WavWriter;
 import com.transmissionnumerique.model.*;
 import com.transmissionnumerique.model.SignalAnalyzer.EyePatternMetrics;
 
@@ -9,6 +19,15 @@ import com.transmissionnumerique.model.SignalAnalyzer.EyePatternMetrics;
  */
 public class TransmissionController {
 
+    /**
+     * Précision des échantillons des étages au rythme d'échantillonnage. FLOAT s'applique
+     * à la chaîne réelle en bande de base hors multitrajet (mise en forme, modulation,
+     * canal, démodulation, filtrage de réception) ; les autres chaînes restent en double.
+     */
+    public enum Precision {
+        DOUBLE, FLOAT
+    }
+
     private TransmissionChain transmissionChain;
     private BinarySequence inputSequence;
     private BinarySequence outputSequence;
@@ -16,20 +35,85 @@ public class TransmissionController {
     // Variables pour stocker les signaux intermédiaires
     private double[] encodedSignal;
     private double[] filteredSignal;
+    private LineEncoder.EncodingType encodingType;
     private double[] modulatedSignal;
     private double[] noisySignal;
     private double[] demodulatedSignal;
+    // Étages calculés en simple précision, convertis en double à la demande
+    private float[] filteredSignal32;
+    private float[] modulatedSignal32;
+    private float[] noisySignal32;
+    private float[] demodulatedSignal32;
+    private Precision precision = Precision.DOUBLE;
     private double[] rxFilteredSignal;
+    private double[] equalizedSignal;
     private double[] recoveredSignal;
 
+    // Signaux de la chaîne complexe (QPSK/QAM)
+    private ComplexSignal complexSymbols;
+    private ComplexSignal complexNoisySignal;
+    private ComplexSignal complexRecoveredSignal;
+
     // Ajouter cette déclaration
     private Decoder decoder;
+
+    // Modèle de canal
+    private Channel.NoiseType channelType = Channel.NoiseType.AWGN;
+    private MultipathProfile multipathProfile;
+
+    // Modulation sur porteuse (désactivée par défaut : niveaux en bande de base)
+    private boolean passbandEnabled = false;
+
+    // Désaccord de porteuse simulé et boucle de récupération
+    private double carrierFrequencyOffset = 0.0; // Hz
+    private double carrierPhaseOffset = 0.0;     // rad
+    private boolean carrierRecoveryEnabled = false;
+
+    // Détection de séquence (Viterbi) au décodage
+    private boolean sequenceDetectionEnabled = false;
+
+    // Codage de canal : bits utiles -> bits émis
+    private ChannelCoder.FecType fecType = ChannelCoder.FecType.NONE;
+    private ChannelCoder channelCoder;
+    private boolean[] transmittedBits;
+
+    // Égaliseur adaptatif (désactivé par défaut)
+    private boolean equalizerEnabled = false;
+    private Equalizer.Algorithm equalizerAlgorithm = Equalizer.Algorithm.NLMS;
+    private Equalizer.Structure equalizerStructure = Equalizer.Structure.DECISION_FEEDBACK;
+    private int equalizerForwardTaps = 11;
+    private int equalizerFeedbackTaps = 4;
+    private int equalizerTapsPerSymbol = 2;
+    private double equalizerStepSize = 0.05;
+    private int equalizerTrainingLength = 256; // symboles connus en début de trame
+
+    // Reproductibilité : graine maîtresse, graine de la séquence courante (null = aléatoire)
+    private Long seed;
+    private java.util.Random seedSource;
+    private Long sequenceSeed;
+
+    // Cache de résultats (actif pour les séquences issues d'une graine)
+    private ResultCache resultCache;
+    private boolean cacheSignals = true;
+    private static String codeVersion;
+
+    // Capture des signaux intermédiaires sur disque
+    private SignalCapture signalCapture;
+    private boolean complexChain;
+
+    // Magasin des résultats par essai, et durées des étages de la dernière simulation
+    private ResultStore resultStore;
+    private ResultStore.Record trialRecord;
+    private long transmitNanos;
+    private long channelNanos;
+    private long receiveNanos;
     
     // Variables pour stocker les métriques d'analyse
     private double effectiveSNR;
     private double noiseMargin;
     private double eyeOpening;
     private EyePatternMetrics eyeMetrics;
+    private long codeViolations;
 
     // Paramètres constants
     private static final int SAMPLES_PER_SYMBOL = 8;
@@ -49,8 +133,95 @@ public class TransmissionController {
      * @param length Longueur de la séquence
      */
     public void generateRandomSequence(int length) {
+        if (seedSource != null) {
+            generateRandomSequence(length, seedSource.nextLong());
+            return;
+        }
         inputSequence = new BinarySequence(length);
         inputSequence.generateRandom();
+        sequenceSeed = null;
+    }
+
+    /**
+     * Génère une séquence reproductible. Le bruit du canal est alors dérivé de cette
+     * graine et du SNR : une même configuration redonne le même résultat.
+     */
+    public void generateRandomSequence(int length, long sequenceSeed) {
+        inputSequence = new BinarySequence(length);
+        inputSequence.generateRandom(sequenceSeed);
+        this.sequenceSeed = sequenceSeed;
+    }
+
+    /**
+     * Fixe la graine maîtresse des séquences générées (null = tirages non reproductibles)
+     */
+    public void setSeed(Long seed) {
+        this.seed = seed;
+        this.seedSource = seed != null ? new java.util.Random(seed) : null;
+    }
+
+    /**
+     * Associe un cache de résultats. Seules les simulations d'une séquence issue d'une
+     * graine sont mises en cache (clé : configuration complète, graine, version du code).
+     * @param cacheSignals Conserve aussi les signaux intermédiaires (affichage) ;
+     *                     sinon seuls le BER et les métriques sont conservés
+     */
+    public void setResultCache(ResultCache resultCache, boolean cacheSignals) {
+        this.resultCache = resultCache;
+        this.cacheSignals = cacheSignals;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Choisit la précision des échantillons (voir {@link Precision})
+     */
+    public void setPrecision(Precision precision) {
+        this.precision = precision;
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Vrai si la simulation de cette chaîne s'exécute en simple précision
+     */
+    private boolean usesSinglePrecision(Modulator.ModulationType modulationType) {
+        return precision == Precision.FLOAT && !Modulator.isComplex(modulationType) && !passbandEnabled
+                && channelType != Channel.NoiseType.MULTIPATH;
+    }
+
+    /**
+     * Convertit en double les étages calculés en simple précision (affichage, cache, capture)
+     */
+    private void widenSignals() {
+        if (filteredSignal32 != null) {
+            filteredSignal = SignalKernels.widen(filteredSignal32);
+            modulatedSignal = SignalKernels.widen(modulatedSignal32);
+            noisySignal = SignalKernels.widen(noisySignal32);
+            demodulatedSignal = SignalKernels.widen(demodulatedSignal32);
+            filteredSignal32 = modulatedSignal32 = noisySignal32 = demodulatedSignal32 = null;
+        }
+    }
+
+    /**
+     * Associe un magasin de résultats : chaque essai des campagnes de BER
+     * ({@link #runPerformanceTest}, {@link SweepJob}) y est ajouté (null = aucun)
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Enregistre les étages choisis de chaque simulation dans des fichiers projetés en mémoire
+     * (null = pas de capture). Chaîne complexe : les symboles, le signal bruité et les symboles
+     * récupérés sont capturés sur deux voies I/Q, les autres étages sur la voie I.
+     */
+    public void setSignalCapture(SignalCapture signalCapture) {
+        this.signalCapture = signalCapture;
     }
 
     /**
@@ -60,62 +231,184 @@ public class TransmissionController {
             TransmissionFilter.FilterType filterType,
             Modulator.ModulationType modulationType,
             double snr) {
-        
-        int effectiveSamplesPerSymbol = SAMPLES_PER_SYMBOL;
-        if(encodingType == LineEncoder.EncodingType.MANCHESTER) {
-            effectiveSamplesPerSymbol = SAMPLES_PER_SYMBOL * 2;
-        }
+        runSimulation(sequenceLength, encodingType, filterType, modulationType, snr, false);
+    }
+
+    /**
+     * @param needSignals Les signaux intermédiaires sont exploités après la simulation :
+     *                    une entrée du cache enregistrée sans signaux est alors recalculée
+     */
+    private void runSimulation(int sequenceLength, LineEncoder.EncodingType encodingType,
+            TransmissionFilter.FilterType filterType,
+            Modulator.ModulationType modulationType,
+            double snr, boolean needSignals) {
 
         // Génération de la séquence d'entrée si nécessaire
         if (inputSequence == null || inputSequence.getLength() != sequenceLength) {
             generateRandomSequence(sequenceLength);
         }
 
+        complexChain = Modulator.isComplex(modulationType);
+        String cacheKey = resultCache != null && sequenceSeed != null
+                ? simulationKey(encodingType, filterType, modulationType, snr) : null;
+        if (cacheKey != null) {
+            ResultCache.Entry cached = resultCache.get(cacheKey);
+            if (cached != null && (cached.hasSignals() || !(cacheSignals || needSignals))) {
+                transmitNanos = channelNanos = receiveNanos = 0;
+                filteredSignal32 = modulatedSignal32 = noisySignal32 = demodulatedSignal32 = null;
+                restoreFromCache(cached, encodingType, modulationType);
+                captureSignals();
+                return;
+            }
+        }
+
+        executeSimulation(encodingType, filterType, modulationType, snr);
+
+        if (cacheKey != null) {
+            resultCache.put(cacheKey, captureForCache(Modulator.isComplex(modulationType)));
+        }
+        captureSignals();
+    }
+
+    private void captureSignals() {
+        if (signalCapture == null) {
+            return;
+        }
+        try {
+            for (CaptureHeader.Stage stage : CaptureHeader.Stage.values()) {
+                if (!signalCapture.isCaptured(stage)) {
+                    continue;
+                }
+                ComplexSignal iq = complexStageSignal(stage);
+                if (iq != null) {
+                    signalCapture.record(stage, iq);
+                } else {
+                    signalCapture.record(stage, realStageSignal(stage));
+                }
+            }
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException("Échec de la capture des signaux", e);
+        }
+    }
+
+    private void executeSimulation(LineEncoder.EncodingType encodingType,
+            TransmissionFilter.FilterType filterType,
+            Modulator.ModulationType modulationType,
+            double snr) {
+
         // Initialisation de la séquence de sortie
+        long start = System.nanoTime();
         outputSequence = new BinarySequence(inputSequence.getLength());
+
+        filteredSignal32 = modulatedSignal32 = noisySignal32 = demodulatedSignal32 = null;
+
+        // Codage de canal (identité sans FEC)
+        channelCoder = new ChannelCoder(fecType);
+        transmittedBits = channelCoder.encode(inputSequence.getBits());
+
+        // QPSK/QAM : chaîne complexe I/Q (la constellation remplace le codage en ligne)
+        if (Modulator.isComplex(modulationType)) {
+            runComplexSimulation(filterType, modulationType, snr, start);
+            return;
+        }
         
-        // Encodage en ligne
-        LineEncoder lineEncoder = new LineEncoder(encodingType);
-        encodedSignal = lineEncoder.encode(inputSequence.getBits());
+        // Encodage en ligne et filtrage d'émission fusionnés (rectangulaire, ou filtre
+        // simplifié pour RC et RRC) : les symboles ne sont recalculés que pour l'affichage
+        this.encodingType = encodingType;
+        encodedSignal = null;
+        ShapedSymbolGenerator txGenerator = new ShapedSymbolGenerator(encodingType, filterType,
+                SAMPLES_PER_SYMBOL, ROLL_OFF);
+        ReceptionFilter rxFilter = new ReceptionFilter(filterType, SAMPLES_PER_SYMBOL, ROLL_OFF);
+        rxFilter.setEncodingType(encodingType);
+        long transmitted;
+        long received;
 
-        // Filtrage d'émission
-        if (filterType == TransmissionFilter.FilterType.RECTANGULAR) {
-            TransmissionFilter txFilter = new TransmissionFilter(filterType, SAMPLES_PER_SYMBOL, ROLL_OFF);
-            filteredSignal = txFilter.filter(encodedSignal);
+        if (usesSinglePrecision(modulationType)) {
+            // Étages au rythme d'échantillonnage en float ; conversion en double après le
+            // filtrage de réception (diagramme de l'œil, horloge et décision en double)
+            filteredSignal = modulatedSignal = noisySignal = demodulatedSignal = null;
+            filteredSignal32 = txGenerator.generateFloat(transmittedBits);
+            modulatedSignal32 = new Modulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE)
+                    .modulate(filteredSignal32);
+            transmitted = System.nanoTime();
+
+            Channel channel = new Channel(channelType, snr);
+            if (sequenceSeed != null) {
+                channel.setSeed(noiseSeed(snr));
+            }
+            noisySignal32 = channel.transmit(modulatedSignal32);
+            effectiveSNR = SignalAnalyzer.calculateEffectiveSNR(modulatedSignal32, noisySignal32);
+            received = System.nanoTime();
+
+            demodulatedSignal32 = new Demodulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE)
+                    .demodulate(noisySignal32);
+            rxFilteredSignal = SignalKernels.widen(rxFilter.filter(demodulatedSignal32));
         } else {
-            // Utiliser le filtre simplifié pour RC et RRC
-            SimplifiedRaisedCosineFilter txFilter = new SimplifiedRaisedCosineFilter(SAMPLES_PER_SYMBOL, ROLL_OFF);
-            filteredSignal = txFilter.filterWithEnergyPreservation(encodedSignal);
-        }
+            filteredSignal = txGenerator.generate(transmittedBits);
 
-        // Modulation
-        Modulator modulator = new Modulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
-        modulatedSignal = modulator.modulate(filteredSignal);
+            // Modulation
+            Modulator modulator = new Modulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
+            modulator.setPassband(passbandEnabled);
+            if (passbandEnabled) {
+                modulator.setCarrierOffset(carrierFrequencyOffset, carrierPhaseOffset);
+            }
+            modulatedSignal = modulator.modulate(filteredSignal);
+            transmitted = System.nanoTime();
 
-        // Canal de propagation
-        Channel channel = new Channel(Channel.NoiseType.AWGN, snr);
-        noisySignal = channel.transmit(modulatedSignal);
-        
-        // SNR effectif
-        effectiveSNR = SignalAnalyzer.calculateEffectiveSNR(modulatedSignal, noisySignal);
+            // Canal de propagation
+            Channel channel = new Channel(channelType, snr);
+            if (sequenceSeed != null) {
+                channel.setSeed(noiseSeed(snr));
+            }
+            if (channelType == Channel.NoiseType.MULTIPATH && multipathProfile != null) {
+                channel.setMultipathProfile(multipathProfile, SAMPLE_RATE);
+            }
+            noisySignal = channel.transmit(modulatedSignal);
 
-        // Démodulation
-        Demodulator demodulator = new Demodulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
-        demodulatedSignal = demodulator.demodulate(noisySignal);
+            // SNR effectif
+            effectiveSNR = SignalAnalyzer.calculateEffectiveSNR(modulatedSignal, noisySignal);
+            received = System.nanoTime();
 
-        // Filtrage de réception
-        ReceptionFilter rxFilter = new ReceptionFilter(filterType, SAMPLES_PER_SYMBOL, ROLL_OFF);
-        rxFilter.setEncodingType(encodingType);
-        rxFilteredSignal = rxFilter.filter(demodulatedSignal);
+            // Démodulation
+            Demodulator demodulator = new Demodulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
+            demodulator.setPassband(passbandEnabled);
+            demodulator.setCarrierRecoveryEnabled(passbandEnabled && carrierRecoveryEnabled);
+            demodulatedSignal = demodulator.demodulate(noisySignal);
+
+            // Filtrage de réception
+            rxFilteredSignal = rxFilter.filter(demodulatedSignal);
+        }
         
         // Analyse du diagramme de l'œil
         eyeMetrics = SignalAnalyzer.analyzeEyePattern(rxFilteredSignal, SAMPLES_PER_SYMBOL);
         eyeOpening = eyeMetrics.maxOpening;
 
+        // Égalisation (l'instant de décision est celui du diagramme de l'œil)
+        double[] decisionSignal = rxFilteredSignal;
+        equalizedSignal = null;
+        if (equalizerEnabled) {
+            Equalizer equalizer = createEqualizer(encodingType);
+            equalizer.setSamplingOffset(eyeMetrics.bestSamplingPoint);
+            // Préambule d'apprentissage : les premiers symboles émis sont supposés connus
+            double[] symbols = getEncodedSignal();
+            equalizer.setTrainingSymbols(java.util.Arrays.copyOf(symbols,
+                    Math.min(equalizerTrainingLength, symbols.length)));
+            equalizedSignal = equalizer.process(rxFilteredSignal);
+            decisionSignal = equalizedSignal;
+
+            eyeMetrics = SignalAnalyzer.analyzeEyePattern(equalizedSignal, SAMPLES_PER_SYMBOL);
+            eyeOpening = eyeMetrics.maxOpening;
+        }
+
         // Récupération d'horloge
         ClockRecovery clockRecovery = new ClockRecovery(SAMPLES_PER_SYMBOL);
         clockRecovery.setDebugMode(false); // Désactiver le mode debug
-        recoveredSignal = clockRecovery.recover(rxFilteredSignal);
+        if (passbandEnabled) {
+            // Le passe-bas du démodulateur aplatit les paliers : l'instant optimal
+            // du diagramme de l'œil est plus fiable que la recherche sur les paliers
+            clockRecovery.setSamplingOffset(eyeMetrics.bestSamplingPoint);
+        }
+        recoveredSignal = clockRecovery.recover(decisionSignal);
         
         // Calcul de la marge de bruit
         noiseMargin = SignalAnalyzer.calculateNoiseMargin(recoveredSignal, THRESHOLD);
@@ -123,20 +416,315 @@ public class TransmissionController {
         // Configuration du décodeur
         decoder.setModulationType(modulationType);
         decoder.setEncodingType(encodingType);
+        decoder.setSequenceDetection(sequenceDetectionEnabled, 64);
         
         // Décodage
         boolean[] decodedBits = decoder.decode(recoveredSignal);
+        codeViolations = decoder.getCodeViolations();
 
         // Ajustement de la taille si nécessaire
-        if (decodedBits.length != inputSequence.getLength()) {
-            boolean[] resizedBits = new boolean[inputSequence.getLength()];
-            int minLength = Math.min(decodedBits.length, inputSequence.getLength());
-            System.arraycopy(decodedBits, 0, resizedBits, 0, minLength);
-            decodedBits = resizedBits;
+        if (decodedBits.length != transmittedBits.length) {
+            decodedBits = java.util.Arrays.copyOf(decodedBits, transmittedBits.length);
+        }
+
+        // Décodage de canal : décisions souples du décodeur pour le code convolutif
+        if (fecType == ChannelCoder.FecType.CONVOLUTIONAL) {
+            double[] llr = new double[Math.max(decoder.softOutputLength(recoveredSignal.length),
+                                               transmittedBits.length)];
+            decoder.decodeSoft(recoveredSignal, llr);
+            decodedBits = channelCoder.decodeSoft(java.util.Arrays.copyOf(llr, transmittedBits.length),
+                                                  inputSequence.getLength());
+        } else {
+            decodedBits = channelCoder.decode(decodedBits, inputSequence.getLength());
         }
 
         // Mise à jour de la séquence de sortie
         outputSequence.setBits(decodedBits);
+        setStageTimings(start, transmitted, received);
+    }
+
+    private void setStageTimings(long start, long transmitted, long received) {
+        transmitNanos = transmitted - start;
+        channelNanos = received - transmitted;
+        receiveNanos = System.nanoTime() - received;
+    }
+
+    /**
+     * Chaîne complexe en bande de base pour QPSK/16-QAM/64-QAM.
+     * Les getters réels exposent la voie I des signaux intermédiaires.
+     */
+    private void runComplexSimulation(TransmissionFilter.FilterType filterType,
+                                      Modulator.ModulationType modulationType, double snr, long start) {
+        boolean[] bits = transmittedBits;
+
+        // Modulation numérique : bits -> symboles I/Q
+        Modulator modulator = new Modulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
+        complexSymbols = modulator.modulate(bits);
+        encodedSignal = complexSymbols.getReal();
+
+        // Filtrage d'émission (mise en forme sur chaque voie)
+        TransmissionFilter txFilter = new TransmissionFilter(filterType, SAMPLES_PER_SYMBOL, ROLL_OFF);
+        ComplexSignal shaped = txFilter.filter(complexSymbols);
+        filteredSignal = shaped.getReal();
+        modulatedSignal = filteredSignal;
+        long transmitted = System.nanoTime();
+
+        // Canal : bruit blanc gaussien complexe
+        Channel channel = new Channel(channelType, snr);
+        if (sequenceSeed != null) {
+            channel.setSeed(noiseSeed(snr));
+        }
+        channel.setCarrierOffset(carrierFrequencyOffset, carrierPhaseOffset, SAMPLE_RATE);
+        complexNoisySignal = channel.transmit(shaped);
+        noisySignal = complexNoisySignal.getReal();
+        effectiveSNR = SignalAnalyzer.calculateEffectiveSNR(shaped, complexNoisySignal);
+        long received = System.nanoTime();
+
+        // Démodulation et filtrage adapté
+        Demodulator demodulator = new Demodulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
+        ComplexSignal baseband = demodulator.demodulate(complexNoisySignal);
+        demodulatedSignal = baseband.getReal();
+
+        ReceptionFilter rxFilter = new ReceptionFilter(filterType, SAMPLES_PER_SYMBOL, ROLL_OFF);
+        ComplexSignal rxFiltered = rxFilter.filter(baseband);
+        rxFilteredSignal = rxFiltered.getReal();
+        equalizedSignal = null;
+
+        eyeMetrics = SignalAnalyzer.analyzeEyePattern(rxFilteredSignal, SAMPLES_PER_SYMBOL);
+        eyeOpening = eyeMetrics.maxOpening;
+
+        // Récupération d'horloge sur les deux voies
+        ClockRecovery clockRecovery = new ClockRecovery(SAMPLES_PER_SYMBOL);
+        clockRecovery.setDebugMode(false);
+        complexRecoveredSignal = clockRecovery.recover(rxFiltered);
+        if (carrierRecoveryEnabled) {
+            demodulator.setCarrierLoopBandwidth(0.02);
+            demodulator.setCarrierRecoveryEnabled(true);
+            complexRecoveredSignal = demodulator.recoverCarrier(complexRecoveredSignal);
+        }
+        recoveredSignal = complexRecoveredSignal.getReal();
+        noiseMargin = SignalAnalyzer.calculateNoiseMargin(recoveredSignal, THRESHOLD);
+
+        // Démappage
+        decoder.setModulationType(modulationType);
+        boolean[] decodedBits = decoder.decode(complexRecoveredSignal, bits.length);
+        codeViolations = 0;
+        outputSequence.setBits(channelCoder.decode(decodedBits, inputSequence.getLength()));
+        setStageTimings(start, transmitted, received);
+    }
+
+    /**
+     * Clé de cache : tout ce qui influe sur le résultat d'une simulation
+     */
+    private String simulationKey(LineEncoder.EncodingType encodingType, TransmissionFilter.FilterType filterType,
+                                 Modulator.ModulationType modulationType, double snr) {
+        return ResultCache.key("simulation", configurationKey(encodingType, filterType, modulationType),
+                sequenceSeed, inputSequence.getLength(), snr);
+    }
+
+    /**
+     * Empreinte de la configuration de la chaîne et de la version du code
+     * (hors séquence et SNR)
+     */
+    String configurationKey(LineEncoder.EncodingType encodingType, TransmissionFilter.FilterType filterType,
+                            Modulator.ModulationType modulationType) {
+        String multipath = "";
+        if (channelType == Channel.NoiseType.MULTIPATH && multipathProfile != null) {
+            multipath = multipathProfile.getName() + java.util.Arrays.toString(multipathProfile.getSampleDelays(SAMPLE_RATE))
+                    + java.util.Arrays.toString(multipathProfile.getSamplePowers(SAMPLE_RATE))
+                    + multipathProfile.getDopplerSpectrum() + multipathProfile.getDopplerFrequency();
+        }
+        return ResultCache.key("configuration", codeVersion(),
+                encodingType, filterType, modulationType, channelType, multipath,
+                SAMPLES_PER_SYMBOL, ROLL_OFF, CARRIER_FREQUENCY, SAMPLE_RATE,
+                passbandEnabled, carrierFrequencyOffset, carrierPhaseOffset, carrierRecoveryEnabled,
+                sequenceDetectionEnabled, fecType,
+                equalizerEnabled, equalizerAlgorithm, equalizerStructure, equalizerForwardTaps,
+                equalizerFeedbackTaps, equalizerTapsPerSymbol, equalizerStepSize, equalizerTrainingLength,
+                usesSinglePrecision(modulationType) ? Precision.FLOAT : Precision.DOUBLE);
+    }
+
+    /**
+     * Version du code : empreinte du bytecode de tous les étages de la chaîne
+     */
+    private static synchronized String codeVersion() {
+        if (codeVersion == null) {
+            codeVersion = ResultCache.codeFingerprint(TransmissionController.class, BinarySequence.class,
+                    ChannelCoder.class, LineEncoder.class, ShapedSymbolGenerator.class,
+                    SimplifiedRaisedCosineFilter.class, TransmissionFilter.class, Modulator.class,
+                    ConstellationMapper.class, Nco.class, Channel.class, MultipathFading.class,
+                    MultipathProfile.class, Demodulator.class, CarrierRecovery.class, ReceptionFilter.class,
+                    Equalizer.class, ClockRecovery.class, Decoder.class, SequenceDetector.class,
+                    SignalAnalyzer.class, BitPacker.class, ComplexSignal.class);
+        }
+        return codeVersion;
+    }
+
+    private long noiseSeed(double snr) {
+        return mixSeed(sequenceSeed ^ mixSeed(Double.doubleToLongBits(snr)));
+    }
+
+    /**
+     * Graine de la séquence d'un essai : ne dépend que de la graine de la campagne, de la
+     * modulation, du SNR et du rang de l'essai, pas de l'ordre d'exécution
+     */
+    static long trialSeed(long seed, Modulator.ModulationType modulationType, double snr, long trial) {
+        return mixSeed(mixSeed(mixSeed(seed + modulationType.ordinal()) + Double.doubleToLongBits(snr)) + trial);
+    }
+
+    /**
+     * Mélangeur SplitMix64 : graines dérivées décorrélées
+     */
+    private static long mixSeed(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private ResultCache.Entry captureForCache(boolean complex) {
+        ResultCache.Entry entry = new ResultCache.Entry();
+        boolean[] output = outputSequence.getBits();
+        entry.outputLength = output.length;
+        entry.outputBits = BitPacker.pack(output);
+        entry.effectiveSNR = effectiveSNR;
+        entry.noiseMargin = noiseMargin;
+        entry.eyeOpening = eyeOpening;
+        entry.eyeMetrics = new double[]{eyeMetrics.maxOpening, eyeMetrics.minOpening, eyeMetrics.bestSamplingPoint,
+                eyeMetrics.minHighLevel, eyeMetrics.maxLowLevel, eyeMetrics.jitter};
+        entry.codeViolations = codeViolations;
+        if (cacheSignals) {
+            widenSignals();
+            entry.filteredSignal = filteredSignal;
+            entry.modulatedSignal = modulatedSignal;
+            entry.noisySignal = noisySignal;
+            entry.demodulatedSignal = demodulatedSignal;
+            entry.rxFilteredSignal = rxFilteredSignal;
+            entry.equalizedSignal = equalizedSignal;
+            entry.recoveredSignal = recoveredSignal;
+            if (complex) {
+                entry.complexNoisyImag = complexNoisySignal.getImag();
+                entry.complexRecoveredImag = complexRecoveredSignal.getImag();
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Rétablit l'état de fin de simulation depuis le cache. Les étapes déterministes
+     * et peu coûteuses (codage de canal, symboles émis) sont recalculées.
+     */
+    private void restoreFromCache(ResultCache.Entry cached, LineEncoder.EncodingType encodingType,
+                                  Modulator.ModulationType modulationType) {
+        channelCoder = new ChannelCoder(fecType);
+        transmittedBits = channelCoder.encode(inputSequence.getBits());
+        outputSequence = new BinarySequence(cached.outputLength);
+        outputSequence.setBits(BitPacker.unpack(cached.outputBits, cached.outputLength));
+
+        boolean complex = Modulator.isComplex(modulationType);
+        this.encodingType = complex ? null : encodingType;
+        encodedSignal = null;
+        complexSymbols = null;
+        if (complex) {
+            complexSymbols = new Modulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE).modulate(transmittedBits);
+            encodedSignal = complexSymbols.getReal();
+        }
+
+        filteredSignal = cached.filteredSignal;
+        modulatedSignal = cached.modulatedSignal;
+        noisySignal = cached.noisySignal;
+        demodulatedSignal = cached.demodulatedSignal;
+        rxFilteredSignal = cached.rxFilteredSignal;
+        equalizedSignal = cached.equalizedSignal;
+        recoveredSignal = cached.recoveredSignal;
+        complexNoisySignal = cached.complexNoisyImag != null
+                ? new ComplexSignal(cached.noisySignal, cached.complexNoisyImag) : null;
+        complexRecoveredSignal = cached.complexRecoveredImag != null
+                ? new ComplexSignal(cached.recoveredSignal, cached.complexRecoveredImag) : null;
+
+        effectiveSNR = cached.effectiveSNR;
+        noiseMargin = cached.noiseMargin;
+        eyeOpening = cached.eyeOpening;
+        double[] eye = cached.eyeMetrics;
+        eyeMetrics = new EyePatternMetrics(eye[0], eye[1], (int) eye[2], eye[3], eye[4], eye[5]);
+        codeViolations = cached.codeViolations;
+    }
+
+    /**
+     * Ajoute l'essai qui vient d'être simulé au magasin de résultats, s'il y en a un
+     * (graine 0 pour une séquence non reproductible)
+     */
+    void recordTrial(LineEncoder.EncodingType encodingType, TransmissionFilter.FilterType filterType,
+                     Modulator.ModulationType modulationType, double snr, long trial) {
+        if (resultStore == null) {
+            return;
+        }
+        if (trialRecord == null) {
+            trialRecord = new ResultStore.Record();
+        }
+        ResultStore.Record record = trialRecord;
+        record.configuration = resultStore.configurationId(describeConfiguration(encodingType, filterType,
+                                                                                 modulationType));
+        record.snr = snr;
+        record.trial = trial;
+        record.seed = sequenceSeed != null ? sequenceSeed : 0;
+        record.bits = inputSequence.getLength();
+        record.errors = countBitErrors();
+        record.effectiveSnr = effectiveSNR;
+        record.eyeOpening = eyeOpening;
+        record.noiseMargin = noiseMargin;
+        record.jitter = eyeMetrics != null ? eyeMetrics.jitter : Double.NaN;
+        record.samplingPoint = eyeMetrics != null ? eyeMetrics.bestSamplingPoint : -1;
+        record.transmitNanos = transmitNanos;
+        record.channelNanos = channelNanos;
+        record.receiveNanos = receiveNanos;
+        try {
+            resultStore.append(record);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException("Échec de l'écriture du magasin de résultats", e);
+        }
+    }
+
+    /**
+     * Description lisible de la configuration, suivie de son empreinte
+     */
+    private String describeConfiguration(LineEncoder.EncodingType encodingType,
+                                         TransmissionFilter.FilterType filterType,
+                                         Modulator.ModulationType modulationType) {
+        StringBuilder description = new StringBuilder();
+        if (!Modulator.isComplex(modulationType)) {
+            description.append(encodingType).append('/');
+        }
+        description.append(filterType).append('/').append(modulationType).append(' ').append(channelType);
+        if (channelType == Channel.NoiseType.MULTIPATH && multipathProfile != null) {
+            description.append('(').append(multipathProfile.getName()).append(')');
+        }
+        if (passbandEnabled) {
+            description.append(" passband");
+        }
+        if (fecType != ChannelCoder.FecType.NONE) {
+            description.append(' ').append(fecType);
+        }
+        if (equalizerEnabled) {
+            description.append(" eq=").append(equalizerAlgorithm).append('/').append(equalizerStructure);
+        }
+        return description.append(" #")
+                          .append(configurationKey(encodingType, filterType, modulationType), 0, 12).toString();
+    }
+
+    /**
+     * Nombre de bits d'entrée différents de la sortie (bits manquants comptés en erreur)
+     */
+    long countBitErrors() {
+        boolean[] input = inputSequence.getBits();
+        boolean[] output = outputSequence.getBits();
+        long errors = 0;
+        for (int i = 0; i < input.length; i++) {
+            if (i >= output.length || input[i] != output[i]) {
+                errors++;
+            }
+        }
+        return errors;
     }
 
     /**
@@ -164,26 +752,741 @@ public class TransmissionController {
         LineEncoder.EncodingType encoding = LineEncoder.EncodingType.NRZ;
         TransmissionFilter.FilterType filter = TransmissionFilter.FilterType.RECTANGULAR;
         
-        for (int i = 0; i < snrValues.length; i++) {
-            double snr = snrValues[i];
-            double totalBER = 0;
-            int numTrials = 5;
-            
-            for (int trial = 0; trial < numTrials; trial++) {
+        // Points de courbe : BER seul en cache, graines indépendantes de l'historique
+        boolean storeSignals = cacheSignals;
+        cacheSignals = false;
+        try {
+            for (int i = 0; i < snrValues.length; i++) {
+                double snr = snrValues[i];
+                double totalBER = 0;
+                int numTrials = 5;
+                
+                for (int trial = 0; trial < numTrials; trial++) {
+                    if (seed != null) {
+                        generateRandomSequence(sequenceLength, trialSeed(seed, modulationType, snr, trial));
+                    } else {
+                        generateRandomSequence(sequenceLength);
+                    }
+                    runSimulation(sequenceLength, encoding, filter, modulationType, snr);
+                    recordTrial(encoding, filter, modulationType, snr, trial);
+                    double ber = calculateBER();
+                    totalBER += ber;
+                }
+                
+                double avgBER = totalBER / numTrials;
+                results[i][0] = snr;
+                results[i][1] = avgBER;
+            }
+        } finally {
+            cacheSignals = storeSignals;
+        }
+        
+        return results;
+    }
+
+    /**
+     * Évaluation semi-analytique du BER pour une chaîne linéaire NRZ sur canal AWGN.
+     * La chaîne est exécutée une seule fois sans bruit ; pour chaque SNR, la variance du
+     * bruit au point de décision est calculée (puissance du signal émis / SNR, multipliée
+     * par le gain en bruit du filtre de réception) et le BER est la moyenne de
+     * Q(d_i / σ) sur les distances d_i des échantillons au seuil de décision.
+     * @param crossCheck Ajoute une colonne Monte Carlo (runSimulation au même SNR)
+     * @return Tableau [SNR, BER semi-analytique] ou [SNR, BER semi-analytique, BER Monte Carlo]
+     */
+    public double[][] runSemiAnalyticPerformanceTest(Modulator.ModulationType modulationType,
+                                                     TransmissionFilter.FilterType filterType,
+                                                     int sequenceLength, double[] snrValues,
+                                                     boolean crossCheck) {
+        NoiselessReference reference = runNoiselessReference(modulationType, filterType, sequenceLength);
+        
+        double[][] results = new double[snrValues.length][crossCheck ? 3 : 2];
+        for (int k = 0; k < snrValues.length; k++) {
+            results[k][0] = snrValues[k];
+            results[k][1] = reference.semiAnalyticBer(snrValues[k]);
+        }
+        
+        if (crossCheck) {
+            for (int k = 0; k < snrValues.length; k++) {
                 generateRandomSequence(sequenceLength);
-                runSimulation(sequenceLength, encoding, filter, modulationType, snr);
-                double ber = calculateBER();
-                totalBER += ber;
+                runSimulation(sequenceLength, LineEncoder.EncodingType.NRZ, filterType, modulationType, snrValues[k]);
+                results[k][2] = calculateBER();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Estimation du BER par échantillonnage d'importance (translation de moyenne) pour les
+     * très faibles taux d'erreur, sur la même chaîne linéaire NRZ/AWGN que le mode semi-analytique.
+     *
+     * Un bit sur {@code stride} est visé : le bruit des échantillons qui contribuent à sa
+     * décision est décalé vers le seuil (direction du filtre de réception, amplitude telle
+     * que le bruit au point de décision soit centré sur le seuil). Une erreur sur un bit visé
+     * compte pour le rapport de vraisemblance de ces échantillons, fourni par le canal.
+     * Les bits visés sont assez espacés pour que leurs supports ne se recouvrent pas ; la
+     * phase des bits visés tourne d'une passe à l'autre pour couvrir toute la séquence.
+     * Les cycles de passes sont répétés jusqu'à une erreur relative de 5 % (au plus maxPasses).
+     *
+     * @return Tableau [SNR, BER estimé, erreur relative (écart-type / BER), BER semi-analytique]
+     */
+    public double[][] runImportanceSamplingTest(Modulator.ModulationType modulationType,
+                                                TransmissionFilter.FilterType filterType,
+                                                int sequenceLength, double[] snrValues, int maxPasses) {
+        NoiselessReference reference = runNoiselessReference(modulationType, filterType, sequenceLength);
+        double[] cleanSignal = modulatedSignal;
+        
+        Demodulator demodulator = new Demodulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
+        demodulator.setPassband(false);
+        ReceptionFilter rxFilter = new ReceptionFilter(filterType, SAMPLES_PER_SYMBOL, ROLL_OFF);
+        rxFilter.setEncodingType(LineEncoder.EncodingType.NRZ);
+        double[] coefficients = reference.coefficients;
+        int firstOffset = reference.firstOffset;
+        int lastOffset = firstOffset + coefficients.length - 1;
+        int stride = coefficients.length / SAMPLES_PER_SYMBOL + 2;
+        
+        // Symboles visés, par phase : une passe sur stride vise les symboles i ≡ phase (mod stride)
+        int[][] targets = new int[stride][];
+        for (int phase = 0; phase < stride; phase++) {
+            int[] list = new int[reference.distances.length / stride + 1];
+            int size = 0;
+            for (int i = phase; i < reference.distances.length; i += stride) {
+                if (i * SAMPLES_PER_SYMBOL + reference.samplingOffset < cleanSignal.length) {
+                    list[size++] = i;
+                }
             }
+            targets[phase] = java.util.Arrays.copyOf(list, size);
+        }
+        
+        double[][] results = new double[snrValues.length][4];
+        double[] meanShift = new double[cleanSignal.length];
+        for (int k = 0; k < snrValues.length; k++) {
+            double sigma = Math.sqrt(reference.signalPower / Math.pow(10, snrValues[k] / 10));
             
-            double avgBER = totalBER / numTrials;
-            results[i][0] = snr;
-            results[i][1] = avgBER;
+            Channel channel = new Channel(Channel.NoiseType.AWGN, snrValues[k]);
+            double sum = 0;
+            double sumSquares = 0;
+            long trials = 0;
+            double relativeError = Double.POSITIVE_INFINITY;
+            // Arrêt évalué à la fin d'un cycle complet de phases (tous les bits visés)
+            for (int pass = 0; pass < maxPasses
+                    && (pass % stride != 0 || pass == 0 || relativeError > 0.05); pass++) {
+                int[] phaseTargets = targets[pass % stride];
+                
+                // Décalages en écarts-types du bruit : Σ c_e·m_e·σ = -s_i·d_i
+                java.util.Arrays.fill(meanShift, 0.0);
+                for (int i : phaseTargets) {
+                    double distance = reference.distances[i];
+                    if (distance <= 0) {
+                        continue;
+                    }
+                    // Support tronqué aux bords du signal
+                    int t = i * SAMPLES_PER_SYMBOL + reference.samplingOffset;
+                    int from = Math.max(firstOffset, -t);
+                    int to = Math.min(lastOffset, cleanSignal.length - 1 - t);
+                    double sign = reference.bits[i] ? 1.0 : -1.0;
+                    double scale = -sign * distance / (sigma * reference.noiseGains[i]);
+                    for (int e = from; e <= to; e++) {
+                        meanShift[t + e] = scale * coefficients[e - firstOffset];
+                    }
+                }
+                channel.setImportanceSampling(meanShift);
+                
+                double[] received = rxFilter.filter(demodulator.demodulate(channel.transmit(cleanSignal)));
+                double[] logRatios = channel.getLogLikelihoodRatios();
+                for (int i : phaseTargets) {
+                    int t = i * SAMPLES_PER_SYMBOL + reference.samplingOffset;
+                    double margin = received[t] - reference.threshold;
+                    if (reference.bits[i] ? margin < 0 : margin >= 0) {
+                        double logWeight = 0;
+                        int to = Math.min(lastOffset, cleanSignal.length - 1 - t);
+                        for (int e = Math.max(firstOffset, -t); e <= to; e++) {
+                            logWeight += logRatios[t + e];
+                        }
+                        double weight = Math.exp(logWeight);
+                        sum += weight;
+                        sumSquares += weight * weight;
+                    }
+                }
+                trials += phaseTargets.length;
+                double mean = sum / trials;
+                relativeError = mean > 0
+                        ? Math.sqrt(Math.max(0, sumSquares / trials - mean * mean) / trials) / mean
+                        : Double.POSITIVE_INFINITY;
+            }
+            
+            results[k][0] = snrValues[k];
+            results[k][1] = trials > 0 ? sum / trials : 0;
+            results[k][2] = relativeError;
+            results[k][3] = reference.semiAnalyticBer(snrValues[k]);
+        }
+        return results;
+    }
+
+    /**
+     * Passe sans bruit commune aux estimateurs semi-analytique et par échantillonnage
+     * d'importance : distances signées des échantillons de décision au seuil.
+     */
+    private NoiselessReference runNoiselessReference(Modulator.ModulationType modulationType,
+                                                     TransmissionFilter.FilterType filterType,
+                                                     int sequenceLength) {
+        if (Modulator.isComplex(modulationType) || modulationType == Modulator.ModulationType.FSK) {
+            throw new IllegalArgumentException("Mode semi-analytique limité à ASK/PSK : " + modulationType);
+        }
+        if (channelType != Channel.NoiseType.AWGN || passbandEnabled || equalizerEnabled
+                || fecType != ChannelCoder.FecType.NONE) {
+            throw new IllegalArgumentException("Mode semi-analytique : chaîne linéaire AWGN sans FEC requise");
+        }
+        LineEncoder.EncodingType encoding = LineEncoder.EncodingType.NRZ;
+        
+        // Passage unique sans bruit (Channel n'ajoute pas de bruit au-delà de 50 dB)
+        generateRandomSequence(sequenceLength);
+        runSimulation(sequenceLength, encoding, filterType, modulationType, Double.POSITIVE_INFINITY, true);
+        widenSignals();
+
+        NoiselessReference reference = new NoiselessReference();
+        reference.bits = transmittedBits;
+        
+        // Sans bruit, les paliers du filtrage rectangulaire rendent la recherche d'horloge
+        // ambiguë : on échantillonne à l'instant optimal du diagramme de l'œil
+        reference.samplingOffset = eyeMetrics.bestSamplingPoint;
+        ClockRecovery idealClock = new ClockRecovery(SAMPLES_PER_SYMBOL);
+        idealClock.setSamplingOffset(reference.samplingOffset);
+        double[] samples = idealClock.recover(rxFilteredSignal);
+        
+        for (double v : modulatedSignal) {
+            reference.signalPower += v * v;
+        }
+        reference.signalPower /= modulatedSignal.length;
+        
+        // Réponse du récepteur (démodulateur + filtre) à une impulsion de bruit :
+        // le bruit de l'échantillon t + e pèse coefficients[e - firstOffset] sur la décision en t
+        Demodulator demodulator = new Demodulator(modulationType, CARRIER_FREQUENCY, SAMPLE_RATE);
+        demodulator.setPassband(false);
+        ReceptionFilter rxFilter = new ReceptionFilter(filterType, SAMPLES_PER_SYMBOL, ROLL_OFF);
+        rxFilter.setEncodingType(encoding);
+        int probeHalf = rxFilter.getImpulseResponse().length + SAMPLES_PER_SYMBOL;
+        double[] impulse = new double[2 * probeHalf + 1];
+        impulse[probeHalf] = 1.0;
+        double[] response = rxFilter.filter(demodulator.demodulate(impulse));
+        double[] offsetResponse = rxFilter.filter(demodulator.demodulate(new double[impulse.length]));
+        int firstOffset = -probeHalf;
+        int lastOffset = probeHalf;
+        while (firstOffset < lastOffset && Math.abs(response[probeHalf - firstOffset]
+                - offsetResponse[probeHalf - firstOffset]) < 1e-12) {
+            firstOffset++;
+        }
+        while (lastOffset > firstOffset && Math.abs(response[probeHalf - lastOffset]
+                - offsetResponse[probeHalf - lastOffset]) < 1e-12) {
+            lastOffset--;
+        }
+        reference.firstOffset = firstOffset;
+        reference.coefficients = new double[lastOffset - firstOffset + 1];
+        for (int e = firstOffset; e <= lastOffset; e++) {
+            reference.coefficients[e - firstOffset] = response[probeHalf - e] - offsetResponse[probeHalf - e];
+        }
+        
+        // Seuil : milieu des deux niveaux moyens (ce que trouve le K-means du décodeur)
+        int count = Math.min(samples.length, reference.bits.length);
+        double sumHigh = 0;
+        double sumLow = 0;
+        int numHigh = 0;
+        for (int i = 0; i < count; i++) {
+            if (reference.bits[i]) {
+                sumHigh += samples[i];
+                numHigh++;
+            } else {
+                sumLow += samples[i];
+            }
         }
+        reference.threshold = 0.5 * (sumHigh / Math.max(1, numHigh) + sumLow / Math.max(1, count - numHigh));
         
+        // Distances signées au seuil (négatives = erreur même sans bruit) et gain en bruit
+        // de chaque décision (Σh², tronquée aux bords du signal)
+        reference.distances = new double[count];
+        reference.noiseGains = new double[count];
+        for (int i = 0; i < count; i++) {
+            reference.distances[i] = reference.bits[i]
+                    ? samples[i] - reference.threshold
+                    : reference.threshold - samples[i];
+            int t = i * SAMPLES_PER_SYMBOL + reference.samplingOffset;
+            int to = Math.min(lastOffset, modulatedSignal.length - 1 - t);
+            for (int e = Math.max(firstOffset, -t); e <= to; e++) {
+                double c = reference.coefficients[e - firstOffset];
+                reference.noiseGains[i] += c * c;
+            }
+        }
+        return reference;
+    }
+
+    private static class NoiselessReference {
+        boolean[] bits;
+        double[] distances;
+        double threshold;
+        int samplingOffset;
+        double[] noiseGains;
+        double signalPower;
+        double[] coefficients;
+        int firstOffset;
+
+        /**
+         * Moyenne des Q(d_i / σ_i) ; les bits non couverts par l'échantillonnage
+         * sont comptés comme des erreurs à 1/2
+         */
+        double semiAnalyticBer(double snr) {
+            double noisePower = signalPower / Math.pow(10, snr / 10);
+            double sum = 0;
+            for (int i = 0; i < distances.length; i++) {
+                sum += BerTheory.q(distances[i] / Math.sqrt(noisePower * noiseGains[i]));
+            }
+            sum += 0.5 * (bits.length - distances.length);
+            return sum / bits.length;
+        }
+    }
+
+    /**
+     * Courbe de performance avec codage de canal : BER sur les bits utiles,
+     * moyenné sur 5 essais par point comme {@link #runPerformanceTest}.
+     * @return Tableau de résultats [SNR, BER codé, BER sans codage]
+     */
+    public double[][] runCodedPerformanceTest(Modulator.ModulationType modulationType,
+                                              ChannelCoder.FecType codedType, int sequenceLength) {
+        double[] snrValues = {-3, 0, 3, 5, 10, 15, 20, 30};
+        double[][] results = new double[snrValues.length][3];
+        ChannelCoder.FecType previous = fecType;
+        
+        LineEncoder.EncodingType encoding = LineEncoder.EncodingType.NRZ;
+        TransmissionFilter.FilterType filter = TransmissionFilter.FilterType.RECTANGULAR;
+        int numTrials = 5;
+        
+        try {
+            for (int i = 0; i < snrValues.length; i++) {
+                double coded = 0;
+                double uncoded = 0;
+                for (int trial = 0; trial < numTrials; trial++) {
+                    generateRandomSequence(sequenceLength);
+                    fecType = codedType;
+                    runSimulation(sequenceLength, encoding, filter, modulationType, snrValues[i]);
+                    coded += calculateBER();
+                    fecType = ChannelCoder.FecType.NONE;
+                    runSimulation(sequenceLength, encoding, filter, modulationType, snrValues[i]);
+                    uncoded += calculateBER();
+                }
+                results[i][0] = snrValues[i];
+                results[i][1] = coded / numTrials;
+                results[i][2] = uncoded / numTrials;
+            }
+        } finally {
+            fecType = previous;
+        }
         return results;
     }
 
+    /**
+     * Compare la chaîne en double et en simple précision ({@link Precision}) sur les mêmes
+     * séquences et les mêmes tirages de bruit : seules les erreurs d'arrondi diffèrent.
+     * Le BER en simple précision est à comparer à l'intervalle de Wilson à 95 % du BER
+     * en double précision.
+     * @return Tableau [SNR, BER double, BER float, borne basse, borne haute, décisions
+     *         différentes, secondes en double, secondes en float]
+     */
+    public double[][] runPrecisionComparison(LineEncoder.EncodingType encodingType,
+                                             TransmissionFilter.FilterType filterType,
+                                             Modulator.ModulationType modulationType,
+                                             double[] snrValues, int sequenceLength, int trials) {
+        double[][] results = new double[snrValues.length][8];
+        long baseSeed = seed != null ? seed : 0L;
+        Precision previousPrecision = precision;
+        ResultCache previousCache = resultCache;
+        ResultStore previousStore = resultStore;
+        // Sans cache ni magasin : chaque essai est réellement exécuté dans les deux précisions
+        resultCache = null;
+        resultStore = null;
+        try {
+            for (int i = 0; i < snrValues.length; i++) {
+                double snr = snrValues[i];
+                long errors64 = 0;
+                long errors32 = 0;
+                long differing = 0;
+                long nanos64 = 0;
+                long nanos32 = 0;
+                for (int trial = 0; trial < trials; trial++) {
+                    generateRandomSequence(sequenceLength, trialSeed(baseSeed, modulationType, snr, trial));
+
+                    precision = Precision.DOUBLE;
+                    long start = System.nanoTime();
+                    runSimulation(sequenceLength, encodingType, filterType, modulationType, snr);
+                    nanos64 += System.nanoTime() - start;
+                    errors64 += countBitErrors();
+                    boolean[] reference = outputSequence.getBits().clone();
+
+                    precision = Precision.FLOAT;
+                    start = System.nanoTime();
+                    runSimulation(sequenceLength, encodingType, filterType, modulationType, snr);
+                    nanos32 += System.nanoTime() - start;
+                    errors32 += countBitErrors();
+                    boolean[] output = outputSequence.getBits();
+                    for (int k = 0; k < reference.length; k++) {
+                        if (k >= output.length || reference[k] != output[k]) {
+                            differing++;
+                        }
+                    }
+                }
+                long bits = (long) sequenceLength * trials;
+                double[] interval = BerTheory.wilsonInterval(errors64, bits, 1.96);
+                results[i][0] = snr;
+                results[i][1] = (double) errors64 / bits;
+                results[i][2] = (double) errors32 / bits;
+                results[i][3] = interval[0];
+                results[i][4] = interval[1];
+                results[i][5] = differing;
+                results[i][6] = nanos64 / 1e9;
+                results[i][7] = nanos32 / 1e9;
+            }
+        } finally {
+            precision = previousPrecision;
+            resultCache = previousCache;
+            resultStore = previousStore;
+        }
+        return results;
+    }
+
+    /**
+     * Sélectionne le codage de canal appliqué autour de la chaîne
+     */
+    public void setFecType(ChannelCoder.FecType fecType) {
+        this.fecType = fecType;
+    }
+
+    public ChannelCoder.FecType getFecType() {
+        return fecType;
+    }
+
+    /**
+     * Sélectionne le modèle de canal.
+     * @param channelType Type de canal
+     * @param multipathProfile Profil multitrajet (utilisé en mode MULTIPATH, null = profil par défaut)
+     */
+    public void setChannelModel(Channel.NoiseType channelType, MultipathProfile multipathProfile) {
+        this.channelType = channelType;
+        this.multipathProfile = multipathProfile;
+    }
+
+    public Channel.NoiseType getChannelType() {
+        return channelType;
+    }
+
+    /**
+     * Active la modulation sur porteuse (ASK/PSK/FSK) avec démodulation cohérente.
+     * Sans effet sur la chaîne complexe QPSK/QAM.
+     */
+    public void setPassbandEnabled(boolean passbandEnabled) {
+        this.passbandEnabled = passbandEnabled;
+    }
+
+    /**
+     * Simule un désaccord entre oscillateurs d'émission et de réception
+     * (chaîne complexe et mode passe-bande).
+     */
+    public void setCarrierOffset(double frequencyOffset, double phaseOffset) {
+        this.carrierFrequencyOffset = frequencyOffset;
+        this.carrierPhaseOffset = phaseOffset;
+    }
+
+    /**
+     * Active la récupération de porteuse : Costas (PSK/QPSK) ou dirigée par décision (QAM)
+     */
+    public void setCarrierRecoveryEnabled(boolean carrierRecoveryEnabled) {
+        this.carrierRecoveryEnabled = carrierRecoveryEnabled;
+    }
+
+    /**
+     * Active le décodage par séquence (treillis AMI/HDB3, paires Manchester)
+     */
+    public void setSequenceDetectionEnabled(boolean sequenceDetectionEnabled) {
+        this.sequenceDetectionEnabled = sequenceDetectionEnabled;
+    }
+
+    /**
+     * Violations de code de la dernière simulation (indicateur de qualité de liaison)
+     */
+    public long getCodeViolations() {
+        return codeViolations;
+    }
+
+    /**
+     * Active l'égaliseur adaptatif entre le filtre de réception et la récupération d'horloge.
+     */
+    public void setEqualizer(boolean enabled, Equalizer.Algorithm algorithm, Equalizer.Structure structure,
+                             int forwardTaps, int feedbackTaps, int tapsPerSymbol, double stepSize) {
+        this.equalizerEnabled = enabled;
+        this.equalizerAlgorithm = algorithm;
+        this.equalizerStructure = structure;
+        this.equalizerForwardTaps = forwardTaps;
+        this.equalizerFeedbackTaps = feedbackTaps;
+        this.equalizerTapsPerSymbol = tapsPerSymbol;
+        this.equalizerStepSize = stepSize;
+    }
+
+    public void setEqualizerEnabled(boolean enabled) {
+        this.equalizerEnabled = enabled;
+    }
+
+    /**
+     * Nombre de symboles d'apprentissage avant le passage en mode dirigé par décision
+     */
+    public void setEqualizerTrainingLength(int trainingLength) {
+        this.equalizerTrainingLength = trainingLength;
+    }
+
+    private Equalizer createEqualizer(LineEncoder.EncodingType encodingType) {
+        Equalizer equalizer = new Equalizer(equalizerAlgorithm, equalizerStructure, equalizerForwardTaps,
+                                            equalizerFeedbackTaps, SAMPLES_PER_SYMBOL,
+                                            equalizerTapsPerSymbol, equalizerStepSize);
+        equalizer.setEncodingType(encodingType);
+        return equalizer;
+    }
+
+    /**
+     * Mesure le débit de l'égaliseur et le gain en BER qu'il apporte sur une même séquence.
+     * @return Tableau [échantillons/s, BER sans égaliseur, BER avec égaliseur]
+     */
+    public double[] runEqualizerBenchmark(int sequenceLength, LineEncoder.EncodingType encodingType,
+                                          TransmissionFilter.FilterType filterType,
+                                          Modulator.ModulationType modulationType, double snr) {
+        boolean previous = equalizerEnabled;
+        generateRandomSequence(sequenceLength);
+
+        equalizerEnabled = false;
+        runSimulation(sequenceLength, encodingType, filterType, modulationType, snr, true);
+        double berWithout = calculateBER();
+        double[] input = rxFilteredSignal;
+
+        equalizerEnabled = true;
+        runSimulation(sequenceLength, encodingType, filterType, modulationType, snr);
+        double berWith = calculateBER();
+        equalizerEnabled = previous;
+
+        // Débit : plusieurs passes pour amortir le démarrage de la JVM
+        Equalizer equalizer = createEqualizer(encodingType);
+        double[] output = new double[input.length];
+        int passes = 20;
+        long start = System.nanoTime();
+        for (int p = 0; p < passes; p++) {
+            equalizer.process(input, 0, output, 0, input.length);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double samplesPerSecond = seconds > 0 ? (double) passes * input.length / seconds : 0;
+
+        return new double[]{samplesPerSecond, berWithout, berWith};
+    }
+
+    /**
+     * Récepteur de rejeu configuré comme la chaîne réelle du contrôleur
+     * (porteuse, récupération de porteuse, détection de séquence). L'égaliseur,
+     * qui suppose un préambule connu, n'est pas rejoué.
+     */
+    public ReplayReceiver createReplayReceiver(LineEncoder.EncodingType encodingType,
+                                               TransmissionFilter.FilterType filterType,
+                                               Modulator.ModulationType modulationType) {
+        ReplayReceiver receiver = new ReplayReceiver(encodingType, filterType, modulationType,
+                SAMPLES_PER_SYMBOL, ROLL_OFF, CARRIER_FREQUENCY, SAMPLE_RATE);
+        receiver.setPassband(passbandEnabled);
+        receiver.setCarrierRecoveryEnabled(carrierRecoveryEnabled);
+        receiver.setSequenceDetection(sequenceDetectionEnabled);
+        return receiver;
+    }
+
+    /**
+     * Rejoue un enregistrement (capture .tncap, SigMF ou WAV) dans la réception, par blocs
+     * lus en avance dans un thread séparé. Pour une capture, le rejeu reprend à l'étage
+     * enregistré.
+     * @param reference Bits émis pour le comptage d'erreurs (null : pas de comptage)
+     */
+    public ReplayReceiver.Result runReplay(java.nio.file.Path path, LineEncoder.EncodingType encodingType,
+                                           TransmissionFilter.FilterType filterType,
+                                           Modulator.ModulationType modulationType,
+                                           boolean[] reference) throws java.io.IOException {
+        ReplayReceiver receiver = createReplayReceiver(encodingType, filterType, modulationType);
+        receiver.setReference(reference);
+        MappedSampleSource source = MappedSampleSource.open(path);
+        try {
+            int expected = source.getStage() == CaptureHeader.Stage.RECOVERED ? 1 : SAMPLES_PER_SYMBOL;
+            if (source.getSamplesPerSymbol() > 0 && source.getSamplesPerSymbol() != expected) {
+                throw new IllegalArgumentException("Enregistrement à " + source.getSamplesPerSymbol()
+                        + " échantillons par symbole, " + expected + " attendus");
+            }
+            if (source.getStage() != CaptureHeader.Stage.EXTERNAL) {
+                receiver.setEntryStage(source.getStage());
+            }
+        } catch (RuntimeException e) {
+            source.close();
+            throw e;
+        }
+        try (PrefetchSource prefetch = new PrefetchSource(source, 1 << 16, 4)) {
+            return receiver.run(prefetch);
+        }
+    }
+
+    /**
+     * Exporte le signal d'un étage de la dernière simulation : SigMF si le chemin porte
+     * une extension SigMF ou aucune, WAV pour .wav. Les étages de la chaîne complexe
+     * enregistrés sur deux voies sont exportés en I/Q.
+     * @param fullScale Amplitude correspondant à la pleine échelle (écrêtage en INT16)
+     */
+    public void exportStage(CaptureHeader.Stage stage, java.nio.file.Path path,
+                            MappedSampleSource.RawFormat format, double fullScale) throws java.io.IOException {
+        ComplexSignal complex = complexStageSignal(stage);
+        double[] real = complex == null ? realStageSignal(stage) : null;
+        if (complex == null && real == null) {
+            throw new IllegalStateException("Étage " + stage + " non disponible pour la dernière simulation");
+        }
+        boolean symbolRate = stage == CaptureHeader.Stage.ENCODED || stage == CaptureHeader.Stage.RECOVERED;
+        try (SampleStreamWriter writer = createExportWriter(path, format, complex != null ? 2 : 1,
+                symbolRate ? SAMPLE_RATE / SAMPLES_PER_SYMBOL : SAMPLE_RATE, fullScale)) {
+            if (writer instanceof SigMfWriter) {
+                ((SigMfWriter) writer).setStage(stage, symbolRate ? 1 : SAMPLES_PER_SYMBOL);
+                ((SigMfWriter) writer).setDescription("Étage " + stage + " de la chaîne de transmission");
+            }
+            if (complex != null) {
+                writer.writeComplex(complex.getReal(), complex.getImag(), 0, complex.getLength());
+            } else {
+                writer.write(real);
+            }
+        }
+    }
+
+    /**
+     * Exporte les données du diagramme de l'œil : le signal au point de décision (égalisé
+     * si l'égaliseur est actif) ; en SigMF, l'instant d'échantillonnage optimal et les
+     * mesures de l'œil accompagnent le signal pour le repliement par un outil externe.
+     */
+    public void exportEyeData(java.nio.file.Path path, MappedSampleSource.RawFormat format) throws java.io.IOException {
+        CaptureHeader.Stage stage = equalizedSignal != null ? CaptureHeader.Stage.EQUALIZED
+                                                            : CaptureHeader.Stage.RX_FILTERED;
+        double[] signal = realStageSignal(stage);
+        if (signal == null || eyeMetrics == null) {
+            throw new IllegalStateException("Aucune simulation à exporter");
+        }
+        double peak = 0;
+        for (double value : signal) {
+            peak = Math.max(peak, Math.abs(value));
+        }
+        try (SampleStreamWriter writer = createExportWriter(path, format, 1, SAMPLE_RATE, peak > 0 ? peak : 1.0)) {
+            if (writer instanceof SigMfWriter) {
+                SigMfWriter sigmf = (SigMfWriter) writer;
+                sigmf.setStage(stage, SAMPLES_PER_SYMBOL);
+                sigmf.setDescription("Diagramme de l'œil (signal au point de décision, normalisé)");
+                sigmf.putField("full_scale", peak);
+                sigmf.putField("sampling_offset", eyeMetrics.bestSamplingPoint);
+                sigmf.putField("eye_opening", eyeMetrics.maxOpening);
+                sigmf.putField("min_high_level", eyeMetrics.minHighLevel);
+                sigmf.putField("max_low_level", eyeMetrics.maxLowLevel);
+            }
+            writer.write(signal);
+        }
+    }
+
+    private SampleStreamWriter createExportWriter(java.nio.file.Path path, MappedSampleSource.RawFormat format,
+                                                  int channels, double sampleRate, double fullScale)
+            throws java.io.IOException {
+        String name = path.getFileName().toString().toLowerCase(java.util.Locale.ROOT);
+        if (name.endsWith(".wav")) {
+            return new WavWriter(path, format, channels, sampleRate, fullScale);
+        }
+        if (!SigMfMetadata.isSigMf(path) && name.contains(".")) {
+            throw new IllegalArgumentException("Extension d'export non reconnue : " + path.getFileName());
+        }
+        return new SigMfWriter(path, format, channels, sampleRate, fullScale);
+    }
+
+    /**
+     * Vue sans copie sur le signal réel d'un étage (voie I pour la chaîne complexe), null
+     * s'il n'a pas été calculé. Les étages en simple précision sont lus tels quels, sans
+     * conversion préalable en double.
+     */
+    public SignalView getSignalView(CaptureHeader.Stage stage) {
+        switch (stage) {
+            case ENCODED:
+                return view(getEncodedSignal());
+            case FILTERED:
+                return filteredSignal32 != null ? SignalView.of(filteredSignal32) : view(filteredSignal);
+            case MODULATED:
+                return modulatedSignal32 != null ? SignalView.of(modulatedSignal32) : view(modulatedSignal);
+            case NOISY:
+                return noisySignal32 != null ? SignalView.of(noisySignal32) : view(noisySignal);
+            case DEMODULATED:
+                return demodulatedSignal32 != null ? SignalView.of(demodulatedSignal32) : view(demodulatedSignal);
+            case RX_FILTERED:
+                return view(rxFilteredSignal);
+            case EQUALIZED:
+                return view(equalizedSignal);
+            case RECOVERED:
+                return view(recoveredSignal);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Densité spectrale de puissance d'un étage ({@link SignalAnalyzer#calculatePowerSpectrum}),
+     * null si l'étage n'a pas été calculé
+     * @return fftSize/2 + 1 raies espacées de SAMPLE_RATE / fftSize Hz
+     */
+    public double[] calculatePowerSpectrum(CaptureHeader.Stage stage, int fftSize) {
+        double[] signal = realStageSignal(stage);
+        return signal != null ? SignalAnalyzer.calculatePowerSpectrum(signal, fftSize) : null;
+    }
+
+    private static SignalView view(double[] signal) {
+        return signal != null ? SignalView.of(signal) : null;
+    }
+
+    /**
+     * Signal réel d'un étage (voie I pour la chaîne complexe), null s'il n'a pas été calculé
+     */
+    private double[] realStageSignal(CaptureHeader.Stage stage) {
+        widenSignals();
+        switch (stage) {
+            case ENCODED:
+                return getEncodedSignal();
+            case FILTERED:
+                return filteredSignal;
+            case MODULATED:
+                return modulatedSignal;
+            case NOISY:
+                return noisySignal;
+            case DEMODULATED:
+                return demodulatedSignal;
+            case RX_FILTERED:
+                return rxFilteredSignal;
+            case EQUALIZED:
+                return equalizedSignal;
+            case RECOVERED:
+                return recoveredSignal;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Signal I/Q d'un étage de la chaîne complexe, null pour la chaîne réelle
+     */
+    private ComplexSignal complexStageSignal(CaptureHeader.Stage stage) {
+        if (!complexChain) {
+            return null;
+        }
+        switch (stage) {
+            case ENCODED:
+                return complexSymbols;
+            case NOISY:
+                return complexNoisySignal;
+            case RECOVERED:
+                return complexRecoveredSignal;
+            default:
+                return null;
+        }
+    }
+
     // Getters pour les différents signaux
     public boolean[] getInputSequence() {
         return inputSequence.getBits();
@@ -194,28 +1497,47 @@ public class TransmissionController {
     }
 
     public double[] getEncodedSignal() {
+        if (encodedSignal == null && transmittedBits != null && encodingType != null) {
+            encodedSignal = new LineEncoder(encodingType).encode(transmittedBits);
+        }
         return encodedSignal;
     }
 
     public double[] getModulatedSignal() {
+        widenSignals();
         return modulatedSignal;
     }
 
     public double[] getNoisySignal() {
+        widenSignals();
         return noisySignal;
     }
 
     public double[] getDemodulatedSignal() {
+        widenSignals();
         return demodulatedSignal;
     }
     
     public double[] getFilteredSignal() {
+        widenSignals();
         return filteredSignal;
     }
     
     public double[] getRxFilteredSignal() {
         return rxFilteredSignal;
     }
+
+    public double[] getEqualizedSignal() {
+        return equalizedSignal;
+    }
+
+    public ComplexSignal getComplexNoisySignal() {
+        return complexNoisySignal;
+    }
+
+    public ComplexSignal getComplexRecoveredSignal() {
+        return complexRecoveredSignal;
+    }
     
     // Getters pour les métriques d'analyse
     public double getEffectiveSNR() {
@@ -0,0 +1,151 @@
+package com.transmissionnumerique.io;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * En-tête des fichiers de capture (64 octets, petit-boutiste) :
+ * <pre>
+ *  0  magic "TNCP"           4  version (int16)     6  format (int8)   7  étage (int8)
+ *  8  fréquence d'échantillonnage (float64)        16  échantillons par symbole (int32)
+ * 20  voies (int32 : 1 réel, 2 complexe entrelacé) 24  nombre d'échantillons (int64)
+ * 32  réservé
+ * </pre>
+ * Les données suivent l'en-tête, échantillon par échantillon, voies entrelacées.
+ */
+public class CaptureHeader {
+
+    public static final int SIZE = 64;
+    private static final int MAGIC = 0x50434E54; // "TNCP" en petit-boutiste
+    private static final short VERSION = 1;
+
+    /**
+     * Étages de la chaîne pouvant être capturés
+     */
+    public enum Stage {
+        ENCODED, FILTERED, MODULATED, NOISY, DEMODULATED, RX_FILTERED, EQUALIZED, RECOVERED, EXTERNAL
+    }
+
+    public enum SampleFormat {
+        FLOAT32(4), FLOAT64(8);
+
+        private final int bytes;
+
+        SampleFormat(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    private final Stage stage;
+    private final SampleFormat format;
+    private final int channels;
+    private final double sampleRate;
+    private final int samplesPerSymbol;
+    private final long sampleCount;
+
+    public CaptureHeader(Stage stage, SampleFormat format, int channels, double sampleRate,
+                         int samplesPerSymbol, long sampleCount) {
+        if (channels != 1 && channels != 2) {
+            throw new IllegalArgumentException("Nombre de voies non supporté : " + channels);
+        }
+        this.stage = stage;
+        this.format = format;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.sampleCount = sampleCount;
+    }
+
+    public CaptureHeader withSampleCount(long count) {
+        return new CaptureHeader(stage, format, channels, sampleRate, samplesPerSymbol, count);
+    }
+
+    /**
+     * Taille en octets d'un échantillon (toutes voies)
+     */
+    public int getFrameBytes() {
+        return channels * format.bytes;
+    }
+
+    public void write(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.put((byte) format.ordinal());
+        buffer.put((byte) stage.ordinal());
+        buffer.putDouble(sampleRate);
+        buffer.putInt(samplesPerSymbol);
+        buffer.putInt(channels);
+        buffer.putLong(sampleCount);
+        ((Buffer) buffer).clear();
+        int written = 0;
+        while (written < SIZE) {
+            written += channel.write(buffer, written);
+        }
+    }
+
+    public static CaptureHeader read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int read = 0;
+        while (read < SIZE) {
+            int n = channel.read(buffer, read);
+            if (n < 0) {
+                throw new IOException("En-tête de capture tronqué");
+            }
+            read += n;
+        }
+        ((Buffer) buffer).flip();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Fichier de capture invalide");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Version de capture non supportée : " + version);
+        }
+        int format = buffer.get();
+        int stage = buffer.get();
+        if (format < 0 || format >= SampleFormat.values().length || stage < 0 || stage >= Stage.values().length) {
+            throw new IOException("En-tête de capture corrompu");
+        }
+        double sampleRate = buffer.getDouble();
+        int samplesPerSymbol = buffer.getInt();
+        int channels = buffer.getInt();
+        long sampleCount = buffer.getLong();
+        if (channels != 1 && channels != 2) {
+            throw new IOException("Nombre de voies invalide : " + channels);
+        }
+        return new CaptureHeader(Stage.values()[stage], SampleFormat.values()[format], channels,
+                                 sampleRate, samplesPerSymbol, sampleCount);
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public SampleFormat getFormat() {
+        return format;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getSamplesPerSymbol() {
+        return samplesPerSymbol;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+}
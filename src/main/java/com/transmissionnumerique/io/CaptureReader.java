@@ -0,0 +1,119 @@
+package com.transmissionnumerique.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture d'un fichier de capture par projection en mémoire. {@link #map} rend une vue
+ * directe (sans copie) sur les octets d'un bloc d'échantillons ; {@link #read} convertit
+ * un bloc vers un tableau de doubles. Les fenêtres projetées sont limitées en taille,
+ * ce qui permet des captures de plusieurs gigaoctets.
+ */
+public class CaptureReader implements Closeable {
+
+    private static final long WINDOW_BYTES = 256L << 20;
+
+    private final FileChannel channel;
+    private final CaptureHeader header;
+    private final int frameBytes;
+    private final long sampleCount;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+
+    public CaptureReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.header = CaptureHeader.read(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.frameBytes = header.getFrameBytes();
+        // Capture en cours d'écriture : on s'en tient aux données publiées et présentes
+        long available = (channel.size() - CaptureHeader.SIZE) / frameBytes;
+        this.sampleCount = Math.min(header.getSampleCount(), Math.max(0, available));
+    }
+
+    public CaptureHeader getHeader() {
+        return header;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Vue petit-boutiste sur les octets de count échantillons à partir de firstSample.
+     * La vue reste valide tant que le lecteur est ouvert.
+     */
+    public ByteBuffer map(long firstSample, int count) throws IOException {
+        if (firstSample < 0 || count < 0 || firstSample + count > sampleCount) {
+            throw new IllegalArgumentException("Bloc hors de la capture : " + firstSample + "+" + count);
+        }
+        long start = CaptureHeader.SIZE + firstSample * frameBytes;
+        long end = start + (long) count * frameBytes;
+        if (window == null || start < windowStart || end > windowEnd) {
+            long size = Math.min(Math.max(WINDOW_BYTES, end - start), channel.size() - start);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            windowStart = start;
+            windowEnd = start + size;
+        }
+        ByteBuffer view = window.duplicate();
+        ((Buffer) view).position((int) (start - windowStart));
+        ((Buffer) view).limit((int) (end - windowStart));
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Copie count échantillons (voies entrelacées) dans destination
+     * @return Nombre d'échantillons lus (moins que count en fin de capture)
+     */
+    public int read(long firstSample, double[] destination, int offset, int count) throws IOException {
+        int n = (int) Math.max(0, Math.min(count, sampleCount - firstSample));
+        if (n == 0) {
+            return 0;
+        }
+        ByteBuffer bytes = map(firstSample, n);
+        int values = n * header.getChannels();
+        if (header.getFormat() == CaptureHeader.SampleFormat.FLOAT32) {
+            for (int i = 0; i < values; i++) {
+                destination[offset + i] = bytes.getFloat(4 * i);
+            }
+        } else {
+            bytes.asDoubleBuffer().get(destination, offset, values);
+        }
+        return n;
+    }
+
+    /**
+     * Lecture complète (petites captures)
+     */
+    public double[] readAll() throws IOException {
+        if (sampleCount * header.getChannels() > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Capture trop grande pour un tableau : utiliser map() ou read()");
+        }
+        double[] values = new double[(int) sampleCount * header.getChannels()];
+        int block = (int) (WINDOW_BYTES / frameBytes);
+        for (long done = 0; done < sampleCount; ) {
+            int count = (int) Math.min(block, sampleCount - done);
+            read(done, values, (int) done * header.getChannels(), count);
+            done += count;
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,166 @@
+package com.transmissionnumerique.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Écriture en flux d'un fichier de capture par fenêtres projetées en mémoire
+ * ({@link FileChannel#map}) : les échantillons vont directement dans le cache de pages,
+ * sans tampon intermédiaire sur le tas. Le fichier est agrandi fenêtre par fenêtre,
+ * puis ramené à sa taille exacte à la fermeture. Chaque fenêtre est libérée dès qu'on
+ * la quitte ({@link MappedBuffers#unmap}) : tronquer un fichier encore projeté échoue
+ * sous Windows et n'est pas défini ailleurs. Si la JVM ne permet pas cette libération,
+ * le fichier garde sa marge ; le nombre d'échantillons de l'en-tête fait foi.
+ *
+ * Le nombre d'échantillons de l'en-tête est mis à jour à chaque changement de fenêtre
+ * et à chaque {@link #flush()} : un lecteur voit la capture progresser.
+ */
+public class CaptureWriter implements Closeable {
+
+    private static final long WINDOW_BYTES = 64L << 20;
+
+    private final FileChannel channel;
+    private CaptureHeader header;
+    private final boolean float32;
+    private final int channels;
+
+    private final long windowBytes;
+    private MappedByteBuffer window;
+    private long windowStart; // position du début de la fenêtre dans le fichier
+    private boolean unmapped = true; // toutes les fenêtres quittées ont été libérées
+    private long sampleCount;
+
+    public CaptureWriter(Path path, CaptureHeader.Stage stage, CaptureHeader.SampleFormat format, int channels,
+                         double sampleRate, int samplesPerSymbol) throws IOException {
+        this(path, stage, format, channels, sampleRate, samplesPerSymbol, WINDOW_BYTES);
+    }
+
+    /**
+     * @param windowBytes Taille des fenêtres projetées (multiple de 8)
+     */
+    CaptureWriter(Path path, CaptureHeader.Stage stage, CaptureHeader.SampleFormat format, int channels,
+                  double sampleRate, int samplesPerSymbol, long windowBytes) throws IOException {
+        if (windowBytes <= 0 || windowBytes % 8 != 0) {
+            throw new IllegalArgumentException("Taille de fenêtre invalide : " + windowBytes);
+        }
+        this.windowBytes = windowBytes;
+        this.header = new CaptureHeader(stage, format, channels, sampleRate, samplesPerSymbol, 0);
+        this.float32 = format == CaptureHeader.SampleFormat.FLOAT32;
+        this.channels = channels;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        header.write(channel);
+        mapWindow(CaptureHeader.SIZE);
+    }
+
+    /**
+     * Ajoute des valeurs (voies entrelacées : length doit être un multiple du nombre de voies)
+     */
+    public void write(double[] values, int offset, int length) throws IOException {
+        if (length % channels != 0) {
+            throw new IllegalArgumentException("Longueur non multiple du nombre de voies : " + length);
+        }
+        int valueBytes = header.getFormat().getBytes();
+        int done = 0;
+        while (done < length) {
+            if (!window.hasRemaining()) {
+                mapWindow(windowStart + window.capacity());
+            }
+            int count = Math.min(length - done, window.remaining() / valueBytes);
+            int start = offset + done;
+            if (float32) {
+                for (int i = 0; i < count; i++) {
+                    window.putFloat((float) values[start + i]);
+                }
+            } else {
+                window.asDoubleBuffer().put(values, start, count);
+                ((Buffer) window).position(window.position() + count * 8);
+            }
+            done += count;
+        }
+        sampleCount += length / channels;
+    }
+
+    public void write(double[] values) throws IOException {
+        write(values, 0, values.length);
+    }
+
+    /**
+     * Ajoute un bloc complexe (deux voies) à partir des parties réelle et imaginaire
+     */
+    public void writeComplex(double[] real, double[] imag, int offset, int length) throws IOException {
+        if (channels != 2) {
+            throw new IllegalStateException("Capture réelle : écriture complexe impossible");
+        }
+        double[] interleaved = new double[2 * Math.min(length, 8192)];
+        for (int done = 0; done < length; ) {
+            int count = Math.min(length - done, interleaved.length / 2);
+            for (int i = 0; i < count; i++) {
+                interleaved[2 * i] = real[offset + done + i];
+                interleaved[2 * i + 1] = imag[offset + done + i];
+            }
+            write(interleaved, 0, 2 * count);
+            done += count;
+        }
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public CaptureHeader.Stage getStage() {
+        return header.getStage();
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Publie le nombre d'échantillons dans l'en-tête et force l'écriture des pages
+     */
+    public void flush() throws IOException {
+        header = header.withSampleCount(sampleCount);
+        header.write(channel);
+        window.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            releaseWindow();
+            if (unmapped) {
+                channel.truncate(CaptureHeader.SIZE + sampleCount * header.getFrameBytes());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void mapWindow(long position) throws IOException {
+        if (window != null) {
+            header = header.withSampleCount(sampleCount);
+            header.write(channel);
+            releaseWindow();
+        }
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_WRITE, position, windowBytes);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Libère la fenêtre courante (les pages écrites restent dans le cache du système)
+     */
+    private void releaseWindow() {
+        MappedByteBuffer released = window;
+        window = null;
+        unmapped &= MappedBuffers.unmap(released);
+    }
+}
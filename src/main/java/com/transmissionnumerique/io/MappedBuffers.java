@@ -0,0 +1,67 @@
+package com.transmissionnumerique.io;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Libération explicite d'une projection mémoire, que l'API standard n'offre pas : sans
+ * elle, la projection reste active jusqu'au passage du ramasse-miettes (et un fichier
+ * encore projeté ne peut pas être tronqué sous Windows). JDK 9 et plus :
+ * {@code Unsafe.invokeCleaner} ; JDK 8 : {@code cleaner()} du tampon direct.
+ *
+ * Le tampon libéré ne doit plus être lu ni écrit : l'accès ferait tomber la JVM.
+ */
+final class MappedBuffers {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // JDK 8 : libération par le cleaner du tampon
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MappedBuffers() {
+    }
+
+    /**
+     * @return true si la projection est libérée (ou si le tampon est null), false si la
+     *         JVM ne le permet pas : la projection sera alors libérée par le ramasse-miettes
+     */
+    static boolean unmap(MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return true;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return true;
+            }
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+            }
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.transmissionnumerique.io;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Source d'échantillons projetée en mémoire : capture {@code .tncap}, enregistrement SigMF,
+ * fichier WAV ou fichier brut sans en-tête. Le fichier est parcouru par fenêtres projetées
+ * de taille bornée ; seuls les blocs demandés sont convertis en doubles, jamais le fichier
+ * entier.
+ */
+public class MappedSampleSource implements SampleSource {
+
+    private static final long WINDOW_BYTES = 256L << 20;
+
+    /**
+     * Format des valeurs d'un fichier brut (INT16 est ramené à [-1, 1[)
+     */
+    public enum RawFormat {
+        FLOAT32(4), FLOAT64(8), INT16(2);
+
+        private final int bytes;
+
+        RawFormat(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    private final FileChannel channel;
+    private final long dataOffset;
+    private final RawFormat format;
+    private final ByteOrder byteOrder;
+    private final int channels;
+    private final double sampleRate;
+    private final int samplesPerSymbol;
+    private final CaptureHeader.Stage stage;
+    private final int frameBytes;
+    private final long sampleCount;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+    private long position;
+
+    private MappedSampleSource(FileChannel channel, long dataOffset, RawFormat format, ByteOrder byteOrder,
+                               int channels, double sampleRate, int samplesPerSymbol, CaptureHeader.Stage stage,
+                               long declaredCount) throws IOException {
+        if (channels != 1 && channels != 2) {
+            throw new IllegalArgumentException("Nombre de voies non supporté : " + channels);
+        }
+        this.channel = channel;
+        this.dataOffset = dataOffset;
+        this.format = format;
+        this.byteOrder = byteOrder;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.stage = stage;
+        this.frameBytes = channels * format.bytes;
+        long available = Math.max(0, (channel.size() - dataOffset) / frameBytes);
+        this.sampleCount = declaredCount >= 0 ? Math.min(declaredCount, available) : available;
+    }
+
+    /**
+     * Ouvre une capture {@code .tncap}, un enregistrement SigMF (fichier de métadonnées
+     * ou de données) ou un fichier WAV d'après l'extension
+     */
+    public static MappedSampleSource open(Path path) throws IOException {
+        if (SigMfMetadata.isSigMf(path)) {
+            boolean meta = path.getFileName().toString().endsWith(SigMfMetadata.META_EXTENSION);
+            Path metaPath = meta ? path : SigMfMetadata.companion(path);
+            Path dataPath = meta ? SigMfMetadata.companion(path) : path;
+            SigMfMetadata metadata = SigMfMetadata.read(metaPath);
+            FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ);
+            try {
+                return new MappedSampleSource(channel, 0, metadata.getFormat(), metadata.getByteOrder(),
+                        metadata.isComplex() ? 2 : 1, metadata.getSampleRate(), metadata.getSamplesPerSymbol(),
+                        metadata.getStage(), -1);
+            } catch (RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        if (path.getFileName().toString().toLowerCase(java.util.Locale.ROOT).endsWith(".wav")) {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                WavHeader header = WavHeader.read(channel);
+                int frameBytes = header.getChannels() * header.getFormat().getBytes();
+                return new MappedSampleSource(channel, header.getDataOffset(), header.getFormat(),
+                        ByteOrder.LITTLE_ENDIAN, header.getChannels(), header.getSampleRate(), 0,
+                        CaptureHeader.Stage.EXTERNAL, header.getDataBytes() / frameBytes);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        if (path.getFileName().toString().endsWith(SignalCapture.EXTENSION)) {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                CaptureHeader header = CaptureHeader.read(channel);
+                RawFormat format = header.getFormat() == CaptureHeader.SampleFormat.FLOAT32
+                        ? RawFormat.FLOAT32 : RawFormat.FLOAT64;
+                return new MappedSampleSource(channel, CaptureHeader.SIZE, format, ByteOrder.LITTLE_ENDIAN,
+                        header.getChannels(), header.getSampleRate(), header.getSamplesPerSymbol(),
+                        header.getStage(), header.getSampleCount());
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        throw new IllegalArgumentException("Format non reconnu (utiliser raw()) : " + path);
+    }
+
+    /**
+     * Ouvre un fichier brut sans en-tête (voies entrelacées)
+     */
+    public static MappedSampleSource raw(Path path, RawFormat format, ByteOrder byteOrder, int channels,
+                                         double sampleRate) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedSampleSource(channel, 0, format, byteOrder, channels, sampleRate, 0,
+                                          CaptureHeader.Stage.EXTERNAL, -1);
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Échantillons par symbole déclarés par la capture (0 si inconnu)
+     */
+    public int getSamplesPerSymbol() {
+        return samplesPerSymbol;
+    }
+
+    /**
+     * Étage de la chaîne enregistré (EXTERNAL s'il n'est pas connu)
+     */
+    public CaptureHeader.Stage getStage() {
+        return stage;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Repositionne la lecture sur un échantillon
+     */
+    public void seek(long sample) {
+        if (sample < 0 || sample > sampleCount) {
+            throw new IllegalArgumentException("Position hors de la source : " + sample);
+        }
+        position = sample;
+    }
+
+    @Override
+    public int read(double[] destination, int offset, int maxSamples) throws IOException {
+        int count = (int) Math.min(Math.min(maxSamples, sampleCount - position),
+                                   (WINDOW_BYTES / frameBytes));
+        if (count <= 0) {
+            return maxSamples == 0 && position < sampleCount ? 0 : -1;
+        }
+        ByteBuffer bytes = map(position, count);
+        int values = count * channels;
+        switch (format) {
+            case FLOAT64: {
+                DoubleBuffer in = bytes.asDoubleBuffer();
+                in.get(destination, offset, values);
+                break;
+            }
+            case FLOAT32: {
+                FloatBuffer in = bytes.asFloatBuffer();
+                for (int i = 0; i < values; i++) {
+                    destination[offset + i] = in.get(i);
+                }
+                break;
+            }
+            case INT16:
+            default: {
+                ShortBuffer in = bytes.asShortBuffer();
+                final double scale = 1.0 / 32768.0;
+                for (int i = 0; i < values; i++) {
+                    destination[offset + i] = in.get(i) * scale;
+                }
+                break;
+            }
+        }
+        position += count;
+        return count;
+    }
+
+    private ByteBuffer map(long firstSample, int count) throws IOException {
+        long start = dataOffset + firstSample * frameBytes;
+        long end = start + (long) count * frameBytes;
+        if (window == null || start < windowStart || end > windowEnd) {
+            long size = Math.min(Math.max(WINDOW_BYTES, end - start), channel.size() - start);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            windowStart = start;
+            windowEnd = start + size;
+        }
+        ByteBuffer view = window.duplicate();
+        ((Buffer) view).position((int) (start - windowStart));
+        ((Buffer) view).limit((int) (end - windowStart));
+        return view.slice().order(byteOrder);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
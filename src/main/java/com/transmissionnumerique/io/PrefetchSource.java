@@ -0,0 +1,157 @@
+package com.transmissionnumerique.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Lecture anticipée d'une source dans un thread dédié, avec contre-pression : le producteur
+ * remplit un nombre fixe de blocs recyclés et s'arrête dès qu'ils sont tous en attente.
+ * La mémoire est donc bornée à depth blocs, et la conversion des échantillons du fichier
+ * se fait en parallèle du traitement du bloc précédent.
+ */
+public class PrefetchSource implements SampleSource {
+
+    private static final class Block {
+        final double[] values;
+        int samples;
+
+        Block(int capacity) {
+            values = new double[capacity];
+        }
+    }
+
+    private static final Block END = new Block(0);
+
+    private final SampleSource source;
+    private final int blockSamples;
+    private final BlockingQueue<Block> free;
+    private final BlockingQueue<Block> filled;
+    private final Thread producer;
+
+    private volatile IOException failure;
+    private volatile long producerWaits;
+    private long consumerWaits;
+
+    private Block current;
+    private int consumed;
+
+    /**
+     * @param blockSamples Taille des blocs lus par le producteur (en échantillons)
+     * @param depth Nombre de blocs en circulation
+     */
+    public PrefetchSource(SampleSource source, int blockSamples, int depth) {
+        if (blockSamples <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Taille de bloc et profondeur doivent être positives");
+        }
+        this.source = source;
+        this.blockSamples = blockSamples;
+        this.free = new ArrayBlockingQueue<>(depth);
+        this.filled = new ArrayBlockingQueue<>(depth + 1);
+        for (int i = 0; i < depth; i++) {
+            free.add(new Block(blockSamples * source.getChannels()));
+        }
+        this.producer = new Thread(this::produce, "prefetch-" + source.getClass().getSimpleName());
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce() {
+        try {
+            while (true) {
+                Block block = free.poll();
+                if (block == null) {
+                    producerWaits++;
+                    block = free.take();
+                }
+                int n = source.read(block.values, 0, blockSamples);
+                if (n < 0) {
+                    break;
+                }
+                block.samples = n;
+                filled.put(block);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            filled.put(END);
+        } catch (InterruptedException e) {
+            // Fermeture en cours
+        }
+    }
+
+    @Override
+    public int getChannels() {
+        return source.getChannels();
+    }
+
+    @Override
+    public double getSampleRate() {
+        return source.getSampleRate();
+    }
+
+    @Override
+    public long getSampleCount() {
+        return source.getSampleCount();
+    }
+
+    @Override
+    public int read(double[] destination, int offset, int maxSamples) throws IOException {
+        if (current == null || (current != END && consumed == current.samples)) {
+            if (current != null) {
+                free.add(current);
+            }
+            current = filled.poll();
+            if (current == null) {
+                consumerWaits++;
+                try {
+                    current = filled.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Lecture anticipée interrompue");
+                }
+            }
+            consumed = 0;
+        }
+        if (current == END) {
+            if (failure != null) {
+                throw failure;
+            }
+            return -1;
+        }
+        int channels = source.getChannels();
+        int count = Math.min(maxSamples, current.samples - consumed);
+        System.arraycopy(current.values, consumed * channels, destination, offset, count * channels);
+        consumed += count;
+        return count;
+    }
+
+    /**
+     * Nombre de fois où le producteur a attendu un bloc libre (consommateur plus lent)
+     */
+    public long getProducerWaits() {
+        return producerWaits;
+    }
+
+    /**
+     * Nombre de fois où le consommateur a attendu un bloc (lecture plus lente que le traitement)
+     */
+    public long getConsumerWaits() {
+        return consumerWaits;
+    }
+
+    @Override
+    public void close() throws IOException {
+        producer.interrupt();
+        try {
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        source.close();
+    }
+}
@@ -0,0 +1,499 @@
+package com.transmissionnumerique.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache de résultats de simulation à deux niveaux : mémoire (LRU bornée en octets)
+ * puis disque (un fichier par clé, écrit dans un fichier temporaire puis renommé).
+ * Le niveau disque est lui aussi borné en octets : au-delà, les fichiers les moins
+ * récemment utilisés (date de modification, mise à jour à chaque lecture) sont supprimés.
+ *
+ * La clé est l'empreinte SHA-256 d'une description canonique de la configuration,
+ * des graines et de la version du code ; cette dernière est l'empreinte du bytecode
+ * des étages de la chaîne ({@link #codeFingerprint}), si bien qu'une modification d'un
+ * étage rend les anciennes entrées inaccessibles sans invalidation explicite.
+ */
+public class ResultCache {
+
+    private static final int MAGIC = 0x54524331; // "TRC1"
+
+    /**
+     * Taille par défaut du niveau disque
+     */
+    public static final long DEFAULT_MAX_DISK_BYTES = 1L << 30;
+
+    /**
+     * Résultat d'une simulation. Les signaux intermédiaires sont facultatifs (null) :
+     * une entrée sans signaux suffit pour un point de BER.
+     */
+    public static class Entry {
+        public long[] outputBits;
+        public int outputLength;
+        public double effectiveSNR;
+        public double noiseMargin;
+        public double eyeOpening;
+        // maxOpening, minOpening, bestSamplingPoint, minHighLevel, maxLowLevel, jitter
+        public double[] eyeMetrics;
+        public long codeViolations;
+
+        public double[] filteredSignal;
+        public double[] modulatedSignal;
+        public double[] noisySignal;
+        public double[] demodulatedSignal;
+        public double[] rxFilteredSignal;
+        public double[] equalizedSignal;
+        public double[] recoveredSignal;
+        // Chaîne complexe : voies I/Q
+        public double[] complexNoisyImag;
+        public double[] complexRecoveredImag;
+
+        public boolean hasSignals() {
+            return rxFilteredSignal != null;
+        }
+
+        long sizeInBytes() {
+            long size = 128 + 8L * length(outputBits) + 8L * length(eyeMetrics);
+            for (double[] signal : signals()) {
+                size += 8L * length(signal);
+            }
+            return size;
+        }
+
+        double[][] signals() {
+            return new double[][]{filteredSignal, modulatedSignal, noisySignal, demodulatedSignal,
+                    rxFilteredSignal, equalizedSignal, recoveredSignal, complexNoisyImag, complexRecoveredImag};
+        }
+
+        void setSignals(double[][] signals) {
+            filteredSignal = signals[0];
+            modulatedSignal = signals[1];
+            noisySignal = signals[2];
+            demodulatedSignal = signals[3];
+            rxFilteredSignal = signals[4];
+            equalizedSignal = signals[5];
+            recoveredSignal = signals[6];
+            complexNoisyImag = signals[7];
+            complexRecoveredImag = signals[8];
+        }
+
+        private static int length(Object array) {
+            if (array == null) {
+                return 0;
+            }
+            return array instanceof long[] ? ((long[]) array).length : ((double[]) array).length;
+        }
+    }
+
+    private final long maxMemoryBytes;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes = -1;     // inconnu avant le premier parcours du répertoire
+    private long lastTouch;          // dates strictement croissantes au sein du processus
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+
+    /**
+     * Niveau disque limité à {@link #DEFAULT_MAX_DISK_BYTES}
+     * @param maxMemoryBytes Taille maximale du niveau mémoire
+     * @param directory Répertoire du niveau disque, ou null pour un cache purement mémoire
+     */
+    public ResultCache(long maxMemoryBytes, Path directory) {
+        this(maxMemoryBytes, directory, DEFAULT_MAX_DISK_BYTES);
+    }
+
+    /**
+     * @param maxMemoryBytes Taille maximale du niveau mémoire
+     * @param directory Répertoire du niveau disque, ou null pour un cache purement mémoire
+     * @param maxDiskBytes Taille maximale des fichiers du niveau disque
+     */
+    public ResultCache(long maxMemoryBytes, Path directory, long maxDiskBytes) {
+        if (maxMemoryBytes < 0) {
+            throw new IllegalArgumentException("Taille mémoire négative : " + maxMemoryBytes);
+        }
+        if (maxDiskBytes < 0) {
+            throw new IllegalArgumentException("Taille disque négative : " + maxDiskBytes);
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    /**
+     * Clé canonique : empreinte SHA-256 (hexadécimale) des éléments, dans l'ordre.
+     * Les réels sont pris bit à bit, les tableaux élément par élément.
+     */
+    public static String key(Object... parts) {
+        StringBuilder canonical = new StringBuilder();
+        for (Object part : parts) {
+            if (part instanceof Double) {
+                canonical.append(Long.toHexString(Double.doubleToLongBits((Double) part)));
+            } else if (part instanceof double[]) {
+                for (double value : (double[]) part) {
+                    canonical.append(Long.toHexString(Double.doubleToLongBits(value))).append(',');
+                }
+            } else {
+                canonical.append(part);
+            }
+            canonical.append('\u001f');
+        }
+        return toHex(sha256().digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Empreinte du bytecode des classes données (version du code des étages)
+     */
+    public static String codeFingerprint(Class<?>... classes) {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[8192];
+        for (Class<?> type : classes) {
+            String resource = type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class";
+            digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = type.getResourceAsStream(resource)) {
+                if (in == null) {
+                    continue;
+                }
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                // Classe illisible : seul son nom entre dans l'empreinte
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Recherche en mémoire puis sur disque (l'entrée lue sur disque remonte en mémoire)
+     * @return L'entrée, ou null si absente
+     */
+    public synchronized Entry get(String key) {
+        Entry entry = memory.get(key);
+        if (entry != null) {
+            memoryHits++;
+            return entry;
+        }
+        entry = readFromDisk(key);
+        if (entry != null) {
+            diskHits++;
+            putInMemory(key, entry);
+            return entry;
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        putInMemory(key, entry);
+        writeToDisk(key, entry);
+    }
+
+    /**
+     * Vide les deux niveaux
+     */
+    public synchronized void clear() {
+        memory.clear();
+        memoryBytes = 0;
+        diskBytes = -1;
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (java.util.stream.Stream<Path> files = Files.walk(directory)) {
+            Iterator<Path> iterator = files.filter(path -> path.toString().endsWith(".bin")).iterator();
+            while (iterator.hasNext()) {
+                Files.deleteIfExists(iterator.next());
+            }
+        } catch (IOException e) {
+            // Fichiers restants : inaccessibles ou supprimés par ailleurs
+        }
+    }
+
+    public synchronized long getMemoryHits() {
+        return memoryHits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Taille des fichiers du niveau disque (0 sans niveau disque)
+     */
+    public synchronized long getDiskBytes() {
+        return directory == null ? 0 : diskUsage();
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        Entry previous = memory.put(key, entry);
+        if (previous != null) {
+            memoryBytes -= previous.sizeInBytes();
+        }
+        memoryBytes += entry.sizeInBytes();
+        Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            memoryBytes -= eldest.next().getValue().sizeInBytes();
+            eldest.remove();
+        }
+    }
+
+    private Path pathFor(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".bin");
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (directory == null || entry.sizeInBytes() > maxDiskBytes) {
+            return;
+        }
+        Path target = pathFor(key);
+        Path temporary = null;
+        try {
+            long used = diskUsage();
+            long previous = Files.isRegularFile(target) ? Files.size(target) : 0;
+            Files.createDirectories(target.getParent());
+            temporary = Files.createTempFile(target.getParent(), key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(entry.outputLength);
+                writeLongs(out, entry.outputBits);
+                out.writeDouble(entry.effectiveSNR);
+                out.writeDouble(entry.noiseMargin);
+                out.writeDouble(entry.eyeOpening);
+                writeDoubles(out, entry.eyeMetrics);
+                out.writeLong(entry.codeViolations);
+                for (double[] signal : entry.signals()) {
+                    writeDoubles(out, signal);
+                }
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            touch(target);
+            diskBytes = used - previous + Files.size(target);
+            if (diskBytes > maxDiskBytes) {
+                evictFromDisk(target);
+            }
+        } catch (IOException e) {
+            // Le niveau disque est facultatif : l'entrée reste en mémoire
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // déjà absent
+                }
+            }
+        }
+    }
+
+    private Entry readFromDisk(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path path = pathFor(key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        touch(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            Entry entry = new Entry();
+            entry.outputLength = in.readInt();
+            entry.outputBits = readLongs(in);
+            entry.effectiveSNR = in.readDouble();
+            entry.noiseMargin = in.readDouble();
+            entry.eyeOpening = in.readDouble();
+            entry.eyeMetrics = readDoubles(in);
+            entry.codeViolations = in.readLong();
+            double[][] signals = new double[entry.signals().length][];
+            for (int i = 0; i < signals.length; i++) {
+                signals[i] = readDoubles(in);
+            }
+            entry.setSignals(signals);
+            return entry;
+        } catch (IOException e) {
+            // Fichier tronqué ou illisible : traité comme absent
+            return null;
+        }
+    }
+
+    /**
+     * Date d'utilisation d'un fichier du niveau disque (ordre LRU de l'éviction)
+     */
+    private void touch(Path path) {
+        lastTouch = Math.max(System.currentTimeMillis(), lastTouch + 1);
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(lastTouch));
+        } catch (IOException e) {
+            // Date inchangée : le fichier sera simplement évincé plus tôt
+        }
+    }
+
+    /**
+     * Taille des fichiers du niveau disque, calculée au premier appel puis tenue à jour
+     * (d'autres processus peuvent partager le répertoire : l'éviction recompte)
+     */
+    private long diskUsage() {
+        if (diskBytes < 0) {
+            long total = 0;
+            for (DiskFile file : listDiskFiles()) {
+                total += file.size;
+            }
+            diskBytes = total;
+        }
+        return diskBytes;
+    }
+
+    /**
+     * Supprime les fichiers les moins récemment utilisés jusqu'à 90 % de la taille
+     * maximale (marge pour ne pas parcourir le répertoire à chaque écriture)
+     */
+    private void evictFromDisk(Path keep) {
+        List<DiskFile> files = listDiskFiles();
+        files.sort((a, b) -> Long.compare(a.lastUsed, b.lastUsed));
+        long total = 0;
+        for (DiskFile file : files) {
+            total += file.size;
+        }
+        long target = maxDiskBytes - maxDiskBytes / 10;
+        for (DiskFile file : files) {
+            if (total <= target) {
+                break;
+            }
+            if (file.path.equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file.path);
+                total -= file.size;
+            } catch (IOException e) {
+                // Fichier verrouillé : on passe au suivant
+            }
+        }
+        diskBytes = total;
+    }
+
+    private List<DiskFile> listDiskFiles() {
+        List<DiskFile> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (java.util.stream.Stream<Path> paths = Files.walk(directory)) {
+            Iterator<Path> iterator = paths.filter(path -> path.toString().endsWith(".bin")).iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                try {
+                    files.add(new DiskFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+                } catch (IOException e) {
+                    // Supprimé entre-temps
+                }
+            }
+        } catch (IOException | java.io.UncheckedIOException e) {
+            // Répertoire partiellement lisible : on garde ce qui a été listé
+        }
+        return files;
+    }
+
+    private static final class DiskFile {
+        final Path path;
+        final long size;
+        final long lastUsed;
+
+        DiskFile(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values == null ? -1 : values.length);
+        if (values != null) {
+            for (long value : values) {
+                out.writeLong(value);
+            }
+        }
+    }
+
+    private static long[] readLongs(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values == null ? -1 : values.length);
+        if (values != null) {
+            for (double value : values) {
+                out.writeDouble(value);
+            }
+        }
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = Character.forDigit((bytes[i] >>> 4) & 0xF, 16);
+            hex[2 * i + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,233 @@
+package com.transmissionnumerique.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Magasin de résultats par essai, en colonnes. Les enregistrements sont accumulés par
+ * paquets de chunkRows lignes, chaque colonne dans son propre tampon, puis écrits en un
+ * bloc : chaque colonne d'un paquet est contiguë dans le fichier, ce qui permet de n'en
+ * lire que quelques-unes ({@link ResultStoreReader}).
+ *
+ * Format (petit-boutiste) : en-tête "TRS1" et version, puis une suite de paquets
+ * <pre>
+ * int "CHK1" | int lignes | int entrées de dictionnaire | long octets restants
+ * entrées (int id, int longueur, UTF-8), en-tête complété à un multiple de 8 octets
+ * colonnes dans l'ordre de {@link Column}, lignes × largeur octets chacune
+ * </pre>
+ * Les configurations sont codées par dictionnaire : chaque paquet porte les entrées qu'il
+ * introduit. Un fichier existant est rouvert en ajout ; un dernier paquet incomplet (arrêt
+ * pendant l'écriture) est tronqué.
+ */
+public class ResultStore implements Closeable {
+
+    static final int MAGIC = 0x54525331; // "TRS1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int CHUNK_MAGIC = 0x43484b31; // "CHK1"
+    static final int CHUNK_HEADER_SIZE = 20;
+
+    public static final int DEFAULT_CHUNK_ROWS = 65536;
+
+    /**
+     * Colonnes d'un enregistrement
+     */
+    public enum Column {
+        CONFIGURATION(4), SNR(8), TRIAL(8), SEED(8), BITS(8), ERRORS(8),
+        EFFECTIVE_SNR(8), EYE_OPENING(8), NOISE_MARGIN(8), JITTER(8), SAMPLING_POINT(4),
+        TRANSMIT_NANOS(8), CHANNEL_NANOS(8), RECEIVE_NANOS(8);
+
+        private final int width;
+
+        Column(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+    }
+
+    /**
+     * Enregistrement d'un essai ; l'instance peut être réutilisée d'un ajout à l'autre
+     */
+    public static class Record {
+        public int configuration;
+        public double snr;
+        public long trial;
+        public long seed;
+        public long bits;
+        public long errors;
+        public double effectiveSnr;
+        public double eyeOpening;
+        public double noiseMargin;
+        public double jitter;
+        public int samplingPoint;
+        public long transmitNanos;
+        public long channelNanos;
+        public long receiveNanos;
+    }
+
+    private final FileChannel channel;
+    private final int chunkRows;
+    private final ByteBuffer[] columns;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> pendingEntries = new ArrayList<>();
+    private int rows;
+    private long recordCount;
+
+    public ResultStore(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Ouvre (ou crée) un magasin en ajout
+     * @param chunkRows Lignes par paquet : mémoire tampon et granularité des écritures
+     */
+    public ResultStore(Path path, int chunkRows) throws IOException {
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("Taille de paquet invalide : " + chunkRows);
+        }
+        this.chunkRows = chunkRows;
+        this.columns = new ByteBuffer[Column.values().length];
+        for (Column column : Column.values()) {
+            columns[column.ordinal()] = ByteBuffer.allocate(chunkRows * column.width).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION);
+                ((Buffer) header).flip();
+                channel.write(header, 0);
+            } else {
+                List<String> existing = new ArrayList<>();
+                long[] count = new long[1];
+                long end = ResultStoreReader.scanChunks(channel, existing, count, null);
+                // Paquet incomplet en fin de fichier : écriture interrompue
+                channel.truncate(end);
+                for (int i = 0; i < existing.size(); i++) {
+                    dictionary.put(existing.get(i), i);
+                }
+                recordCount = count[0];
+            }
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Identifiant d'une configuration (ajoutée au dictionnaire si elle est nouvelle)
+     */
+    public int configurationId(String configuration) {
+        Integer id = dictionary.get(configuration);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.put(configuration, id);
+            pendingEntries.add(configuration);
+        }
+        return id;
+    }
+
+    public void append(Record record) throws IOException {
+        if (record.configuration < 0 || record.configuration >= dictionary.size()) {
+            throw new IllegalArgumentException("Configuration inconnue : " + record.configuration);
+        }
+        columns[Column.CONFIGURATION.ordinal()].putInt(record.configuration);
+        columns[Column.SNR.ordinal()].putDouble(record.snr);
+        columns[Column.TRIAL.ordinal()].putLong(record.trial);
+        columns[Column.SEED.ordinal()].putLong(record.seed);
+        columns[Column.BITS.ordinal()].putLong(record.bits);
+        columns[Column.ERRORS.ordinal()].putLong(record.errors);
+        columns[Column.EFFECTIVE_SNR.ordinal()].putDouble(record.effectiveSnr);
+        columns[Column.EYE_OPENING.ordinal()].putDouble(record.eyeOpening);
+        columns[Column.NOISE_MARGIN.ordinal()].putDouble(record.noiseMargin);
+        columns[Column.JITTER.ordinal()].putDouble(record.jitter);
+        columns[Column.SAMPLING_POINT.ordinal()].putInt(record.samplingPoint);
+        columns[Column.TRANSMIT_NANOS.ordinal()].putLong(record.transmitNanos);
+        columns[Column.CHANNEL_NANOS.ordinal()].putLong(record.channelNanos);
+        columns[Column.RECEIVE_NANOS.ordinal()].putLong(record.receiveNanos);
+        rows++;
+        recordCount++;
+        if (rows == chunkRows) {
+            flush();
+        }
+    }
+
+    /**
+     * Nombre d'enregistrements, y compris ceux encore en mémoire
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Écrit le paquet en cours (les enregistrements deviennent visibles des lecteurs)
+     */
+    public void flush() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        int dictionaryBytes = 0;
+        List<byte[]> names = new ArrayList<>();
+        for (String entry : pendingEntries) {
+            byte[] name = entry.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            dictionaryBytes += 8 + name.length;
+        }
+        int padding = (8 - (CHUNK_HEADER_SIZE + dictionaryBytes) % 8) % 8;
+        long columnBytes = 0;
+        for (Column column : Column.values()) {
+            columnBytes += (long) rows * column.width;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_SIZE + dictionaryBytes + padding)
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(CHUNK_MAGIC).putInt(rows).putInt(pendingEntries.size())
+              .putLong(dictionaryBytes + padding + columnBytes);
+        int firstId = dictionary.size() - pendingEntries.size();
+        for (int i = 0; i < names.size(); i++) {
+            header.putInt(firstId + i).putInt(names.get(i).length).put(names.get(i));
+        }
+        // Tout le tampon, bourrage compris
+        ((Buffer) header).clear();
+        ByteBuffer[] parts = new ByteBuffer[columns.length + 1];
+        parts[0] = header;
+        for (int i = 0; i < columns.length; i++) {
+            ((Buffer) columns[i]).flip();
+            parts[i + 1] = columns[i];
+        }
+        long remaining = header.remaining() + columnBytes;
+        while (remaining > 0) {
+            remaining -= channel.write(parts);
+        }
+        for (ByteBuffer column : columns) {
+            ((Buffer) column).clear();
+        }
+        pendingEntries.clear();
+        rows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.transmissionnumerique.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture d'un {@link ResultStore}. Les paquets sont projetés en mémoire un à un et seules
+ * les colonnes demandées sont décodées, dans des tableaux réutilisés d'un paquet à l'autre :
+ * un parcours ne coûte que la lecture des colonnes utiles.
+ */
+public class ResultStoreReader implements Closeable {
+
+    /**
+     * Paquet en cours de parcours
+     */
+    public class Chunk {
+        private final ByteBuffer data;
+        private final int rows;
+        private final int[] offsets = new int[ResultStore.Column.values().length];
+
+        private Chunk(ByteBuffer data, int rows) {
+            this.data = data;
+            this.rows = rows;
+            int offset = 0;
+            for (ResultStore.Column column : ResultStore.Column.values()) {
+                offsets[column.ordinal()] = offset;
+                offset += rows * column.getWidth();
+            }
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Colonne entière (CONFIGURATION, SAMPLING_POINT)
+         */
+        public int[] getInts(ResultStore.Column column) {
+            checkWidth(column, 4);
+            int[] values = intScratch(column);
+            view(column).asIntBuffer().get(values, 0, rows);
+            return values;
+        }
+
+        /**
+         * Colonne entière longue (TRIAL, SEED, BITS, ERRORS, durées)
+         */
+        public long[] getLongs(ResultStore.Column column) {
+            checkWidth(column, 8);
+            long[] values = longScratch(column);
+            view(column).asLongBuffer().get(values, 0, rows);
+            return values;
+        }
+
+        /**
+         * Colonne réelle (SNR, EFFECTIVE_SNR, EYE_OPENING, NOISE_MARGIN, JITTER)
+         */
+        public double[] getDoubles(ResultStore.Column column) {
+            checkWidth(column, 8);
+            double[] values = doubleScratch(column);
+            view(column).asDoubleBuffer().get(values, 0, rows);
+            return values;
+        }
+
+        private ByteBuffer view(ResultStore.Column column) {
+            ByteBuffer view = data.duplicate();
+            ((Buffer) view).position(offsets[column.ordinal()]);
+            ((Buffer) view).limit(offsets[column.ordinal()] + rows * column.getWidth());
+            return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void checkWidth(ResultStore.Column column, int width) {
+            if (column.getWidth() != width) {
+                throw new IllegalArgumentException("Type de colonne incompatible : " + column);
+            }
+        }
+    }
+
+    /**
+     * Visiteur des paquets ; les tableaux rendus par le paquet sont réutilisés au paquet
+     * suivant et ne doivent pas être conservés
+     */
+    public interface ChunkVisitor {
+        void visit(Chunk chunk) throws IOException;
+    }
+
+    /**
+     * Agrégat des essais d'une configuration à un SNR
+     */
+    public static class Aggregate {
+        public final String configuration;
+        public final double snr;
+        private final int configurationId;
+        private long trials;
+        private long bits;
+        private long errors;
+        private double effectiveSnrSum;
+        private double eyeOpeningSum;
+        private double noiseMarginSum;
+        private long nanos;
+
+        Aggregate(String configuration, int configurationId, double snr) {
+            this.configuration = configuration;
+            this.configurationId = configurationId;
+            this.snr = snr;
+        }
+
+        public long getTrials() {
+            return trials;
+        }
+
+        public long getBits() {
+            return bits;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getBer() {
+            return bits > 0 ? (double) errors / bits : 0.0;
+        }
+
+        public double getMeanEffectiveSnr() {
+            return trials > 0 ? effectiveSnrSum / trials : Double.NaN;
+        }
+
+        public double getMeanEyeOpening() {
+            return trials > 0 ? eyeOpeningSum / trials : Double.NaN;
+        }
+
+        public double getMeanNoiseMargin() {
+            return trials > 0 ? noiseMarginSum / trials : Double.NaN;
+        }
+
+        /**
+         * Durée moyenne d'un essai (émission, canal et réception), en secondes
+         */
+        public double getMeanTrialSeconds() {
+            return trials > 0 ? nanos / 1e9 / trials : Double.NaN;
+        }
+    }
+
+    private final FileChannel channel;
+    private final List<String> configurations = new ArrayList<>();
+    private final List<long[]> chunks = new ArrayList<>();
+    private final long recordCount;
+    private final int maxRows;
+    private final Object[] scratch = new Object[ResultStore.Column.values().length];
+
+    public ResultStoreReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long[] count = new long[1];
+            scanChunks(channel, configurations, count, chunks);
+            recordCount = count[0];
+            int max = 0;
+            for (long[] chunk : chunks) {
+                max = Math.max(max, (int) chunk[1]);
+            }
+            maxRows = max;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Parcourt les en-têtes des paquets sans lire les colonnes
+     * @param dictionary Reçoit les configurations dans l'ordre de leurs identifiants
+     * @param count Reçoit le nombre d'enregistrements
+     * @param index Reçoit [position des colonnes, lignes] de chaque paquet (peut être null)
+     * @return Fin du dernier paquet complet
+     */
+    static long scanChunks(FileChannel channel, List<String> dictionary, long[] count, List<long[]> index)
+            throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(ResultStore.CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0, ResultStore.HEADER_SIZE);
+        if (header.getInt(0) != ResultStore.MAGIC) {
+            throw new IOException("Magasin de résultats invalide");
+        }
+        if (header.getInt(4) != ResultStore.VERSION) {
+            throw new IOException("Version de magasin non supportée : " + header.getInt(4));
+        }
+        long position = ResultStore.HEADER_SIZE;
+        while (position + ResultStore.CHUNK_HEADER_SIZE <= size) {
+            readFully(channel, header, position, ResultStore.CHUNK_HEADER_SIZE);
+            if (header.getInt(0) != ResultStore.CHUNK_MAGIC) {
+                break;
+            }
+            int rows = header.getInt(4);
+            int entries = header.getInt(8);
+            long payload = header.getLong(12);
+            long end = position + ResultStore.CHUNK_HEADER_SIZE + payload;
+            if (rows < 0 || payload < 0 || end > size) {
+                break;
+            }
+            long columnBytes = 0;
+            for (ResultStore.Column column : ResultStore.Column.values()) {
+                columnBytes += (long) rows * column.getWidth();
+            }
+            ByteBuffer entryBytes = ByteBuffer.allocate((int) (payload - columnBytes)).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, entryBytes, position + ResultStore.CHUNK_HEADER_SIZE, entryBytes.capacity());
+            for (int i = 0; i < entries; i++) {
+                int id = entryBytes.getInt();
+                byte[] name = new byte[entryBytes.getInt()];
+                entryBytes.get(name);
+                if (id != dictionary.size()) {
+                    throw new IOException("Dictionnaire des configurations incohérent");
+                }
+                dictionary.add(new String(name, StandardCharsets.UTF_8));
+            }
+            if (index != null) {
+                index.add(new long[] {end - columnBytes, rows});
+            }
+            count[0] += rows;
+            position = end;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length)
+            throws IOException {
+        ((Buffer) buffer).clear();
+        ((Buffer) buffer).limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Fin de fichier inattendue");
+            }
+        }
+        ((Buffer) buffer).flip();
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public List<String> getConfigurations() {
+        return Collections.unmodifiableList(configurations);
+    }
+
+    /**
+     * Parcourt tous les paquets dans l'ordre d'écriture
+     */
+    public void scan(ChunkVisitor visitor) throws IOException {
+        for (long[] chunk : chunks) {
+            int rows = (int) chunk[1];
+            long bytes = 0;
+            for (ResultStore.Column column : ResultStore.Column.values()) {
+                bytes += (long) rows * column.getWidth();
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], bytes);
+            visitor.visit(new Chunk(data, rows));
+        }
+    }
+
+    /**
+     * Agrège les essais par configuration et SNR
+     * @return Agrégats triés par configuration puis SNR
+     */
+    public List<Aggregate> aggregate() throws IOException {
+        Map<String, Aggregate> groups = new HashMap<>();
+        List<Aggregate> ordered = new ArrayList<>();
+        scan(chunk -> {
+            int[] configuration = chunk.getInts(ResultStore.Column.CONFIGURATION);
+            double[] snr = chunk.getDoubles(ResultStore.Column.SNR);
+            long[] bits = chunk.getLongs(ResultStore.Column.BITS);
+            long[] errors = chunk.getLongs(ResultStore.Column.ERRORS);
+            double[] effectiveSnr = chunk.getDoubles(ResultStore.Column.EFFECTIVE_SNR);
+            double[] eyeOpening = chunk.getDoubles(ResultStore.Column.EYE_OPENING);
+            double[] noiseMargin = chunk.getDoubles(ResultStore.Column.NOISE_MARGIN);
+            long[] transmit = chunk.getLongs(ResultStore.Column.TRANSMIT_NANOS);
+            long[] channelNanos = chunk.getLongs(ResultStore.Column.CHANNEL_NANOS);
+            long[] receive = chunk.getLongs(ResultStore.Column.RECEIVE_NANOS);
+
+            // Les essais d'un même point sont en général consécutifs : la table n'est
+            // consultée qu'au changement de groupe
+            Aggregate current = null;
+            for (int i = 0; i < chunk.getRows(); i++) {
+                if (current == null || current.snr != snr[i] || current.configurationId != configuration[i]) {
+                    String key = configuration[i] + "\u001f" + Double.doubleToLongBits(snr[i]);
+                    current = groups.get(key);
+                    if (current == null) {
+                        current = new Aggregate(configurations.get(configuration[i]), configuration[i], snr[i]);
+                        groups.put(key, current);
+                        ordered.add(current);
+                    }
+                }
+                current.trials++;
+                current.bits += bits[i];
+                current.errors += errors[i];
+                current.effectiveSnrSum += effectiveSnr[i];
+                current.eyeOpeningSum += eyeOpening[i];
+                current.noiseMarginSum += noiseMargin[i];
+                current.nanos += transmit[i] + channelNanos[i] + receive[i];
+            }
+        });
+        ordered.sort((a, b) -> a.configurationId != b.configurationId
+                ? Integer.compare(a.configurationId, b.configurationId) : Double.compare(a.snr, b.snr));
+        return ordered;
+    }
+
+    /**
+     * Courbe de BER d'une configuration, comme {@code runPerformanceTest}
+     * @return Tableau [SNR, BER] trié par SNR (BER = erreurs cumulées / bits cumulés)
+     */
+    public double[][] berCurve(String configuration) throws IOException {
+        List<double[]> points = new ArrayList<>();
+        for (Aggregate aggregate : aggregate()) {
+            if (aggregate.configuration.equals(configuration)) {
+                points.add(new double[] {aggregate.snr, aggregate.getBer()});
+            }
+        }
+        return points.toArray(new double[0][]);
+    }
+
+    private int[] intScratch(ResultStore.Column column) {
+        Object values = scratch[column.ordinal()];
+        if (!(values instanceof int[]) || ((int[]) values).length < maxRows) {
+            values = new int[maxRows];
+            scratch[column.ordinal()] = values;
+        }
+        return (int[]) values;
+    }
+
+    private long[] longScratch(ResultStore.Column column) {
+        Object values = scratch[column.ordinal()];
+        if (!(values instanceof long[]) || ((long[]) values).length < maxRows) {
+            values = new long[maxRows];
+            scratch[column.ordinal()] = values;
+        }
+        return (long[]) values;
+    }
+
+    private double[] doubleScratch(ResultStore.Column column) {
+        Object values = scratch[column.ordinal()];
+        if (!(values instanceof double[]) || ((double[]) values).length < maxRows) {
+            values = new double[maxRows];
+            scratch[column.ordinal()] = values;
+        }
+        return (double[]) values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,31 @@
+package com.transmissionnumerique.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source d'échantillons lue bloc par bloc (voies entrelacées : I, Q, I, Q... en complexe).
+ * C'est le consommateur qui tire les blocs : il n'en demande un nouveau qu'une fois le
+ * précédent traité, ce qui borne la mémoire quelle que soit la taille de l'enregistrement.
+ */
+public interface SampleSource extends Closeable {
+
+    /**
+     * 1 pour un signal réel, 2 pour un signal complexe
+     */
+    int getChannels();
+
+    double getSampleRate();
+
+    /**
+     * Nombre total d'échantillons (par voie), ou -1 s'il est inconnu
+     */
+    long getSampleCount();
+
+    /**
+     * Lit au plus maxSamples échantillons, soit maxSamples x getChannels() valeurs,
+     * dans destination à partir de offset
+     * @return Nombre d'échantillons lus (au moins 1), ou -1 en fin de source
+     */
+    int read(double[] destination, int offset, int maxSamples) throws IOException;
+}
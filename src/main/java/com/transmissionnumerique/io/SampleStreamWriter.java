@@ -0,0 +1,198 @@
+package com.transmissionnumerique.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Écriture en flux d'échantillons vers un fichier : conversion par blocs dans un tableau
+ * de travail, copie en bloc dans un tampon direct, puis écriture sur le canal quand le
+ * tampon est plein. Le coût par échantillon se limite à la boucle de conversion.
+ *
+ * Les sous-classes écrivent leur en-tête au début ({@link #dataOffset}) et le complètent
+ * à la fermeture ({@link #finish}), une fois le nombre d'échantillons connu.
+ */
+public abstract class SampleStreamWriter implements Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    protected final FileChannel channel;
+    protected final MappedSampleSource.RawFormat format;
+    protected final int channels;
+    protected final double sampleRate;
+
+    private final ByteBuffer buffer;
+    private final double scale;
+    private float[] floats;
+    private short[] shorts;
+    private double[] interleaved;
+    private long sampleCount;
+    private long clipped;
+
+    /**
+     * @param fullScale Amplitude ramenée à 1 (pleine échelle) : les valeurs sont divisées
+     *                  par fullScale, et écrêtées à ±1 en INT16
+     */
+    protected SampleStreamWriter(Path path, MappedSampleSource.RawFormat format, ByteOrder byteOrder,
+                                 int channels, double sampleRate, double fullScale) throws IOException {
+        if (channels != 1 && channels != 2) {
+            throw new IllegalArgumentException("Nombre de voies non supporté : " + channels);
+        }
+        if (!(fullScale > 0)) {
+            throw new IllegalArgumentException("Pleine échelle invalide : " + fullScale);
+        }
+        this.format = format;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.scale = 1.0 / fullScale;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(byteOrder);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Position du premier échantillon dans le fichier (taille de l'en-tête)
+     */
+    protected abstract long dataOffset();
+
+    /**
+     * Complète l'en-tête ou les métadonnées une fois les données écrites
+     */
+    protected abstract void finish(long sampleCount) throws IOException;
+
+    /**
+     * Ajoute des valeurs (voies entrelacées : length doit être un multiple du nombre de voies)
+     */
+    public void write(double[] values, int offset, int length) throws IOException {
+        if (length % channels != 0) {
+            throw new IllegalArgumentException("Longueur non multiple du nombre de voies : " + length);
+        }
+        if (sampleCount == 0 && channel.position() < dataOffset()) {
+            channel.position(dataOffset());
+        }
+        int valueBytes = format.getBytes();
+        int done = 0;
+        while (done < length) {
+            if (buffer.remaining() < valueBytes) {
+                drain();
+            }
+            int count = Math.min(length - done, buffer.remaining() / valueBytes);
+            put(values, offset + done, count);
+            done += count;
+        }
+        sampleCount += length / channels;
+    }
+
+    public void write(double[] values) throws IOException {
+        write(values, 0, values.length);
+    }
+
+    /**
+     * Ajoute un bloc complexe (deux voies) à partir des parties réelle et imaginaire
+     */
+    public void writeComplex(double[] real, double[] imag, int offset, int length) throws IOException {
+        if (channels != 2) {
+            throw new IllegalStateException("Flux réel : écriture complexe impossible");
+        }
+        if (interleaved == null) {
+            interleaved = new double[2 * 8192];
+        }
+        for (int done = 0; done < length; ) {
+            int count = Math.min(length - done, interleaved.length / 2);
+            for (int i = 0; i < count; i++) {
+                interleaved[2 * i] = real[offset + done + i];
+                interleaved[2 * i + 1] = imag[offset + done + i];
+            }
+            write(interleaved, 0, 2 * count);
+            done += count;
+        }
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Nombre de valeurs écrêtées (INT16 uniquement)
+     */
+    public long getClippedCount() {
+        return clipped;
+    }
+
+    private void put(double[] values, int from, int count) {
+        switch (format) {
+            case FLOAT64:
+                if (scale == 1.0) {
+                    buffer.asDoubleBuffer().put(values, from, count);
+                } else {
+                    java.nio.DoubleBuffer out = buffer.asDoubleBuffer();
+                    for (int i = 0; i < count; i++) {
+                        out.put(values[from + i] * scale);
+                    }
+                }
+                break;
+            case FLOAT32: {
+                if (floats == null || floats.length < count) {
+                    floats = new float[Math.max(count, 8192)];
+                }
+                final float[] f = floats;
+                final double s = scale;
+                for (int i = 0; i < count; i++) {
+                    f[i] = (float) (values[from + i] * s);
+                }
+                buffer.asFloatBuffer().put(f, 0, count);
+                break;
+            }
+            case INT16:
+            default: {
+                if (shorts == null || shorts.length < count) {
+                    shorts = new short[Math.max(count, 8192)];
+                }
+                final short[] q = shorts;
+                final double s = scale * 32768.0;
+                long clips = 0;
+                for (int i = 0; i < count; i++) {
+                    double v = values[from + i] * s;
+                    if (v > 32767.0) {
+                        v = 32767.0;
+                        clips++;
+                    } else if (v < -32768.0) {
+                        v = -32768.0;
+                        clips++;
+                    }
+                    q[i] = (short) Math.round(v);
+                }
+                clipped += clips;
+                buffer.asShortBuffer().put(q, 0, count);
+                break;
+            }
+        }
+        ((Buffer) buffer).position(buffer.position() + count * format.getBytes());
+    }
+
+    private void drain() throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (sampleCount == 0 && channel.position() < dataOffset()) {
+                channel.position(dataOffset());
+            }
+            drain();
+            finish(sampleCount);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.transmissionnumerique.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Métadonnées SigMF utiles à la lecture d'un enregistrement : type des échantillons
+ * ({@code core:datatype}, par exemple {@code cf32_le}) et fréquence d'échantillonnage
+ * ({@code core:sample_rate}). Les échantillons sont dans le fichier {@code .sigmf-data}
+ * de même nom que le fichier {@code .sigmf-meta}.
+ *
+ * Les enregistrements exportés par l'application ajoutent l'étage et le nombre
+ * d'échantillons par symbole (extension {@code tn}), relus pour le rejeu.
+ */
+public class SigMfMetadata {
+
+    public static final String META_EXTENSION = ".sigmf-meta";
+    public static final String DATA_EXTENSION = ".sigmf-data";
+
+    private static final Pattern DATATYPE = Pattern.compile("\"core:datatype\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern SAMPLE_RATE = Pattern.compile("\"core:sample_rate\"\\s*:\\s*([-+0-9.eE]+)");
+    private static final Pattern SAMPLES_PER_SYMBOL = Pattern.compile("\"tn:samples_per_symbol\"\\s*:\\s*([0-9]+)");
+    private static final Pattern STAGE = Pattern.compile("\"tn:stage\"\\s*:\\s*\"([A-Z_]+)\"");
+
+    private final MappedSampleSource.RawFormat format;
+    private final ByteOrder byteOrder;
+    private final boolean complex;
+    private final double sampleRate;
+    private int samplesPerSymbol;
+    private CaptureHeader.Stage stage = CaptureHeader.Stage.EXTERNAL;
+
+    public SigMfMetadata(MappedSampleSource.RawFormat format, ByteOrder byteOrder, boolean complex, double sampleRate) {
+        this.format = format;
+        this.byteOrder = byteOrder;
+        this.complex = complex;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Étage de la chaîne et échantillons par symbole (0 si inconnu) de l'enregistrement
+     */
+    public void setStage(CaptureHeader.Stage stage, int samplesPerSymbol) {
+        this.stage = stage;
+        this.samplesPerSymbol = samplesPerSymbol;
+    }
+
+    /**
+     * Lecture du fichier de métadonnées (seules les clés globales utiles sont extraites)
+     */
+    public static SigMfMetadata read(Path metaPath) throws IOException {
+        String json = new String(Files.readAllBytes(metaPath), StandardCharsets.UTF_8);
+        Matcher datatype = DATATYPE.matcher(json);
+        if (!datatype.find()) {
+            throw new IOException("core:datatype absent de " + metaPath);
+        }
+        Matcher rate = SAMPLE_RATE.matcher(json);
+        double sampleRate = rate.find() ? Double.parseDouble(rate.group(1)) : 0;
+        SigMfMetadata metadata = parseDatatype(datatype.group(1), sampleRate);
+        Matcher sps = SAMPLES_PER_SYMBOL.matcher(json);
+        Matcher stage = STAGE.matcher(json);
+        CaptureHeader.Stage recorded = CaptureHeader.Stage.EXTERNAL;
+        if (stage.find()) {
+            try {
+                recorded = CaptureHeader.Stage.valueOf(stage.group(1));
+            } catch (IllegalArgumentException e) {
+                // Étage inconnu de cette version : traité comme externe
+            }
+        }
+        metadata.setStage(recorded, sps.find() ? Integer.parseInt(sps.group(1)) : 0);
+        return metadata;
+    }
+
+    /**
+     * Décode un type SigMF : {@code r|c} puis {@code f32|f64|i16}, suivi de {@code _le|_be}
+     */
+    static SigMfMetadata parseDatatype(String datatype, double sampleRate) throws IOException {
+        String type = datatype.toLowerCase(Locale.ROOT);
+        if (type.length() < 4 || (type.charAt(0) != 'r' && type.charAt(0) != 'c')) {
+            throw new IOException("Type SigMF non supporté : " + datatype);
+        }
+        boolean complex = type.charAt(0) == 'c';
+        ByteOrder order = ByteOrder.LITTLE_ENDIAN;
+        String body = type.substring(1);
+        if (body.endsWith("_le")) {
+            body = body.substring(0, body.length() - 3);
+        } else if (body.endsWith("_be")) {
+            order = ByteOrder.BIG_ENDIAN;
+            body = body.substring(0, body.length() - 3);
+        }
+        MappedSampleSource.RawFormat format;
+        switch (body) {
+            case "f32":
+                format = MappedSampleSource.RawFormat.FLOAT32;
+                break;
+            case "f64":
+                format = MappedSampleSource.RawFormat.FLOAT64;
+                break;
+            case "i16":
+                format = MappedSampleSource.RawFormat.INT16;
+                break;
+            default:
+                throw new IOException("Type SigMF non supporté : " + datatype);
+        }
+        return new SigMfMetadata(format, order, complex, sampleRate);
+    }
+
+    /**
+     * Type SigMF correspondant, par exemple {@code cf32_le}
+     */
+    public String getDatatype() {
+        String body;
+        switch (format) {
+            case FLOAT32:
+                body = "f32";
+                break;
+            case FLOAT64:
+                body = "f64";
+                break;
+            case INT16:
+            default:
+                body = "i16";
+                break;
+        }
+        return (complex ? "c" : "r") + body + (byteOrder == ByteOrder.BIG_ENDIAN ? "_be" : "_le");
+    }
+
+    /**
+     * Écrit le fichier de métadonnées. Les champs supplémentaires (espace de noms
+     * {@code tn:}, déclaré comme extension facultative) décrivent l'étage enregistré.
+     */
+    public void write(Path metaPath, String description, Map<String, Object> extensions) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"global\": {\n");
+        json.append("    \"core:datatype\": \"").append(getDatatype()).append("\",\n");
+        json.append("    \"core:sample_rate\": ").append(sampleRate).append(",\n");
+        json.append("    \"core:version\": \"1.0.0\",\n");
+        if (description != null) {
+            json.append("    \"core:description\": ").append(quote(description)).append(",\n");
+        }
+        json.append("    \"core:recorder\": \"transmission-numerique\",\n");
+        if (extensions != null && !extensions.isEmpty()) {
+            json.append("    \"core:extensions\": [{\"name\": \"tn\", \"version\": \"1.0.0\", \"optional\": true}],\n");
+            for (Map.Entry<String, Object> entry : extensions.entrySet()) {
+                json.append("    ").append(quote("tn:" + entry.getKey())).append(": ")
+                    .append(jsonValue(entry.getValue())).append(",\n");
+            }
+        }
+        json.setLength(json.length() - 2);
+        json.append("\n  },\n  \"captures\": [{\"core:sample_start\": 0}],\n  \"annotations\": []\n}\n");
+        Files.write(metaPath, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String jsonValue(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return Double.isNaN(number) || Double.isInfinite(number) ? "null" : value.toString();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return quote(String.valueOf(value));
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Fichier de données associé à un fichier de métadonnées (et réciproquement)
+     */
+    public static Path companion(Path path) {
+        String name = path.getFileName().toString();
+        if (name.endsWith(META_EXTENSION)) {
+            return path.resolveSibling(name.substring(0, name.length() - META_EXTENSION.length()) + DATA_EXTENSION);
+        }
+        if (name.endsWith(DATA_EXTENSION)) {
+            return path.resolveSibling(name.substring(0, name.length() - DATA_EXTENSION.length()) + META_EXTENSION);
+        }
+        throw new IllegalArgumentException("Fichier SigMF attendu : " + path);
+    }
+
+    public static boolean isSigMf(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(META_EXTENSION) || name.endsWith(DATA_EXTENSION);
+    }
+
+    public MappedSampleSource.RawFormat getFormat() {
+        return format;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    public boolean isComplex() {
+        return complex;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getSamplesPerSymbol() {
+        return samplesPerSymbol;
+    }
+
+    public CaptureHeader.Stage getStage() {
+        return stage;
+    }
+}
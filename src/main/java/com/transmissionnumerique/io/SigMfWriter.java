@@ -0,0 +1,74 @@
+package com.transmissionnumerique.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Export SigMF en flux : les échantillons vont dans le fichier {@code .sigmf-data} au fil
+ * de l'écriture, le fichier {@code .sigmf-meta} est écrit à la fermeture.
+ */
+public class SigMfWriter extends SampleStreamWriter {
+
+    private final Path metaPath;
+    private final SigMfMetadata metadata;
+    private final Map<String, Object> extensions = new LinkedHashMap<>();
+    private String description;
+
+    /**
+     * @param path Fichier de données ou de métadonnées, ou nom de base sans extension
+     */
+    public SigMfWriter(Path path, MappedSampleSource.RawFormat format, int channels, double sampleRate,
+                       double fullScale) throws IOException {
+        super(dataPath(path), format, ByteOrder.LITTLE_ENDIAN, channels, sampleRate, fullScale);
+        this.metaPath = SigMfMetadata.companion(dataPath(path));
+        this.metadata = new SigMfMetadata(format, ByteOrder.LITTLE_ENDIAN, channels == 2, sampleRate);
+    }
+
+    public static Path dataPath(Path path) {
+        String name = path.getFileName().toString();
+        if (name.endsWith(SigMfMetadata.DATA_EXTENSION)) {
+            return path;
+        }
+        if (name.endsWith(SigMfMetadata.META_EXTENSION)) {
+            return SigMfMetadata.companion(path);
+        }
+        return path.resolveSibling(name + SigMfMetadata.DATA_EXTENSION);
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Étage enregistré et échantillons par symbole (relus par {@link MappedSampleSource#open})
+     */
+    public void setStage(CaptureHeader.Stage stage, int samplesPerSymbol) {
+        metadata.setStage(stage, samplesPerSymbol);
+        extensions.put("stage", stage.name());
+        extensions.put("samples_per_symbol", samplesPerSymbol);
+    }
+
+    /**
+     * Champ global supplémentaire (préfixé {@code tn:})
+     */
+    public void putField(String name, Object value) {
+        extensions.put(name, value);
+    }
+
+    public Path getMetaPath() {
+        return metaPath;
+    }
+
+    @Override
+    protected long dataOffset() {
+        return 0;
+    }
+
+    @Override
+    protected void finish(long sampleCount) throws IOException {
+        metadata.write(metaPath, description, extensions);
+    }
+}
@@ -0,0 +1,105 @@
+package com.transmissionnumerique.io;
+
+import com.transmissionnumerique.model.ComplexSignal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Session de capture : un fichier par étage choisi ({@code <étage>.tncap} dans le répertoire),
+ * ouvert au premier enregistrement. Les simulations successives s'ajoutent à la suite.
+ */
+public class SignalCapture implements Closeable {
+
+    public static final String EXTENSION = ".tncap";
+
+    private final Path directory;
+    private final CaptureHeader.SampleFormat format;
+    private final double sampleRate;
+    private final int samplesPerSymbol;
+    private final Set<CaptureHeader.Stage> stages;
+    private final EnumMap<CaptureHeader.Stage, CaptureWriter> writers = new EnumMap<>(CaptureHeader.Stage.class);
+
+    /**
+     * @param sampleRate Fréquence d'échantillonnage des signaux mis en forme
+     *                   (les étages ENCODED et RECOVERED sont au rythme symbole)
+     */
+    public SignalCapture(Path directory, CaptureHeader.SampleFormat format, double sampleRate,
+                         int samplesPerSymbol, Set<CaptureHeader.Stage> stages) throws IOException {
+        this.directory = directory;
+        this.format = format;
+        this.sampleRate = sampleRate;
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.stages = stages.isEmpty() ? EnumSet.noneOf(CaptureHeader.Stage.class) : EnumSet.copyOf(stages);
+        Files.createDirectories(directory);
+    }
+
+    public static Path pathFor(Path directory, CaptureHeader.Stage stage) {
+        return directory.resolve(stage.name().toLowerCase(Locale.ROOT) + EXTENSION);
+    }
+
+    public boolean isCaptured(CaptureHeader.Stage stage) {
+        return stages.contains(stage);
+    }
+
+    public synchronized void record(CaptureHeader.Stage stage, double[] signal) throws IOException {
+        if (signal == null || !stages.contains(stage)) {
+            return;
+        }
+        writer(stage, 1).write(signal);
+    }
+
+    public synchronized void record(CaptureHeader.Stage stage, ComplexSignal signal) throws IOException {
+        if (signal == null || !stages.contains(stage)) {
+            return;
+        }
+        writer(stage, 2).writeComplex(signal.getReal(), signal.getImag(), 0, signal.getLength());
+    }
+
+    /**
+     * Publie l'état courant de chaque fichier (lecture possible pendant la capture)
+     */
+    public synchronized void flush() throws IOException {
+        for (CaptureWriter writer : writers.values()) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (CaptureWriter writer : writers.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        writers.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private CaptureWriter writer(CaptureHeader.Stage stage, int channels) throws IOException {
+        CaptureWriter writer = writers.get(stage);
+        if (writer == null) {
+            // Symboles émis et symboles récupérés sont au rythme symbole
+            boolean symbolRate = stage == CaptureHeader.Stage.ENCODED || stage == CaptureHeader.Stage.RECOVERED;
+            double rate = symbolRate ? sampleRate / samplesPerSymbol : sampleRate;
+            int sps = symbolRate ? 1 : samplesPerSymbol;
+            writer = new CaptureWriter(pathFor(directory, stage), stage, format, channels, rate, sps);
+            writers.put(stage, writer);
+        } else if (writer.getChannels() != channels) {
+            throw new IllegalArgumentException("Étage " + stage + " déjà capturé avec " + writer.getChannels()
+                    + " voie(s)");
+        }
+        return writer;
+    }
+}
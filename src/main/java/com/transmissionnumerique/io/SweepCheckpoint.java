@@ -0,0 +1,145 @@
+package com.transmissionnumerique.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Point de reprise d'une campagne de BER : accumulateurs de chaque point de SNR (bits,
+ * erreurs, et nombre d'essais effectués, qui est aussi la position dans la suite de
+ * graines du point). Le fichier est écrit dans un fichier temporaire synchronisé sur
+ * disque puis renommé atomiquement : après une interruption, on relit soit l'ancien
+ * point de reprise, soit le nouveau, jamais un fichier partiel.
+ */
+public class SweepCheckpoint {
+
+    private static final int MAGIC = 0x54534331; // "TSC1"
+
+    private final String jobKey;
+    private final double[] snrValues;
+    private final long[] trials;
+    private final long[] bits;
+    private final long[] errors;
+    private final boolean[] finished;
+
+    public SweepCheckpoint(String jobKey, double[] snrValues) {
+        this.jobKey = jobKey;
+        this.snrValues = snrValues.clone();
+        this.trials = new long[snrValues.length];
+        this.bits = new long[snrValues.length];
+        this.errors = new long[snrValues.length];
+        this.finished = new boolean[snrValues.length];
+    }
+
+    /**
+     * @return Le point de reprise, ou null si le fichier n'existe pas
+     */
+    public static SweepCheckpoint read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Point de reprise invalide : " + path);
+            }
+            String jobKey = in.readUTF();
+            int count = in.readInt();
+            double[] snrValues = new double[count];
+            for (int i = 0; i < count; i++) {
+                snrValues[i] = in.readDouble();
+            }
+            SweepCheckpoint checkpoint = new SweepCheckpoint(jobKey, snrValues);
+            for (int i = 0; i < count; i++) {
+                checkpoint.trials[i] = in.readLong();
+                checkpoint.bits[i] = in.readLong();
+                checkpoint.errors[i] = in.readLong();
+                checkpoint.finished[i] = in.readBoolean();
+            }
+            return checkpoint;
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(jobKey);
+                out.writeInt(snrValues.length);
+                for (double snr : snrValues) {
+                    out.writeDouble(snr);
+                }
+                for (int i = 0; i < snrValues.length; i++) {
+                    out.writeLong(trials[i]);
+                    out.writeLong(bits[i]);
+                    out.writeLong(errors[i]);
+                    out.writeBoolean(finished[i]);
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Enregistre un essai terminé du point index
+     */
+    public void addTrial(int index, long trialBits, long trialErrors) {
+        trials[index]++;
+        bits[index] += trialBits;
+        errors[index] += trialErrors;
+    }
+
+    public void setFinished(int index) {
+        finished[index] = true;
+    }
+
+    public boolean isComplete() {
+        for (boolean done : finished) {
+            if (!done) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getJobKey() {
+        return jobKey;
+    }
+
+    public double[] getSnrValues() {
+        return snrValues.clone();
+    }
+
+    public long getTrials(int index) {
+        return trials[index];
+    }
+
+    public long getBits(int index) {
+        return bits[index];
+    }
+
+    public long getErrors(int index) {
+        return errors[index];
+    }
+
+    public boolean isFinished(int index) {
+        return finished[index];
+    }
+}
@@ -0,0 +1,216 @@
+package com.transmissionnumerique.io;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Protocole binaire entre le coordinateur d'une campagne et ses workers :
+ * <pre>
+ * worker -> coordinateur : HELLO (magic, version)
+ * coordinateur -> worker : JOB (configuration, longueur de bloc, graine, empreinte)
+ * worker -> coordinateur : READY, ou ERROR (message) si l'empreinte diffère
+ * coordinateur -> worker : UNIT (identifiant, SNR, premier essai, nombre d'essais)
+ * worker -> coordinateur : RESULT (identifiant, erreurs de chaque essai)
+ * coordinateur -> worker : SHUTDOWN
+ * </pre>
+ * Les erreurs par essai sont codées en entiers de longueur variable (7 bits par octet) :
+ * quelques octets par essai.
+ */
+public final class SweepProtocol {
+
+    public static final int MAGIC = 0x54535731; // "TSW1"
+    public static final int VERSION = 1;
+
+    public static final byte JOB = 1;
+    public static final byte READY = 2;
+    public static final byte ERROR = 3;
+    public static final byte UNIT = 4;
+    public static final byte RESULT = 5;
+    public static final byte SHUTDOWN = 6;
+
+    private SweepProtocol() {
+    }
+
+    /**
+     * Description d'une campagne transmise aux workers
+     */
+    public static class Job {
+        public final String encoding;
+        public final String filter;
+        public final String modulation;
+        public final int blockLength;
+        public final long seed;
+        public final String configurationKey;
+
+        public Job(String encoding, String filter, String modulation, int blockLength, long seed,
+                   String configurationKey) {
+            this.encoding = encoding;
+            this.filter = filter;
+            this.modulation = modulation;
+            this.blockLength = blockLength;
+            this.seed = seed;
+            this.configurationKey = configurationKey;
+        }
+    }
+
+    /**
+     * Unité de travail : essais [firstTrial, firstTrial + trials) d'un point de SNR
+     */
+    public static class Unit {
+        public final long id;
+        public final int pointIndex;
+        public final double snr;
+        public final long firstTrial;
+        public final int trials;
+
+        public Unit(long id, int pointIndex, double snr, long firstTrial, int trials) {
+            this.id = id;
+            this.pointIndex = pointIndex;
+            this.snr = snr;
+            this.firstTrial = firstTrial;
+            this.trials = trials;
+        }
+    }
+
+    public static void writeHello(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.flush();
+    }
+
+    public static void readHello(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Pair inconnu (magic invalide)");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Version de protocole non supportée : " + version);
+        }
+    }
+
+    public static void writeJob(DataOutputStream out, Job job) throws IOException {
+        out.writeByte(JOB);
+        out.writeUTF(job.encoding);
+        out.writeUTF(job.filter);
+        out.writeUTF(job.modulation);
+        out.writeInt(job.blockLength);
+        out.writeLong(job.seed);
+        out.writeUTF(job.configurationKey);
+        out.flush();
+    }
+
+    public static Job readJob(DataInputStream in) throws IOException {
+        expect(in, JOB);
+        return new Job(in.readUTF(), in.readUTF(), in.readUTF(), in.readInt(), in.readLong(), in.readUTF());
+    }
+
+    public static void writeUnit(DataOutputStream out, Unit unit) throws IOException {
+        out.writeByte(UNIT);
+        out.writeLong(unit.id);
+        out.writeInt(unit.pointIndex);
+        out.writeDouble(unit.snr);
+        out.writeLong(unit.firstTrial);
+        out.writeInt(unit.trials);
+        out.flush();
+    }
+
+    /**
+     * Lit l'unité suivante
+     * @return L'unité, ou null sur SHUTDOWN
+     */
+    public static Unit readUnit(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == SHUTDOWN) {
+            return null;
+        }
+        if (type != UNIT) {
+            throw new IOException("Message inattendu : " + type);
+        }
+        return new Unit(in.readLong(), in.readInt(), in.readDouble(), in.readLong(), in.readInt());
+    }
+
+    public static void writeResult(DataOutputStream out, long unitId, long[] errors) throws IOException {
+        out.writeByte(RESULT);
+        out.writeLong(unitId);
+        writeVarLong(out, errors.length);
+        for (long value : errors) {
+            writeVarLong(out, value);
+        }
+        out.flush();
+    }
+
+    /**
+     * Lit un résultat ; l'identifiant de l'unité est rendu dans unitId[0]
+     */
+    public static long[] readResult(DataInputStream in, long[] unitId) throws IOException {
+        byte type = in.readByte();
+        if (type == ERROR) {
+            throw new IOException("Erreur du worker : " + in.readUTF());
+        }
+        if (type != RESULT) {
+            throw new IOException("Message inattendu : " + type);
+        }
+        unitId[0] = in.readLong();
+        long[] errors = new long[(int) readVarLong(in)];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = readVarLong(in);
+        }
+        return errors;
+    }
+
+    public static void writeStatus(DataOutputStream out, String error) throws IOException {
+        if (error == null) {
+            out.writeByte(READY);
+        } else {
+            out.writeByte(ERROR);
+            out.writeUTF(error);
+        }
+        out.flush();
+    }
+
+    public static void readStatus(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == ERROR) {
+            throw new IOException("Worker refusé : " + in.readUTF());
+        }
+        if (type != READY) {
+            throw new IOException("Message inattendu : " + type);
+        }
+    }
+
+    public static void writeShutdown(DataOutputStream out) throws IOException {
+        out.writeByte(SHUTDOWN);
+        out.flush();
+    }
+
+    private static void expect(DataInputStream in, byte expected) throws IOException {
+        byte type = in.readByte();
+        if (type != expected) {
+            throw new IOException("Message inattendu : " + type + " au lieu de " + expected);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Valeur négative : " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Entier de longueur variable trop long");
+    }
+}
@@ -0,0 +1,159 @@
+package com.transmissionnumerique.io;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * En-tête RIFF/WAVE : PCM 16 bits (format 1) ou flottant IEEE 32/64 bits (format 3,
+ * avec bloc {@code fact}). À la lecture, le format étendu (0xFFFE) est aussi accepté.
+ */
+public class WavHeader {
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private final MappedSampleSource.RawFormat format;
+    private final int channels;
+    private final int sampleRate;
+    private final long dataOffset;
+    private final long dataBytes;
+
+    public WavHeader(MappedSampleSource.RawFormat format, int channels, int sampleRate, long dataOffset, long dataBytes) {
+        this.format = format;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.dataOffset = dataOffset;
+        this.dataBytes = dataBytes;
+    }
+
+    /**
+     * Taille de l'en-tête écrit par {@link #write} : 44 octets en PCM, 58 en flottant
+     */
+    public static long headerSize(MappedSampleSource.RawFormat format) {
+        return format == MappedSampleSource.RawFormat.INT16 ? 44 : 58;
+    }
+
+    /**
+     * Écrit l'en-tête au début du fichier (sans déplacer la position du canal)
+     */
+    public void write(FileChannel channel) throws IOException {
+        if (dataBytes > 0xFFFFFFFFL - headerSize(format)) {
+            throw new IOException("Données trop volumineuses pour un fichier WAV : " + dataBytes + " octets");
+        }
+        boolean pcm = format == MappedSampleSource.RawFormat.INT16;
+        int bytes = format.getBytes();
+        long header = headerSize(format);
+        ByteBuffer buffer = ByteBuffer.allocate((int) header).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(new byte[]{'R', 'I', 'F', 'F'});
+        buffer.putInt((int) (header - 8 + dataBytes));
+        buffer.put(new byte[]{'W', 'A', 'V', 'E', 'f', 'm', 't', ' '});
+        buffer.putInt(pcm ? 16 : 18);
+        buffer.putShort((short) (pcm ? FORMAT_PCM : FORMAT_FLOAT));
+        buffer.putShort((short) channels);
+        buffer.putInt(sampleRate);
+        buffer.putInt(sampleRate * channels * bytes);
+        buffer.putShort((short) (channels * bytes));
+        buffer.putShort((short) (8 * bytes));
+        if (!pcm) {
+            buffer.putShort((short) 0);
+            buffer.put(new byte[]{'f', 'a', 'c', 't'});
+            buffer.putInt(4);
+            buffer.putInt((int) (dataBytes / (channels * bytes)));
+        }
+        buffer.put(new byte[]{'d', 'a', 't', 'a'});
+        buffer.putInt((int) dataBytes);
+        ((Buffer) buffer).flip();
+        long position = 0;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Parcourt les blocs jusqu'au bloc {@code data}
+     */
+    public static WavHeader read(FileChannel channel) throws IOException {
+        ByteBuffer riff = readAt(channel, 0, 12);
+        if (riff.getInt(0) != tag("RIFF") || riff.getInt(8) != tag("WAVE")) {
+            throw new IOException("Fichier WAV invalide");
+        }
+        int formatTag = -1;
+        int channels = 0;
+        int sampleRate = 0;
+        int bits = 0;
+        long position = 12;
+        while (position + 8 <= channel.size()) {
+            ByteBuffer chunk = readAt(channel, position, 8);
+            int id = chunk.getInt(0);
+            long size = chunk.getInt(4) & 0xFFFFFFFFL;
+            if (id == tag("fmt ")) {
+                ByteBuffer fmt = readAt(channel, position + 8, (int) Math.min(size, 40));
+                formatTag = fmt.getShort(0) & 0xFFFF;
+                channels = fmt.getShort(2);
+                sampleRate = fmt.getInt(4);
+                bits = fmt.getShort(14);
+                if (formatTag == FORMAT_EXTENSIBLE && size >= 26) {
+                    formatTag = fmt.getShort(24) & 0xFFFF; // début du GUID de sous-format
+                }
+            } else if (id == tag("data")) {
+                if (formatTag < 0) {
+                    throw new IOException("Bloc fmt absent avant les données");
+                }
+                MappedSampleSource.RawFormat format;
+                if (formatTag == FORMAT_PCM && bits == 16) {
+                    format = MappedSampleSource.RawFormat.INT16;
+                } else if (formatTag == FORMAT_FLOAT && bits == 32) {
+                    format = MappedSampleSource.RawFormat.FLOAT32;
+                } else if (formatTag == FORMAT_FLOAT && bits == 64) {
+                    format = MappedSampleSource.RawFormat.FLOAT64;
+                } else {
+                    throw new IOException("Format WAV non supporté : " + formatTag + ", " + bits + " bits");
+                }
+                // Taille 0 ou excessive : enregistrement interrompu, on lit jusqu'à la fin
+                long available = channel.size() - position - 8;
+                long dataBytes = size == 0 || size > available ? available : size;
+                return new WavHeader(format, channels, sampleRate, position + 8, dataBytes);
+            }
+            position += 8 + size + (size & 1);
+        }
+        throw new IOException("Bloc data absent du fichier WAV");
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Fichier WAV tronqué");
+            }
+        }
+        return buffer;
+    }
+
+    private static int tag(String id) {
+        return (id.charAt(0)) | (id.charAt(1) << 8) | (id.charAt(2) << 16) | (id.charAt(3) << 24);
+    }
+
+    public MappedSampleSource.RawFormat getFormat() {
+        return format;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getDataOffset() {
+        return dataOffset;
+    }
+
+    public long getDataBytes() {
+        return dataBytes;
+    }
+}
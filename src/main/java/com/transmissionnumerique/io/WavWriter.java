@@ -0,0 +1,44 @@
+package com.transmissionnumerique.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * Export WAV en flux (PCM 16 bits ou flottant 32 bits). L'en-tête est écrit avec une
+ * taille nulle puis complété à la fermeture ; un signal complexe donne un fichier stéréo
+ * (voie gauche I, voie droite Q).
+ */
+public class WavWriter extends SampleStreamWriter {
+
+    public WavWriter(Path path, MappedSampleSource.RawFormat format, int channels, double sampleRate,
+                     double fullScale) throws IOException {
+        super(path, checkFormat(format), ByteOrder.LITTLE_ENDIAN, channels, sampleRate, fullScale);
+        new WavHeader(format, channels, wavRate(sampleRate), WavHeader.headerSize(format), 0).write(channel);
+    }
+
+    private static MappedSampleSource.RawFormat checkFormat(MappedSampleSource.RawFormat format) {
+        if (format == MappedSampleSource.RawFormat.FLOAT64) {
+            throw new IllegalArgumentException("Export WAV en PCM 16 bits ou flottant 32 bits uniquement");
+        }
+        return format;
+    }
+
+    private static int wavRate(double sampleRate) {
+        if (sampleRate < 1 || sampleRate > Integer.MAX_VALUE || sampleRate != Math.rint(sampleRate)) {
+            throw new IllegalArgumentException("Fréquence d'échantillonnage non entière : " + sampleRate);
+        }
+        return (int) sampleRate;
+    }
+
+    @Override
+    protected long dataOffset() {
+        return WavHeader.headerSize(format);
+    }
+
+    @Override
+    protected void finish(long sampleCount) throws IOException {
+        long dataBytes = sampleCount * channels * format.getBytes();
+        new WavHeader(format, channels, wavRate(sampleRate), dataOffset(), dataBytes).write(channel);
+    }
+}
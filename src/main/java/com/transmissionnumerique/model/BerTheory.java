@@ -0,0 +1,200 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Outils analytiques pour le taux d'erreur binaire.
+ * La fonction Q est calculée par une approximation de erfc à erreur relative
+ * inférieure à 1,2e-7 sur tout l'axe, y compris dans les queues (BER jusqu'à 1e-300).
+ *
+ * Les courbes théoriques sont écrites sous la forme BER ≈ c·Q(√(2a·Eb/N0)) (Gray pour
+ * les constellations), ce qui donne directement la moyenne sur un évanouissement de
+ * Rayleigh : E[Q(√(2aγ))] = (1 - μ) / 2 avec μ = √(aγ̄ / (1 + aγ̄)).
+ */
+public final class BerTheory {
+
+    /**
+     * Schémas disposant d'une forme close
+     */
+    public enum Scheme {
+        // c, a, bits par symbole, symboles par bit, chaîne complexe
+        NRZ(1.0, 1.0, 1, 1, false),
+        MANCHESTER(1.0, 1.0, 1, 2, false),
+        AMI(1.5, 0.5, 1, 1, false),
+        BPSK(1.0, 1.0, 1, 1, false),
+        QPSK(1.0, 1.0, 2, 1, true),
+        QAM16(0.75, 0.4, 4, 1, true),
+        QAM64(7.0 / 12.0, 1.0 / 7.0, 6, 1, true);
+
+        private final double coefficient;
+        private final double argument;
+        private final int bitsPerSymbol;
+        private final int symbolsPerBit;
+        private final boolean complex;
+
+        Scheme(double coefficient, double argument, int bitsPerSymbol, int symbolsPerBit, boolean complex) {
+            this.coefficient = coefficient;
+            this.argument = argument;
+            this.bitsPerSymbol = bitsPerSymbol;
+            this.symbolsPerBit = symbolsPerBit;
+            this.complex = complex;
+        }
+
+        public int getBitsPerSymbol() {
+            return bitsPerSymbol;
+        }
+    }
+
+    private BerTheory() {
+    }
+
+    /**
+     * Fonction complémentaire d'erreur (approximation de Tchebychev)
+     */
+    public static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1.0 / (1.0 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? r : 2.0 - r;
+    }
+
+    /**
+     * Probabilité qu'une gaussienne centrée réduite dépasse x
+     */
+    public static double q(double x) {
+        return 0.5 * erfc(x / Math.sqrt(2.0));
+    }
+
+    /**
+     * Intervalle de confiance de Wilson d'un taux d'erreur mesuré
+     * @param z Quantile de la loi normale (1.96 pour 95 %)
+     * @return [borne basse, borne haute]
+     */
+    public static double[] wilsonInterval(long errors, long bits, double z) {
+        if (bits <= 0) {
+            return new double[]{0.0, 1.0};
+        }
+        double p = (double) errors / bits;
+        double z2 = z * z;
+        double denominator = 1.0 + z2 / bits;
+        double center = (p + z2 / (2.0 * bits)) / denominator;
+        double halfWidth = z * Math.sqrt(p * (1.0 - p) / bits + z2 / (4.0 * bits * bits)) / denominator;
+        // Bornes exactes aux extrêmes : center - halfWidth n'y vaut 0 qu'aux arrondis près
+        double low = errors <= 0 ? 0.0 : Math.max(0.0, center - halfWidth);
+        double high = errors >= bits ? 1.0 : Math.min(1.0, center + halfWidth);
+        return new double[]{low, high};
+    }
+
+    /**
+     * Schéma théorique correspondant à une configuration de la chaîne.
+     * En bande de base ASK/PSK/FSK sont antipodaux : la courbe est celle du code en ligne.
+     */
+    public static Scheme forChain(Modulator.ModulationType modulationType, LineEncoder.EncodingType encodingType) {
+        switch (modulationType) {
+            case QPSK:
+                return Scheme.QPSK;
+            case QAM:
+                return Scheme.QAM16;
+            case QAM64:
+                return Scheme.QAM64;
+            default:
+                break;
+        }
+        switch (encodingType) {
+            case MANCHESTER:
+                return Scheme.MANCHESTER;
+            case AMI:
+            case HDB3:
+            case B8ZS:
+                return Scheme.AMI;
+            case NRZ:
+            default:
+                return Scheme.NRZ;
+        }
+    }
+
+    /**
+     * Conversion du SNR par échantillon de la chaîne (puissance du signal / puissance du bruit)
+     * en Eb/N0. Voie réelle : N0/2 = σ², d'où Eb/N0 = SNR·(échantillons par bit)/2 ;
+     * voie complexe : N0 = puissance totale du bruit, d'où Es/N0 = SNR·(échantillons par symbole).
+     */
+    public static double ebN0FromSnr(Scheme scheme, double snrDb, int samplesPerSymbol) {
+        double factor = scheme.complex
+                ? samplesPerSymbol / (double) scheme.bitsPerSymbol
+                : samplesPerSymbol * scheme.symbolsPerBit / 2.0;
+        return snrDb + 10 * Math.log10(factor);
+    }
+
+    /**
+     * BER théorique à Eb/N0 donné (dB), canal AWGN ou Rayleigh (Eb/N0 moyen)
+     */
+    public static double ber(Scheme scheme, double ebN0Db, boolean rayleigh) {
+        double gamma = Math.pow(10, ebN0Db / 10);
+        double p = rayleigh
+                ? rayleighQ(scheme.argument * gamma)
+                : q(Math.sqrt(2 * scheme.argument * gamma));
+        return Math.min(0.5, scheme.coefficient * p);
+    }
+
+    /**
+     * Taux d'erreur symbole théorique. Binaire et AMI : égal au BER (approximation du
+     * plus proche voisin pour AMI). QPSK/M-QAM carrée : 1 - (1 - P)² avec
+     * P = 2(1 - 1/√M)·Q(√(3k·Eb/N0 / (M - 1))), moyenné exactement sous Rayleigh.
+     */
+    public static double ser(Scheme scheme, double ebN0Db, boolean rayleigh) {
+        if (!scheme.complex) {
+            return ber(scheme, ebN0Db, rayleigh);
+        }
+        double gamma = Math.pow(10, ebN0Db / 10);
+        double rootM = Math.sqrt(1 << scheme.bitsPerSymbol);
+        double k = 2 * (1 - 1 / rootM);
+        double a = 1.5 * scheme.bitsPerSymbol / (rootM * rootM - 1);
+        if (rayleigh) {
+            // 1 - (1 - k·Q)² = 2k·E[Q] - k²·E[Q²]
+            return 2 * k * rayleighQ(a * gamma) - k * k * rayleighQSquared(a * gamma);
+        }
+        double p = k * q(Math.sqrt(2 * a * gamma));
+        return 1 - (1 - p) * (1 - p);
+    }
+
+    /**
+     * Courbe BER sur une grille de SNR par échantillon de la chaîne (dB)
+     */
+    public static double[] berCurve(Scheme scheme, double[] snrDb, int samplesPerSymbol, boolean rayleigh) {
+        double[] curve = new double[snrDb.length];
+        for (int i = 0; i < snrDb.length; i++) {
+            curve[i] = ber(scheme, ebN0FromSnr(scheme, snrDb[i], samplesPerSymbol), rayleigh);
+        }
+        return curve;
+    }
+
+    /**
+     * Courbe SER sur une grille de SNR par échantillon de la chaîne (dB)
+     */
+    public static double[] serCurve(Scheme scheme, double[] snrDb, int samplesPerSymbol, boolean rayleigh) {
+        double[] curve = new double[snrDb.length];
+        for (int i = 0; i < snrDb.length; i++) {
+            curve[i] = ser(scheme, ebN0FromSnr(scheme, snrDb[i], samplesPerSymbol), rayleigh);
+        }
+        return curve;
+    }
+
+    /**
+     * E[Q(√(2γ))] pour γ exponentielle de moyenne meanGamma
+     */
+    private static double rayleighQ(double meanGamma) {
+        double mu = Math.sqrt(meanGamma / (1 + meanGamma));
+        return 0.5 * (1 - mu);
+    }
+
+    /**
+     * E[Q²(√(2γ))] pour γ exponentielle de moyenne meanGamma
+     */
+    private static double rayleighQSquared(double meanGamma) {
+        double mu = Math.sqrt(meanGamma / (1 + meanGamma));
+        if (mu == 0) {
+            return 0.25;
+        }
+        return 0.25 * (1 - 4 / Math.PI * mu * Math.atan(1 / mu));
+    }
+}
@@ -10,7 +10,17 @@ public class BinarySequence {
     }
 
     public void generateRandom() {
-        Random random = new Random();
+        generateRandom(new Random());
+    }
+
+    /**
+     * Génération reproductible : la même graine donne la même séquence
+     */
+    public void generateRandom(long seed) {
+        generateRandom(new Random(seed));
+    }
+
+    private void generateRandom(Random random) {
         for (int i = 0; i < bits.length; i++) {
             bits[i] = random.nextBoolean();
         }
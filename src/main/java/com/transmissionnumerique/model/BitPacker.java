@@ -0,0 +1,91 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Conversion entre tableaux de booléens et mots de 64 bits.
+ * Convention : le bit i se trouve dans words[i >>> 6] à la position (i & 63),
+ * bit de poids faible en premier (ordre chronologique).
+ */
+public final class BitPacker {
+
+    private BitPacker() {
+    }
+
+    /**
+     * Nombre de mots nécessaires pour numBits bits
+     */
+    public static int wordCount(int numBits) {
+        return (numBits + 63) >>> 6;
+    }
+
+    public static long[] pack(boolean[] bits) {
+        long[] words = new long[wordCount(bits.length)];
+        pack(bits, 0, bits.length, words);
+        return words;
+    }
+
+    /**
+     * Empaquette bits[offset .. offset+length[ dans words à partir du bit 0
+     */
+    public static void pack(boolean[] bits, int offset, int length, long[] words) {
+        int full = length >>> 6;
+        for (int w = 0; w < full; w++) {
+            long word = 0;
+            int base = offset + (w << 6);
+            for (int b = 63; b >= 0; b--) {
+                word = (word << 1) | (bits[base + b] ? 1L : 0L);
+            }
+            words[w] = word;
+        }
+        int remaining = length & 63;
+        if (remaining != 0) {
+            long word = 0;
+            int base = offset + (full << 6);
+            for (int b = remaining - 1; b >= 0; b--) {
+                word = (word << 1) | (bits[base + b] ? 1L : 0L);
+            }
+            words[full] = word;
+        }
+    }
+
+    public static boolean[] unpack(long[] words, int numBits) {
+        boolean[] bits = new boolean[numBits];
+        for (int i = 0; i < numBits; i++) {
+            bits[i] = ((words[i >>> 6] >>> i) & 1L) != 0;
+        }
+        return bits;
+    }
+
+    public static boolean get(long[] words, int index) {
+        return ((words[index >>> 6] >>> index) & 1L) != 0;
+    }
+
+    /**
+     * Octet de 8 bits consécutifs commençant au bit index (aligné ou non sur un mot)
+     */
+    public static int getByte(long[] words, int index) {
+        int word = index >>> 6;
+        int shift = index & 63;
+        long value = words[word] >>> shift;
+        if (shift > 56 && word + 1 < words.length) {
+            value |= words[word + 1] << (64 - shift);
+        }
+        return (int) value & 0xFF;
+    }
+
+    /**
+     * Nombre de bits différents entre deux séquences empaquetées
+     */
+    public static int hammingDistance(long[] a, long[] b, int numBits) {
+        int full = numBits >>> 6;
+        int distance = 0;
+        for (int w = 0; w < full; w++) {
+            distance += Long.bitCount(a[w] ^ b[w]);
+        }
+        int remaining = numBits & 63;
+        if (remaining != 0) {
+            long mask = (1L << remaining) - 1;
+            distance += Long.bitCount((a[full] ^ b[full]) & mask);
+        }
+        return distance;
+    }
+}
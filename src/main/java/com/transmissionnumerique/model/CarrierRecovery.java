@@ -0,0 +1,227 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Boucle de récupération de porteuse (phase et fréquence) en bande de base complexe.
+ * Boucle de Costas pour BPSK/QPSK, boucle à verrouillage de phase dirigée par décision
+ * pour la QAM. Filtre de boucle proportionnel-intégral du second ordre.
+ *
+ * La phase est un entier 32 bits comme dans le {@link Nco} et la dérotation lit une
+ * table (cos, sin) entrelacée : pas de fonction trigonométrique par échantillon.
+ * La phase et l'intégrateur de fréquence sont conservés d'un bloc à l'autre.
+ */
+public class CarrierRecovery {
+
+    public enum LoopType {
+        COSTAS_BPSK, COSTAS_QPSK, DECISION_DIRECTED
+    }
+
+    private static final double RADIANS_TO_PHASE = 4294967296.0 / (2 * Math.PI);
+
+    // Table (cos, sin) entrelacée sans interpolation : 4096 pas, erreur de phase < 0,05°
+    private static final int ROTATION_BITS = 12;
+    private static final int ROTATION_SHIFT = 32 - ROTATION_BITS;
+    private static final double[] ROTATION_TABLE = new double[2 << ROTATION_BITS];
+
+    static {
+        int size = 1 << ROTATION_BITS;
+        for (int i = 0; i < size; i++) {
+            // Centre de chaque intervalle pour une erreur symétrique
+            double angle = 2 * Math.PI * (i + 0.5) / size;
+            ROTATION_TABLE[2 * i] = Math.cos(angle);
+            ROTATION_TABLE[2 * i + 1] = Math.sin(angle);
+        }
+    }
+
+    private final LoopType loopType;
+    private final double proportionalGain;
+    private final double integralGain;
+
+    // Découpeur pour la boucle dirigée par décision (niveaux d'une voie)
+    private double[] axisLevels = {-1.0, 1.0};
+
+    // État de la boucle
+    private int phase;             // phase de dérotation (2^32 = 2π)
+    private double frequency;      // rad/échantillon
+    private double lastRe;
+    private double lastIm;
+
+    /**
+     * @param loopType Détecteur de phase
+     * @param loopBandwidth Bande de bruit de la boucle normalisée (Bn·T, typiquement 0.005 à 0.05)
+     * @param dampingFactor Amortissement (0.707 usuel)
+     */
+    public CarrierRecovery(LoopType loopType, double loopBandwidth, double dampingFactor) {
+        this.loopType = loopType;
+        double theta = loopBandwidth / (dampingFactor + 1.0 / (4.0 * dampingFactor));
+        double denominator = 1.0 + 2.0 * dampingFactor * theta + theta * theta;
+        this.proportionalGain = 4.0 * dampingFactor * theta / denominator;
+        this.integralGain = 4.0 * theta * theta / denominator;
+    }
+
+    public CarrierRecovery(LoopType loopType, double loopBandwidth) {
+        this(loopType, loopBandwidth, 0.707);
+    }
+
+    /**
+     * Détecteur adapté à un type de modulation
+     */
+    public static LoopType forModulation(Modulator.ModulationType modulationType) {
+        switch (modulationType) {
+            case QPSK:
+                return LoopType.COSTAS_QPSK;
+            case QAM:
+            case QAM64:
+                return LoopType.DECISION_DIRECTED;
+            default:
+                return LoopType.COSTAS_BPSK;
+        }
+    }
+
+    /**
+     * Traite un bloc de symboles (ou d'échantillons) complexes.
+     * Les tableaux de sortie peuvent être les tableaux d'entrée (traitement en place).
+     */
+    public void process(double[] inRe, double[] inIm, int inOffset,
+                        double[] outRe, double[] outIm, int outOffset, int length) {
+        if (loopType == LoopType.DECISION_DIRECTED) {
+            for (int i = 0; i < length; i++) {
+                step(inRe[inOffset + i], inIm[inOffset + i]);
+                outRe[outOffset + i] = lastRe;
+                outIm[outOffset + i] = lastIm;
+            }
+            return;
+        }
+
+        // Boucles de Costas : état en variables locales, sans aiguillage par échantillon
+        final boolean quadrature = loopType == LoopType.COSTAS_QPSK;
+        final double kp = proportionalGain;
+        final double ki = integralGain;
+        final double[] table = ROTATION_TABLE;
+        int p = phase;
+        double f = frequency;
+        double yRe = lastRe;
+        double yIm = lastIm;
+        for (int i = 0; i < length; i++) {
+            double re = inRe[inOffset + i];
+            double im = inIm[inOffset + i];
+            int index = (p >>> ROTATION_SHIFT) << 1;
+            double c = table[index];
+            double s = table[index + 1];
+            yRe = re * c + im * s;
+            yIm = im * c - re * s;
+
+            double error = Math.copySign(1.0, yRe) * yIm;
+            if (quadrature) {
+                error -= Math.copySign(1.0, yIm) * yRe;
+            }
+            f += ki * error;
+            p += (int) (long) ((f + kp * error) * RADIANS_TO_PHASE);
+
+            outRe[outOffset + i] = yRe;
+            outIm[outOffset + i] = yIm;
+        }
+        phase = p;
+        frequency = f;
+        lastRe = yRe;
+        lastIm = yIm;
+    }
+
+    /**
+     * Version signal complet (nouveau signal en sortie)
+     */
+    public ComplexSignal process(ComplexSignal signal) {
+        ComplexSignal output = new ComplexSignal(signal.getLength());
+        process(signal.getReal(), signal.getImag(), 0, output.getReal(), output.getImag(), 0, signal.getLength());
+        return output;
+    }
+
+    /**
+     * Un pas de boucle : dérotation, détection d'erreur de phase, filtre de boucle.
+     * Le résultat est lisible par {@link #getLastReal()} et {@link #getLastImag()}.
+     */
+    public void step(double re, double im) {
+        int index = (phase >>> ROTATION_SHIFT) << 1;
+        double c = ROTATION_TABLE[index];
+        double s = ROTATION_TABLE[index + 1];
+        double yRe = re * c + im * s;
+        double yIm = im * c - re * s;
+
+        double error;
+        switch (loopType) {
+            case COSTAS_BPSK:
+                error = Math.copySign(1.0, yRe) * yIm;
+                break;
+            case COSTAS_QPSK:
+                // copySign évite les branches de signum
+                error = Math.copySign(1.0, yRe) * yIm - Math.copySign(1.0, yIm) * yRe;
+                break;
+            case DECISION_DIRECTED:
+            default:
+                double dRe = slice(yRe);
+                double dIm = slice(yIm);
+                double norm = dRe * dRe + dIm * dIm;
+                error = (yIm * dRe - yRe * dIm) / norm;
+                break;
+        }
+
+        frequency += integralGain * error;
+        phase += (int) (long) ((frequency + proportionalGain * error) * RADIANS_TO_PHASE);
+
+        lastRe = yRe;
+        lastIm = yIm;
+    }
+
+    private double slice(double x) {
+        double[] levels = axisLevels;
+        double best = levels[0];
+        double bestDist = Math.abs(x - best);
+        for (int i = 1; i < levels.length; i++) {
+            double dist = Math.abs(x - levels[i]);
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = levels[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Niveaux d'une voie de la constellation (boucle dirigée par décision)
+     */
+    public void setAxisLevels(double[] axisLevels) {
+        this.axisLevels = axisLevels.clone();
+    }
+
+    public double getLastReal() {
+        return lastRe;
+    }
+
+    public double getLastImag() {
+        return lastIm;
+    }
+
+    /**
+     * Phase courante estimée en radians
+     */
+    public double getPhaseEstimate() {
+        return Nco.phaseToRadians(phase);
+    }
+
+    /**
+     * Écart de fréquence estimé en cycles par échantillon (ou par symbole)
+     */
+    public double getFrequencyEstimate() {
+        return frequency / (2 * Math.PI);
+    }
+
+    public void reset() {
+        phase = 0;
+        frequency = 0;
+        lastRe = 0;
+        lastIm = 0;
+    }
+
+    public LoopType getLoopType() {
+        return loopType;
+    }
+}
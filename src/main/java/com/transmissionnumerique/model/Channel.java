@@ -5,21 +5,80 @@ import java.util.Random;
 public class Channel {
 
     public enum NoiseType {
-        AWGN, RAYLEIGH, RICIAN
+        AWGN, RAYLEIGH, RICIAN, MULTIPATH
     }
 
+    private static final double DEFAULT_SAMPLE_RATE = 80000; // Hz
+
     private NoiseType noiseType;
     private double snr; // Signal-to-Noise Ratio en dB
+    private MultipathFading multipath;
+    private final Random random = new Random();
+
+    // Échantillonnage d'importance : moyenne du bruit (en écarts-types) et log-poids associés
+    private double[] noiseMeanShift;
+    private double[] logLikelihoodRatios;
+
+    // Décalage de porteuse appliqué aux signaux complexes
+    private int carrierPhase;
+    private int carrierPhaseIncrement;
 
     public Channel(NoiseType noiseType, double snr) {
         this.noiseType = noiseType;
         this.snr = snr;
     }
 
+    /**
+     * Configure le profil multitrajet utilisé en mode MULTIPATH.
+     * L'état de la ligne à retard est conservé entre les appels à transmit().
+     */
+    public void setMultipathProfile(MultipathProfile profile, double sampleRate) {
+        this.multipath = new MultipathFading(profile, sampleRate, random);
+    }
+
+    /**
+     * Rend le canal reproductible : bruit, évanouissements et phases des trajets
+     * (profil configuré après cet appel) sont tirés d'un même générateur.
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Active l'échantillonnage d'importance par translation de moyenne : le bruit AWGN de
+     * l'échantillon k suit N(meanShift[k]·σ, σ²) au lieu de N(0, σ²). Pour chaque échantillon,
+     * le logarithme du rapport de vraisemblance p(n)/q(n) est conservé et disponible via
+     * {@link #getLogLikelihoodRatios()} : un événement d'erreur est pondéré par l'exponentielle
+     * de la somme des log-rapports des échantillons dont il dépend.
+     * @param meanShift Décalages en écarts-types du bruit, ou null pour désactiver
+     */
+    public void setImportanceSampling(double[] meanShift) {
+        this.noiseMeanShift = meanShift;
+        this.logLikelihoodRatios = null;
+    }
+
+    /**
+     * Log-rapports de vraisemblance du dernier bruit ajouté (null hors échantillonnage d'importance)
+     */
+    public double[] getLogLikelihoodRatios() {
+        return logLikelihoodRatios;
+    }
+
+    /**
+     * Au-delà de 50 dB, le tableau reçu est renvoyé tel quel (aucune copie)
+     */
     public double[] transmit(double[] signal) {
-        // Si SNR > 50 dB, ne pas ajouter de bruit
+        if (noiseMeanShift != null) {
+            // Poids unitaires tant qu'aucun bruit biaisé n'est ajouté
+            logLikelihoodRatios = new double[signal.length];
+        }
+        if (noiseType == NoiseType.MULTIPATH) {
+            return applyMultipath(signal);
+        }
+
+        // Si SNR > 50 dB, ne pas ajouter de bruit : le signal est rendu tel quel, sans copie
         if (snr > 50.0) {
-            return signal.clone();
+            return signal;
         }
         
         switch (noiseType) {
@@ -34,6 +93,38 @@ public class Channel {
         }
     }
 
+    /**
+     * Transmission en simple précision (AWGN et évanouissement plat) : mêmes tirages que
+     * {@link #transmit(double[])}, bruit arrondi en float. Le multitrajet et
+     * l'échantillonnage d'importance restent en double précision.
+     */
+    public float[] transmit(float[] signal) {
+        if (noiseType == NoiseType.MULTIPATH || noiseMeanShift != null) {
+            throw new IllegalStateException("Multitrajet et échantillonnage d'importance en double précision uniquement");
+        }
+        if (snr > 50.0) {
+            return signal;
+        }
+        float[] noisySignal = new float[signal.length];
+        float fadingFactor = 1.0f;
+        if (noiseType == NoiseType.RAYLEIGH || noiseType == NoiseType.RICIAN) {
+            fadingFactor = (float) (0.5 + 0.5 * random.nextDouble());
+        }
+
+        double signalPower = 0;
+        for (float v : signal) {
+            float faded = v * fadingFactor;
+            signalPower += faded * faded;
+        }
+        signalPower /= signal.length;
+        float noiseAmplitude = (float) Math.sqrt(signalPower / Math.pow(10, snr / 10));
+
+        for (int i = 0; i < signal.length; i++) {
+            noisySignal[i] = signal[i] * fadingFactor + (float) random.nextGaussian() * noiseAmplitude;
+        }
+        return noisySignal;
+    }
+
     private double[] addAWGN(double[] signal) {
         double[] noisySignal = new double[signal.length];
 
@@ -49,17 +140,37 @@ public class Channel {
         double noiseAmplitude = Math.sqrt(noisePower);
 
         // Ajout du bruit blanc gaussien
-        Random random = new Random();
+        if (noiseMeanShift != null) {
+            return addShiftedAWGN(signal, noisySignal, noiseAmplitude);
+        }
+        // Tirages dans l'ordre habituel, puis ajout en bloc
         for (int i = 0; i < signal.length; i++) {
-            double noise = random.nextGaussian() * noiseAmplitude;
-            noisySignal[i] = signal[i] + noise;
+            noisySignal[i] = random.nextGaussian();
         }
+        SignalKernels.get().addScaled(signal, noisySignal, noiseAmplitude, noisySignal);
 
         return noisySignal;
     }
 
+    /**
+     * Bruit biaisé de l'échantillonnage d'importance. Pour u = n/σ tiré selon N(m, 1),
+     * log(p(u)/q(u)) = m²/2 - m·u.
+     */
+    private double[] addShiftedAWGN(double[] signal, double[] noisySignal, double noiseAmplitude) {
+        int shifted = Math.min(signal.length, noiseMeanShift.length);
+        for (int i = 0; i < signal.length; i++) {
+            double u = random.nextGaussian();
+            if (i < shifted && noiseMeanShift[i] != 0.0) {
+                double m = noiseMeanShift[i];
+                u += m;
+                logLikelihoodRatios[i] = 0.5 * m * m - m * u;
+            }
+            noisySignal[i] = signal[i] + u * noiseAmplitude;
+        }
+        return noisySignal;
+    }
+
     private double[] addRayleighFading(double[] signal) {
-        Random random = new Random();
         double fadingFactor = 0.5 + 0.5 * random.nextDouble();
 
         double[] fadedSignal = new double[signal.length];
@@ -70,6 +181,85 @@ public class Channel {
         return addAWGN(fadedSignal);
     }
 
+    /**
+     * Transmission d'un signal complexe : bruit blanc gaussien complexe circulaire
+     * (variance N0/2 sur chaque voie), précédé de l'évanouissement plat si demandé.
+     * Au-delà de 50 dB sans décalage de porteuse, le signal reçu est renvoyé tel quel
+     * (aucune copie), comme pour {@link #transmit(double[])}.
+     */
+    public ComplexSignal transmit(ComplexSignal signal) {
+        ComplexSignal input = applyCarrierOffset(signal);
+        if (snr > 50.0) {
+            return input;
+        }
+
+        if (noiseType == NoiseType.RAYLEIGH || noiseType == NoiseType.RICIAN) {
+            input = input.copy();
+            input.scale(0.5 + 0.5 * random.nextDouble());
+        }
+        return addComplexAWGN(input);
+    }
+
+    /**
+     * Rotation de phase et décalage de fréquence appliqués aux signaux complexes
+     * (désaccord entre oscillateurs d'émission et de réception)
+     */
+    public void setCarrierOffset(double frequencyOffset, double phaseOffset, double sampleRate) {
+        this.carrierPhaseIncrement = Nco.frequencyToIncrement(frequencyOffset, sampleRate);
+        this.carrierPhase = Nco.radiansToPhase(phaseOffset);
+    }
+
+    private ComplexSignal applyCarrierOffset(ComplexSignal signal) {
+        if (carrierPhase == 0 && carrierPhaseIncrement == 0) {
+            return signal;
+        }
+        int n = signal.getLength();
+        double[] re = signal.getReal();
+        double[] im = signal.getImag();
+        ComplexSignal rotated = new ComplexSignal(n);
+        double[] outRe = rotated.getReal();
+        double[] outIm = rotated.getImag();
+        int p = carrierPhase;
+        for (int i = 0; i < n; i++) {
+            double c = Nco.cos(p);
+            double s = Nco.sin(p);
+            outRe[i] = re[i] * c - im[i] * s;
+            outIm[i] = re[i] * s + im[i] * c;
+            p += carrierPhaseIncrement;
+        }
+        carrierPhase = p;
+        return rotated;
+    }
+
+    private ComplexSignal addComplexAWGN(ComplexSignal signal) {
+        int n = signal.getLength();
+        double[] re = signal.getReal();
+        double[] im = signal.getImag();
+        double[] noisyRe = new double[n];
+        double[] noisyIm = new double[n];
+
+        double noisePower = signal.power() / Math.pow(10, snr / 10);
+        double sigma = Math.sqrt(noisePower / 2.0);
+
+        for (int i = 0; i < n; i++) {
+            noisyRe[i] = re[i] + random.nextGaussian() * sigma;
+            noisyIm[i] = im[i] + random.nextGaussian() * sigma;
+        }
+        return new ComplexSignal(noisyRe, noisyIm);
+    }
+
+    private double[] applyMultipath(double[] signal) {
+        if (multipath == null) {
+            multipath = new MultipathFading(MultipathProfile.standard(MultipathProfile.StandardProfile.HF_MODERATE),
+                                            DEFAULT_SAMPLE_RATE, random);
+        }
+        double[] faded = multipath.process(signal);
+        if (snr > 50.0) {
+            return faded;
+        }
+        return addAWGN(faded);
+    }
+
     private double[] addRicianFading(double[] signal) {
         return addRayleighFading(signal);
     }
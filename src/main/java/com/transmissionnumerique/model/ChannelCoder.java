@@ -0,0 +1,350 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Codage de canal (FEC) autour de la chaîne de transmission.
+ *
+ * CONVOLUTIONAL : code convolutif de rendement 1/2, longueur de contrainte 7, générateurs
+ * 171/133 (octal), terminé par 6 bits nuls. Décodage de Viterbi à 64 états, décisions
+ * souples (LLR) ou fermes. Les deux générateurs ayant leurs prises extrêmes à 1, les deux
+ * branches d'un papillon ont des métriques opposées : l'ajout-comparaison-sélection se
+ * ramène à des opérations sur tableaux de 32 éléments sans table indirecte, et les 64
+ * décisions d'une étape tiennent dans un long.
+ *
+ * HAMMING_7_4 et BCH_15_7 : codes cycliques systématiques corrigeant 1 et 2 erreurs,
+ * codage et correction par tables (mot de code par message, motif d'erreur par syndrome).
+ */
+public class ChannelCoder {
+
+    public enum FecType {
+        NONE, CONVOLUTIONAL, HAMMING_7_4, BCH_15_7
+    }
+
+    // Code convolutif K = 7
+    private static final int CONSTRAINT_LENGTH = 7;
+    private static final int MEMORY = CONSTRAINT_LENGTH - 1;
+    private static final int NUM_STATES = 1 << MEMORY;
+    private static final int HALF_STATES = NUM_STATES / 2;
+    private static final int GENERATOR_A = 0171;
+    private static final int GENERATOR_B = 0133;
+
+    // Signes des deux bits codés de la branche (état 2j, bit 0) : +1 si bit codé à 1
+    private static final int[] SIGN_A = new int[HALF_STATES];
+    private static final int[] SIGN_B = new int[HALF_STATES];
+    private static final int LLR_LEVELS = 127;
+
+    static {
+        for (int j = 0; j < HALF_STATES; j++) {
+            // Registre : bit entrant en poids fort (bit 6), état précédent 2j dans les bits 0..5
+            int register = 2 * j;
+            SIGN_A[j] = (Integer.bitCount(register & GENERATOR_A) & 1) != 0 ? 1 : -1;
+            SIGN_B[j] = (Integer.bitCount(register & GENERATOR_B) & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    private final FecType fecType;
+
+    // Codes en bloc cycliques
+    private int blockLength;
+    private int messageLength;
+    private int[] codewordTable;   // message -> mot de code
+    private int[] syndromeTable;   // syndrome -> motif d'erreur corrigé
+    private int generator;
+
+    public ChannelCoder(FecType fecType) {
+        this.fecType = fecType;
+        switch (fecType) {
+            case HAMMING_7_4:
+                // g(x) = x^3 + x + 1
+                buildCyclicCode(7, 4, 0b1011, 1);
+                break;
+            case BCH_15_7:
+                // g(x) = x^8 + x^7 + x^6 + x^4 + 1
+                buildCyclicCode(15, 7, 0b111010001, 2);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Rendement du code (bits utiles / bits émis, hors terminaison)
+     */
+    public double getCodeRate() {
+        switch (fecType) {
+            case CONVOLUTIONAL:
+                return 0.5;
+            case HAMMING_7_4:
+            case BCH_15_7:
+                return messageLength / (double) blockLength;
+            default:
+                return 1.0;
+        }
+    }
+
+    /**
+     * Nombre de bits codés pour numBits bits utiles
+     */
+    public int encodedLength(int numBits) {
+        switch (fecType) {
+            case CONVOLUTIONAL:
+                return 2 * (numBits + MEMORY);
+            case HAMMING_7_4:
+            case BCH_15_7:
+                return ((numBits + messageLength - 1) / messageLength) * blockLength;
+            default:
+                return numBits;
+        }
+    }
+
+    public boolean[] encode(boolean[] data) {
+        switch (fecType) {
+            case CONVOLUTIONAL:
+                return encodeConvolutional(data);
+            case HAMMING_7_4:
+            case BCH_15_7:
+                return encodeBlock(data);
+            default:
+                return data;
+        }
+    }
+
+    /**
+     * Décodage sur décisions fermes
+     * @param numBits Nombre de bits utiles attendus
+     */
+    public boolean[] decode(boolean[] received, int numBits) {
+        switch (fecType) {
+            case CONVOLUTIONAL: {
+                double[] llr = new double[received.length];
+                for (int i = 0; i < received.length; i++) {
+                    llr[i] = received[i] ? 1.0 : -1.0;
+                }
+                return decodeViterbi(llr, numBits);
+            }
+            case HAMMING_7_4:
+            case BCH_15_7:
+                return decodeBlock(received, numBits);
+            default:
+                return java.util.Arrays.copyOf(received, numBits);
+        }
+    }
+
+    /**
+     * Décodage sur décisions souples (LLR positif favorise 1, voir {@link Decoder#decodeSoft}).
+     * Les codes en bloc utilisent le signe des LLR.
+     */
+    public boolean[] decodeSoft(double[] llr, int numBits) {
+        if (fecType == FecType.CONVOLUTIONAL) {
+            return decodeViterbi(llr, numBits);
+        }
+        boolean[] hard = new boolean[llr.length];
+        for (int i = 0; i < llr.length; i++) {
+            hard[i] = llr[i] > 0;
+        }
+        return decode(hard, numBits);
+    }
+
+    public FecType getFecType() {
+        return fecType;
+    }
+
+    // ---- Code convolutif ----
+
+    private boolean[] encodeConvolutional(boolean[] data) {
+        boolean[] coded = new boolean[encodedLength(data.length)];
+        int state = 0;
+        for (int i = 0; i < data.length + MEMORY; i++) {
+            int bit = i < data.length && data[i] ? 1 : 0;
+            int register = (bit << MEMORY) | state;
+            coded[2 * i] = (Integer.bitCount(register & GENERATOR_A) & 1) != 0;
+            coded[2 * i + 1] = (Integer.bitCount(register & GENERATOR_B) & 1) != 0;
+            state = register >>> 1;
+        }
+        return coded;
+    }
+
+    /**
+     * Viterbi à 64 états sur métriques de corrélation entières (à maximiser).
+     * Les LLR sont quantifiés sur 8 bits signés (échelle fixée par leur moyenne absolue) :
+     * les métriques restent des entiers, renormalisés toutes les 65536 étapes.
+     * Papillon j : états 2j et 2j+1 -> états j (bit 0) et j+32 (bit 1).
+     */
+    private boolean[] decodeViterbi(double[] llr, int numBits) {
+        int steps = Math.min(llr.length / 2, numBits + MEMORY);
+        int[] quantized = quantize(llr, 2 * steps);
+        int[] metrics = new int[NUM_STATES];
+        int[] next = new int[NUM_STATES];
+        long[] decisions = new long[steps];
+        java.util.Arrays.fill(metrics, Integer.MIN_VALUE / 2);
+        metrics[0] = 0;
+
+        for (int t = 0; t < steps; t++) {
+            int la = quantized[2 * t];
+            int lb = quantized[2 * t + 1];
+            long decision = 0;
+            for (int j = 0; j < HALF_STATES; j++) {
+                int lambda = SIGN_A[j] * la + SIGN_B[j] * lb;
+                int even = metrics[2 * j];
+                int odd = metrics[2 * j + 1];
+                // Bit 0 : branche depuis 2j de métrique +lambda, depuis 2j+1 de métrique -lambda
+                int m0 = even + lambda;
+                int m1 = odd - lambda;
+                // Bit 1 : signes inversés (prises de poids fort des deux générateurs)
+                int m2 = even - lambda;
+                int m3 = odd + lambda;
+                next[j] = Math.max(m0, m1);
+                next[j + HALF_STATES] = Math.max(m2, m3);
+                // Décision = bit de signe de la différence (sans branchement)
+                decision |= (long) ((m0 - m1) >>> 31) << j;
+                decision |= (long) ((m2 - m3) >>> 31) << (j + HALF_STATES);
+            }
+            decisions[t] = decision;
+            int[] swap = metrics;
+            metrics = next;
+            next = swap;
+            if ((t & 0xFFFF) == 0xFFFF) {
+                renormalize(metrics);
+            }
+        }
+
+        // Treillis terminé : remontée depuis l'état nul si la terminaison est présente
+        int state = 0;
+        if (steps < numBits + MEMORY) {
+            for (int s = 1; s < NUM_STATES; s++) {
+                if (metrics[s] > metrics[state]) {
+                    state = s;
+                }
+            }
+        }
+        boolean[] data = new boolean[numBits];
+        for (int t = steps - 1; t >= 0; t--) {
+            int bit = state >>> (MEMORY - 1);
+            if (t < numBits) {
+                data[t] = bit != 0;
+            }
+            int low = (int) ((decisions[t] >>> state) & 1L);
+            state = ((state << 1) & (NUM_STATES - 1)) | low;
+        }
+        return data;
+    }
+
+    /**
+     * Quantification des LLR : la moyenne absolue est ramenée à 32, saturation à ±127
+     */
+    private static int[] quantize(double[] llr, int length) {
+        double meanAbs = 0;
+        for (int i = 0; i < length; i++) {
+            meanAbs += Math.abs(llr[i]);
+        }
+        meanAbs /= Math.max(1, length);
+        double scale = meanAbs > 0 ? 32.0 / meanAbs : 1.0;
+        int[] quantized = new int[length];
+        for (int i = 0; i < length; i++) {
+            long q = Math.round(llr[i] * scale);
+            quantized[i] = (int) Math.max(-LLR_LEVELS, Math.min(LLR_LEVELS, q));
+        }
+        return quantized;
+    }
+
+    private static void renormalize(int[] metrics) {
+        int max = Integer.MIN_VALUE;
+        for (int m : metrics) {
+            max = Math.max(max, m);
+        }
+        for (int s = 0; s < metrics.length; s++) {
+            metrics[s] = Math.max(metrics[s] - max, Integer.MIN_VALUE / 2);
+        }
+    }
+
+    // ---- Codes en bloc cycliques ----
+
+    private void buildCyclicCode(int n, int k, int generatorPolynomial, int correctable) {
+        this.blockLength = n;
+        this.messageLength = k;
+        this.generator = generatorPolynomial;
+
+        codewordTable = new int[1 << k];
+        for (int m = 0; m < (1 << k); m++) {
+            int shifted = m << (n - k);
+            codewordTable[m] = shifted | remainder(shifted);
+        }
+
+        // Chef de classe de poids minimal pour chaque syndrome
+        syndromeTable = new int[1 << (n - k)];
+        java.util.Arrays.fill(syndromeTable, -1);
+        syndromeTable[0] = 0;
+        for (int weight = 1; weight <= correctable; weight++) {
+            fillSyndromes(0, 0, weight, n);
+        }
+        for (int s = 0; s < syndromeTable.length; s++) {
+            if (syndromeTable[s] < 0) {
+                syndromeTable[s] = 0; // non corrigeable : laissé tel quel
+            }
+        }
+    }
+
+    private void fillSyndromes(int pattern, int start, int remaining, int n) {
+        if (remaining == 0) {
+            int syndrome = remainder(pattern);
+            if (syndromeTable[syndrome] < 0) {
+                syndromeTable[syndrome] = pattern;
+            }
+            return;
+        }
+        for (int position = start; position < n; position++) {
+            fillSyndromes(pattern | (1 << position), position + 1, remaining - 1, n);
+        }
+    }
+
+    /**
+     * Reste de la division polynomiale par le générateur
+     */
+    private int remainder(int value) {
+        int degree = 31 - Integer.numberOfLeadingZeros(generator);
+        for (int bit = 31 - Integer.numberOfLeadingZeros(value); bit >= degree; bit--) {
+            if (((value >>> bit) & 1) != 0) {
+                value ^= generator << (bit - degree);
+            }
+        }
+        return value;
+    }
+
+    private boolean[] encodeBlock(boolean[] data) {
+        int blocks = (data.length + messageLength - 1) / messageLength;
+        boolean[] coded = new boolean[blocks * blockLength];
+        for (int b = 0; b < blocks; b++) {
+            int message = 0;
+            for (int i = 0; i < messageLength; i++) {
+                int index = b * messageLength + i;
+                message = (message << 1) | (index < data.length && data[index] ? 1 : 0);
+            }
+            int codeword = codewordTable[message];
+            // Bit de poids fort émis en premier
+            for (int i = 0; i < blockLength; i++) {
+                coded[b * blockLength + i] = ((codeword >>> (blockLength - 1 - i)) & 1) != 0;
+            }
+        }
+        return coded;
+    }
+
+    private boolean[] decodeBlock(boolean[] received, int numBits) {
+        boolean[] data = new boolean[numBits];
+        int blocks = Math.min(received.length / blockLength, (numBits + messageLength - 1) / messageLength);
+        int parityBits = blockLength - messageLength;
+        for (int b = 0; b < blocks; b++) {
+            int word = 0;
+            for (int i = 0; i < blockLength; i++) {
+                word = (word << 1) | (received[b * blockLength + i] ? 1 : 0);
+            }
+            word ^= syndromeTable[remainder(word)];
+            int message = word >>> parityBits;
+            for (int i = 0; i < messageLength; i++) {
+                int index = b * messageLength + i;
+                if (index < numBits) {
+                    data[index] = ((message >>> (messageLength - 1 - i)) & 1) != 0;
+                }
+            }
+        }
+        return data;
+    }
+}
@@ -7,6 +7,7 @@ package com.transmissionnumerique.model;
 public class ClockRecovery {
     private int samplesPerSymbol;
     private boolean debugMode = true;
+    private int forcedOffset = -1; // -1 : recherche automatique
     
     public ClockRecovery(int samplesPerSymbol) {
         this.samplesPerSymbol = samplesPerSymbol;
@@ -21,7 +22,7 @@ public class ClockRecovery {
         }
         
         // Trouver l'offset optimal en analysant l'énergie du signal
-        int optimalOffset = findOptimalSamplingOffset(signal);
+        int optimalOffset = estimateSamplingOffset(signal);
         
         // Calculer le nombre de symboles
         int numSymbols = signal.length / samplesPerSymbol;
@@ -53,6 +54,83 @@ public class ClockRecovery {
         return recoveredSignal;
     }
     
+    /**
+     * Récupération des symboles complexes : l'instant d'échantillonnage (sauf s'il est imposé)
+     * maximise l'énergie moyenne |x|², puis les deux voies sont décimées au même instant.
+     */
+    public ComplexSignal recover(ComplexSignal signal) {
+        if (signal.getLength() < samplesPerSymbol) {
+            return signal;
+        }
+
+        double[] re = signal.getReal();
+        double[] im = signal.getImag();
+        int numSymbols = signal.getLength() / samplesPerSymbol;
+        int bestOffset = estimateSamplingOffset(signal);
+
+        ComplexSignal symbols = new ComplexSignal(numSymbols);
+        double[] outRe = symbols.getReal();
+        double[] outIm = symbols.getImag();
+        for (int i = 0; i < numSymbols; i++) {
+            int sampleIndex = i * samplesPerSymbol + bestOffset;
+            outRe[i] = re[sampleIndex];
+            outIm[i] = im[sampleIndex];
+        }
+
+        if (debugMode) {
+            System.out.println("=== RÉCUPÉRATION D'HORLOGE (I/Q) ===");
+            System.out.println("Nombre de symboles: " + numSymbols);
+            System.out.println("Offset optimal trouvé: " + bestOffset);
+        }
+
+        return symbols;
+    }
+    
+    /**
+     * Instant d'échantillonnage retenu pour ce signal (imposé, ou recherché sur le signal).
+     * Permet d'acquérir l'horloge sur un premier bloc puis de la conserver.
+     */
+    public int estimateSamplingOffset(double[] signal) {
+        return forcedOffset >= 0 ? forcedOffset : findOptimalSamplingOffset(signal);
+    }
+
+    /**
+     * Instant d'échantillonnage des symboles complexes : imposé, ou maximum de l'énergie |x|²
+     */
+    public int estimateSamplingOffset(ComplexSignal signal) {
+        if (forcedOffset >= 0) {
+            return forcedOffset;
+        }
+        return findMaxEnergyOffset(signal.getReal(), signal.getImag());
+    }
+
+    /**
+     * Instant d'échantillonnage d'un signal réel par maximum de l'énergie moyenne :
+     * moins sensible que la recherche d'ouverture aux extrêmes d'un bloc court
+     */
+    public int estimateMaxEnergyOffset(double[] signal) {
+        if (forcedOffset >= 0) {
+            return forcedOffset;
+        }
+        return findMaxEnergyOffset(signal, null);
+    }
+
+    private int findMaxEnergyOffset(double[] re, double[] im) {
+        int bestOffset = samplesPerSymbol / 2;
+        double bestEnergy = -1;
+        for (int offset = 0; offset < samplesPerSymbol; offset++) {
+            double energy = 0;
+            for (int i = offset; i < re.length; i += samplesPerSymbol) {
+                energy += re[i] * re[i] + (im != null ? im[i] * im[i] : 0);
+            }
+            if (energy > bestEnergy) {
+                bestEnergy = energy;
+                bestOffset = offset;
+            }
+        }
+        return bestOffset;
+    }
+
     /**
      * Trouve l'offset optimal pour l'échantillonnage en maximisant l'ouverture de l'œil
      */
@@ -189,6 +267,14 @@ public class ClockRecovery {
         return recoveredSignal;
     }
     
+    /**
+     * Impose l'instant d'échantillonnage (par exemple celui du diagramme de l'œil).
+     * Une valeur négative rétablit la recherche automatique.
+     */
+    public void setSamplingOffset(int offset) {
+        this.forcedOffset = offset < 0 ? -1 : offset % samplesPerSymbol;
+    }
+
     /**
      * Active ou désactive le mode debug
      */
@@ -0,0 +1,85 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Signal complexe en bande de base (voies I et Q).
+ * Les deux voies sont stockées dans deux tableaux séparés de même longueur :
+ * pas d'objet par échantillon, et chaque voie se parcourt de façon contiguë.
+ */
+public class ComplexSignal {
+
+    private final double[] re;
+    private final double[] im;
+
+    public ComplexSignal(int length) {
+        this.re = new double[length];
+        this.im = new double[length];
+    }
+
+    /**
+     * Enveloppe deux tableaux existants (sans copie)
+     */
+    public ComplexSignal(double[] re, double[] im) {
+        if (re.length != im.length) {
+            throw new IllegalArgumentException("Les voies I et Q doivent avoir la même longueur");
+        }
+        this.re = re;
+        this.im = im;
+    }
+
+    public int getLength() {
+        return re.length;
+    }
+
+    /**
+     * Voie en phase (I), sans copie
+     */
+    public double[] getReal() {
+        return re;
+    }
+
+    /**
+     * Voie en quadrature (Q), sans copie
+     */
+    public double[] getImag() {
+        return im;
+    }
+
+    /**
+     * Puissance moyenne |x|²
+     */
+    public double power() {
+        if (re.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < re.length; i++) {
+            sum += re[i] * re[i] + im[i] * im[i];
+        }
+        return sum / re.length;
+    }
+
+    /**
+     * Module au carré de chaque échantillon
+     */
+    public double[] magnitudeSquared() {
+        double[] mag = new double[re.length];
+        for (int i = 0; i < re.length; i++) {
+            mag[i] = re[i] * re[i] + im[i] * im[i];
+        }
+        return mag;
+    }
+
+    /**
+     * Multiplie les deux voies par un gain réel (en place)
+     */
+    public void scale(double gain) {
+        for (int i = 0; i < re.length; i++) {
+            re[i] *= gain;
+            im[i] *= gain;
+        }
+    }
+
+    public ComplexSignal copy() {
+        return new ComplexSignal(re.clone(), im.clone());
+    }
+}
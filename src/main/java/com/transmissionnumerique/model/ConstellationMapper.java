@@ -0,0 +1,196 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Modulation numérique en bande de base : QPSK, 16-QAM et 64-QAM à codage de Gray.
+ * Les constellations carrées sont traitées voie par voie (I puis Q), chaque voie étant
+ * une PAM à sqrt(M) niveaux décrite par une petite table de correspondance.
+ * Énergie moyenne par symbole normalisée à 1.
+ *
+ * Convention des bits : la première moitié des bits d'un symbole porte la voie I,
+ * la seconde la voie Q ; un bit à 1 correspond à une amplitude positive en QPSK.
+ * Les LLR sont exprimés comme log(P(b=1)/P(b=0)) : positif favorise le bit 1.
+ */
+public class ConstellationMapper {
+
+    public enum Constellation {
+        QPSK(2), QAM16(4), QAM64(6);
+
+        public final int bitsPerSymbol;
+
+        Constellation(int bitsPerSymbol) {
+            this.bitsPerSymbol = bitsPerSymbol;
+        }
+    }
+
+    private final Constellation constellation;
+    private final int bitsPerAxis;
+    private final int levelsPerAxis;
+    private final double scale;
+
+    // Table code de Gray (bits d'une voie) -> amplitude
+    private final double[] grayToLevel;
+    // Table index de niveau (ordre croissant) -> code de Gray
+    private final int[] levelToGray;
+
+    public ConstellationMapper(Constellation constellation) {
+        this.constellation = constellation;
+        this.bitsPerAxis = constellation.bitsPerSymbol / 2;
+        this.levelsPerAxis = 1 << bitsPerAxis;
+
+        // Énergie moyenne d'une PAM à L niveaux {±1, ±3, ...} : (L²-1)/3 par voie
+        double axisEnergy = (levelsPerAxis * levelsPerAxis - 1) / 3.0;
+        this.scale = 1.0 / Math.sqrt(2 * axisEnergy);
+
+        this.grayToLevel = new double[levelsPerAxis];
+        this.levelToGray = new int[levelsPerAxis];
+        for (int i = 0; i < levelsPerAxis; i++) {
+            int gray = i ^ (i >> 1);
+            levelToGray[i] = gray;
+            grayToLevel[gray] = (2 * i - (levelsPerAxis - 1)) * scale;
+        }
+    }
+
+    /**
+     * Associe les bits aux symboles complexes. Les bits manquants du dernier symbole valent 0.
+     */
+    public ComplexSignal map(boolean[] bits) {
+        int bps = constellation.bitsPerSymbol;
+        int numSymbols = (bits.length + bps - 1) / bps;
+        ComplexSignal symbols = new ComplexSignal(numSymbols);
+        map(bits, 0, bits.length, symbols.getReal(), symbols.getImag(), 0);
+        return symbols;
+    }
+
+    /**
+     * Version bloc : écrit les symboles dans des tableaux fournis par l'appelant
+     */
+    public void map(boolean[] bits, int bitOffset, int numBits, double[] re, double[] im, int symbolOffset) {
+        int bps = constellation.bitsPerSymbol;
+        int numSymbols = (numBits + bps - 1) / bps;
+        int end = bitOffset + numBits;
+
+        for (int s = 0; s < numSymbols; s++) {
+            int base = bitOffset + s * bps;
+            int codeI = 0;
+            int codeQ = 0;
+            for (int b = 0; b < bitsPerAxis; b++) {
+                int iBit = base + b;
+                int qBit = base + bitsPerAxis + b;
+                codeI = (codeI << 1) | ((iBit < end && bits[iBit]) ? 1 : 0);
+                codeQ = (codeQ << 1) | ((qBit < end && bits[qBit]) ? 1 : 0);
+            }
+            re[symbolOffset + s] = grayToLevel[codeI];
+            im[symbolOffset + s] = grayToLevel[codeQ];
+        }
+    }
+
+    /**
+     * Décision ferme : niveau le plus proche sur chaque voie
+     * @param numBits Nombre de bits à produire (tronque le remplissage du dernier symbole)
+     */
+    public boolean[] demapHard(ComplexSignal symbols, int numBits) {
+        boolean[] bits = new boolean[numBits];
+        double[] re = symbols.getReal();
+        double[] im = symbols.getImag();
+        int bps = constellation.bitsPerSymbol;
+
+        for (int s = 0; s < symbols.getLength(); s++) {
+            int codeI = levelToGray[quantize(re[s])];
+            int codeQ = levelToGray[quantize(im[s])];
+            int base = s * bps;
+            for (int b = 0; b < bitsPerAxis; b++) {
+                int shift = bitsPerAxis - 1 - b;
+                int iBit = base + b;
+                int qBit = base + bitsPerAxis + b;
+                if (iBit < numBits) bits[iBit] = ((codeI >> shift) & 1) != 0;
+                if (qBit < numBits) bits[qBit] = ((codeQ >> shift) & 1) != 0;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Décision souple max-log : LLR par bit
+     * @param noiseVariance Variance du bruit par voie (sigma²)
+     * @param llr Tableau de sortie (au moins numSymbols * bitsPerSymbol éléments)
+     */
+    public void demapSoft(ComplexSignal symbols, double noiseVariance, double[] llr) {
+        double[] re = symbols.getReal();
+        double[] im = symbols.getImag();
+        int bps = constellation.bitsPerSymbol;
+        double inv = 1.0 / (2.0 * Math.max(noiseVariance, 1e-12));
+        int limit = llr.length;
+
+        for (int s = 0; s < symbols.getLength(); s++) {
+            int base = s * bps;
+            axisLLR(re[s], inv, llr, base, limit);
+            axisLLR(im[s], inv, llr, base + bitsPerAxis, limit);
+        }
+    }
+
+    private void axisLLR(double x, double inv, double[] llr, int offset, int limit) {
+        for (int b = 0; b < bitsPerAxis; b++) {
+            if (offset + b >= limit) {
+                return;
+            }
+            int shift = bitsPerAxis - 1 - b;
+            double min0 = Double.MAX_VALUE;
+            double min1 = Double.MAX_VALUE;
+            for (int g = 0; g < levelsPerAxis; g++) {
+                double d = x - grayToLevel[g];
+                double dist = d * d;
+                if (((g >> shift) & 1) != 0) {
+                    if (dist < min1) min1 = dist;
+                } else {
+                    if (dist < min0) min0 = dist;
+                }
+            }
+            llr[offset + b] = (min0 - min1) * inv;
+        }
+    }
+
+    /**
+     * Index du niveau le plus proche (ordre croissant) sans recherche
+     */
+    private int quantize(double x) {
+        int index = (int) Math.floor((x / scale + levelsPerAxis) / 2.0);
+        if (index < 0) return 0;
+        if (index >= levelsPerAxis) return levelsPerAxis - 1;
+        return index;
+    }
+
+    /**
+     * Niveaux d'une voie, par ordre croissant
+     */
+    public double[] getAxisLevels() {
+        double[] levels = new double[levelsPerAxis];
+        for (int i = 0; i < levelsPerAxis; i++) {
+            levels[i] = grayToLevel[levelToGray[i]];
+        }
+        return levels;
+    }
+
+    public Constellation getConstellation() {
+        return constellation;
+    }
+
+    public int getBitsPerSymbol() {
+        return constellation.bitsPerSymbol;
+    }
+
+    /**
+     * Constellation associée à un type de modulation (null si non complexe)
+     */
+    public static Constellation forModulation(Modulator.ModulationType modulationType) {
+        switch (modulationType) {
+            case QPSK:
+                return Constellation.QPSK;
+            case QAM:
+                return Constellation.QAM16;
+            case QAM64:
+                return Constellation.QAM64;
+            default:
+                return null;
+        }
+    }
+}
@@ -10,6 +10,16 @@ public class Decoder {
     private Modulator.ModulationType modulationType;
     private LineEncoder.EncodingType encodingType;
     private boolean debugMode = true;
+    
+    // Détection de séquence (Viterbi) pour AMI/HDB3 et décision par paire en Manchester
+    private boolean sequenceDetection = false;
+    private int tracebackLength = 64;
+    private long codeViolations;
+    
+    // Statistiques du dernier décodage souple
+    private static final double LN2 = Math.log(2.0);
+    private double softAmplitude = 1.0;
+    private double lastNoiseVariance;
    
     public Decoder(double threshold) {
         this.threshold = threshold;
@@ -18,6 +28,7 @@ public class Decoder {
     }
     
     public boolean[] decode(double[] signal) {
+        codeViolations = 0;
         if (debugMode) {
             System.out.println("\n=== DÉCODAGE ADAPTATIF ===");
             System.out.println("Longueur du signal à décoder : " + signal.length);
@@ -25,30 +36,31 @@ public class Decoder {
             System.out.println("Type de modulation : " + modulationType);
         }
         
-        // Calculer le seuil optimal avant décodage
-        double optimalThreshold = calculateOptimalThreshold(signal);
-        
         // Décodage spécialisé selon le type d'encodage
         boolean[] decodedBits;
         
+        if (sequenceDetection && supportsSequenceDetection()) {
+            SequenceDetector detector = new SequenceDetector(encodingType, tracebackLength);
+            decodedBits = detector.detect(signal);
+            codeViolations = detector.getCodeViolations();
+            if (debugMode) {
+                System.out.println("Détection de séquence : amplitude " + detector.getAmplitude()
+                        + ", violations de code " + codeViolations);
+                System.out.println("=========================\n");
+            }
+            return decodedBits;
+        }
+        
         switch (encodingType) {
-            case AMI:
-                decodedBits = decodeAMI(signal);
-                break;
-                
-            case MANCHESTER:
-                // D'abord décoder les symboles, puis les convertir
-                boolean[] symbols = decodeWithOptimalThreshold(signal, optimalThreshold);
-                decodedBits = decodeManchesterSymbols(symbols);
-                break;
-                
             case HDB3:
-                decodedBits = decodeAMI(signal); // Similaire à AMI
+            case B8ZS:
+                // Décision AMI puis suppression des séquences de substitution
+                decodedBits = BitPacker.unpack(decodeAMI(signal), signal.length);
+                removeSubstitutions(signal, decodedBits);
                 break;
                 
-            case NRZ:
             default:
-                decodedBits = decodeWithOptimalThreshold(signal, optimalThreshold);
+                decodedBits = BitPacker.unpack(decideWords(signal), hardOutputLength(signal.length));
                 break;
         }
         
@@ -60,6 +72,270 @@ public class Decoder {
         return decodedBits;
     }
     
+    /**
+     * Décisions fermes empaquetées en mots de 64 bits (convention de {@link BitPacker}),
+     * {@link #hardOutputLength} bits. NRZ, AMI et Manchester sont décidés directement dans
+     * les mots, sans passer par un tableau de booléens.
+     */
+    public long[] decodePacked(double[] signal) {
+        codeViolations = 0;
+        if ((sequenceDetection && supportsSequenceDetection())
+                || encodingType == LineEncoder.EncodingType.HDB3
+                || encodingType == LineEncoder.EncodingType.B8ZS) {
+            return BitPacker.pack(decode(signal));
+        }
+        return decideWords(signal);
+    }
+    
+    /**
+     * Nombre de bits décidés pour un signal de length symboles
+     * (Manchester : une paire par bit, la dernière éventuellement incomplète)
+     */
+    public int hardOutputLength(int length) {
+        return encodingType == LineEncoder.EncodingType.MANCHESTER ? (length + 1) / 2 : length;
+    }
+    
+    /**
+     * Décision ferme symbole par symbole (NRZ, AMI, Manchester)
+     */
+    private long[] decideWords(double[] signal) {
+        switch (encodingType) {
+            case AMI:
+            case HDB3:
+            case B8ZS:
+                return decodeAMI(signal);
+            case MANCHESTER:
+                return decodeManchester(signal);
+            case NRZ:
+            default:
+                return decodeWithOptimalThreshold(signal, calculateOptimalThreshold(signal));
+        }
+    }
+    
+    /**
+     * Décodage des symboles complexes (QPSK, 16-QAM, 64-QAM).
+     * Les symboles sont d'abord ramenés à une énergie moyenne unitaire (CAG)
+     * puis démappés par décision ferme.
+     * @param numBits Nombre de bits attendus
+     */
+    public boolean[] decode(ComplexSignal symbols, int numBits) {
+        ConstellationMapper mapper = createMapper();
+        ComplexSignal normalized = normalizeEnergy(symbols);
+        
+        if (debugMode) {
+            System.out.println("\n=== DÉCODAGE I/Q ===");
+            System.out.println("Constellation : " + mapper.getConstellation());
+            System.out.println("Nombre de symboles : " + symbols.getLength());
+        }
+        
+        return mapper.demapHard(normalized, numBits);
+    }
+    
+    /**
+     * Décision souple max-log des symboles complexes
+     * @param noiseVariance Variance du bruit par voie, après normalisation d'énergie
+     * @param llr Sortie : un LLR par bit (positif favorise 1)
+     */
+    public void decodeSoft(ComplexSignal symbols, double noiseVariance, double[] llr) {
+        createMapper().demapSoft(normalizeEnergy(symbols), noiseVariance, llr);
+    }
+    
+    /**
+     * Décision souple des codes en ligne NRZ, Manchester et AMI (HDB3/B8ZS traités comme AMI).
+     * Amplitude et variance du bruit sont estimées dans la même passe que les sommes
+     * nécessaires (Σ|x| et Σx²), puis les LLR sont écrits sans branchement.
+     * @param llr Sortie : un LLR par bit (positif favorise 1), au moins {@link #softOutputLength} éléments
+     * @return Variance du bruit estimée
+     */
+    public double decodeSoft(double[] signal, double[] llr) {
+        int numBits = softOutputLength(signal.length);
+        double noiseVariance = estimateSoftStatistics(signal);
+        double a = softAmplitude;
+        
+        switch (encodingType) {
+            case MANCHESTER: {
+                double scale = 2.0 * a / noiseVariance;
+                for (int i = 0; i < numBits; i++) {
+                    llr[i] = scale * (signal[2 * i] - signal[2 * i + 1]);
+                }
+                break;
+            }
+            case AMI:
+            case HDB3:
+            case B8ZS: {
+                double inv = a / noiseVariance;
+                double offset = -a * a / (2.0 * noiseVariance) - LN2;
+                for (int i = 0; i < numBits; i++) {
+                    llr[i] = bipolarLlr(signal[i] * inv, offset);
+                }
+                break;
+            }
+            case NRZ:
+            default: {
+                double scale = 2.0 * a / noiseVariance;
+                for (int i = 0; i < numBits; i++) {
+                    llr[i] = scale * signal[i];
+                }
+                break;
+            }
+        }
+        return noiseVariance;
+    }
+    
+    /**
+     * Variante simple précision (tampons compacts pour un décodeur de canal) : chaque LLR
+     * est calculé en double puis rangé directement dans llr, sans tampon intermédiaire
+     */
+    public double decodeSoft(double[] signal, float[] llr) {
+        int numBits = softOutputLength(signal.length);
+        double noiseVariance = estimateSoftStatistics(signal);
+        double a = softAmplitude;
+        
+        switch (encodingType) {
+            case MANCHESTER: {
+                double scale = 2.0 * a / noiseVariance;
+                for (int i = 0; i < numBits; i++) {
+                    llr[i] = (float) (scale * (signal[2 * i] - signal[2 * i + 1]));
+                }
+                break;
+            }
+            case AMI:
+            case HDB3:
+            case B8ZS: {
+                double inv = a / noiseVariance;
+                double offset = -a * a / (2.0 * noiseVariance) - LN2;
+                for (int i = 0; i < numBits; i++) {
+                    llr[i] = (float) bipolarLlr(signal[i] * inv, offset);
+                }
+                break;
+            }
+            case NRZ:
+            default: {
+                double scale = 2.0 * a / noiseVariance;
+                for (int i = 0; i < numBits; i++) {
+                    llr[i] = (float) (scale * signal[i]);
+                }
+                break;
+            }
+        }
+        return noiseVariance;
+    }
+    
+    /**
+     * LLR bipolaire, y = x·A/σ² : offset + log(cosh(y)) + log 2, sous la forme
+     * |y| + log(1 + e^(-2|y|)) qui ne déborde pas pour les grands |y|
+     */
+    private static double bipolarLlr(double y, double offset) {
+        double magnitude = Math.abs(y);
+        return offset + magnitude + Math.log1p(Math.exp(-2.0 * magnitude));
+    }
+    
+    /**
+     * Nombre de LLR produits pour un signal de length symboles
+     */
+    public int softOutputLength(int length) {
+        return encodingType == LineEncoder.EncodingType.MANCHESTER ? length / 2 : length;
+    }
+    
+    /**
+     * Statistiques fusionnées : une seule passe pour Σ|x| et Σx² (Σx⁴ en AMI).
+     * NRZ : E|x| = A, E[x²] = A² + σ². Manchester : mêmes relations sur d = x1 - x2
+     * (niveau 2A, variance 2σ²). AMI (marques équiprobables) : E[x²] = A²/2 + σ² et
+     * E[x⁴] = 3E[x²]² - A⁴/4, d'où A² = 2·sqrt(3E[x²]² - E[x⁴]).
+     */
+    private double estimateSoftStatistics(double[] signal) {
+        double sumAbs = 0;
+        double sumSquares = 0;
+        double sumFourth = 0;
+        int n;
+        boolean manchester = encodingType == LineEncoder.EncodingType.MANCHESTER;
+        boolean ternary = encodingType == LineEncoder.EncodingType.AMI
+                || encodingType == LineEncoder.EncodingType.HDB3
+                || encodingType == LineEncoder.EncodingType.B8ZS;
+        if (manchester) {
+            n = signal.length / 2;
+            for (int i = 0; i < n; i++) {
+                double d = signal[2 * i] - signal[2 * i + 1];
+                sumAbs += Math.abs(d);
+                sumSquares += d * d;
+            }
+        } else if (ternary) {
+            n = signal.length;
+            for (int i = 0; i < n; i++) {
+                double x2 = signal[i] * signal[i];
+                sumSquares += x2;
+                sumFourth += x2 * x2;
+            }
+        } else {
+            n = signal.length;
+            for (int i = 0; i < n; i++) {
+                double x = signal[i];
+                sumAbs += Math.abs(x);
+                sumSquares += x * x;
+            }
+        }
+        if (n == 0) {
+            softAmplitude = 1.0;
+            return 1.0;
+        }
+        double meanAbs = sumAbs / n;
+        double meanSquare = sumSquares / n;
+        
+        double noiseVariance;
+        switch (encodingType) {
+            case MANCHESTER:
+                softAmplitude = meanAbs / 2.0;
+                noiseVariance = (meanSquare - meanAbs * meanAbs) / 2.0;
+                break;
+            case AMI:
+            case HDB3:
+            case B8ZS:
+                double amplitudeSquared = 2.0 * Math.sqrt(Math.max(0.0,
+                        3.0 * meanSquare * meanSquare - sumFourth / n));
+                softAmplitude = Math.sqrt(amplitudeSquared);
+                noiseVariance = meanSquare - amplitudeSquared / 2.0;
+                break;
+            case NRZ:
+            default:
+                softAmplitude = meanAbs;
+                noiseVariance = meanSquare - meanAbs * meanAbs;
+                break;
+        }
+        // Plancher : l'estimateur par |x| est biaisé à faible SNR
+        noiseVariance = Math.max(noiseVariance, 1e-6 * meanSquare + 1e-12);
+        lastNoiseVariance = noiseVariance;
+        
+        if (debugMode) {
+            System.out.println("Statistiques souples : amplitude " + softAmplitude
+                    + ", variance du bruit " + noiseVariance);
+        }
+        return noiseVariance;
+    }
+    
+    /**
+     * Variance du bruit estimée lors du dernier décodage souple
+     */
+    public double getLastNoiseVariance() {
+        return lastNoiseVariance;
+    }
+    
+    private ConstellationMapper createMapper() {
+        ConstellationMapper.Constellation constellation = ConstellationMapper.forModulation(modulationType);
+        if (constellation == null) {
+            throw new IllegalArgumentException("Modulation non complexe : " + modulationType);
+        }
+        return new ConstellationMapper(constellation);
+    }
+    
+    private ComplexSignal normalizeEnergy(ComplexSignal symbols) {
+        double power = symbols.power();
+        ComplexSignal normalized = symbols.copy();
+        if (power > 0) {
+            normalized.scale(1.0 / Math.sqrt(power));
+        }
+        return normalized;
+    }
+    
     /**
      * Calcule le seuil optimal en utilisant l'algorithme de Otsu adapté
      */
@@ -131,34 +407,35 @@ public class Decoder {
     }
     
     /**
-     * Décodage avec seuil optimal
+     * Décodage avec seuil optimal, décisions empaquetées
      */
-    private boolean[] decodeWithOptimalThreshold(double[] signal, double threshold) {
-        boolean[] bits = new boolean[signal.length];
+    private long[] decodeWithOptimalThreshold(double[] signal, double threshold) {
+        long[] words = new long[BitPacker.wordCount(signal.length)];
         
         if (debugMode) {
             System.out.println("\nDécodage avec seuil: " + threshold);
             System.out.println("Premiers échantillons:");
         }
         
-        for (int i = 0; i < signal.length; i++) {
-            bits[i] = signal[i] > threshold;
-            
-            if (debugMode && i < 10) {
-                System.out.printf("  Signal[%d] = %.4f > %.4f = %s\n", 
-                                i, signal[i], threshold, bits[i]);
+        SignalKernels.get().slicePacked(signal, threshold, words);
+
+        if (debugMode) {
+            for (int i = 0; i < Math.min(10, signal.length); i++) {
+                System.out.printf("  Signal[%d] = %.4f > %.4f = %s\n",
+                                i, signal[i], threshold, BitPacker.get(words, i));
             }
         }
         
-        return bits;
+        return words;
     }
     
     /**
-     * Décodage spécifique pour AMI
+     * Décodage spécifique pour AMI : bit 1 si |signal| dépasse le seuil entre 0 et ±1
      */
-    private boolean[] decodeAMI(double[] signal) {
-        System.out.println("\nDécodage AMI spécialisé");
-        boolean[] bits = new boolean[signal.length];
+    private long[] decodeAMI(double[] signal) {
+        if (debugMode) {
+            System.out.println("\nDécodage AMI spécialisé");
+        }
         
         // Pour AMI, on utilise la valeur absolue avec un seuil adaptatif
         double[] absSignal = new double[signal.length];
@@ -169,42 +446,105 @@ public class Decoder {
         // Trouver le seuil pour distinguer 0 des ±1
         double threshold = calculateOptimalThreshold(absSignal);
         
-        // Décodage : bit 1 si |signal| > threshold
-        for (int i = 0; i < signal.length; i++) {
-            bits[i] = absSignal[i] > threshold;
-        }
-        
-        return bits;
+        long[] words = new long[BitPacker.wordCount(signal.length)];
+        SignalKernels.get().sliceMagnitudePacked(signal, threshold, words);
+        return words;
     }
     
     /**
-     * Décodage des symboles Manchester en bits
+     * Repère les violations bipolaires (deux impulsions successives de même polarité)
+     * et efface les impulsions de substitution HDB3 (B00V / 000V) ou B8ZS (000VB0VB).
+     * Seul le motif complet d'une substitution est effacé : une impulsion manquée ou
+     * ajoutée par le bruit coûte au plus 3 bits en HDB3 et 5 bits en B8ZS.
      */
-    private boolean[] decodeManchesterSymbols(boolean[] symbols) {
-        if (symbols.length % 2 != 0) {
-            // Ajout d'un zéro pour corriger l'impair
-            boolean[] padded = Arrays.copyOf(symbols, symbols.length + 1);
-            symbols = padded;
+    private void removeSubstitutions(double[] signal, boolean[] bits) {
+        int lastPulse = -1;
+        int i = 0;
+        while (i < bits.length) {
+            if (!bits[i]) {
+                i++;
+                continue;
+            }
+            boolean violation = lastPulse >= 0
+                    && Math.signum(signal[i]) == Math.signum(signal[lastPulse]);
+            if (violation && encodingType == LineEncoder.EncodingType.HDB3
+                    && i >= 3 && !bits[i - 1] && !bits[i - 2]) {
+                // V en i après 000 (impulsion précédente avant i-3) ou B00V (B en i-3)
+                bits[i] = false;
+                if (lastPulse == i - 3) {
+                    bits[i - 3] = false;
+                }
+            } else if (encodingType == LineEncoder.EncodingType.B8ZS
+                    && isB8zsSubstitution(signal, bits, i)) {
+                // 000 puis V B 0 V B : on efface le motif et on reprend après
+                for (int k = i; k < i + 5; k++) {
+                    bits[k] = false;
+                }
+                lastPulse = i + 4;
+                i += 5;
+                continue;
+            }
+            lastPulse = i;
+            i++;
         }
+    }
 
-        int numBits = symbols.length / 2;
-        boolean[] bits = new boolean[numBits];
-        double threshold = 0.2;  // Seuil de tolérance
+    /**
+     * Motif B8ZS à partir de l'impulsion V en i : trois zéros avant, puis B 0 V B avec
+     * B de polarité opposée à V, le second V opposé au premier et le dernier B opposé
+     * au second V. Le motif contient lui-même une violation (B puis V de même polarité) :
+     * il ne peut pas provenir de données AMI et se reconnaît sans comparer V à l'impulsion
+     * précédente, qu'une erreur isolée aurait faussée.
+     */
+    private static boolean isB8zsSubstitution(double[] signal, boolean[] bits, int i) {
+        if (i < 3 || i + 4 >= bits.length
+                || bits[i - 1] || bits[i - 2] || bits[i - 3]
+                || !bits[i + 1] || bits[i + 2] || !bits[i + 3] || !bits[i + 4]) {
+            return false;
+        }
+        double v = Math.signum(signal[i]);
+        return Math.signum(signal[i + 1]) == -v
+                && Math.signum(signal[i + 3]) == -v
+                && Math.signum(signal[i + 4]) == v;
+    }
 
-        for (int i = 0; i < numBits; i++) {
-            int idx = i * 2;
-            boolean s1 = symbols[idx];
-            boolean s2 = symbols[idx + 1];
-            
-            // Décision robuste avec seuil
-            if (s1 && !s2) bits[i] = true;    // 10 -> 1
-            else if (!s1 && s2) bits[i] = false; // 01 -> 0
-            else {
-                // Cas ambigu: utilisation du niveau moyen
-                bits[i] = (i > 0) ? bits[i-1] : false;  // Héritage du bit précédent
-            }
+    /**
+     * Décodage Manchester par différence des deux demi-symboles : 1 si x1 > x2
+     * (décision au maximum de vraisemblance, aucune paire ambiguë). Une dernière paire
+     * incomplète est décidée sur le seuil optimal.
+     */
+    private long[] decodeManchester(double[] signal) {
+        int numBits = hardOutputLength(signal.length);
+        long[] words = new long[BitPacker.wordCount(numBits)];
+        SignalKernels.get().slicePairsPacked(signal, words);
+        if (signal.length % 2 != 0
+                && signal[signal.length - 1] > calculateOptimalThreshold(signal)) {
+            words[(numBits - 1) >>> 6] |= 1L << (numBits - 1);
         }
-        return bits;
+        return words;
+    }
+
+    private boolean supportsSequenceDetection() {
+        return encodingType == LineEncoder.EncodingType.AMI
+                || encodingType == LineEncoder.EncodingType.HDB3
+                || encodingType == LineEncoder.EncodingType.MANCHESTER;
+    }
+    
+    /**
+     * Active le décodage par maximum de vraisemblance de séquence (AMI, HDB3, Manchester)
+     * @param tracebackLength Profondeur de la fenêtre de remontée en symboles
+     */
+    public void setSequenceDetection(boolean enabled, int tracebackLength) {
+        this.sequenceDetection = enabled;
+        this.tracebackLength = tracebackLength;
+    }
+    
+    /**
+     * Violations de code relevées lors du dernier décodage par séquence (0 si le dernier
+     * décodage ferme n'est pas passé par la détection de séquence)
+     */
+    public long getCodeViolations() {
+        return codeViolations;
     }
 
     public void setThreshold(double threshold) {
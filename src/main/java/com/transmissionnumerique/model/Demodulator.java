@@ -1,13 +1,54 @@
 package com.transmissionnumerique.model;
 
 public class Demodulator {
+    private static final double EPSILON = 1e-12;
+
     private Modulator.ModulationType modulationType;
+    private double carrierFrequency;
+    private double sampleRate;
+
+    // Mode passe-bande : mélange cohérent par NCO, passe-bas et décimation
+    private boolean passband = false;
+    private double frequencyDeviation;
+    private int decimation = 1;
+    private Nco localOscillator;
+
+    // État du passe-bas (moyenne glissante sur une période de porteuse)
+    private int lowPassLength;
+    private double[] ringI;
+    private double[] ringQ;
+    private double sumI;
+    private double sumQ;
+    private int ringPos;
+    private double prevI;
+    private double prevQ;
+    private int decimationCount;
+
+    // Récupération de porteuse (null = désactivée)
+    private CarrierRecovery carrierRecovery;
+    private double carrierLoopBandwidth = 0.01;
 
     public Demodulator(Modulator.ModulationType modulationType, double carrierFrequency, double sampleRate) {
         this.modulationType = modulationType;
+        this.carrierFrequency = carrierFrequency;
+        this.sampleRate = sampleRate;
+        this.frequencyDeviation = carrierFrequency / 4.0;
+        this.localOscillator = new Nco(carrierFrequency, sampleRate);
+
+        // Moyenne glissante sur une période : zéros de transmission à 2fc et ses multiples
+        this.lowPassLength = Math.max(1, (int) Math.round(sampleRate / carrierFrequency));
+        this.ringI = new double[lowPassLength];
+        this.ringQ = new double[lowPassLength];
     }
 
+    /**
+     * En bande de base, le tableau reçu est renvoyé tel quel (aucune copie)
+     */
     public double[] demodulate(double[] signal) {
+        if (passband) {
+            return demodulatePassband(signal);
+        }
+
         switch (modulationType) {
             case ASK:
                 return demodulateSimpleASK(signal);
@@ -20,21 +61,209 @@ public class Demodulator {
         }
     }
 
+    /**
+     * Démodulation en bande de base en simple précision (le signal est transmis tel quel,
+     * sans copie)
+     */
+    public float[] demodulate(float[] signal) {
+        if (passband) {
+            throw new IllegalStateException("Démodulation passe-bande en double précision uniquement");
+        }
+        return signal;
+    }
+
+    /**
+     * Démodulation de la chaîne complexe : le signal est déjà en bande de base,
+     * la décision sur la constellation se fait dans le décodeur.
+     */
+    public ComplexSignal demodulate(ComplexSignal signal) {
+        return signal;
+    }
+
+    /**
+     * Démodulation passe-bande d'un signal complet.
+     * Sans décimation, le retard du passe-bas est compensé pour rester aligné sur l'entrée.
+     */
+    private double[] demodulatePassband(double[] signal) {
+        // Retard du passe-bas : L/2 (le discriminateur FSK ou la moyenne à deux points
+        // ajoutent le demi-échantillon manquant lorsque L est pair)
+        int delay = decimation == 1 ? lowPassLength / 2 : 0;
+        double[] extended = new double[signal.length + delay];
+        System.arraycopy(signal, 0, extended, 0, signal.length);
+
+        double[] raw = new double[(extended.length + decimation - 1) / decimation];
+        int written = demodulatePassband(extended, 0, extended.length, raw, 0);
+
+        int outputLength = decimation == 1 ? signal.length : written;
+        double[] output = new double[outputLength];
+        System.arraycopy(raw, delay, output, 0, outputLength);
+        return output;
+    }
+
+    /**
+     * Démodulation passe-bande d'un bloc : mélange en quadrature avec le NCO local,
+     * passe-bas puis décimation. L'état est conservé pour le bloc suivant.
+     * ASK/PSK : sortie = voie I ; FSK : discriminateur de fréquence normalisé par l'excursion.
+     * @return Nombre d'échantillons écrits
+     */
+    public int demodulatePassband(double[] input, int inOffset, int length, double[] output, int outOffset) {
+        final Nco lo = localOscillator;
+        final double[] rI = ringI;
+        final double[] rQ = ringQ;
+        final int lpLength = lowPassLength;
+        final double lpScale = 1.0 / lpLength;
+        final boolean fsk = modulationType == Modulator.ModulationType.FSK;
+        final double fskScale = 1.0 / Math.sin(2 * Math.PI * frequencyDeviation / sampleRate);
+        final boolean evenLength = (lpLength & 1) == 0;
+        final CarrierRecovery loop = carrierRecovery;
+
+        int written = 0;
+        for (int i = 0; i < length; i++) {
+            double x = input[inOffset + i];
+            int phase = lo.getPhase();
+            double mixedI = 2.0 * x * Nco.cos(phase);
+            double mixedQ = -2.0 * x * Nco.sin(phase);
+            lo.step();
+
+            sumI += mixedI - rI[ringPos];
+            sumQ += mixedQ - rQ[ringPos];
+            rI[ringPos] = mixedI;
+            rQ[ringPos] = mixedQ;
+            if (++ringPos == lpLength) {
+                ringPos = 0;
+            }
+
+            double bI = sumI * lpScale;
+            double bQ = sumQ * lpScale;
+
+            double value;
+            if (fsk) {
+                // sin(Δφ) = Im(b[n] * conj(b[n-1])) / |b|²
+                double cross = prevI * bQ - prevQ * bI;
+                double magnitude = bI * bI + bQ * bQ;
+                value = cross / (magnitude + EPSILON) * fskScale;
+                prevI = bI;
+                prevQ = bQ;
+            } else if (loop != null) {
+                // Boucle de Costas : dérotation de la voie I par la phase estimée
+                loop.step(bI, bQ);
+                double derotated = loop.getLastReal();
+                value = evenLength ? 0.5 * (derotated + prevI) : derotated;
+                prevI = derotated;
+            } else if (evenLength) {
+                // Moyenne sur deux échantillons : retard total entier (L/2)
+                value = 0.5 * (bI + prevI);
+                prevI = bI;
+            } else {
+                value = bI;
+            }
+
+            if (++decimationCount >= decimation) {
+                decimationCount = 0;
+                output[outOffset + written++] = value;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Récupération de porteuse sur des symboles complexes (après la récupération d'horloge).
+     * Les symboles sont ramenés à une énergie unitaire avant la boucle.
+     */
+    public ComplexSignal recoverCarrier(ComplexSignal symbols) {
+        if (carrierRecovery == null) {
+            return symbols;
+        }
+        ComplexSignal normalized = symbols.copy();
+        double power = normalized.power();
+        if (power > 0) {
+            normalized.scale(1.0 / Math.sqrt(power));
+        }
+        ConstellationMapper.Constellation constellation = ConstellationMapper.forModulation(modulationType);
+        if (constellation != null) {
+            carrierRecovery.setAxisLevels(new ConstellationMapper(constellation).getAxisLevels());
+        }
+        carrierRecovery.process(normalized.getReal(), normalized.getImag(), 0,
+                                normalized.getReal(), normalized.getImag(), 0, normalized.getLength());
+        return normalized;
+    }
+
+    /**
+     * Active la boucle de récupération de porteuse (Costas ou dirigée par décision
+     * selon la modulation). L'état de la boucle est conservé entre les blocs.
+     */
+    public void setCarrierRecoveryEnabled(boolean enabled) {
+        this.carrierRecovery = enabled
+                ? new CarrierRecovery(CarrierRecovery.forModulation(modulationType), carrierLoopBandwidth)
+                : null;
+    }
+
+    /**
+     * Bande de bruit normalisée de la boucle (à régler avant l'activation)
+     */
+    public void setCarrierLoopBandwidth(double carrierLoopBandwidth) {
+        this.carrierLoopBandwidth = carrierLoopBandwidth;
+    }
+
+    public CarrierRecovery getCarrierRecovery() {
+        return carrierRecovery;
+    }
+
+    /**
+     * Active la démodulation cohérente sur porteuse
+     */
+    public void setPassband(boolean passband) {
+        this.passband = passband;
+    }
+
+    public boolean isPassband() {
+        return passband;
+    }
+
+    /**
+     * Facteur de décimation après le passe-bas
+     */
+    public void setDecimation(int decimation) {
+        this.decimation = Math.max(1, decimation);
+    }
+
+    public void setFrequencyDeviation(double frequencyDeviation) {
+        this.frequencyDeviation = frequencyDeviation;
+    }
+
+    /**
+     * Réinitialise l'oscillateur local et le passe-bas
+     */
+    public void reset() {
+        localOscillator.reset();
+        java.util.Arrays.fill(ringI, 0.0);
+        java.util.Arrays.fill(ringQ, 0.0);
+        sumI = 0;
+        sumQ = 0;
+        ringPos = 0;
+        prevI = 0;
+        prevQ = 0;
+        decimationCount = 0;
+        if (carrierRecovery != null) {
+            carrierRecovery.reset();
+        }
+    }
+
     // DÉMODULATION ASK TRÈS SIMPLE
     private double[] demodulateSimpleASK(double[] signal) {
-        // Retourne le signal tel quel - la démodulation se fera dans le décodeur
-        return signal.clone();
+        // Retourne le signal tel quel (sans copie) - la démodulation se fera dans le décodeur
+        return signal;
     }
 
     // DÉMODULATION PSK TRÈS SIMPLE
     private double[] demodulateSimplePSK(double[] signal) {
-        // Retourne le signal tel quel
-        return signal.clone();
+        // Retourne le signal tel quel, sans copie
+        return signal;
     }
 
     // DÉMODULATION FSK TRÈS SIMPLE
     private double[] demodulateSimpleFSK(double[] signal) {
-        // Retourne le signal tel quel
-        return signal.clone();
+        // Retourne le signal tel quel, sans copie
+        return signal;
     }
-}
\ No newline at end of file
+}
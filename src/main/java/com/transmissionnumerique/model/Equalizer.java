@@ -0,0 +1,263 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Égaliseur adaptatif placé entre le filtre de réception et la récupération d'horloge.
+ * Filtre transverse (FIR) linéaire ou à retour de décision (DFE), adapté par LMS ou NLMS,
+ * espacé au temps symbole (T) ou fractionnaire (T/2, T/4...).
+ *
+ * Le filtre est appliqué à chaque échantillon pour conserver la cadence du signal,
+ * l'adaptation n'a lieu qu'aux instants de décision. La boucle interne n'alloue rien
+ * et l'état (historique, coefficients, décisions passées) est conservé entre les blocs.
+ */
+public class Equalizer {
+
+    public enum Algorithm {
+        LMS, NLMS
+    }
+
+    public enum Structure {
+        LINEAR, DECISION_FEEDBACK
+    }
+
+    private static final double NLMS_EPSILON = 1e-6;
+
+    private final Algorithm algorithm;
+    private final Structure structure;
+    private final int samplesPerSymbol;
+    private final int tapSpacing;       // en échantillons
+    private final double stepSize;
+
+    // Partie transverse
+    private final double[] forwardTaps;
+    private final double[] history;
+    private final int historyMask;
+    private int historyPos;
+
+    // Partie retour de décision
+    private final double[] feedbackTaps;
+    private final double[] pastDecisions;
+    private int decisionPos;
+
+    // Alphabet de décision et séquence d'apprentissage
+    private double[] decisionLevels = {-1.0, 1.0};
+    private double[] trainingSymbols;
+    private int symbolCount;
+
+    private int samplingOffset;
+    private long sampleCount;
+
+    /**
+     * @param algorithm Algorithme d'adaptation
+     * @param structure Structure linéaire ou DFE
+     * @param numForwardTaps Nombre de coefficients transverses
+     * @param numFeedbackTaps Nombre de coefficients de retour (ignoré en linéaire)
+     * @param samplesPerSymbol Échantillons par symbole du signal d'entrée
+     * @param tapsPerSymbol 1 = espacement T, 2 = T/2, etc. (doit diviser samplesPerSymbol)
+     * @param stepSize Pas d'adaptation (mu)
+     */
+    public Equalizer(Algorithm algorithm, Structure structure, int numForwardTaps, int numFeedbackTaps,
+                     int samplesPerSymbol, int tapsPerSymbol, double stepSize) {
+        if (tapsPerSymbol <= 0 || samplesPerSymbol % tapsPerSymbol != 0) {
+            throw new IllegalArgumentException("tapsPerSymbol doit diviser samplesPerSymbol");
+        }
+        this.algorithm = algorithm;
+        this.structure = structure;
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.tapSpacing = samplesPerSymbol / tapsPerSymbol;
+        this.stepSize = stepSize;
+
+        int ffTaps = Math.max(1, numForwardTaps);
+        this.forwardTaps = new double[ffTaps];
+        this.forwardTaps[ffTaps / 2] = 1.0; // Initialisation : coefficient central unitaire
+
+        int span = (ffTaps - 1) * tapSpacing + 1;
+        int size = Integer.highestOneBit(span) << 1;
+        this.history = new double[size];
+        this.historyMask = size - 1;
+
+        int fbTaps = structure == Structure.DECISION_FEEDBACK ? Math.max(0, numFeedbackTaps) : 0;
+        this.feedbackTaps = new double[fbTaps];
+        this.pastDecisions = new double[Math.max(1, fbTaps)];
+    }
+
+    /**
+     * Retard introduit par l'égaliseur (coefficient central), en échantillons
+     */
+    public int getDelay() {
+        return (forwardTaps.length / 2) * tapSpacing;
+    }
+
+    /**
+     * Traite un bloc d'échantillons. La sortie est retardée de {@link #getDelay()} échantillons.
+     */
+    public void process(double[] input, int inOffset, double[] output, int outOffset, int length) {
+        final double[] w = forwardTaps;
+        final double[] b = feedbackTaps;
+        final double[] hist = history;
+        final double[] decisions = pastDecisions;
+        final int numFf = w.length;
+        final int numFb = b.length;
+        final int mask = historyMask;
+        final int spacing = tapSpacing;
+        final int delay = getDelay();
+
+        int pos = historyPos;
+        for (int i = 0; i < length; i++) {
+            hist[pos] = input[inOffset + i];
+
+            // Filtrage transverse
+            double y = 0;
+            for (int k = 0; k < numFf; k++) {
+                y += w[k] * hist[(pos - k * spacing) & mask];
+            }
+
+            // Retour de décision (décisions passées, la plus récente en premier)
+            int idx = decisionPos;
+            for (int j = 0; j < numFb; j++) {
+                y -= b[j] * decisions[idx];
+                idx = (idx == 0) ? numFb - 1 : idx - 1;
+            }
+
+            // Instant de décision : échantillon aligné sur l'entrée compte tenu du retard
+            long aligned = sampleCount - delay - samplingOffset;
+            if (aligned >= 0 && aligned % samplesPerSymbol == 0) {
+                double d = (trainingSymbols != null && symbolCount < trainingSymbols.length)
+                           ? trainingSymbols[symbolCount] : slice(y);
+                double e = d - y;
+
+                double mu = stepSize;
+                if (algorithm == Algorithm.NLMS) {
+                    double energy = 0;
+                    for (int k = 0; k < numFf; k++) {
+                        double x = hist[(pos - k * spacing) & mask];
+                        energy += x * x;
+                    }
+                    for (int j = 0; j < numFb; j++) {
+                        energy += decisions[j] * decisions[j];
+                    }
+                    mu = stepSize / (NLMS_EPSILON + energy);
+                }
+
+                double g = mu * e;
+                for (int k = 0; k < numFf; k++) {
+                    w[k] += g * hist[(pos - k * spacing) & mask];
+                }
+                idx = decisionPos;
+                for (int j = 0; j < numFb; j++) {
+                    b[j] -= g * decisions[idx];
+                    idx = (idx == 0) ? numFb - 1 : idx - 1;
+                }
+
+                if (numFb > 0) {
+                    decisionPos = (decisionPos + 1) % numFb;
+                    decisions[decisionPos] = d;
+                }
+                symbolCount++;
+            }
+
+            output[outOffset + i] = y;
+            pos = (pos + 1) & mask;
+            sampleCount++;
+        }
+        historyPos = pos;
+    }
+
+    /**
+     * Version tableau complet : le retard de l'égaliseur est compensé
+     * pour que la sortie reste alignée sur l'entrée.
+     */
+    public double[] process(double[] signal) {
+        int delay = getDelay();
+        double[] extended = new double[signal.length + delay];
+        System.arraycopy(signal, 0, extended, 0, signal.length);
+
+        double[] output = new double[extended.length];
+        process(extended, 0, output, 0, extended.length);
+
+        double[] aligned = new double[signal.length];
+        System.arraycopy(output, delay, aligned, 0, signal.length);
+        return aligned;
+    }
+
+    /**
+     * Décision au niveau le plus proche de l'alphabet
+     */
+    private double slice(double y) {
+        double[] levels = decisionLevels;
+        double best = levels[0];
+        double bestDist = Math.abs(y - best);
+        for (int i = 1; i < levels.length; i++) {
+            double dist = Math.abs(y - levels[i]);
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = levels[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Réinitialise l'état (historique, coefficients et compteurs)
+     */
+    public void reset() {
+        java.util.Arrays.fill(history, 0.0);
+        java.util.Arrays.fill(forwardTaps, 0.0);
+        forwardTaps[forwardTaps.length / 2] = 1.0;
+        java.util.Arrays.fill(feedbackTaps, 0.0);
+        java.util.Arrays.fill(pastDecisions, 0.0);
+        historyPos = 0;
+        decisionPos = 0;
+        symbolCount = 0;
+        sampleCount = 0;
+    }
+
+    /**
+     * Configure l'alphabet de décision selon le codage en ligne
+     */
+    public void setEncodingType(LineEncoder.EncodingType encodingType) {
+        switch (encodingType) {
+            case AMI:
+            case HDB3:
+            case B8ZS:
+                decisionLevels = new double[]{-1.0, 0.0, 1.0};
+                break;
+            default:
+                decisionLevels = new double[]{-1.0, 1.0};
+                break;
+        }
+    }
+
+    public void setDecisionLevels(double[] decisionLevels) {
+        this.decisionLevels = decisionLevels.clone();
+    }
+
+    /**
+     * Symboles connus utilisés pour l'apprentissage avant le mode dirigé par décision
+     */
+    public void setTrainingSymbols(double[] trainingSymbols) {
+        this.trainingSymbols = trainingSymbols;
+    }
+
+    /**
+     * Position de l'instant de décision dans le symbole (0 à samplesPerSymbol-1)
+     */
+    public void setSamplingOffset(int samplingOffset) {
+        this.samplingOffset = ((samplingOffset % samplesPerSymbol) + samplesPerSymbol) % samplesPerSymbol;
+    }
+
+    public double[] getForwardTaps() {
+        return forwardTaps.clone();
+    }
+
+    public double[] getFeedbackTaps() {
+        return feedbackTaps.clone();
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Structure getStructure() {
+        return structure;
+    }
+}
@@ -0,0 +1,269 @@
+package com.transmissionnumerique.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transformée de Fourier rapide complexe, en place, sur deux tableaux (parties réelle et
+ * imaginaire). Le plan d'une taille (facteurs de rotation, permutation) est calculé une
+ * fois puis partagé : {@link #forSize}. Puissances de 2 : radix 2 itératif ; autres
+ * tailles : algorithme de Bluestein (chirp-z) sur un plan puissance de 2 de taille au
+ * moins 2n - 1.
+ *
+ * Convention : X[k] = Σ x[j] e^(-2iπjk/n), inverse normalisée par 1/n. L'exécution
+ * n'alloue pas ; un plan peut servir à plusieurs fils (les tampons de Bluestein sont
+ * propres à chaque fil).
+ */
+public final class Fft {
+
+    private static final Map<Integer, Fft> PLANS = new ConcurrentHashMap<>();
+
+    private final int size;
+
+    // Radix 2 : facteurs de l'étage de demi-longueur h contigus, cos/sin[h + j] = e^(-2iπj/2h)
+    // (le dernier étage donne les raies de la TFD réelle) ; permutation par inversion des bits
+    private final double[] cos;
+    private final double[] sin;
+    private final int[] reversal;
+    private volatile Fft halfPlan;
+
+    // Bluestein : chirp w[k] = e^(-iπk²/n) et TFD de la suite conj(w) repliée
+    private final Fft inner;
+    private final double[] chirpRe;
+    private final double[] chirpIm;
+    private final double[] kernelRe;
+    private final double[] kernelIm;
+    private final ThreadLocal<double[][]> scratch;
+
+    /**
+     * Plan pour des transformées de taille n (calculé au premier appel puis réutilisé)
+     */
+    public static Fft forSize(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Taille de FFT invalide : " + n);
+        }
+        Fft plan = PLANS.get(n);
+        if (plan == null) {
+            // Hors de computeIfAbsent : un plan de Bluestein demande lui-même un plan
+            plan = new Fft(n);
+            Fft existing = PLANS.putIfAbsent(n, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    public static boolean isPowerOfTwo(int n) {
+        return n > 0 && (n & (n - 1)) == 0;
+    }
+
+    /**
+     * Plus petite puissance de 2 supérieure ou égale à n
+     */
+    public static int nextPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private Fft(int size) {
+        this.size = size;
+        if (isPowerOfTwo(size)) {
+            cos = new double[size];
+            sin = new double[size];
+            for (int h = 1; h < size; h <<= 1) {
+                for (int j = 0; j < h; j++) {
+                    double angle = Math.PI * j / h;
+                    cos[h + j] = Math.cos(angle);
+                    sin[h + j] = Math.sin(angle);
+                }
+            }
+            reversal = new int[size];
+            int bits = Integer.numberOfTrailingZeros(size);
+            for (int i = 0; i < size; i++) {
+                reversal[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+            }
+            inner = null;
+            chirpRe = chirpIm = kernelRe = kernelIm = null;
+            scratch = null;
+        } else {
+            cos = sin = null;
+            reversal = null;
+            int m = nextPowerOfTwo(2 * size - 1);
+            inner = forSize(m);
+            chirpRe = new double[size];
+            chirpIm = new double[size];
+            kernelRe = new double[m];
+            kernelIm = new double[m];
+            long period = 2L * size;
+            for (int k = 0; k < size; k++) {
+                // k² modulo 2n : l'angle reste précis pour les grands k
+                double angle = Math.PI * (((long) k * k) % period) / size;
+                chirpRe[k] = Math.cos(angle);
+                chirpIm[k] = -Math.sin(angle);
+                kernelRe[k] = chirpRe[k];
+                kernelIm[k] = -chirpIm[k];
+                if (k > 0) {
+                    kernelRe[m - k] = chirpRe[k];
+                    kernelIm[m - k] = -chirpIm[k];
+                }
+            }
+            inner.transform(kernelRe, kernelIm);
+            scratch = ThreadLocal.withInitial(() -> new double[][]{new double[m], new double[m]});
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * TFD directe en place sur re[0..n[ et im[0..n[
+     */
+    public void transform(double[] re, double[] im) {
+        if (re.length < size || im.length < size) {
+            throw new IllegalArgumentException("Tableaux plus courts que la FFT (" + size + ")");
+        }
+        if (reversal != null) {
+            radix2(re, im);
+        } else {
+            bluestein(re, im);
+        }
+    }
+
+    /**
+     * TFD inverse en place, normalisée par 1/n : la TFD directe de (im, re) donne
+     * la TFD inverse non normalisée de (re, im), parties échangées
+     */
+    public void inverse(double[] re, double[] im) {
+        transform(im, re);
+        double scale = 1.0 / size;
+        for (int i = 0; i < size; i++) {
+            re[i] *= scale;
+            im[i] *= scale;
+        }
+    }
+
+    /**
+     * TFD d'un signal réel de taille n (puissance de 2, au moins 2) par une FFT complexe
+     * de taille n/2. Seules les raies 0..n/2 sont écrites (les autres sont conjuguées).
+     * @param input Signal réel (peut être le tableau re)
+     * @param re Au moins n/2 + 1 éléments
+     * @param im Au moins n/2 + 1 éléments
+     */
+    public void transformReal(double[] input, double[] re, double[] im) {
+        if (reversal == null || size < 2) {
+            throw new IllegalStateException("TFD réelle : taille puissance de 2 requise (" + size + ")");
+        }
+        int half = size / 2;
+        if (input.length < size || re.length <= half || im.length <= half) {
+            throw new IllegalArgumentException("Tableaux trop courts pour la TFD réelle de taille " + size);
+        }
+        // z[j] = x[2j] + i·x[2j+1] (en place possible : re[j] est écrit après lecture de x[2j])
+        for (int j = 0; j < half; j++) {
+            double even = input[2 * j];
+            im[j] = input[2 * j + 1];
+            re[j] = even;
+        }
+        Fft plan = halfPlan;
+        if (plan == null) {
+            plan = forSize(half);
+            halfPlan = plan;
+        }
+        plan.transform(re, im);
+
+        double z0r = re[0];
+        double z0i = im[0];
+        re[0] = z0r + z0i;
+        im[0] = 0;
+        re[half] = z0r - z0i;
+        im[half] = 0;
+        // X[k] = E[k] + W^k O[k], X[n/2-k] = conj(E[k] - W^k O[k])
+        for (int k = 1; k <= half / 2; k++) {
+            int q = half - k;
+            double ar = re[k];
+            double ai = im[k];
+            double br = re[q];
+            double bi = im[q];
+            double er = 0.5 * (ar + br);
+            double ei = 0.5 * (ai - bi);
+            double or = 0.5 * (ai + bi);
+            double oi = -0.5 * (ar - br);
+            double c = cos[half + k];
+            double s = sin[half + k];
+            double tr = or * c + oi * s;
+            double ti = oi * c - or * s;
+            re[k] = er + tr;
+            im[k] = ei + ti;
+            re[q] = er - tr;
+            im[q] = ti - ei;
+        }
+    }
+
+    private void radix2(double[] re, double[] im) {
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            int j = reversal[i];
+            if (j > i) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+        // Premier étage : facteur unité
+        for (int a = 0; a + 1 < n; a += 2) {
+            double xr = re[a + 1];
+            double xi = im[a + 1];
+            re[a + 1] = re[a] - xr;
+            im[a + 1] = im[a] - xi;
+            re[a] += xr;
+            im[a] += xi;
+        }
+        for (int half = 2; half < n; half <<= 1) {
+            int length = half << 1;
+            for (int start = 0; start < n; start += length) {
+                for (int j = 0; j < half; j++) {
+                    int a = start + j;
+                    int b = a + half;
+                    double c = cos[half + j];
+                    double s = sin[half + j];
+                    // Rotation par e^(-2iπj/length)
+                    double xr = re[b] * c + im[b] * s;
+                    double xi = im[b] * c - re[b] * s;
+                    re[b] = re[a] - xr;
+                    im[b] = im[a] - xi;
+                    re[a] += xr;
+                    im[a] += xi;
+                }
+            }
+        }
+    }
+
+    private void bluestein(double[] re, double[] im) {
+        int m = inner.size;
+        double[][] buffers = scratch.get();
+        double[] ar = buffers[0];
+        double[] ai = buffers[1];
+        for (int k = 0; k < size; k++) {
+            ar[k] = re[k] * chirpRe[k] - im[k] * chirpIm[k];
+            ai[k] = re[k] * chirpIm[k] + im[k] * chirpRe[k];
+        }
+        for (int k = size; k < m; k++) {
+            ar[k] = 0;
+            ai[k] = 0;
+        }
+        inner.transform(ar, ai);
+        for (int k = 0; k < m; k++) {
+            double r = ar[k] * kernelRe[k] - ai[k] * kernelIm[k];
+            ai[k] = ar[k] * kernelIm[k] + ai[k] * kernelRe[k];
+            ar[k] = r;
+        }
+        inner.inverse(ar, ai);
+        for (int k = 0; k < size; k++) {
+            re[k] = ar[k] * chirpRe[k] - ai[k] * chirpIm[k];
+            im[k] = ar[k] * chirpIm[k] + ai[k] * chirpRe[k];
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Filtrage RIF par FFT (recouvrement-sauvegarde) pour les filtres longs. Même sortie que
+ * {@link SignalKernels#fir}, aux arrondis près : out[i] = Σ_k signal[i + delay - k] · taps[k].
+ *
+ * Le spectre du filtre est calculé une fois ; deux blocs consécutifs du signal réel sont
+ * traités ensemble dans une FFT complexe (parties réelle et imaginaire), le filtre étant
+ * réel. Les tampons appartiennent à l'instance : une instance par fil.
+ */
+public final class FftConvolver {
+
+    /**
+     * À partir de cette longueur, la FFT bat aussi le RIF vectoriel. Seuil unique, pour que
+     * le résultat ne dépende pas de l'implémentation de {@link SignalKernels} chargée.
+     */
+    public static final int MIN_TAPS = 256;
+
+    private final int taps;
+    private final Fft fft;
+    private final int step;
+    private final double[] responseRe;
+    private final double[] responseIm;
+    private final double[] re;
+    private final double[] im;
+
+    public FftConvolver(double[] taps) {
+        if (taps.length == 0) {
+            throw new IllegalArgumentException("Filtre vide");
+        }
+        this.taps = taps.length;
+        // Blocs de 4 à 8 fois la longueur du filtre : bon compromis coût FFT / recouvrement
+        this.fft = Fft.forSize(Math.max(64, Fft.nextPowerOfTwo(4 * taps.length)));
+        int n = fft.size();
+        this.step = n - taps.length + 1;
+        this.responseRe = new double[n];
+        this.responseIm = new double[n];
+        System.arraycopy(taps, 0, responseRe, 0, taps.length);
+        fft.transform(responseRe, responseIm);
+        this.re = new double[n];
+        this.im = new double[n];
+    }
+
+    public int getTapCount() {
+        return taps;
+    }
+
+    public void filter(double[] signal, int delay, double[] out) {
+        int n = fft.size();
+        for (int first = 0; first < out.length; first += 2 * step) {
+            // Sorties [first, first+step[ en partie réelle, [first+step, first+2·step[ en imaginaire
+            load(signal, first + delay - taps + 1, re);
+            load(signal, first + step + delay - taps + 1, im);
+            fft.transform(re, im);
+            for (int k = 0; k < n; k++) {
+                double r = re[k] * responseRe[k] - im[k] * responseIm[k];
+                im[k] = re[k] * responseIm[k] + im[k] * responseRe[k];
+                re[k] = r;
+            }
+            fft.inverse(re, im);
+            int count = Math.min(step, out.length - first);
+            System.arraycopy(re, taps - 1, out, first, count);
+            if (first + step < out.length) {
+                System.arraycopy(im, taps - 1, out, first + step, Math.min(step, out.length - first - step));
+            }
+        }
+    }
+
+    /**
+     * buffer[j] = signal[start + j], zéro hors du signal
+     */
+    private void load(double[] signal, int start, double[] buffer) {
+        int n = buffer.length;
+        int from = Math.max(0, -start);
+        int to = Math.max(from, Math.min(n, signal.length - start));
+        java.util.Arrays.fill(buffer, 0, from, 0.0);
+        if (to > from) {
+            System.arraycopy(signal, start + from, buffer, from, to - from);
+        }
+        java.util.Arrays.fill(buffer, to, n, 0.0);
+    }
+}
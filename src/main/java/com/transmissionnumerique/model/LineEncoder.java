@@ -1,72 +1,271 @@
 package com.transmissionnumerique.model;
 
+/**
+ * Codage en ligne NRZ, Manchester, AMI, HDB3 et B8ZS.
+ *
+ * Le codeur travaille sur des bits empaquetés (voir {@link BitPacker}) octet par octet :
+ * de petites tables donnent directement les 8 niveaux (16 en Manchester) d'un octet,
+ * et, pour les codes bipolaires, la table est indexée par la polarité de la dernière
+ * impulsion. HDB3 et B8ZS sont de vraies machines à états : les zéros en attente d'une
+ * éventuelle substitution sont conservés d'un bloc à l'autre et émis par {@link #flush}.
+ */
 public class LineEncoder {
 
     public enum EncodingType {
-        NRZ, MANCHESTER, AMI, HDB3
+        NRZ, MANCHESTER, AMI, HDB3, B8ZS
+    }
+
+    // Tables octet -> niveaux (bit de poids faible en premier)
+    private static final double[] NRZ_TABLE = new double[256 * 8];
+    private static final double[] MANCHESTER_TABLE = new double[256 * 16];
+    // AMI : [polarité de la dernière impulsion (0 = négative, 1 = positive)][octet][8 niveaux]
+    private static final double[] AMI_TABLE = new double[2 * 256 * 8];
+    // Statistiques de zéros par octet pour le chemin rapide HDB3/B8ZS
+    private static final byte[] LEADING_ZEROS = new byte[256];
+    private static final byte[] TRAILING_ZEROS = new byte[256];
+    private static final byte[] MAX_INNER_RUN = new byte[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            for (int k = 0; k < 8; k++) {
+                boolean bit = ((b >>> k) & 1) != 0;
+                NRZ_TABLE[b * 8 + k] = bit ? 1.0 : -1.0;
+                MANCHESTER_TABLE[b * 16 + 2 * k] = bit ? 1.0 : -1.0;
+                MANCHESTER_TABLE[b * 16 + 2 * k + 1] = bit ? -1.0 : 1.0;
+            }
+            for (int p = 0; p < 2; p++) {
+                int polarity = p == 1 ? 1 : -1;
+                for (int k = 0; k < 8; k++) {
+                    double level = 0.0;
+                    if (((b >>> k) & 1) != 0) {
+                        polarity = -polarity;
+                        level = polarity;
+                    }
+                    AMI_TABLE[(p * 256 + b) * 8 + k] = level;
+                }
+            }
+
+            LEADING_ZEROS[b] = (byte) Integer.numberOfTrailingZeros(b | 0x100);
+            TRAILING_ZEROS[b] = (byte) (b == 0 ? 8 : Integer.numberOfLeadingZeros(b) - 24);
+            int run = 0;
+            int maxRun = 0;
+            boolean seenMark = false;
+            for (int k = 0; k < 8; k++) {
+                if (((b >>> k) & 1) != 0) {
+                    if (seenMark && run > maxRun) {
+                        maxRun = run;
+                    }
+                    seenMark = true;
+                    run = 0;
+                } else {
+                    run++;
+                }
+            }
+            MAX_INNER_RUN[b] = (byte) maxRun;
+        }
     }
 
     private EncodingType encodingType;
 
+    // État conservé entre les blocs (codes bipolaires)
+    private int lastPolarity = -1;   // la première impulsion est positive
+    private int pulseCount;          // impulsions depuis la dernière substitution (HDB3)
+    private int pendingZeros;        // zéros non encore émis (HDB3/B8ZS)
+
     public LineEncoder(EncodingType encodingType) {
         this.encodingType = encodingType;
     }
 
     public double[] encode(boolean[] bits) {
+        reset();
+        double[] signal = new double[bits.length * getSymbolsPerBit()];
+        int written = encode(BitPacker.pack(bits), 0, bits.length, signal, 0);
+        flush(signal, written);
+        return signal;
+    }
+
+    /**
+     * Code un bloc de bits empaquetés dans un tampon fourni par l'appelant.
+     * En HDB3/B8ZS, les zéros de fin de bloc restent en attente : le nombre de niveaux
+     * écrits peut être inférieur (ou, au bloc suivant, supérieur) au nombre de bits.
+     * @param out Tampon de sortie d'au moins {@link #maxOutputLength(int)} éléments
+     * @return Nombre de niveaux écrits
+     */
+    public int encode(long[] words, int bitOffset, int numBits, double[] out, int outOffset) {
         switch (encodingType) {
-            case NRZ:
-                return encodeNRZ(bits);
             case MANCHESTER:
-                return encodeManchester(bits);
+                return encodeTable(words, bitOffset, numBits, out, outOffset, MANCHESTER_TABLE, 16);
             case AMI:
-                return encodeAMI(bits);
+                return encodeAMI(words, bitOffset, numBits, out, outOffset);
             case HDB3:
-                return encodeHDB3(bits);
+                return encodeSubstitution(words, bitOffset, numBits, out, outOffset, 4);
+            case B8ZS:
+                return encodeSubstitution(words, bitOffset, numBits, out, outOffset, 8);
+            case NRZ:
             default:
-                return encodeNRZ(bits);
+                return encodeTable(words, bitOffset, numBits, out, outOffset, NRZ_TABLE, 8);
         }
     }
 
-    private double[] encodeNRZ(boolean[] bits) {
-        double[] signal = new double[bits.length];
-        for (int i = 0; i < bits.length; i++) {
-            signal[i] = bits[i] ? 1.0 : -1.0;
+    /**
+     * Émet les zéros encore en attente (fin de flux)
+     * @return Nombre de niveaux écrits
+     */
+    public int flush(double[] out, int outOffset) {
+        int count = pendingZeros;
+        for (int k = 0; k < count; k++) {
+            out[outOffset + k] = 0.0;
         }
-        return signal;
+        pendingZeros = 0;
+        return count;
+    }
+
+    /**
+     * Taille de tampon suffisante pour un bloc de numBits bits
+     */
+    public int maxOutputLength(int numBits) {
+        return numBits * getSymbolsPerBit() + 7;
+    }
+
+    public int getSymbolsPerBit() {
+        return encodingType == EncodingType.MANCHESTER ? 2 : 1;
+    }
+
+    public void reset() {
+        lastPolarity = -1;
+        pulseCount = 0;
+        pendingZeros = 0;
+    }
+
+    public EncodingType getEncodingType() {
+        return encodingType;
     }
 
-    private double[] encodeManchester(boolean[] bits) {
-        double[] signal = new double[bits.length * 2];
-        for (int i = 0; i < bits.length; i++) {
-            if (bits[i]) {
-                signal[2*i] = 1.0;
-                signal[2*i+1] = -1.0;
+    private int encodeTable(long[] words, int bitOffset, int numBits, double[] out, int outOffset,
+                            double[] table, int width) {
+        int pos = outOffset;
+        int fullBytes = numBits >>> 3;
+        for (int k = 0; k < fullBytes; k++) {
+            int b = BitPacker.getByte(words, bitOffset + (k << 3));
+            System.arraycopy(table, b * width, out, pos, width);
+            pos += width;
+        }
+        int step = width >>> 3;
+        for (int i = fullBytes << 3; i < numBits; i++) {
+            int bit = BitPacker.get(words, bitOffset + i) ? 1 : 0;
+            System.arraycopy(table, bit * width, out, pos, step);
+            pos += step;
+        }
+        return pos - outOffset;
+    }
+
+    private int encodeAMI(long[] words, int bitOffset, int numBits, double[] out, int outOffset) {
+        int pos = outOffset;
+        int fullBytes = numBits >>> 3;
+        for (int k = 0; k < fullBytes; k++) {
+            int b = BitPacker.getByte(words, bitOffset + (k << 3));
+            int p = lastPolarity > 0 ? 1 : 0;
+            System.arraycopy(AMI_TABLE, (p * 256 + b) * 8, out, pos, 8);
+            pos += 8;
+            if ((Integer.bitCount(b) & 1) != 0) {
+                lastPolarity = -lastPolarity;
+            }
+        }
+        for (int i = fullBytes << 3; i < numBits; i++) {
+            if (BitPacker.get(words, bitOffset + i)) {
+                lastPolarity = -lastPolarity;
+                out[pos++] = lastPolarity;
             } else {
-                signal[2*i] = -1.0;
-                signal[2*i+1] = 1.0;
+                out[pos++] = 0.0;
             }
         }
-        return signal;
+        return pos - outOffset;
     }
 
-    private double[] encodeAMI(boolean[] bits) {
-        double[] signal = new double[bits.length];
-        int lastPolarity = 1;
-
-        for (int i = 0; i < bits.length; i++) {
-            if (!bits[i]) {
-                signal[i] = 0.0;
+    /**
+     * HDB3 (seuil 4) et B8ZS (seuil 8). Chemin rapide par table lorsque l'octet ne peut
+     * pas compléter une suite de zéros à substituer, machine à états bit à bit sinon.
+     */
+    private int encodeSubstitution(long[] words, int bitOffset, int numBits, double[] out, int outOffset,
+                                   int runLength) {
+        int pos = outOffset;
+        int fullBytes = numBits >>> 3;
+        for (int k = 0; k < fullBytes; k++) {
+            int index = bitOffset + (k << 3);
+            int b = BitPacker.getByte(words, index);
+            if (b != 0
+                    && pendingZeros + LEADING_ZEROS[b] < runLength
+                    && MAX_INNER_RUN[b] < runLength
+                    && TRAILING_ZEROS[b] < runLength) {
+                for (int z = 0; z < pendingZeros; z++) {
+                    out[pos++] = 0.0;
+                }
+                int emitted = 8 - TRAILING_ZEROS[b];
+                int p = lastPolarity > 0 ? 1 : 0;
+                System.arraycopy(AMI_TABLE, (p * 256 + b) * 8, out, pos, emitted);
+                pos += emitted;
+                int marks = Integer.bitCount(b);
+                if ((marks & 1) != 0) {
+                    lastPolarity = -lastPolarity;
+                }
+                pulseCount += marks;
+                pendingZeros = TRAILING_ZEROS[b];
             } else {
-                signal[i] = lastPolarity * 1.0;
-                lastPolarity = -lastPolarity;
+                for (int i = 0; i < 8; i++) {
+                    pos = encodeBit(((b >>> i) & 1) != 0, out, pos, runLength);
+                }
             }
         }
-        return signal;
+        for (int i = fullBytes << 3; i < numBits; i++) {
+            pos = encodeBit(BitPacker.get(words, bitOffset + i), out, pos, runLength);
+        }
+        return pos - outOffset;
     }
 
-    private double[] encodeHDB3(boolean[] bits) {
-        // Implémentation plus complexe du codage HDB3
-        // (Pour simplifier, nous ne l'implémentons pas complètement ici)
-        return encodeAMI(bits);
+    private int encodeBit(boolean bit, double[] out, int pos, int runLength) {
+        if (bit) {
+            for (int z = 0; z < pendingZeros; z++) {
+                out[pos++] = 0.0;
+            }
+            pendingZeros = 0;
+            lastPolarity = -lastPolarity;
+            out[pos++] = lastPolarity;
+            pulseCount++;
+            return pos;
+        }
+
+        if (++pendingZeros < runLength) {
+            return pos;
+        }
+        pendingZeros = 0;
+
+        if (runLength == 4) {
+            // HDB3 : 000V si le nombre d'impulsions depuis la dernière violation est impair, B00V sinon
+            if ((pulseCount & 1) != 0) {
+                out[pos++] = 0.0;
+                out[pos++] = 0.0;
+                out[pos++] = 0.0;
+                out[pos++] = lastPolarity;
+            } else {
+                lastPolarity = -lastPolarity;
+                out[pos++] = lastPolarity;
+                out[pos++] = 0.0;
+                out[pos++] = 0.0;
+                out[pos++] = lastPolarity;
+            }
+            pulseCount = 0;
+        } else {
+            // B8ZS : 000VB0VB, la polarité de la dernière impulsion est inchangée
+            int p = lastPolarity;
+            out[pos++] = 0.0;
+            out[pos++] = 0.0;
+            out[pos++] = 0.0;
+            out[pos++] = p;
+            out[pos++] = -p;
+            out[pos++] = 0.0;
+            out[pos++] = -p;
+            out[pos++] = p;
+        }
+        return pos;
     }
-}
\ No newline at end of file
+}
@@ -3,20 +3,39 @@ package com.transmissionnumerique.model;
 public class Modulator {
     
     public enum ModulationType {
-        ASK, FSK, PSK, QPSK, QAM
+        ASK, FSK, PSK, QPSK, QAM, QAM64
     }
 
     private ModulationType modulationType;
     private double carrierFrequency;
     private double sampleRate;
 
+    // Mode passe-bande : porteuse générée par NCO, phase conservée entre les blocs
+    private boolean passband = false;
+    private double frequencyDeviation;
+    private Nco carrier;
+    private double carrierOffset = 0.0; // Hz, pour simuler un décalage d'oscillateur
+
     public Modulator(ModulationType modulationType, double carrierFrequency, double sampleRate) {
         this.modulationType = modulationType;
         this.carrierFrequency = carrierFrequency;
         this.sampleRate = sampleRate;
+        this.frequencyDeviation = carrierFrequency / 4.0;
+        this.carrier = new Nco(carrierFrequency, sampleRate);
     }
 
+    /**
+     * Modulation d'un signal réel (ASK, FSK, PSK). QPSK et QAM passent par
+     * {@link #modulate(boolean[])} : elles sont refusées ici.
+     */
     public double[] modulate(double[] signal) {
+        requireRealModulation();
+        if (passband) {
+            double[] modulatedSignal = new double[signal.length];
+            modulatePassband(signal, 0, modulatedSignal, 0, signal.length);
+            return modulatedSignal;
+        }
+        
         switch (modulationType) {
             case ASK:
                 return modulateASK(signal);
@@ -25,10 +44,56 @@ public class Modulator {
             case PSK:
                 return modulatePSK(signal);
             default:
-                return modulateASK(signal);
+                throw new IllegalArgumentException("Modulation non réelle : " + modulationType);
         }
     }
 
+    /**
+     * Modulation en bande de base en simple précision : mêmes niveaux que
+     * {@link #modulate(double[])}
+     */
+    public float[] modulate(float[] signal) {
+        requireRealModulation();
+        if (passband) {
+            throw new IllegalStateException("Modulation passe-bande en double précision uniquement");
+        }
+        float[] modulatedSignal = new float[signal.length];
+        float high;
+        float low;
+        boolean threeLevels = false;
+        switch (modulationType) {
+            case FSK:
+                high = 0.7f;
+                low = -0.7f;
+                break;
+            case PSK:
+                high = 1.0f;
+                low = -1.0f;
+                break;
+            case ASK:
+                high = 0.8f;
+                low = -0.8f;
+                int zeroCount = 0;
+                for (float value : signal) {
+                    if (Math.abs(value) < 0.1f) {
+                        zeroCount++;
+                    }
+                }
+                threeLevels = zeroCount > signal.length / 10;
+                break;
+            default:
+                throw new IllegalArgumentException("Modulation non réelle : " + modulationType);
+        }
+        for (int i = 0; i < signal.length; i++) {
+            if (threeLevels && Math.abs(signal[i]) < 0.1f) {
+                modulatedSignal[i] = 0.0f;
+            } else {
+                modulatedSignal[i] = signal[i] > 0 ? high : low;
+            }
+        }
+        return modulatedSignal;
+    }
+
     private double[] modulateASK(double[] signal) {
         double[] modulatedSignal = new double[signal.length];
         
@@ -93,6 +158,103 @@ public class Modulator {
         return modulatedSignal;
     }
 
+    /**
+     * Modulation sur porteuse d'un bloc de signal en bande de base.
+     * ASK/PSK : le niveau de bande de base module l'amplitude de la porteuse.
+     * FSK : fréquence instantanée fc + deviation * x, à phase continue.
+     */
+    public void modulatePassband(double[] baseband, int inOffset, double[] output, int outOffset, int length) {
+        requireRealModulation();
+        Nco nco = carrier;
+        if (modulationType == ModulationType.FSK) {
+            int deviationIncrement = Nco.frequencyToIncrement(frequencyDeviation, sampleRate);
+            for (int i = 0; i < length; i++) {
+                double x = baseband[inOffset + i];
+                if (x > 1.0) x = 1.0;
+                if (x < -1.0) x = -1.0;
+                output[outOffset + i] = Nco.cos(nco.getPhase());
+                nco.step((int) (deviationIncrement * x));
+            }
+        } else {
+            double gain = modulationType == ModulationType.ASK ? 0.8 : 1.0;
+            for (int i = 0; i < length; i++) {
+                output[outOffset + i] = gain * baseband[inOffset + i] * Nco.cos(nco.getPhase());
+                nco.step();
+            }
+        }
+    }
+
+    /**
+     * Active la modulation sur porteuse (sinon correspondance de niveaux en bande de base)
+     */
+    public void setPassband(boolean passband) {
+        this.passband = passband;
+    }
+
+    public boolean isPassband() {
+        return passband;
+    }
+
+    /**
+     * Décalage de fréquence et de phase de la porteuse émise (oscillateur imparfait)
+     */
+    public void setCarrierOffset(double frequencyOffset, double phaseOffset) {
+        this.carrierOffset = frequencyOffset;
+        carrier.setFrequency(carrierFrequency + frequencyOffset);
+        carrier.setPhase(Nco.radiansToPhase(phaseOffset));
+    }
+
+    public double getCarrierOffset() {
+        return carrierOffset;
+    }
+
+    /**
+     * Excursion de fréquence FSK en Hz (par défaut fc/4)
+     */
+    public void setFrequencyDeviation(double frequencyDeviation) {
+        this.frequencyDeviation = frequencyDeviation;
+    }
+
+    public double getFrequencyDeviation() {
+        return frequencyDeviation;
+    }
+
+    /**
+     * Remet la phase de la porteuse à zéro
+     */
+    public void reset() {
+        carrier.reset();
+    }
+
+    /**
+     * Les modulations complexes n'ont pas de correspondance sur un signal réel : plutôt
+     * qu'une ASK silencieuse, l'appelant doit passer par la chaîne I/Q
+     */
+    private void requireRealModulation() {
+        if (isComplex(modulationType)) {
+            throw new IllegalArgumentException("Modulation " + modulationType
+                    + " : utiliser modulate(boolean[]) (chaîne complexe I/Q)");
+        }
+    }
+
+    /**
+     * Indique si la modulation utilise la chaîne complexe (I/Q)
+     */
+    public static boolean isComplex(ModulationType modulationType) {
+        return ConstellationMapper.forModulation(modulationType) != null;
+    }
+
+    /**
+     * Modulation numérique complexe : bits -> symboles I/Q (QPSK, 16-QAM, 64-QAM)
+     */
+    public ComplexSignal modulate(boolean[] bits) {
+        ConstellationMapper.Constellation constellation = ConstellationMapper.forModulation(modulationType);
+        if (constellation == null) {
+            throw new IllegalArgumentException("Modulation non complexe : " + modulationType);
+        }
+        return new ConstellationMapper(constellation).map(bits);
+    }
+
     public ModulationType getModulationType() {
         return modulationType;
     }
@@ -0,0 +1,150 @@
+package com.transmissionnumerique.model;
+
+import java.util.Random;
+
+/**
+ * Canal multitrajet à lignes à retard (TDL) avec coefficients statiques ou variables.
+ * La convolution est directe et creuse : seul un produit par trajet est calculé par
+ * échantillon, quel que soit le retard maximal. L'historique et l'état des processus
+ * d'évanouissement sont conservés d'un bloc à l'autre.
+ */
+public class MultipathFading {
+
+    private static final int NUM_SINUSOIDS = 16;       // oscillateurs par trajet (somme de sinusoïdes)
+    private static final int DEFAULT_UPDATE_INTERVAL = 16; // échantillons entre deux mises à jour des gains
+
+    private final int[] tapDelays;
+    private final double[] tapAmplitudes;
+    private final double[] tapGains;
+    private final boolean timeVarying;
+
+    // Historique circulaire (taille puissance de 2)
+    private final double[] history;
+    private final int mask;
+    private int writePos;
+
+    // Processus d'évanouissement : somme de sinusoïdes par trajet
+    private final double[][] oscillatorFrequencies; // rad/échantillon
+    private final double[][] oscillatorPhases;
+    private final double oscillatorScale;
+    private int updateInterval = DEFAULT_UPDATE_INTERVAL;
+    private long sampleIndex;
+
+    public MultipathFading(MultipathProfile profile, double sampleRate) {
+        this(profile, sampleRate, new Random());
+    }
+
+    public MultipathFading(MultipathProfile profile, double sampleRate, Random random) {
+        this.tapDelays = profile.getSampleDelays(sampleRate);
+        double[] powers = profile.getSamplePowers(sampleRate);
+        int numTaps = tapDelays.length;
+
+        this.tapAmplitudes = new double[numTaps];
+        this.tapGains = new double[numTaps];
+        for (int k = 0; k < numTaps; k++) {
+            tapAmplitudes[k] = Math.sqrt(powers[k]);
+            tapGains[k] = tapAmplitudes[k];
+        }
+
+        int maxDelay = tapDelays[numTaps - 1];
+        int size = Integer.highestOneBit(Math.max(1, maxDelay)) << 1;
+        this.history = new double[size];
+        this.mask = size - 1;
+
+        this.timeVarying = profile.getDopplerSpectrum() != MultipathProfile.DopplerSpectrum.STATIC
+                           && profile.getDopplerFrequency() > 0;
+        this.oscillatorFrequencies = new double[numTaps][NUM_SINUSOIDS];
+        this.oscillatorPhases = new double[numTaps][NUM_SINUSOIDS];
+        // Composante réelle d'un processus de Rayleigh de puissance unitaire
+        this.oscillatorScale = Math.sqrt(2.0 / NUM_SINUSOIDS);
+
+        if (timeVarying) {
+            double fd = profile.getDopplerFrequency();
+            for (int k = 0; k < numTaps; k++) {
+                for (int m = 0; m < NUM_SINUSOIDS; m++) {
+                    double f;
+                    if (profile.getDopplerSpectrum() == MultipathProfile.DopplerSpectrum.JAKES) {
+                        double angle = 2 * Math.PI * (m + random.nextDouble()) / NUM_SINUSOIDS;
+                        f = fd * Math.cos(angle);
+                    } else {
+                        // Spectre gaussien de Watterson : écart-type = étalement / 2
+                        f = random.nextGaussian() * fd / 2.0;
+                    }
+                    oscillatorFrequencies[k][m] = 2 * Math.PI * f / sampleRate;
+                    oscillatorPhases[k][m] = 2 * Math.PI * random.nextDouble();
+                }
+            }
+            updateGains();
+        }
+    }
+
+    /**
+     * Traite un bloc d'échantillons. L'état est conservé pour le bloc suivant.
+     */
+    public void process(double[] input, int inOffset, double[] output, int outOffset, int length) {
+        final int[] delays = tapDelays;
+        final double[] gains = tapGains;
+        final double[] hist = history;
+        final int numTaps = delays.length;
+
+        int pos = writePos;
+        for (int i = 0; i < length; i++) {
+            if (timeVarying && (sampleIndex % updateInterval) == 0) {
+                updateGains();
+            }
+            hist[pos] = input[inOffset + i];
+
+            double sum = 0;
+            for (int k = 0; k < numTaps; k++) {
+                sum += gains[k] * hist[(pos - delays[k]) & mask];
+            }
+            output[outOffset + i] = sum;
+
+            pos = (pos + 1) & mask;
+            sampleIndex++;
+        }
+        writePos = pos;
+    }
+
+    /**
+     * Version tableau complet
+     */
+    public double[] process(double[] signal) {
+        double[] output = new double[signal.length];
+        process(signal, 0, output, 0, signal.length);
+        return output;
+    }
+
+    private void updateGains() {
+        double t = sampleIndex;
+        for (int k = 0; k < tapGains.length; k++) {
+            double sum = 0;
+            double[] freqs = oscillatorFrequencies[k];
+            double[] phases = oscillatorPhases[k];
+            for (int m = 0; m < NUM_SINUSOIDS; m++) {
+                sum += Math.cos(freqs[m] * t + phases[m]);
+            }
+            tapGains[k] = tapAmplitudes[k] * oscillatorScale * sum;
+        }
+    }
+
+    /**
+     * Remet à zéro l'historique (les processus d'évanouissement continuent)
+     */
+    public void reset() {
+        java.util.Arrays.fill(history, 0.0);
+        writePos = 0;
+    }
+
+    public void setUpdateInterval(int updateInterval) {
+        this.updateInterval = Math.max(1, updateInterval);
+    }
+
+    public int[] getTapDelays() {
+        return tapDelays.clone();
+    }
+
+    public double[] getTapGains() {
+        return tapGains.clone();
+    }
+}
@@ -0,0 +1,145 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Profil de retard-puissance d'un canal multitrajet (modèle à lignes à retard).
+ * Chaque trajet est décrit par un retard (en secondes) et une puissance relative (en dB).
+ */
+public class MultipathProfile {
+
+    /**
+     * Spectre Doppler utilisé pour faire varier les coefficients dans le temps
+     */
+    public enum DopplerSpectrum {
+        STATIC, JAKES, GAUSSIAN
+    }
+
+    /**
+     * Profils normalisés disponibles
+     */
+    public enum StandardProfile {
+        // ITU-R F.1487 (canal HF de Watterson, latitudes moyennes)
+        HF_GOOD, HF_MODERATE, HF_POOR,
+        // 3GPP TS 36.104 (EPA, EVA, ETU)
+        EPA, EVA, ETU
+    }
+
+    private final String name;
+    private final double[] delays;     // secondes
+    private final double[] powersDb;   // dB relatifs
+    private final DopplerSpectrum dopplerSpectrum;
+    private final double dopplerFrequency; // Hz (fréquence max pour Jakes, étalement pour Gaussien)
+
+    public MultipathProfile(String name, double[] delays, double[] powersDb,
+                            DopplerSpectrum dopplerSpectrum, double dopplerFrequency) {
+        if (delays.length != powersDb.length || delays.length == 0) {
+            throw new IllegalArgumentException("Retards et puissances doivent avoir la même longueur non nulle");
+        }
+        this.name = name;
+        this.delays = delays.clone();
+        this.powersDb = powersDb.clone();
+        this.dopplerSpectrum = dopplerSpectrum;
+        this.dopplerFrequency = dopplerFrequency;
+    }
+
+    /**
+     * Crée un profil statique (coefficients constants)
+     */
+    public static MultipathProfile staticProfile(double[] delays, double[] powersDb) {
+        return new MultipathProfile("Statique", delays, powersDb, DopplerSpectrum.STATIC, 0.0);
+    }
+
+    /**
+     * Crée un profil normalisé
+     */
+    public static MultipathProfile standard(StandardProfile profile) {
+        switch (profile) {
+            case HF_GOOD:
+                return new MultipathProfile("HF bon", new double[]{0, 0.5e-3}, new double[]{0, 0},
+                                            DopplerSpectrum.GAUSSIAN, 0.1);
+            case HF_MODERATE:
+                return new MultipathProfile("HF moyen", new double[]{0, 1e-3}, new double[]{0, 0},
+                                            DopplerSpectrum.GAUSSIAN, 0.5);
+            case HF_POOR:
+                return new MultipathProfile("HF mauvais", new double[]{0, 2e-3}, new double[]{0, 0},
+                                            DopplerSpectrum.GAUSSIAN, 1.0);
+            case EPA:
+                return new MultipathProfile("EPA",
+                        new double[]{0, 30e-9, 70e-9, 90e-9, 110e-9, 190e-9, 410e-9},
+                        new double[]{0.0, -1.0, -2.0, -3.0, -8.0, -17.2, -20.8},
+                        DopplerSpectrum.JAKES, 5.0);
+            case EVA:
+                return new MultipathProfile("EVA",
+                        new double[]{0, 30e-9, 150e-9, 310e-9, 370e-9, 710e-9, 1090e-9, 1730e-9, 2510e-9},
+                        new double[]{0.0, -1.5, -1.4, -3.6, -0.6, -9.1, -7.0, -12.0, -16.9},
+                        DopplerSpectrum.JAKES, 70.0);
+            case ETU:
+            default:
+                return new MultipathProfile("ETU",
+                        new double[]{0, 50e-9, 120e-9, 200e-9, 230e-9, 500e-9, 1600e-9, 2300e-9, 5000e-9},
+                        new double[]{-1.0, -1.0, -1.0, 0.0, 0.0, 0.0, -3.0, -5.0, -7.0},
+                        DopplerSpectrum.JAKES, 300.0);
+        }
+    }
+
+    /**
+     * Convertit les retards en nombre d'échantillons pour une fréquence d'échantillonnage donnée.
+     * Les trajets tombant sur le même échantillon sont fusionnés (puissances additionnées).
+     * @return Retards en échantillons, triés et distincts
+     */
+    public int[] getSampleDelays(double sampleRate) {
+        int[] raw = new int[delays.length];
+        int distinct = 0;
+        for (int i = 0; i < delays.length; i++) {
+            int d = (int) Math.round(delays[i] * sampleRate);
+            boolean found = false;
+            for (int j = 0; j < distinct; j++) {
+                if (raw[j] == d) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                raw[distinct++] = d;
+            }
+        }
+        int[] result = java.util.Arrays.copyOf(raw, distinct);
+        java.util.Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Puissances linéaires normalisées (somme = 1) associées à {@link #getSampleDelays(double)}
+     */
+    public double[] getSamplePowers(double sampleRate) {
+        int[] sampleDelays = getSampleDelays(sampleRate);
+        double[] powers = new double[sampleDelays.length];
+        double total = 0;
+        for (int i = 0; i < delays.length; i++) {
+            int d = (int) Math.round(delays[i] * sampleRate);
+            int index = java.util.Arrays.binarySearch(sampleDelays, d);
+            double p = Math.pow(10, powersDb[i] / 10);
+            powers[index] += p;
+            total += p;
+        }
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] /= total;
+        }
+        return powers;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DopplerSpectrum getDopplerSpectrum() {
+        return dopplerSpectrum;
+    }
+
+    public double getDopplerFrequency() {
+        return dopplerFrequency;
+    }
+
+    public int getNumPaths() {
+        return delays.length;
+    }
+}
@@ -0,0 +1,130 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Oscillateur à commande numérique (NCO).
+ * La phase est un accumulateur entier 32 bits (un tour complet = 2^32, le débordement
+ * fait le modulo), et sinus/cosinus sont lus dans une table partagée avec
+ * interpolation linéaire : aucun appel à Math.sin par échantillon.
+ */
+public class Nco {
+
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+    private static final int FRACTION_BITS = 32 - TABLE_BITS;
+    private static final double FRACTION_SCALE = 1.0 / (1 << FRACTION_BITS);
+    private static final int QUARTER_TURN = 1 << 30;
+    private static final double TWO_POW_32 = 4294967296.0;
+
+    // Une entrée de plus pour l'interpolation sans test de bord
+    private static final double[] SINE_TABLE = new double[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SINE_TABLE[i] = Math.sin(2 * Math.PI * i / TABLE_SIZE);
+        }
+    }
+
+    private final double sampleRate;
+    private int phase;
+    private int phaseIncrement;
+
+    public Nco(double frequency, double sampleRate) {
+        this.sampleRate = sampleRate;
+        setFrequency(frequency);
+    }
+
+    /**
+     * Sinus d'une phase entière (2^32 = 2π)
+     */
+    public static double sin(int phase) {
+        int index = phase >>> FRACTION_BITS;
+        double fraction = (phase & ((1 << FRACTION_BITS) - 1)) * FRACTION_SCALE;
+        double a = SINE_TABLE[index];
+        return a + (SINE_TABLE[index + 1] - a) * fraction;
+    }
+
+    /**
+     * Cosinus d'une phase entière (2^32 = 2π)
+     */
+    public static double cos(int phase) {
+        return sin(phase + QUARTER_TURN);
+    }
+
+    /**
+     * Convertit une fréquence en incrément de phase
+     */
+    public static int frequencyToIncrement(double frequency, double sampleRate) {
+        // Math.round rend un long : la conversion en int garde les 32 bits de poids faible (modulo 2π)
+        return (int) Math.round(frequency / sampleRate * TWO_POW_32);
+    }
+
+    /**
+     * Convertit une phase en radians vers la représentation entière
+     */
+    public static int radiansToPhase(double radians) {
+        return (int) Math.round(radians / (2 * Math.PI) * TWO_POW_32);
+    }
+
+    /**
+     * Convertit une phase entière en radians dans [-π, π[
+     */
+    public static double phaseToRadians(int phase) {
+        return phase * (2 * Math.PI / TWO_POW_32);
+    }
+
+    public void setFrequency(double frequency) {
+        this.phaseIncrement = frequencyToIncrement(frequency, sampleRate);
+    }
+
+    public double getFrequency() {
+        return phaseIncrement / TWO_POW_32 * sampleRate;
+    }
+
+    public void setPhaseIncrement(int phaseIncrement) {
+        this.phaseIncrement = phaseIncrement;
+    }
+
+    public int getPhaseIncrement() {
+        return phaseIncrement;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    public void setPhase(int phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Avance d'un échantillon avec l'incrément nominal
+     */
+    public void step() {
+        phase += phaseIncrement;
+    }
+
+    /**
+     * Avance d'un échantillon avec un incrément supplémentaire (modulation de fréquence, boucle)
+     */
+    public void step(int extraIncrement) {
+        phase += phaseIncrement + extraIncrement;
+    }
+
+    /**
+     * Génère un bloc de cosinus et sinus (l'un des tableaux peut être null)
+     */
+    public void generate(double[] cosOut, double[] sinOut, int offset, int length) {
+        int p = phase;
+        for (int i = 0; i < length; i++) {
+            if (cosOut != null) cosOut[offset + i] = cos(p);
+            if (sinOut != null) sinOut[offset + i] = sin(p);
+            p += phaseIncrement;
+        }
+        phase = p;
+    }
+
+    public void reset() {
+        phase = 0;
+    }
+}
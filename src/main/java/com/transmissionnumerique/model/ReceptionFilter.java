@@ -7,6 +7,10 @@ public class ReceptionFilter {
     private double rollOff;
     private LineEncoder.EncodingType encodingType = LineEncoder.EncodingType.NRZ;
 
+    // Coefficients RIF du filtre adapté (double, puis arrondis pour la simple précision)
+    private double[] matchedTaps;
+    private float[] singleTaps;
+
     public ReceptionFilter(TransmissionFilter.FilterType filterType, int samplesPerSymbol, double rollOff) {
         this.filterType = filterType;
         this.samplesPerSymbol = samplesPerSymbol;
@@ -26,9 +30,32 @@ public class ReceptionFilter {
         }
     }
     
+    /**
+     * Filtrage adapté d'un signal complexe, voie par voie
+     */
+    public ComplexSignal filter(ComplexSignal signal) {
+        return new ComplexSignal(filter(signal.getReal()), filter(signal.getImag()));
+    }
+    
+    /**
+     * Filtrage adapté en simple précision : mêmes filtres que {@link #filter(double[])}.
+     * Les filtres RIF accumulent en float avec les coefficients arrondis une fois par
+     * configuration ; les filtres de la mise en forme rectangulaire, peu coûteux, sont
+     * calculés en double puis arrondis.
+     */
+    public float[] filter(float[] signal) {
+        switch (filterType) {
+            case RAISED_COSINE:
+            case ROOT_RAISED_COSINE:
+                return convolve(signal, matchedTaps());
+            case RECTANGULAR:
+            default:
+                return SignalKernels.narrow(matchedRectangularFilter(SignalKernels.widen(signal)));
+        }
+    }
+
     private double[] matchedRectangularFilter(double[] signal) {
-        if (encodingType == LineEncoder.EncodingType.AMI || 
-            encodingType == LineEncoder.EncodingType.HDB3) {
+        if (usesMinimalFiltering()) {
             return applyMinimalFiltering(signal);
         }
         
@@ -54,22 +81,41 @@ public class ReceptionFilter {
     }
 
     private double[] matchedRaisedCosineFilter(double[] signal) {
-        int filterLength = 6 * samplesPerSymbol + 1;
-        double[] h = generateRaisedCosineImpulseResponse(filterLength);
-        
-        double[] matchedFilter = new double[h.length];
-        for (int i = 0; i < h.length; i++) {
-            matchedFilter[i] = h[h.length - 1 - i];
-        }
-        
-        return convolve(signal, matchedFilter);
+        return convolve(signal, matchedTaps());
     }
 
     private double[] matchedRootRaisedCosineFilter(double[] signal) {
-        int filterLength = 6 * samplesPerSymbol + 1;
-        double[] h = generateRootRaisedCosineImpulseResponse(filterLength);
-        
-        return convolve(signal, h);
+        return convolve(signal, matchedTaps());
+    }
+
+    /**
+     * Coefficients du filtre adapté RIF (cosinus surélevé retourné ou racine de cosinus
+     * surélevé), calculés au premier appel
+     */
+    private double[] matchedTaps() {
+        if (matchedTaps == null) {
+            int filterLength = 6 * samplesPerSymbol + 1;
+            if (filterType == TransmissionFilter.FilterType.RAISED_COSINE) {
+                double[] h = generateRaisedCosineImpulseResponse(filterLength);
+                double[] matchedFilter = new double[h.length];
+                for (int i = 0; i < h.length; i++) {
+                    matchedFilter[i] = h[h.length - 1 - i];
+                }
+                matchedTaps = matchedFilter;
+            } else {
+                matchedTaps = generateRootRaisedCosineImpulseResponse(filterLength);
+            }
+        }
+        return matchedTaps;
+    }
+
+    /**
+     * Filtrage minimal (récursif) des codes bipolaires en mise en forme rectangulaire
+     */
+    private boolean usesMinimalFiltering() {
+        return encodingType == LineEncoder.EncodingType.AMI
+                || encodingType == LineEncoder.EncodingType.HDB3
+                || encodingType == LineEncoder.EncodingType.B8ZS;
     }
 
     private double[] applyMinimalFiltering(double[] signal) {
@@ -138,28 +184,29 @@ public class ReceptionFilter {
     }
 
     private double[] convolve(double[] signal, double[] filter) {
-        int outputLength = signal.length + filter.length - 1;
-        double[] output = new double[outputLength];
-        
-        for (int n = 0; n < outputLength; n++) {
-            output[n] = 0;
-            for (int k = 0; k < filter.length; k++) {
-                if (n - k >= 0 && n - k < signal.length) {
-                    output[n] += signal[n - k] * filter[k];
-                }
-            }
-        }
-        
         int delay = filter.length / 2;
-        double[] compensatedOutput = new double[signal.length];
-        
-        for (int i = 0; i < signal.length; i++) {
-            if (i + delay < outputLength) {
-                compensatedOutput[i] = output[i + delay];
-            }
+        double[] output = new double[signal.length];
+
+        // Sortie compensée du retard : seuls les échantillons conservés sont calculés
+        if (filter.length >= FftConvolver.MIN_TAPS) {
+            new FftConvolver(filter).filter(signal, delay, output);
+        } else {
+            SignalKernels.get().fir(signal, filter, delay, output);
         }
-        
-        return compensatedOutput;
+        return output;
+    }
+
+    private float[] convolve(float[] signal, double[] filter) {
+        if (filter.length >= FftConvolver.MIN_TAPS) {
+            // Filtre long : la FFT en double reste plus rapide que le RIF en float
+            return SignalKernels.narrow(convolve(SignalKernels.widen(signal), filter));
+        }
+        if (singleTaps == null) {
+            singleTaps = SignalKernels.narrow(filter);
+        }
+        float[] output = new float[signal.length];
+        SignalKernels.get().fir(signal, singleTaps, filter.length / 2, output);
+        return output;
     }
 
     private double[] normalize(double[] filter) {
@@ -177,6 +224,46 @@ public class ReceptionFilter {
         return filter;
     }
 
+    /**
+     * Réponse impulsionnelle effective du filtre de réception (centrée).
+     * Pour le filtrage minimal AMI/HDB3/B8ZS (récursif), la réponse est tronquée à 1e-12.
+     */
+    public double[] getImpulseResponse() {
+        int filterLength = 6 * samplesPerSymbol + 1;
+        switch (filterType) {
+            case RAISED_COSINE:
+                return generateRaisedCosineImpulseResponse(filterLength);
+            case ROOT_RAISED_COSINE:
+                return generateRootRaisedCosineImpulseResponse(filterLength);
+            default:
+                if (usesMinimalFiltering()) {
+                    // y[n] = 0.8 x[n] + 0.2 y[n-1]
+                    int length = (int) Math.ceil(Math.log(1e-12) / Math.log(0.2)) + 1;
+                    double[] h = new double[length];
+                    for (int i = 0; i < length; i++) {
+                        h[i] = 0.8 * Math.pow(0.2, i);
+                    }
+                    return h;
+                }
+                int window = 2 * ((samplesPerSymbol / 2) / 2) + 1;
+                double[] h = new double[window];
+                java.util.Arrays.fill(h, 1.0 / window);
+                return h;
+        }
+    }
+
+    /**
+     * Gain en puissance du bruit blanc à travers le filtre (somme des h²) :
+     * variance du bruit au point de décision = variance d'entrée x gain
+     */
+    public double getNoiseGain() {
+        double gain = 0;
+        for (double value : getImpulseResponse()) {
+            gain += value * value;
+        }
+        return gain;
+    }
+
     public void setEncodingType(LineEncoder.EncodingType encodingType) {
         this.encodingType = encodingType;
     }
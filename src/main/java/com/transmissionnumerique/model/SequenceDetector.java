@@ -0,0 +1,364 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Détection à maximum de vraisemblance de séquence (MLSE) exploitant la mémoire du code en ligne.
+ *
+ * AMI : treillis à 2 états (polarité de la dernière marque), les marques doivent alterner.
+ * HDB3 : treillis à 22 états décrivant la grammaire complète du code (polarité, longueur de
+ * la suite de zéros, parité des impulsions depuis la dernière violation, et chaîne B00V),
+ * de sorte que les impulsions de substitution sont reconnues et décodées en zéros.
+ * Manchester : décision par paire sur la transition de mi-bit (signe de x1 - x2).
+ *
+ * Noyau ajout-comparaison-sélection sans allocation ; remontée par fenêtre glissante
+ * (tracebackLength symboles émis toutes les tracebackLength étapes) pour le traitement
+ * en flux. Le nombre de violations de code sur les décisions fermes sert d'indicateur
+ * de qualité de liaison.
+ */
+public class SequenceDetector {
+
+    // Niveaux de branche : 0 = -A, 1 = 0, 2 = +A
+    private static final int LEVEL_NEGATIVE = 0;
+    private static final int LEVEL_ZERO = 1;
+    private static final int LEVEL_POSITIVE = 2;
+    private static final double INFINITE_METRIC = 1e300;
+
+    private final LineEncoder.EncodingType encodingType;
+    private final int tracebackLength;
+
+    // Treillis : pour chaque état d'arrivée, ses branches entrantes
+    private final int numStates;
+    private final int maxIncoming;
+    private final int[] predecessor;    // [état * maxIncoming + k], -1 si absente
+    private final byte[] branchLevel;
+    private final boolean[] branchBit;
+    private final int initialState;
+
+    // État de l'algorithme (préalloué)
+    private double[] metrics;
+    private double[] nextMetrics;
+    private final byte[] decisions;     // [étape * numStates + état] = branche retenue
+    private final boolean[] tracebackBits;
+    private final double[] branchMetrics = new double[3];
+    private int stepsStored;
+    private double amplitude = 1.0;
+
+    // Indicateurs de qualité (décisions fermes)
+    private long codeViolations;
+    private int lastPulseSign;
+    private int zeroRun;
+    private int pendingHalf;            // Manchester : 1 si une demi-période est en attente
+    private double pendingSample;
+
+    public SequenceDetector(LineEncoder.EncodingType encodingType, int tracebackLength) {
+        if (tracebackLength <= 0) {
+            throw new IllegalArgumentException("Longueur de remontée invalide : " + tracebackLength);
+        }
+        this.encodingType = encodingType;
+        this.tracebackLength = tracebackLength;
+
+        if (encodingType == LineEncoder.EncodingType.HDB3) {
+            numStates = 22;
+            maxIncoming = 6;
+        } else {
+            numStates = 2;
+            maxIncoming = 2;
+        }
+        predecessor = new int[numStates * maxIncoming];
+        branchLevel = new byte[numStates * maxIncoming];
+        branchBit = new boolean[numStates * maxIncoming];
+        java.util.Arrays.fill(predecessor, -1);
+
+        if (encodingType == LineEncoder.EncodingType.HDB3) {
+            buildHdb3Trellis();
+            initialState = hdb3Normal(-1, 0, 0);
+        } else {
+            // AMI : état 0 = dernière marque négative, état 1 = positive
+            addBranch(0, 0, LEVEL_ZERO, false);
+            addBranch(1, 0, LEVEL_NEGATIVE, true);
+            addBranch(1, 1, LEVEL_ZERO, false);
+            addBranch(0, 1, LEVEL_POSITIVE, true);
+            initialState = 0;
+        }
+
+        metrics = new double[numStates];
+        nextMetrics = new double[numStates];
+        decisions = new byte[2 * tracebackLength * numStates];
+        tracebackBits = new boolean[2 * tracebackLength];
+        reset();
+    }
+
+    // États HDB3 « normaux » : polarité p de la dernière impulsion, r zéros depuis, parité π
+    private static int hdb3Normal(int polarity, int run, int parity) {
+        return ((polarity > 0 ? 1 : 0) * 4 + run) * 2 + parity;
+    }
+
+    // États HDB3 de la chaîne B00V : polarité de B, k zéros émis après B
+    private static int hdb3AfterB(int polarity, int zeros) {
+        return 16 + (polarity > 0 ? 1 : 0) * 3 + zeros;
+    }
+
+    private static int levelOf(int polarity) {
+        return polarity > 0 ? LEVEL_POSITIVE : LEVEL_NEGATIVE;
+    }
+
+    private void buildHdb3Trellis() {
+        for (int p = -1; p <= 1; p += 2) {
+            for (int r = 0; r < 4; r++) {
+                for (int parity = 0; parity < 2; parity++) {
+                    int from = hdb3Normal(p, r, parity);
+                    // Zéro ordinaire (jamais quatre de suite)
+                    if (r < 3) {
+                        addBranch(from, hdb3Normal(p, r + 1, parity), LEVEL_ZERO, false);
+                    }
+                    // Marque alternée
+                    addBranch(from, hdb3Normal(-p, 0, parity ^ 1), levelOf(-p), true);
+                    // B de B00V : juste après une impulsion, parité paire
+                    if (r == 0 && parity == 0) {
+                        addBranch(from, hdb3AfterB(-p, 0), levelOf(-p), false);
+                    }
+                    // V de 000V : même polarité, parité impaire
+                    if (r == 3 && parity == 1) {
+                        addBranch(from, hdb3Normal(p, 0, 0), levelOf(p), false);
+                    }
+                }
+            }
+            addBranch(hdb3AfterB(p, 0), hdb3AfterB(p, 1), LEVEL_ZERO, false);
+            addBranch(hdb3AfterB(p, 1), hdb3AfterB(p, 2), LEVEL_ZERO, false);
+            // V de B00V : même polarité que B
+            addBranch(hdb3AfterB(p, 2), hdb3Normal(p, 0, 0), levelOf(p), false);
+        }
+    }
+
+    private void addBranch(int from, int to, int level, boolean bit) {
+        for (int k = 0; k < maxIncoming; k++) {
+            int index = to * maxIncoming + k;
+            if (predecessor[index] < 0) {
+                predecessor[index] = from;
+                branchLevel[index] = (byte) level;
+                branchBit[index] = bit;
+                return;
+            }
+        }
+        throw new IllegalStateException("Trop de branches entrantes pour l'état " + to);
+    }
+
+    /**
+     * Détection d'un signal complet (un échantillon par symbole)
+     */
+    public boolean[] detect(double[] symbols) {
+        reset();
+        setAmplitude(estimateAmplitude(symbols, 0, symbols.length));
+        int numBits = encodingType == LineEncoder.EncodingType.MANCHESTER
+                ? (symbols.length + 1) / 2 : symbols.length;
+        boolean[] bits = new boolean[numBits + 2 * tracebackLength];
+        int written = process(symbols, 0, symbols.length, bits, 0);
+        written += flush(bits, written);
+        return java.util.Arrays.copyOf(bits, numBits);
+    }
+
+    /**
+     * Traite un bloc de symboles. Les bits sortent avec un retard d'au plus
+     * 2 x tracebackLength symboles ; {@link #flush} vide la fenêtre en fin de flux.
+     * @return Nombre de bits écrits
+     */
+    public int process(double[] in, int offset, int length, boolean[] out, int outOffset) {
+        if (encodingType == LineEncoder.EncodingType.MANCHESTER) {
+            return processManchester(in, offset, length, out, outOffset);
+        }
+
+        final int states = numStates;
+        final int incoming = maxIncoming;
+        final double a = amplitude;
+        int written = 0;
+
+        for (int i = 0; i < length; i++) {
+            double x = in[offset + i];
+            updateViolations(x);
+
+            double dn = x + a;
+            double dp = x - a;
+            branchMetrics[LEVEL_NEGATIVE] = dn * dn;
+            branchMetrics[LEVEL_ZERO] = x * x;
+            branchMetrics[LEVEL_POSITIVE] = dp * dp;
+
+            // Ajout-comparaison-sélection
+            int decisionBase = stepsStored * states;
+            double best = INFINITE_METRIC;
+            for (int s = 0; s < states; s++) {
+                double bestMetric = INFINITE_METRIC;
+                int bestBranch = 0;
+                int base = s * incoming;
+                for (int k = 0; k < incoming; k++) {
+                    int from = predecessor[base + k];
+                    if (from < 0) {
+                        break;
+                    }
+                    double m = metrics[from] + branchMetrics[branchLevel[base + k]];
+                    if (m < bestMetric) {
+                        bestMetric = m;
+                        bestBranch = k;
+                    }
+                }
+                nextMetrics[s] = bestMetric;
+                decisions[decisionBase + s] = (byte) bestBranch;
+                if (bestMetric < best) {
+                    best = bestMetric;
+                }
+            }
+            // Normalisation pour éviter la dérive des métriques
+            for (int s = 0; s < states; s++) {
+                metrics[s] = nextMetrics[s] - best;
+            }
+            stepsStored++;
+
+            if (stepsStored == 2 * tracebackLength) {
+                written += traceback(tracebackLength, out, outOffset + written);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Émet les bits encore dans la fenêtre de remontée
+     */
+    public int flush(boolean[] out, int outOffset) {
+        if (encodingType == LineEncoder.EncodingType.MANCHESTER) {
+            if (pendingHalf == 0) {
+                return 0;
+            }
+            out[outOffset] = pendingSample > 0;
+            pendingHalf = 0;
+            return 1;
+        }
+        return traceback(stepsStored, out, outOffset);
+    }
+
+    /**
+     * Remonte le chemin survivant depuis le meilleur état et émet les count plus anciens bits
+     */
+    private int traceback(int count, boolean[] out, int outOffset) {
+        int state = 0;
+        for (int s = 1; s < numStates; s++) {
+            if (metrics[s] < metrics[state]) {
+                state = s;
+            }
+        }
+        for (int t = stepsStored - 1; t >= 0; t--) {
+            int index = state * maxIncoming + decisions[t * numStates + state];
+            tracebackBits[t] = branchBit[index];
+            state = predecessor[index];
+        }
+        System.arraycopy(tracebackBits, 0, out, outOffset, count);
+
+        // Les étapes restantes deviennent les plus anciennes de la fenêtre
+        int remaining = stepsStored - count;
+        System.arraycopy(decisions, count * numStates, decisions, 0, remaining * numStates);
+        stepsStored = remaining;
+        return count;
+    }
+
+    private int processManchester(double[] in, int offset, int length, boolean[] out, int outOffset) {
+        int written = 0;
+        int i = 0;
+        if (pendingHalf != 0 && length > 0) {
+            written += decidePair(pendingSample, in[offset], out, outOffset);
+            pendingHalf = 0;
+            i = 1;
+        }
+        for (; i + 1 < length; i += 2) {
+            written += decidePair(in[offset + i], in[offset + i + 1], out, outOffset + written);
+        }
+        if (i < length) {
+            pendingSample = in[offset + i];
+            pendingHalf = 1;
+        }
+        return written;
+    }
+
+    private int decidePair(double first, double second, boolean[] out, int outOffset) {
+        // 1 -> (+, -), 0 -> (-, +) : la différence maximise la vraisemblance de la paire
+        out[outOffset] = first - second > 0;
+        if ((first > 0) == (second > 0)) {
+            codeViolations++;
+        }
+        return 1;
+    }
+
+    /**
+     * Violations sur décisions fermes : marques consécutives de même polarité (AMI),
+     * ou hors des positions de substitution permises et suites de quatre zéros (HDB3).
+     */
+    private void updateViolations(double x) {
+        double threshold = 0.5 * amplitude;
+        int sign = x > threshold ? 1 : (x < -threshold ? -1 : 0);
+        if (sign == 0) {
+            zeroRun++;
+            if (encodingType == LineEncoder.EncodingType.HDB3 && zeroRun == 4) {
+                codeViolations++;
+            }
+            return;
+        }
+        if (sign == lastPulseSign) {
+            boolean allowed = encodingType == LineEncoder.EncodingType.HDB3 && (zeroRun == 2 || zeroRun == 3);
+            if (!allowed) {
+                codeViolations++;
+            }
+        }
+        lastPulseSign = sign;
+        zeroRun = 0;
+    }
+
+    /**
+     * Amplitude des marques : moyenne des |x| au-dessus d'un seuil affiné en deux passes
+     */
+    public static double estimateAmplitude(double[] x, int offset, int length) {
+        if (length == 0) {
+            return 1.0;
+        }
+        double threshold = 0;
+        for (int i = 0; i < length; i++) {
+            threshold += Math.abs(x[offset + i]);
+        }
+        threshold /= length;
+        double level = threshold;
+        for (int pass = 0; pass < 2; pass++) {
+            double sum = 0;
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                double v = Math.abs(x[offset + i]);
+                if (v > threshold) {
+                    sum += v;
+                    count++;
+                }
+            }
+            if (count == 0) {
+                break;
+            }
+            level = sum / count;
+            threshold = level / 2;
+        }
+        return level > 0 ? level : 1.0;
+    }
+
+    public void setAmplitude(double amplitude) {
+        this.amplitude = amplitude;
+    }
+
+    public double getAmplitude() {
+        return amplitude;
+    }
+
+    public long getCodeViolations() {
+        return codeViolations;
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(metrics, INFINITE_METRIC);
+        metrics[initialState] = 0;
+        stepsStored = 0;
+        codeViolations = 0;
+        lastPulseSign = 0;
+        zeroRun = 0;
+        pendingHalf = 0;
+    }
+}
@@ -0,0 +1,327 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Génération fusionnée « bits -> échantillons mis en forme » pour l'émetteur.
+ *
+ * L'alphabet des symboles est minuscule ({-1, 0, +1}) : chaque bloc de samplesPerSymbol
+ * échantillons ne dépend que des quelques symboles voisins qui recouvrent l'impulsion.
+ * On regroupe ces symboles par paquets de GROUP_SIZE et on précalcule, pour chaque
+ * paquet, la contribution de toutes ses combinaisons (3^GROUP_SIZE entrées). Un bloc
+ * se construit alors par quelques additions de lignes de tables, sans tableau de
+ * symboles complet, sans suréchantillonnage à zéros et sans convolution.
+ *
+ * Le résultat est identique à {@link TransmissionFilter} (rectangulaire) ou à
+ * {@link SimplifiedRaisedCosineFilter#filterWithEnergyPreservation} (RC/RRC), y compris
+ * les effets de bord du premier et du dernier symbole.
+ */
+public class ShapedSymbolGenerator {
+
+    private static final int GROUP_SIZE = 4;
+    private static final int GROUP_CODES = 81; // 3^GROUP_SIZE
+    private static final int CHUNK_BITS = 256;
+    private static final int RING_SIZE = 1024;
+    private static final int RING_MASK = RING_SIZE - 1;
+
+    private final LineEncoder encoder;
+    private final int samplesPerSymbol;
+    private final boolean raisedCosine;
+
+    // Bloc m : symboles m - lastBlockOffset .. m - firstBlockOffset
+    private final int firstBlockOffset;
+    private final int lastBlockOffset;
+    private final int numGroups;
+    // [groupe][code * samplesPerSymbol + j]
+    private final double[][] groupTables;
+
+    // Corrections de bord (RC/RRC) : partie de l'interpolation absente aux extrémités
+    private final double[] headCorrection;
+    private final double[] tailCorrection;
+    private final int tailStart;
+
+    private final double[] symbolChunk;
+    private final byte[] digits = new byte[RING_SIZE];
+    private final double[] blockScratch;
+
+    public ShapedSymbolGenerator(LineEncoder.EncodingType encodingType, TransmissionFilter.FilterType filterType,
+                                 int samplesPerSymbol, double rollOff) {
+        this.encoder = new LineEncoder(encodingType);
+        this.samplesPerSymbol = samplesPerSymbol;
+        this.raisedCosine = filterType != TransmissionFilter.FilterType.RECTANGULAR;
+        this.symbolChunk = new double[encoder.maxOutputLength(CHUNK_BITS)];
+        this.blockScratch = new double[samplesPerSymbol];
+
+        double[] q;
+        int qStart;
+        double[] h;
+        if (raisedCosine) {
+            // Interpolation linéaire du filtre simplifié : le symbole k pèse sur les blocs k-1 et k
+            int center = samplesPerSymbol / 2;
+            q = new double[2 * samplesPerSymbol];
+            qStart = -samplesPerSymbol;
+            for (int j = 0; j < samplesPerSymbol; j++) {
+                q[j] = (j - center) / (double) samplesPerSymbol;
+                q[samplesPerSymbol + j] = 1.0 - (j - center) / (double) samplesPerSymbol;
+            }
+            h = new SimplifiedRaisedCosineFilter(samplesPerSymbol, rollOff).getImpulseResponse();
+        } else {
+            q = new double[samplesPerSymbol];
+            qStart = 0;
+            java.util.Arrays.fill(q, 1.0);
+            h = new double[]{1.0};
+        }
+        int half = h.length / 2;
+
+        // Impulsion composite p = q * h, origine au début du bloc du symbole
+        int pulseStart = qStart - half;
+        double[] pulse = convolve(q, h);
+
+        this.firstBlockOffset = Math.floorDiv(pulseStart, samplesPerSymbol);
+        this.lastBlockOffset = Math.floorDiv(pulseStart + pulse.length - 1, samplesPerSymbol);
+        int window = lastBlockOffset - firstBlockOffset + 1;
+        this.numGroups = (window + GROUP_SIZE - 1) / GROUP_SIZE;
+
+        // Contribution par décalage de bloc d : P_d[j] = p(d * sps + j)
+        double[][] blockPulses = new double[numGroups * GROUP_SIZE][samplesPerSymbol];
+        for (int w = 0; w < window; w++) {
+            int d = lastBlockOffset - w;
+            for (int j = 0; j < samplesPerSymbol; j++) {
+                int index = d * samplesPerSymbol + j - pulseStart;
+                if (index >= 0 && index < pulse.length) {
+                    blockPulses[w][j] = pulse[index];
+                }
+            }
+        }
+
+        this.groupTables = new double[numGroups][GROUP_CODES * samplesPerSymbol];
+        for (int g = 0; g < numGroups; g++) {
+            for (int code = 0; code < GROUP_CODES; code++) {
+                int c = code;
+                for (int i = 0; i < GROUP_SIZE; i++) {
+                    int level = (c % 3) - 1;
+                    c /= 3;
+                    if (level == 0) {
+                        continue;
+                    }
+                    double[] contribution = blockPulses[g * GROUP_SIZE + i];
+                    for (int j = 0; j < samplesPerSymbol; j++) {
+                        groupTables[g][code * samplesPerSymbol + j] += level * contribution[j];
+                    }
+                }
+            }
+        }
+
+        if (raisedCosine) {
+            // Premier symbole : sa partie dans le bloc -1 n'existe pas dans le signal suréchantillonné
+            double[] head = convolve(java.util.Arrays.copyOf(q, samplesPerSymbol), h);
+            int headOrigin = qStart - half; // indice de sortie de head[0]
+            this.headCorrection = new double[Math.max(0, head.length + headOrigin)];
+            for (int n = 0; n < headCorrection.length; n++) {
+                headCorrection[n] = head[n - headOrigin];
+            }
+            // Dernier symbole : seul l'échantillon central du bloc est renseigné
+            double[] tail = java.util.Arrays.copyOfRange(q, samplesPerSymbol, 2 * samplesPerSymbol);
+            tail[samplesPerSymbol / 2] = 0.0;
+            this.tailCorrection = convolve(tail, h);
+            this.tailStart = -half;
+        } else {
+            this.headCorrection = new double[0];
+            this.tailCorrection = new double[0];
+            this.tailStart = 0;
+        }
+    }
+
+    /**
+     * Nombre d'échantillons produits pour numBits bits
+     */
+    public int outputLength(int numBits) {
+        return numBits * encoder.getSymbolsPerBit() * samplesPerSymbol;
+    }
+
+    public double[] generate(boolean[] bits) {
+        double[] output = new double[outputLength(bits.length)];
+        generate(BitPacker.pack(bits), bits.length, output, 0);
+        return output;
+    }
+
+    /**
+     * Rafale mise en forme en simple précision : les blocs sont sommés en double puis
+     * arrondis, les corrections de bord et la normalisation appliquées sur les floats
+     */
+    public float[] generateFloat(boolean[] bits) {
+        float[] output = new float[outputLength(bits.length)];
+        generate(BitPacker.pack(bits), bits.length, null, output, 0);
+        return output;
+    }
+
+    /**
+     * Produit la rafale mise en forme de numBits bits empaquetés.
+     * @return Nombre d'échantillons écrits
+     */
+    public int generate(long[] words, int numBits, double[] out, int outOffset) {
+        return generate(words, numBits, out, null, outOffset);
+    }
+
+    /**
+     * Sortie dans out (double) ou, si out est null, dans outFloat
+     */
+    private int generate(long[] words, int numBits, double[] out, float[] outFloat, int outOffset) {
+        final int sps = samplesPerSymbol;
+        final int totalSymbols = numBits * encoder.getSymbolsPerBit();
+        encoder.reset();
+
+        int produced = 0;
+        int nextBlock = 0;
+        double symbolEnergy = 0;
+        double firstSymbol = 0;
+        double lastSymbol = 0;
+
+        for (int bit = 0; bit < numBits; bit += CHUNK_BITS) {
+            int count = encoder.encode(words, bit, Math.min(CHUNK_BITS, numBits - bit), symbolChunk, 0);
+            if (bit + CHUNK_BITS >= numBits) {
+                count += encoder.flush(symbolChunk, count);
+            }
+            for (int k = 0; k < count; k++) {
+                double s = symbolChunk[k];
+                digits[(produced + k) & RING_MASK] = (byte) (s > 0.5 ? 2 : (s < -0.5 ? 0 : 1));
+                symbolEnergy += s * s;
+            }
+            if (produced == 0 && count > 0) {
+                firstSymbol = symbolChunk[0];
+            }
+            if (count > 0) {
+                lastSymbol = symbolChunk[count - 1];
+            }
+            produced += count;
+
+            // Blocs dont tous les symboles sont connus
+            int ready = produced + firstBlockOffset;
+            for (; nextBlock < ready && nextBlock < totalSymbols; nextBlock++) {
+                emitBlock(nextBlock, totalSymbols, out, outFloat, outOffset + nextBlock * sps);
+            }
+        }
+        for (; nextBlock < totalSymbols; nextBlock++) {
+            emitBlock(nextBlock, totalSymbols, out, outFloat, outOffset + nextBlock * sps);
+        }
+
+        int length = totalSymbols * sps;
+        if (out == null) {
+            if (raisedCosine && totalSymbols > 0) {
+                correctEdges(outFloat, outOffset, length, totalSymbols, (float) firstSymbol, (float) lastSymbol);
+                compensateEnergy(outFloat, outOffset, length, symbolEnergy / totalSymbols);
+            }
+            return length;
+        }
+        if (raisedCosine && totalSymbols > 0) {
+            for (int n = 0; n < headCorrection.length && n < length; n++) {
+                out[outOffset + n] -= firstSymbol * headCorrection[n];
+            }
+            int base = (totalSymbols - 1) * sps + tailStart;
+            for (int n = 0; n < tailCorrection.length; n++) {
+                int index = base + n;
+                if (index >= 0 && index < length) {
+                    out[outOffset + index] -= lastSymbol * tailCorrection[n];
+                }
+            }
+            compensateEnergy(out, outOffset, length, symbolEnergy / totalSymbols);
+        }
+        return length;
+    }
+
+    private void emitBlock(int block, int totalSymbols, double[] out, float[] outFloat, int outPos) {
+        if (out != null) {
+            emitBlock(block, totalSymbols, out, outPos);
+            return;
+        }
+        emitBlock(block, totalSymbols, blockScratch, 0);
+        for (int j = 0; j < samplesPerSymbol; j++) {
+            outFloat[outPos + j] = (float) blockScratch[j];
+        }
+    }
+
+    private void emitBlock(int block, int totalSymbols, double[] out, int outPos) {
+        final int sps = samplesPerSymbol;
+        int first = block - lastBlockOffset;
+        for (int g = 0; g < numGroups; g++) {
+            int code = 0;
+            int weight = 1;
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                int k = first + g * GROUP_SIZE + i;
+                int digit = (k < 0 || k >= totalSymbols) ? 1 : digits[k & RING_MASK];
+                code += digit * weight;
+                weight *= 3;
+            }
+            double[] table = groupTables[g];
+            int offset = code * sps;
+            if (g == 0) {
+                System.arraycopy(table, offset, out, outPos, sps);
+            } else {
+                for (int j = 0; j < sps; j++) {
+                    out[outPos + j] += table[offset + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Même normalisation que le filtre simplifié : énergie moyenne égale à celle des symboles
+     */
+    private void compensateEnergy(double[] out, int offset, int length, double symbolEnergy) {
+        double filteredEnergy = 0;
+        for (int i = 0; i < length; i++) {
+            filteredEnergy += out[offset + i] * out[offset + i];
+        }
+        filteredEnergy /= length;
+        if (filteredEnergy <= 0) {
+            return;
+        }
+        double factor = Math.sqrt(symbolEnergy / filteredEnergy);
+        for (int i = 0; i < length; i++) {
+            out[offset + i] *= factor;
+        }
+    }
+
+    private void correctEdges(float[] out, int offset, int length, int totalSymbols,
+                              float firstSymbol, float lastSymbol) {
+        for (int n = 0; n < headCorrection.length && n < length; n++) {
+            out[offset + n] -= firstSymbol * (float) headCorrection[n];
+        }
+        int base = (totalSymbols - 1) * samplesPerSymbol + tailStart;
+        for (int n = 0; n < tailCorrection.length; n++) {
+            int index = base + n;
+            if (index >= 0 && index < length) {
+                out[offset + index] -= lastSymbol * (float) tailCorrection[n];
+            }
+        }
+    }
+
+    private void compensateEnergy(float[] out, int offset, int length, double symbolEnergy) {
+        double filteredEnergy = 0;
+        for (int i = 0; i < length; i++) {
+            filteredEnergy += out[offset + i] * out[offset + i];
+        }
+        filteredEnergy /= length;
+        if (filteredEnergy <= 0) {
+            return;
+        }
+        float factor = (float) Math.sqrt(symbolEnergy / filteredEnergy);
+        for (int i = 0; i < length; i++) {
+            out[offset + i] *= factor;
+        }
+    }
+
+    /**
+     * Convolution complète de la forme y[n] = Σ x[m] h[n - m]
+     */
+    private static double[] convolve(double[] x, double[] h) {
+        double[] y = new double[x.length + h.length - 1];
+        for (int m = 0; m < x.length; m++) {
+            if (x[m] == 0.0) {
+                continue;
+            }
+            for (int k = 0; k < h.length; k++) {
+                y[m + k] += x[m] * h[k];
+            }
+        }
+        return y;
+    }
+}
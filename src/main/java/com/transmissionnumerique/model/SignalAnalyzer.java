@@ -30,6 +30,54 @@ public class SignalAnalyzer {
         return snrDB;
     }
     
+    // Calcul du SNR effectif en simple précision (accumulation en double)
+    public static double calculateEffectiveSNR(float[] cleanSignal, float[] noisySignal) {
+        if (cleanSignal.length != noisySignal.length) {
+            return -1; // Erreur
+        }
+
+        double signalPower = 0;
+        double noisePower = 0;
+
+        for (int i = 0; i < cleanSignal.length; i++) {
+            signalPower += cleanSignal[i] * cleanSignal[i];
+            double noise = noisySignal[i] - cleanSignal[i];
+            noisePower += noise * noise;
+        }
+
+        if (noisePower == 0) {
+            return Double.POSITIVE_INFINITY; // Pas de bruit
+        }
+        return 10 * Math.log10(signalPower / noisePower);
+    }
+
+    // Calcul du SNR effectif d'un signal complexe
+    public static double calculateEffectiveSNR(ComplexSignal cleanSignal, ComplexSignal noisySignal) {
+        if (cleanSignal.getLength() != noisySignal.getLength()) {
+            return -1; // Erreur
+        }
+        
+        double[] cleanRe = cleanSignal.getReal();
+        double[] cleanIm = cleanSignal.getImag();
+        double[] noisyRe = noisySignal.getReal();
+        double[] noisyIm = noisySignal.getImag();
+        double signalPower = 0;
+        double noisePower = 0;
+        
+        for (int i = 0; i < cleanSignal.getLength(); i++) {
+            signalPower += cleanRe[i] * cleanRe[i] + cleanIm[i] * cleanIm[i];
+            double nRe = noisyRe[i] - cleanRe[i];
+            double nIm = noisyIm[i] - cleanIm[i];
+            noisePower += nRe * nRe + nIm * nIm;
+        }
+        
+        if (noisePower == 0) {
+            return Double.POSITIVE_INFINITY; // Pas de bruit
+        }
+        
+        return 10 * Math.log10(signalPower / noisePower);
+    }
+    
     // Analyse de la distribution du signal
     public static void analyzeSignalDistribution(double[] signal, String signalName) {
         double min = Double.MAX_VALUE;
@@ -217,6 +265,52 @@ public class SignalAnalyzer {
         return transitionCount > 0 ? totalVariation / (transitionCount * samplesPerSymbol) : 0;
     }
     
+    /**
+     * Densité spectrale de puissance unilatérale par la méthode de Welch : segments de
+     * fftSize échantillons recouverts de moitié, fenêtre de Hann, périodogrammes moyennés.
+     * Normalisation : la somme des raies vaut la puissance moyenne du signal.
+     * @param fftSize Taille des segments, puissance de 2 (signal plus court complété de zéros)
+     * @return fftSize/2 + 1 raies, de 0 à la moitié de la fréquence d'échantillonnage
+     */
+    public static double[] calculatePowerSpectrum(double[] signal, int fftSize) {
+        if (!Fft.isPowerOfTwo(fftSize) || fftSize < 2) {
+            throw new IllegalArgumentException("Taille de FFT invalide (puissance de 2 attendue) : " + fftSize);
+        }
+        Fft fft = Fft.forSize(fftSize);
+        int half = fftSize / 2;
+        double[] window = new double[fftSize];
+        double windowPower = 0;
+        for (int i = 0; i < fftSize; i++) {
+            window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / fftSize);
+            windowPower += window[i] * window[i];
+        }
+
+        double[] segment = new double[fftSize];
+        double[] im = new double[half + 1];
+        double[] spectrum = new double[half + 1];
+        int hop = half;
+        int segments = signal.length <= fftSize ? 1 : (signal.length - fftSize) / hop + 1;
+        for (int s = 0; s < segments; s++) {
+            int start = s * hop;
+            int count = Math.min(fftSize, signal.length - start);
+            for (int i = 0; i < count; i++) {
+                segment[i] = signal[start + i] * window[i];
+            }
+            java.util.Arrays.fill(segment, count, fftSize, 0.0);
+            fft.transformReal(segment, segment, im);
+            for (int k = 0; k <= half; k++) {
+                spectrum[k] += segment[k] * segment[k] + im[k] * im[k];
+            }
+        }
+
+        double scale = 1.0 / (segments * fftSize * windowPower);
+        for (int k = 0; k <= half; k++) {
+            // Raies intérieures doublées : contribution des fréquences négatives
+            spectrum[k] *= (k == 0 || k == half) ? scale : 2 * scale;
+        }
+        return spectrum;
+    }
+    
     // Classe pour stocker les métriques du diagramme de l'œil
     public static class EyePatternMetrics {
         public final double maxOpening;
@@ -0,0 +1,204 @@
+package com.transmissionnumerique.model;
+
+/**
+ * Boucles internes des étages au rythme d'échantillonnage : filtre RIF, ajout du bruit et
+ * décisions à seuil (booléennes ou empaquetées en mots de 64 bits). L'implémentation
+ * vectorielle (API Vector de {@code jdk.incubator.vector}, compilée par le profil Maven
+ * {@code simd}) est choisie au chargement si elle est présente et que la JVM est lancée
+ * avec {@code --add-modules jdk.incubator.vector} ; sinon les boucles scalaires sont
+ * utilisées. La propriété {@code transmission.simd=false} force le scalaire.
+ *
+ * Les deux implémentations donnent des résultats identiques au bit près : la
+ * vectorisation porte sur les échantillons de sortie, chaque sortie étant accumulée dans
+ * le même ordre et sans multiplication-addition fusionnée.
+ */
+public abstract class SignalKernels {
+
+    private static final SignalKernels SCALAR = new Scalar();
+    private static final SignalKernels ACTIVE = load();
+
+    private static SignalKernels load() {
+        if ("false".equalsIgnoreCase(System.getProperty("transmission.simd"))) {
+            return SCALAR;
+        }
+        try {
+            Class<?> type = Class.forName("com.transmissionnumerique.model.VectorSignalKernels");
+            return (SignalKernels) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Classe absente (profil simd non compilé), JVM trop ancienne ou module non ajouté
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Implémentation retenue au chargement
+     */
+    public static SignalKernels get() {
+        return ACTIVE;
+    }
+
+    /**
+     * Implémentation scalaire de référence
+     */
+    public static SignalKernels scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Copie en double d'un étage calculé en simple précision
+     */
+    public static double[] widen(float[] signal) {
+        double[] wide = new double[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            wide[i] = signal[i];
+        }
+        return wide;
+    }
+
+    /**
+     * Copie arrondie en simple précision
+     */
+    public static float[] narrow(double[] signal) {
+        float[] narrow = new float[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            narrow[i] = (float) signal[i];
+        }
+        return narrow;
+    }
+
+    public abstract String getName();
+
+    /**
+     * Filtre RIF : out[i] = Σ_k signal[i + delay - k] · taps[k], les termes hors du signal
+     * étant omis
+     */
+    public abstract void fir(double[] signal, double[] taps, int delay, double[] out);
+
+    /**
+     * Filtre RIF en simple précision (accumulation en float), même convention
+     */
+    public abstract void fir(float[] signal, float[] taps, int delay, float[] out);
+
+    /**
+     * out[i] = signal[i] + noise[i] · scale (out peut être noise)
+     */
+    public abstract void addScaled(double[] signal, double[] noise, double scale, double[] out);
+
+    /**
+     * Décision à seuil : out[i] = signal[i] > threshold
+     */
+    public abstract void slice(double[] signal, double threshold, boolean[] out);
+
+    /**
+     * Décisions x > threshold empaquetées en mots de 64 bits (convention de {@link BitPacker}).
+     * Le bit est le signe de threshold - x : aucun branchement dépendant des données
+     * (décision non spécifiée pour un échantillon NaN). Commune aux implémentations :
+     * cette forme scalaire atteint déjà le débit de la version vectorielle.
+     * @param words Au moins {@link BitPacker#wordCount}(signal.length) mots
+     */
+    public void slicePacked(double[] signal, double threshold, long[] words) {
+        int n = signal.length;
+        for (int w = 0; (w << 6) < n; w++) {
+            int base = w << 6;
+            int count = Math.min(64, n - base);
+            long word = 0;
+            for (int b = 0; b < count; b++) {
+                word |= (Double.doubleToRawLongBits(threshold - signal[base + b]) >>> 63) << b;
+            }
+            words[w] = word;
+        }
+    }
+
+    /**
+     * Décisions |x| > threshold empaquetées (marques des codes bipolaires)
+     */
+    public void sliceMagnitudePacked(double[] signal, double threshold, long[] words) {
+        int n = signal.length;
+        for (int w = 0; (w << 6) < n; w++) {
+            int base = w << 6;
+            int count = Math.min(64, n - base);
+            long word = 0;
+            for (int b = 0; b < count; b++) {
+                word |= (Double.doubleToRawLongBits(threshold - Math.abs(signal[base + b])) >>> 63) << b;
+            }
+            words[w] = word;
+        }
+    }
+
+    /**
+     * Décisions par paire x[2i] > x[2i+1] empaquetées (Manchester, signal.length / 2 bits) :
+     * signe de x[2i+1] - x[2i]
+     */
+    public void slicePairsPacked(double[] signal, long[] words) {
+        int n = signal.length / 2;
+        for (int w = 0; (w << 6) < n; w++) {
+            int base = w << 6;
+            int count = Math.min(64, n - base);
+            long word = 0;
+            for (int b = 0; b < count; b++) {
+                int i = 2 * (base + b);
+                word |= (Double.doubleToRawLongBits(signal[i + 1] - signal[i]) >>> 63) << b;
+            }
+            words[w] = word;
+        }
+    }
+
+    /**
+     * RIF scalaire sur les sorties [from, to) ; sert aussi aux bords des versions vectorielles
+     */
+    protected static void firRange(double[] signal, double[] taps, int delay, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int n = i + delay;
+            int last = Math.min(taps.length - 1, n);
+            double sum = 0;
+            for (int k = Math.max(0, n - signal.length + 1); k <= last; k++) {
+                sum += signal[n - k] * taps[k];
+            }
+            out[i] = sum;
+        }
+    }
+
+    protected static void firRange(float[] signal, float[] taps, int delay, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int n = i + delay;
+            int last = Math.min(taps.length - 1, n);
+            float sum = 0;
+            for (int k = Math.max(0, n - signal.length + 1); k <= last; k++) {
+                sum += signal[n - k] * taps[k];
+            }
+            out[i] = sum;
+        }
+    }
+
+    private static class Scalar extends SignalKernels {
+
+        @Override
+        public String getName() {
+            return "scalaire";
+        }
+
+        @Override
+        public void fir(double[] signal, double[] taps, int delay, double[] out) {
+            firRange(signal, taps, delay, out, 0, out.length);
+        }
+
+        @Override
+        public void fir(float[] signal, float[] taps, int delay, float[] out) {
+            firRange(signal, taps, delay, out, 0, out.length);
+        }
+
+        @Override
+        public void addScaled(double[] signal, double[] noise, double scale, double[] out) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = signal[i] + noise[i] * scale;
+            }
+        }
+
+        @Override
+        public void slice(double[] signal, double threshold, boolean[] out) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = signal[i] > threshold;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.transmissionnumerique.model;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Vue en lecture seule sur un signal : tableau (double ou float) ou DoubleBuffer, avec
+ * décalage, longueur et pas. Extraire, décimer ou tronquer crée une nouvelle vue sur les
+ * mêmes échantillons, sans copie ; l'échantillon i est support[offset + i · stride].
+ *
+ * La vue ne copie pas son support : elle reflète les modifications faites par son
+ * propriétaire. Les étages de la chaîne ne modifient pas les signaux qu'ils reçoivent.
+ */
+public final class SignalView {
+
+    private final double[] doubles;
+    private final float[] floats;
+    private final DoubleBuffer buffer;
+    private final int offset;
+    private final int length;
+    private final int stride;
+
+    private SignalView(double[] doubles, float[] floats, DoubleBuffer buffer, int offset, int length, int stride) {
+        this.doubles = doubles;
+        this.floats = floats;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.stride = stride;
+    }
+
+    public static SignalView of(double[] signal) {
+        return new SignalView(signal, null, null, 0, signal.length, 1);
+    }
+
+    /**
+     * Vue sur signal[offset .. offset+length[
+     */
+    public static SignalView of(double[] signal, int offset, int length) {
+        checkRange(offset, length, signal.length);
+        return new SignalView(signal, null, null, offset, length, 1);
+    }
+
+    /**
+     * Vue sur un étage calculé en simple précision (élargi en double à la lecture)
+     */
+    public static SignalView of(float[] signal) {
+        return new SignalView(null, signal, null, 0, signal.length, 1);
+    }
+
+    /**
+     * Vue sur les échantillons entre la position et la limite courantes du tampon
+     * (lus en accès absolu : la position du tampon n'est pas modifiée)
+     */
+    public static SignalView of(DoubleBuffer buffer) {
+        return new SignalView(null, null, buffer, buffer.position(), buffer.remaining(), 1);
+    }
+
+    private static void checkRange(int offset, int length, int available) {
+        if (offset < 0 || length < 0 || offset > available - length) {
+            throw new IllegalArgumentException("Plage invalide : " + offset + " + " + length
+                    + " pour " + available + " échantillons");
+        }
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public double get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Échantillon " + index + " hors de la vue (" + length + ")");
+        }
+        int i = offset + index * stride;
+        if (doubles != null) {
+            return doubles[i];
+        }
+        if (floats != null) {
+            return floats[i];
+        }
+        return buffer.get(i);
+    }
+
+    /**
+     * Échantillons [from, to[ de la vue
+     */
+    public SignalView slice(int from, int to) {
+        checkRange(from, to - from, length);
+        return new SignalView(doubles, floats, buffer, offset + from * stride, to - from, stride);
+    }
+
+    /**
+     * Au plus count premiers échantillons
+     */
+    public SignalView head(int count) {
+        return slice(0, Math.max(0, Math.min(count, length)));
+    }
+
+    /**
+     * Un échantillon sur factor, à partir du premier (ex. instants de décision :
+     * slice(phase, length()).decimate(samplesPerSymbol))
+     */
+    public SignalView decimate(int factor) {
+        if (factor <= 0) {
+            throw new IllegalArgumentException("Facteur de décimation invalide : " + factor);
+        }
+        return new SignalView(doubles, floats, buffer, offset, (length + factor - 1) / factor, stride * factor);
+    }
+
+    /**
+     * Copie les échantillons de la vue dans destination à partir de destinationOffset
+     */
+    public void copyTo(double[] destination, int destinationOffset) {
+        checkRange(destinationOffset, length, destination.length);
+        if (doubles != null && stride == 1) {
+            System.arraycopy(doubles, offset, destination, destinationOffset, length);
+            return;
+        }
+        for (int i = 0, j = offset; i < length; i++, j += stride) {
+            destination[destinationOffset + i] = doubles != null ? doubles[j]
+                    : floats != null ? floats[j] : buffer.get(j);
+        }
+    }
+
+    /**
+     * Copie des échantillons (pour un étage qui a besoin d'un tableau à lui)
+     */
+    public double[] toArray() {
+        double[] copy = new double[length];
+        copyTo(copy, 0);
+        return copy;
+    }
+}
@@ -18,6 +18,17 @@ public class SimplifiedRaisedCosineFilter {
         return filtered;
     }
     
+    /**
+     * Réponse impulsionnelle normalisée utilisée par le filtrage (6 symboles de support)
+     */
+    public double[] getImpulseResponse() {
+        return createSimpleRCFilter(6 * samplesPerSymbol + 1);
+    }
+
+    public int getSamplesPerSymbol() {
+        return samplesPerSymbol;
+    }
+    
     private double[] upsampleWithInterpolation(double[] symbols) {
         double[] upsampled = new double[symbols.length * samplesPerSymbol];
         
@@ -8,6 +8,7 @@ public class TransmissionChain {
     private Channel channel;
     private Demodulator demodulator;
     private ReceptionFilter rxFilter;
+    private Equalizer equalizer;
     private ClockRecovery clockRecovery;
     private Decoder decoder;
     private BinarySequence outputSequence;
@@ -41,6 +42,10 @@ public class TransmissionChain {
         this.rxFilter = rxFilter;
     }
 
+    public void setEqualizer(Equalizer equalizer) {
+        this.equalizer = equalizer;
+    }
+
     public void setClockRecovery(ClockRecovery clockRecovery) {
         this.clockRecovery = clockRecovery;
     }
@@ -64,6 +69,12 @@ public class TransmissionChain {
             decoder.setModulationType(modulator.getModulationType());
         }
         
+        // Chaîne complexe I/Q pour QPSK/QAM
+        if (modulator != null && Modulator.isComplex(modulator.getModulationType())) {
+            processComplex();
+            return;
+        }
+        
         // Étape 1: Encodage en ligne
         double[] encodedSignal = lineEncoder.encode(inputSequence.getBits());
         System.out.println("Longueur après encodage: " + encodedSignal.length);
@@ -92,6 +103,12 @@ public class TransmissionChain {
         double[] rxFilteredSignal = rxFilter.filter(demodulatedSignal);
         System.out.println("Longueur après filtrage RX: " + rxFilteredSignal.length);
 
+        // Étape 6b: Égalisation (optionnelle)
+        if (equalizer != null) {
+            rxFilteredSignal = equalizer.process(rxFilteredSignal);
+            System.out.println("Longueur après égalisation: " + rxFilteredSignal.length);
+        }
+
         // Étape 7: Récupération d'horloge
         double[] recoveredSignal = clockRecovery.recover(rxFilteredSignal);
         System.out.println("Longueur après récupération: " + recoveredSignal.length);
@@ -118,4 +135,18 @@ public class TransmissionChain {
         System.out.println("Premiers bits d'entrée: " + java.util.Arrays.toString(java.util.Arrays.copyOf(inputSequence.getBits(), Math.min(8, inputSequence.getLength()))));
         System.out.println("Premiers bits de sortie: " + java.util.Arrays.toString(java.util.Arrays.copyOf(decodedBits, Math.min(8, decodedBits.length))));
     }
+
+    private void processComplex() {
+        boolean[] bits = inputSequence.getBits();
+        ComplexSignal symbols = modulator.modulate(bits);
+        ComplexSignal filtered = txFilter.filter(symbols);
+        ComplexSignal noisy = channel.transmit(filtered);
+        System.out.println("\n>>> SNR effectif mesuré: " + SignalAnalyzer.calculateEffectiveSNR(filtered, noisy) + " dB");
+
+        ComplexSignal rxFiltered = rxFilter.filter(demodulator.demodulate(noisy));
+        ComplexSignal recovered = clockRecovery.recover(rxFiltered);
+        boolean[] decodedBits = decoder.decode(recovered, bits.length);
+        System.out.println("Longueur finale: " + decodedBits.length);
+        outputSequence.setBits(decodedBits);
+    }
 }
\ No newline at end of file
@@ -29,6 +29,13 @@ public class TransmissionFilter {
         }
     }
 
+    /**
+     * Filtrage d'un signal complexe : même filtre réel appliqué aux voies I et Q
+     */
+    public ComplexSignal filter(ComplexSignal signal) {
+        return new ComplexSignal(filter(signal.getReal()), filter(signal.getImag()));
+    }
+
     private double[] rectangularFilter(double[] signal) {
         double[] output = new double[signal.length * samplesPerSymbol];
         
@@ -119,31 +126,15 @@ public class TransmissionFilter {
     }
 
     private double[] convolve(double[] signal, double[] filter) {
-        int outputLength = signal.length + filter.length - 1;
-        double[] output = new double[outputLength];
-        
-        for (int n = 0; n < outputLength; n++) {
-            output[n] = 0;
-            for (int k = 0; k < filter.length; k++) {
-                if (n - k >= 0 && n - k < signal.length) {
-                    output[n] += signal[n - k] * filter[k];
-                }
-            }
-        }
-        
-        if (filterType != FilterType.RECTANGULAR) {
-            int delay = filter.length / 2;
-            double[] trimmedOutput = new double[signal.length];
-            
-            for (int i = 0; i < signal.length; i++) {
-                if (i + delay < output.length) {
-                    trimmedOutput[i] = output[i + delay];
-                }
-            }
-            
-            return trimmedOutput;
+        // Sortie compensée du retard, de la longueur du signal (complète en rectangulaire)
+        int delay = filterType != FilterType.RECTANGULAR ? filter.length / 2 : 0;
+        double[] output = new double[filterType != FilterType.RECTANGULAR
+                ? signal.length : signal.length + filter.length - 1];
+        if (filter.length >= FftConvolver.MIN_TAPS) {
+            new FftConvolver(filter).filter(signal, delay, output);
+        } else {
+            SignalKernels.get().fir(signal, filter, delay, output);
         }
-        
         return output;
     }
 
@@ -187,17 +178,28 @@ public class TransmissionFilter {
                 }
         }
         
+        // H(2πk/N) par FFT : la réponse repliée modulo N a les mêmes N raies que h
+        Fft fft = Fft.forSize(numPoints);
+        double[] re = new double[numPoints];
+        double[] im = new double[numPoints];
+        for (int n = 0; n < h.length; n++) {
+            re[n % numPoints] += h[n];
+        }
         double[] magnitude = new double[numPoints];
-        for (int k = 0; k < numPoints; k++) {
-            double real = 0, imag = 0;
-            double omega = 2 * Math.PI * k / numPoints;
-            
-            for (int n = 0; n < h.length; n++) {
-                real += h[n] * Math.cos(omega * n);
-                imag -= h[n] * Math.sin(omega * n);
+        if (Fft.isPowerOfTwo(numPoints) && numPoints >= 2) {
+            // Réponse réelle : raies 0..N/2, les autres par symétrie hermitienne
+            fft.transformReal(re, re, im);
+            for (int k = 0; k <= numPoints / 2; k++) {
+                magnitude[k] = Math.sqrt(re[k] * re[k] + im[k] * im[k]);
+            }
+            for (int k = numPoints / 2 + 1; k < numPoints; k++) {
+                magnitude[k] = magnitude[numPoints - k];
+            }
+        } else {
+            fft.transform(re, im);
+            for (int k = 0; k < numPoints; k++) {
+                magnitude[k] = Math.sqrt(re[k] * re[k] + im[k] * im[k]);
             }
-            
-            magnitude[k] = Math.sqrt(real * real + imag * imag);
         }
         
         return magnitude;
@@ -6,7 +6,7 @@ import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.xy.XYSeries;
+import com.transmissionnumerique.model.SignalView;
 import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
@@ -122,25 +122,19 @@ public class EyeDiagramPanel extends JPanel {
     public void updateEyeDiagram(double[] signal, int samplesPerSymbol) {
         this.samplesPerSymbol = samplesPerSymbol;
         
-        XYSeriesCollection dataset = new XYSeriesCollection();
+        SignalViewDataset dataset = new SignalViewDataset();
+        SignalView view = SignalView.of(signal);
         
         // Calculer le nombre de symboles complets dans le signal
         int totalSymbols = signal.length / samplesPerSymbol;
         int symbolsToPlot = Math.min(totalSymbols, numSymbolsToDisplay);
         
-        // Superposer plusieurs périodes de symboles
+        // Superposer plusieurs périodes de symboles : chaque trace est une vue sur le signal
         for (int symbol = 0; symbol < symbolsToPlot; symbol++) {
-            XYSeries trace = new XYSeries("Trace " + symbol);
-            
             // Tracer 2 périodes de symboles pour voir les transitions
-            for (int i = 0; i < 2 * samplesPerSymbol; i++) {
-                int index = symbol * samplesPerSymbol + i;
-                if (index < signal.length) {
-                    trace.add(i, signal[index]);
-                }
-            }
-            
-            dataset.addSeries(trace);
+            int start = symbol * samplesPerSymbol;
+            dataset.addSeries("Trace " + symbol,
+                    view.slice(start, Math.min(signal.length, start + 2 * samplesPerSymbol)));
         }
         
         // Mettre à jour le graphique
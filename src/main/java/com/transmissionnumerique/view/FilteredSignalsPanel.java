@@ -5,8 +5,9 @@ import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
+import com.transmissionnumerique.model.SignalView;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.xy.XYSeries;
+import org.jfree.chart.renderer.xy.XYStepRenderer;
 import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
@@ -84,57 +85,44 @@ public class FilteredSignalsPanel extends JPanel {
     }
     
     private void updateTxFilteredChart(double[] original, double[] filtered) {
-        XYSeriesCollection dataset = new XYSeriesCollection();
-        
-        // Signal original (encodé)
-        XYSeries originalSeries = new XYSeries("Signal encodé");
-        for (int i = 0; i < Math.min(original.length * 8, 200); i++) {
-            int symbolIndex = i / 8;
-            if (symbolIndex < original.length) {
-                originalSeries.add(i, original[symbolIndex]);
-            }
-        }
-        dataset.addSeries(originalSeries);
+        // Signal original (encodé) : un point par symbole, maintenu sur 8 échantillons
+        SignalViewDataset originalDataset = new SignalViewDataset();
+        originalDataset.addSeries("Signal encodé", SignalView.of(original).head(200 / 8 + 1), 0, 8);
         
         // Signal filtré
-        XYSeries filteredSeries = new XYSeries("Signal filtré TX");
-        for (int i = 0; i < Math.min(filtered.length, 200); i++) {
-            filteredSeries.add(i, filtered[i]);
-        }
-        dataset.addSeries(filteredSeries);
+        SignalViewDataset filteredDataset = new SignalViewDataset();
+        filteredDataset.addSeries("Signal filtré TX", SignalView.of(filtered).head(200));
         
         // Mettre à jour le graphique
         JFreeChart chart = txFilteredPanel.getChart();
         XYPlot plot = chart.getXYPlot();
-        plot.setDataset(dataset);
+        plot.setDataset(0, originalDataset);
+        plot.setDataset(1, filteredDataset);
         
         // Personnaliser le rendu
+        XYStepRenderer originalRenderer = new XYStepRenderer();
+        originalRenderer.setSeriesPaint(0, new Color(200, 200, 200));
+        originalRenderer.setSeriesStroke(0, new BasicStroke(2.0f, BasicStroke.CAP_BUTT, 
+                                                            BasicStroke.JOIN_MITER, 10.0f, 
+                                                            new float[]{5.0f}, 0.0f));
+        plot.setRenderer(0, originalRenderer);
         XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
-        renderer.setSeriesPaint(0, new Color(200, 200, 200));
-        renderer.setSeriesStroke(0, new BasicStroke(2.0f, BasicStroke.CAP_BUTT, 
-                                                    BasicStroke.JOIN_MITER, 10.0f, 
-                                                    new float[]{5.0f}, 0.0f));
-        renderer.setSeriesPaint(1, Color.BLUE);
-        renderer.setSeriesStroke(1, new BasicStroke(2.0f));
-        plot.setRenderer(renderer);
+        renderer.setSeriesPaint(0, Color.BLUE);
+        renderer.setSeriesStroke(0, new BasicStroke(2.0f));
+        plot.setRenderer(1, renderer);
     }
     
     private void updateRxFilteredChart(double[] filtered) {
-        XYSeriesCollection dataset = new XYSeriesCollection();
+        SignalViewDataset dataset = new SignalViewDataset();
+        SignalView shown = SignalView.of(filtered).head(200);
         
         // Signal filtré en réception
-        XYSeries series = new XYSeries("Signal filtré RX");
-        for (int i = 0; i < Math.min(filtered.length, 200); i++) {
-            series.add(i, filtered[i]);
-        }
-        dataset.addSeries(series);
+        dataset.addSeries("Signal filtré RX", shown);
         
         // Ajouter des marqueurs pour les instants d'échantillonnage optimaux
-        XYSeries samplingPoints = new XYSeries("Points d'échantillonnage");
-        for (int i = 4; i < Math.min(filtered.length, 200); i += 8) {
-            samplingPoints.add(i, filtered[i]);
+        if (shown.length() > 4) {
+            dataset.addSeries("Points d'échantillonnage", shown.slice(4, shown.length()).decimate(8), 4, 8);
         }
-        dataset.addSeries(samplingPoints);
         
         // Mettre à jour le graphique
         JFreeChart chart = rxFilteredPanel.getChart();
@@ -0,0 +1,77 @@
+package com.transmissionnumerique.view;
+
+import com.transmissionnumerique.model.SignalView;
+import org.jfree.data.xy.AbstractXYDataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeu de données JFreeChart lisant directement des {@link SignalView} : aucune copie des
+ * échantillons dans des XYSeries. L'abscisse du point i d'une série est xStart + i · xStep
+ * (indice d'échantillon d'origine pour une vue extraite ou décimée).
+ *
+ * Le jeu de données n'est pas destiné à être sérialisé : les vues, qui référencent les
+ * signaux sans les copier, sont transitoires.
+ */
+public class SignalViewDataset extends AbstractXYDataset {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> keys = new ArrayList<>();
+    private final transient List<SignalView> views = new ArrayList<>();
+    private final List<double[]> abscissae = new ArrayList<>();
+
+    /**
+     * Série d'abscisses 0, 1, 2...
+     */
+    public void addSeries(String key, SignalView view) {
+        addSeries(key, view, 0, 1);
+    }
+
+    public void addSeries(String key, SignalView view, double xStart, double xStep) {
+        if (keys.contains(key)) {
+            throw new IllegalArgumentException("Série déjà présente : " + key);
+        }
+        keys.add(key);
+        views.add(view);
+        abscissae.add(new double[]{xStart, xStep});
+        fireDatasetChanged();
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return keys.size();
+    }
+
+    @Override
+    public Comparable<String> getSeriesKey(int series) {
+        return keys.get(series);
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return views.get(series).length();
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        double[] x = abscissae.get(series);
+        return x[0] + item * x[1];
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return views.get(series).get(item);
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getYValue(series, item);
+    }
+}
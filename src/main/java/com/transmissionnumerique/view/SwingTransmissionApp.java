@@ -1,6 +1,8 @@
 package com.transmissionnumerique.view;
 
 import com.transmissionnumerique.controller.TransmissionController;
+import com.transmissionnumerique.io.CaptureHeader;
+import com.transmissionnumerique.io.ResultCache;
 import com.transmissionnumerique.model.*;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -17,9 +19,17 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.nio.file.Paths;
 
 public class SwingTransmissionApp extends JFrame {
 
+    // Graine fixe : une configuration déjà simulée (même séquence) revient du cache
+    private static final long SIMULATION_SEED = 20240501L;
+    private static final long CACHE_MEMORY_BYTES = 256L << 20;
+    private static final long CACHE_DISK_BYTES = 512L << 20;
+    // Résultat relu du cache sans ses signaux intermédiaires
+    private static final String NO_SIGNAL_MESSAGE = "Signal non disponible";
+
     private TransmissionController controller;
 
     // UI Components
@@ -50,6 +60,10 @@ public class SwingTransmissionApp extends JFrame {
 
     public SwingTransmissionApp() {
         controller = new TransmissionController();
+        controller.setSeed(SIMULATION_SEED);
+        controller.setResultCache(new ResultCache(CACHE_MEMORY_BYTES,
+                Paths.get(System.getProperty("user.home"), ".transmission-numerique", "cache"),
+                CACHE_DISK_BYTES), true);
 
         // Configuration de la fenêtre
         setTitle("Simulation de chaîne de transmission numérique - Avec diagramme de l'œil");
@@ -395,22 +409,48 @@ public class SwingTransmissionApp extends JFrame {
         // Créer un graphique BER vs SNR
         XYSeries series = new XYSeries("BER vs SNR");
         
+        // Courbe théorique de la configuration testée (NRZ, voir runPerformanceTest)
+        Modulator.ModulationType modType = (Modulator.ModulationType) modulationTypeComboBox.getSelectedItem();
+        BerTheory.Scheme scheme = BerTheory.forChain(modType, LineEncoder.EncodingType.NRZ);
+        boolean rayleigh = controller.getChannelType() == Channel.NoiseType.RAYLEIGH;
+        int samplesPerSymbol = controller.getSamplesPerSymbol();
+        
         StringBuilder text = new StringBuilder();
         text.append("=== RÉSULTATS DES TESTS DE PERFORMANCE ===\n\n");
-        text.append("SNR (dB) | BER\n");
-        text.append("---------|------------\n");
+        text.append("SNR (dB) | BER          | BER théorique\n");
+        text.append("---------|--------------|--------------\n");
         
         for (double[] result : results) {
             double snr = result[0];
             double ber = result[1];
+            double theory = BerTheory.ber(scheme, BerTheory.ebN0FromSnr(scheme, snr, samplesPerSymbol), rayleigh);
             series.add(snr, ber > 0 ? Math.log10(ber) : -10); // Log scale pour BER
-            text.append(String.format("%8.0f | %.6e\n", snr, ber));
+            text.append(String.format("%8.0f | %.6e | %.6e\n", snr, ber, theory));
         }
         
         resultTextArea.setText(text.toString());
         
+        // Courbe théorique sur une grille fine, limitée au plancher du graphique
+        XYSeries theorySeries = new XYSeries("Théorie " + scheme + (rayleigh ? " (Rayleigh)" : " (AWGN)"));
+        double minSnr = results.length > 0 ? results[0][0] : 0;
+        double maxSnr = results.length > 0 ? results[results.length - 1][0] : 0;
+        int gridSize = (int) Math.round((maxSnr - minSnr) * 4) + 1;
+        double[] grid = new double[gridSize];
+        for (int i = 0; i < gridSize; i++) {
+            grid[i] = minSnr + i * 0.25;
+        }
+        double[] curve = BerTheory.berCurve(scheme, grid, samplesPerSymbol, rayleigh);
+        for (int i = 0; i < gridSize; i++) {
+            double logBer = curve[i] > 0 ? Math.log10(curve[i]) : -10;
+            if (logBer < -10) {
+                break;
+            }
+            theorySeries.add(grid[i], logBer);
+        }
+        
         // Créer le graphique
         XYSeriesCollection dataset = new XYSeriesCollection(series);
+        dataset.addSeries(theorySeries);
         JFreeChart chart = ChartFactory.createXYLineChart(
                 "Courbe BER vs SNR",
                 "SNR (dB)",
@@ -431,16 +471,16 @@ public class SwingTransmissionApp extends JFrame {
         updateChart(inputSignalPanel, "Bits d'entrée", controller.getInputSequence());
 
         // Mise à jour du graphique du signal encodé
-        updateDoubleChart(encodedSignalPanel, "Signal encodé", controller.getEncodedSignal());
+        updateDoubleChart(encodedSignalPanel, "Signal encodé", controller.getSignalView(CaptureHeader.Stage.ENCODED));
 
         // Mise à jour du graphique du signal modulé
-        updateDoubleChart(modulatedSignalPanel, "Signal modulé", controller.getModulatedSignal());
+        updateDoubleChart(modulatedSignalPanel, "Signal modulé", controller.getSignalView(CaptureHeader.Stage.MODULATED));
 
         // Mise à jour du graphique du signal bruité
-        updateDoubleChart(noisySignalPanel, "Signal bruité", controller.getNoisySignal());
+        updateDoubleChart(noisySignalPanel, "Signal bruité", controller.getSignalView(CaptureHeader.Stage.NOISY));
 
         // Mise à jour du graphique du signal démodulé
-        updateDoubleChart(demodulatedSignalPanel, "Signal démodulé", controller.getDemodulatedSignal());
+        updateDoubleChart(demodulatedSignalPanel, "Signal démodulé", controller.getSignalView(CaptureHeader.Stage.DEMODULATED));
 
         // Mise à jour du graphique de la séquence de sortie
         updateChart(outputSignalPanel, "Bits de sortie", controller.getOutputSequence());
@@ -496,15 +536,14 @@ public class SwingTransmissionApp extends JFrame {
         panel.setChart(chart);
     }
 
-    private void updateDoubleChart(ChartPanel panel, String seriesName, double[] data) {
-        XYSeries series = new XYSeries(seriesName);
-
-        for (int i = 0; i < data.length; i++) {
-            series.add(i, data[i]);
+    private void updateDoubleChart(ChartPanel panel, String seriesName, SignalView signal) {
+        // Le graphique lit les échantillons de l'étage sans les recopier ; sans signal, il
+        // est vidé plutôt que de laisser celui de la simulation précédente
+        SignalViewDataset dataset = new SignalViewDataset();
+        if (signal != null) {
+            dataset.addSeries(seriesName, signal);
         }
 
-        XYSeriesCollection dataset = new XYSeriesCollection(series);
-
         JFreeChart chart = ChartFactory.createXYLineChart(
                 panel.getChart().getTitle().getText(),
                 "Échantillons",
@@ -515,6 +554,7 @@ public class SwingTransmissionApp extends JFrame {
                 true,
                 false
         );
+        chart.getPlot().setNoDataMessage(NO_SIGNAL_MESSAGE);
 
         panel.setChart(chart);
     }
@@ -523,29 +563,33 @@ public class SwingTransmissionApp extends JFrame {
         // Créer un histogramme simple pour visualiser la distribution du signal
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
         
-        // Calculer un histogramme simple
-        double[] signal = controller.getModulatedSignal();
-        int numBins = 10;
-        double min = Double.MAX_VALUE;
-        double max = Double.MIN_VALUE;
-        
-        for (double v : signal) {
-            if (v < min) min = v;
-            if (v > max) max = v;
-        }
-        
-        int[] histogram = new int[numBins];
-        double binWidth = (max - min) / numBins;
-        
-        for (double v : signal) {
-            int bin = (int)((v - min) / binWidth);
-            if (bin >= numBins) bin = numBins - 1;
-            histogram[bin]++;
-        }
-        
-        for (int i = 0; i < numBins; i++) {
-            double binCenter = min + (i + 0.5) * binWidth;
-            dataset.addValue(histogram[i], "Distribution", String.format("%.2f", binCenter));
+        // Calculer un histogramme simple (graphique vide sans signal)
+        SignalView signal = controller.getSignalView(CaptureHeader.Stage.MODULATED);
+        if (signal != null && !signal.isEmpty()) {
+            int numBins = 10;
+            double min = Double.MAX_VALUE;
+            double max = Double.MIN_VALUE;
+            
+            for (int i = 0; i < signal.length(); i++) {
+                double v = signal.get(i);
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            
+            int[] histogram = new int[numBins];
+            double binWidth = (max - min) / numBins;
+            
+            for (int i = 0; i < signal.length(); i++) {
+                double v = signal.get(i);
+                int bin = (int)((v - min) / binWidth);
+                if (bin >= numBins) bin = numBins - 1;
+                histogram[bin]++;
+            }
+            
+            for (int i = 0; i < numBins; i++) {
+                double binCenter = min + (i + 0.5) * binWidth;
+                dataset.addValue(histogram[i], "Distribution", String.format("%.2f", binCenter));
+            }
         }
         
         JFreeChart chart = ChartFactory.createBarChart(
@@ -558,6 +602,7 @@ public class SwingTransmissionApp extends JFrame {
                 true,
                 false
         );
+        chart.getPlot().setNoDataMessage(NO_SIGNAL_MESSAGE);
         
         analysisPanel.setChart(chart);
     }
@@ -0,0 +1,57 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.model.Channel;
+import com.transmissionnumerique.model.Equalizer;
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.MultipathProfile;
+import com.transmissionnumerique.model.TransmissionFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gain en BER de l'égaliseur sur un canal multitrajet statique, avec et sans égaliseur
+ * sur la même séquence et le même bruit ({@link TransmissionController#runEqualizerBenchmark}).
+ * Graines fixes : les BER sont reproductibles d'une exécution à l'autre.
+ */
+class EqualizerGainTest {
+
+    private static final long SEED = 2024L;
+    private static final int SEQUENCE_LENGTH = 20000;
+    private static final double SNR = 20.0;
+
+    @Test
+    void decisionFeedbackEqualizerRemovesMultipathErrors() {
+        double[] result = run(Equalizer.Structure.DECISION_FEEDBACK);
+        assertTrue(result[0] > 0, "Débit de l'égaliseur non mesuré");
+        // Sans égaliseur, l'interférence entre symboles domine (BER de quelques %)
+        assertTrue(result[1] > 1e-2, "BER sans égaliseur : " + result[1]);
+        assertTrue(result[2] * 20 < result[1], "BER avec égaliseur : " + result[2] + " (sans : " + result[1] + ")");
+    }
+
+    @Test
+    void linearEqualizerRemovesMultipathErrors() {
+        double[] result = run(Equalizer.Structure.LINEAR);
+        assertTrue(result[2] * 20 < result[1], "BER avec égaliseur : " + result[2] + " (sans : " + result[1] + ")");
+    }
+
+    @Test
+    void berIsReproducibleWithFixedSeed() {
+        double[] first = run(Equalizer.Structure.DECISION_FEEDBACK);
+        double[] second = run(Equalizer.Structure.DECISION_FEEDBACK);
+        assertArrayEquals(new double[]{first[1], first[2]}, new double[]{second[1], second[2]});
+    }
+
+    private static double[] run(Equalizer.Structure structure) {
+        TransmissionController controller = new TransmissionController();
+        controller.setSeed(SEED);
+        // Trois trajets à 0, 1 et 2,5 symboles (10 kbaud), -3 et -6 dB
+        controller.setChannelModel(Channel.NoiseType.MULTIPATH,
+                MultipathProfile.staticProfile(new double[]{0, 100e-6, 250e-6}, new double[]{0, -3, -6}));
+        controller.setEqualizer(true, Equalizer.Algorithm.NLMS, structure, 11, 4, 2, 0.05);
+        return controller.runEqualizerBenchmark(SEQUENCE_LENGTH, LineEncoder.EncodingType.NRZ,
+                TransmissionFilter.FilterType.RAISED_COSINE, Modulator.ModulationType.ASK, SNR);
+    }
+}
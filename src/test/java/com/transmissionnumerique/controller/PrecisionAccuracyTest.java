@@ -0,0 +1,53 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.model.BerTheory;
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.TransmissionFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Courbe de BER en simple précision ({@link Precision#FLOAT}) comparée à la double
+ * précision : mêmes séquences et mêmes tirages de bruit (graine fixe), chaque BER d'une
+ * paire doit tomber dans l'intervalle de confiance binomial (Wilson, 95 %) de l'autre.
+ */
+class PrecisionAccuracyTest {
+
+    private static final double[] SNR_VALUES = {0, 2, 4, 6, 8};
+    private static final int SEQUENCE_LENGTH = 20000;
+    private static final int TRIALS = 3;
+
+    @Test
+    void nrzRaisedCosine() {
+        assertCurvesAgree(LineEncoder.EncodingType.NRZ, TransmissionFilter.FilterType.RAISED_COSINE);
+    }
+
+    @Test
+    void manchesterRootRaisedCosine() {
+        assertCurvesAgree(LineEncoder.EncodingType.MANCHESTER, TransmissionFilter.FilterType.ROOT_RAISED_COSINE);
+    }
+
+    @Test
+    void amiRectangular() {
+        assertCurvesAgree(LineEncoder.EncodingType.AMI, TransmissionFilter.FilterType.RECTANGULAR);
+    }
+
+    private static void assertCurvesAgree(LineEncoder.EncodingType encodingType,
+                                          TransmissionFilter.FilterType filterType) {
+        TransmissionController controller = new TransmissionController();
+        controller.setSeed(46L);
+        double[][] results = controller.runPrecisionComparison(encodingType, filterType,
+                Modulator.ModulationType.ASK, SNR_VALUES, SEQUENCE_LENGTH, TRIALS);
+        long bits = (long) SEQUENCE_LENGTH * TRIALS;
+        for (double[] row : results) {
+            String point = encodingType + "/" + filterType + " à " + row[0] + " dB : BER double " + row[1]
+                    + ", BER float " + row[2];
+            double[] doubleInterval = {row[3], row[4]};
+            double[] floatInterval = BerTheory.wilsonInterval(Math.round(row[2] * bits), bits, 1.96);
+            assertTrue(row[2] >= doubleInterval[0] && row[2] <= doubleInterval[1], point);
+            assertTrue(row[1] >= floatInterval[0] && row[1] <= floatInterval[1], point);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.io.ResultCache;
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.TransmissionFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cache sans signaux intermédiaires : les parcours qui exploitent les formes d'onde
+ * (référence sans bruit, banc de l'égaliseur) recalculent l'entrée au lieu de la relire
+ */
+class SignalFreeCacheTest {
+
+    @Test
+    void semiAnalyticRunRecomputesSignalFreeEntry() {
+        TransmissionController controller = newController();
+        double[][] first = controller.runSemiAnalyticPerformanceTest(Modulator.ModulationType.ASK,
+                TransmissionFilter.FilterType.RECTANGULAR, 1000, new double[]{5}, false);
+        // Même graine : même séquence, l'entrée sans signaux est trouvée dans le cache
+        controller.setSeed(42L);
+        double[][] second = controller.runSemiAnalyticPerformanceTest(Modulator.ModulationType.ASK,
+                TransmissionFilter.FilterType.RECTANGULAR, 1000, new double[]{5}, false);
+        assertArrayEquals(first[0], second[0], 0.0);
+    }
+
+    @Test
+    void equalizerBenchmarkRecomputesSignalFreeEntry() {
+        TransmissionController controller = newController();
+        double[] first = controller.runEqualizerBenchmark(500, LineEncoder.EncodingType.NRZ,
+                TransmissionFilter.FilterType.RECTANGULAR, Modulator.ModulationType.ASK, 10);
+        controller.setSeed(42L);
+        double[] second = controller.runEqualizerBenchmark(500, LineEncoder.EncodingType.NRZ,
+                TransmissionFilter.FilterType.RECTANGULAR, Modulator.ModulationType.ASK, 10);
+        assertEquals(first[1], second[1], 0.0);
+        assertEquals(first[2], second[2], 0.0);
+    }
+
+    private static TransmissionController newController() {
+        TransmissionController controller = new TransmissionController();
+        controller.setSeed(42L);
+        controller.setResultCache(new ResultCache(1 << 26, null), false);
+        return controller;
+    }
+}
@@ -0,0 +1,78 @@
+package com.transmissionnumerique.controller;
+
+import com.transmissionnumerique.model.LineEncoder;
+import com.transmissionnumerique.model.Modulator;
+import com.transmissionnumerique.model.TransmissionFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Campagne répartie sur localhost : un coordinateur, deux workers dans des JVM séparées,
+ * l'un tué pendant la campagne. Son unité est remise en file et les totaux par SNR sont
+ * ceux d'une campagne locale ({@link SweepJob}) de mêmes paramètres.
+ */
+class SweepPoolTest {
+
+    private static final LineEncoder.EncodingType ENCODING = LineEncoder.EncodingType.NRZ;
+    private static final TransmissionFilter.FilterType FILTER = TransmissionFilter.FilterType.RAISED_COSINE;
+    private static final Modulator.ModulationType MODULATION = Modulator.ModulationType.ASK;
+    private static final double[] SNR_VALUES = {4, 8, 12};
+    private static final int BLOCK_LENGTH = 4000;
+    private static final long TARGET_ERRORS = 200;
+    private static final long MAX_BITS = 400_000;
+    private static final long SEED = 11L;
+
+    @Test
+    void lostWorkerUnitIsRequeuedAndTotalsMatchLocalRun() throws Exception {
+        double[][] expected = new SweepJob(new TransmissionController(), ENCODING, FILTER, MODULATION,
+                SNR_VALUES, BLOCK_LENGTH, TARGET_ERRORS, MAX_BITS, SEED).run();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Process> workers = null;
+        try (SweepCoordinator coordinator = new SweepCoordinator(new TransmissionController(), ENCODING, FILTER,
+                MODULATION, SNR_VALUES, BLOCK_LENGTH, TARGET_ERRORS, MAX_BITS, SEED)) {
+            coordinator.setUnitTrials(2);
+            coordinator.setIdleTimeout(60_000);
+            CountDownLatch progress = new CountDownLatch(1);
+            coordinator.setProgressListener((pointIndex, snr, bits, errors) -> progress.countDown());
+
+            coordinator.start(0);
+            workers = coordinator.launchLocalWorkers(2);
+            // Les deux workers attendent leur première unité avant le lancement de la campagne
+            long deadline = System.currentTimeMillis() + 60_000;
+            while (coordinator.getConnectedWorkers() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(2, coordinator.getConnectedWorkers(), "Workers non connectés");
+
+            Future<double[][]> campaign = executor.submit(coordinator::run);
+            assertTrue(progress.await(60, TimeUnit.SECONDS), "Aucun essai reçu");
+            // Chaque worker a toujours une unité en cours tant que la campagne n'est pas finie
+            workers.get(0).destroyForcibly().waitFor();
+
+            double[][] results = campaign.get(120, TimeUnit.SECONDS);
+            assertTrue(coordinator.getRequeuedUnits() > 0, "Aucune unité remise en file");
+            assertEquals(expected.length, results.length);
+            for (int i = 0; i < expected.length; i++) {
+                assertArrayEquals(expected[i], results[i], 0.0, "SNR " + SNR_VALUES[i]);
+            }
+        } finally {
+            executor.shutdownNow();
+            if (workers != null) {
+                for (Process worker : workers) {
+                    worker.destroyForcibly();
+                }
+            }
+        }
+    }
+}
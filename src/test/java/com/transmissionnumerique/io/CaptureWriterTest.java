@@ -0,0 +1,80 @@
+package com.transmissionnumerique.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Capture dont la dernière fenêtre projetée n'est pas remplie : le fichier est ramené à
+ * sa taille exacte et relu à l'identique par {@link MappedSampleSource}
+ */
+class CaptureWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void realCaptureAcrossWindows() throws IOException {
+        // Fenêtres de 4 Kio : 1000 doubles en couvrent deux pleines et une partielle
+        double[] values = randomValues(1000, 1);
+        Path path = directory.resolve("reel" + SignalCapture.EXTENSION);
+        try (CaptureWriter writer = new CaptureWriter(path, CaptureHeader.Stage.NOISY,
+                CaptureHeader.SampleFormat.FLOAT64, 1, 1e4, 10, 4096)) {
+            for (int offset = 0; offset < values.length; offset += 333) {
+                writer.write(values, offset, Math.min(333, values.length - offset));
+            }
+        }
+        assertEquals(CaptureHeader.SIZE + 8L * values.length, Files.size(path));
+        assertReadsBack(path, values, 1);
+    }
+
+    @Test
+    void complexCaptureInPartialDefaultWindow() throws IOException {
+        double[] real = randomValues(777, 2);
+        double[] imag = randomValues(777, 3);
+        Path path = directory.resolve("complexe" + SignalCapture.EXTENSION);
+        try (CaptureWriter writer = new CaptureWriter(path, CaptureHeader.Stage.RECOVERED,
+                CaptureHeader.SampleFormat.FLOAT32, 2, 1e3, 1)) {
+            writer.writeComplex(real, imag, 0, real.length);
+        }
+        assertEquals(CaptureHeader.SIZE + 8L * real.length, Files.size(path));
+        double[] interleaved = new double[2 * real.length];
+        for (int i = 0; i < real.length; i++) {
+            interleaved[2 * i] = (float) real[i];
+            interleaved[2 * i + 1] = (float) imag[i];
+        }
+        assertReadsBack(path, interleaved, 2);
+    }
+
+    private static void assertReadsBack(Path path, double[] expected, int channels) throws IOException {
+        try (MappedSampleSource source = MappedSampleSource.open(path)) {
+            assertEquals(channels, source.getChannels());
+            assertEquals(expected.length / channels, source.getSampleCount());
+            double[] block = new double[128 * channels];
+            int position = 0;
+            int read;
+            while ((read = source.read(block, 0, 128)) > 0) {
+                for (int i = 0; i < read * channels; i++) {
+                    assertEquals(expected[position + i], block[i], 0.0, "valeur " + (position + i));
+                }
+                position += read * channels;
+            }
+            assertEquals(expected.length, position);
+        }
+    }
+
+    private static double[] randomValues(int length, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,62 @@
+package com.transmissionnumerique.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Niveau disque borné : au-delà de la taille maximale, les entrées les moins récemment
+ * utilisées sont supprimées
+ */
+class ResultCacheTest {
+
+    private static final int SIGNAL_LENGTH = 10000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void diskLevelStaysWithinItsBound() {
+        long entryBytes = entry().sizeInBytes();
+        long maxDiskBytes = 5 * entryBytes;
+        // Pas de niveau mémoire : chaque lecture passe par le disque
+        ResultCache cache = new ResultCache(0, directory, maxDiskBytes);
+        for (int i = 0; i < 20; i++) {
+            cache.put(ResultCache.key("entrée", i), entry());
+            assertNotNull(cache.get(ResultCache.key("entrée", 0)), "entrée 0 après " + i);
+            assertTrue(cache.getDiskBytes() <= maxDiskBytes, cache.getDiskBytes() + " octets après " + i);
+        }
+        // Relue à chaque tour, l'entrée 0 est restée ; les plus anciennes des autres sont parties
+        assertNull(cache.get(ResultCache.key("entrée", 1)));
+        assertNotNull(cache.get(ResultCache.key("entrée", 19)));
+
+        // Un nouveau cache sur le même répertoire reprend la taille existante
+        ResultCache reopened = new ResultCache(0, directory, maxDiskBytes);
+        assertTrue(reopened.getDiskBytes() > 0 && reopened.getDiskBytes() <= maxDiskBytes);
+        assertNotNull(reopened.get(ResultCache.key("entrée", 0)));
+    }
+
+    @Test
+    void entryLargerThanDiskLevelStaysInMemory() {
+        ResultCache cache = new ResultCache(1 << 26, directory, 1024);
+        cache.put(ResultCache.key("grande"), entry());
+        assertNotNull(cache.get(ResultCache.key("grande")));
+        assertEquals(0, cache.getDiskBytes());
+    }
+
+    private static ResultCache.Entry entry() {
+        ResultCache.Entry entry = new ResultCache.Entry();
+        entry.outputLength = 64;
+        entry.outputBits = new long[1];
+        entry.eyeMetrics = new double[6];
+        entry.rxFilteredSignal = new double[SIGNAL_LENGTH];
+        entry.modulatedSignal = new double[SIGNAL_LENGTH];
+        return entry;
+    }
+}
@@ -0,0 +1,150 @@
+package com.transmissionnumerique.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Aller-retour codage / décodage avec erreurs injectées : tous les motifs jusqu'à la
+ * capacité de correction sont corrigés, les motifs au-delà ne le sont pas
+ */
+class ChannelCoderTest {
+
+    @Test
+    void errorFreeRoundTrip() {
+        boolean[] data = randomBits(1001, 1);
+        for (ChannelCoder.FecType type : ChannelCoder.FecType.values()) {
+            ChannelCoder coder = new ChannelCoder(type);
+            boolean[] coded = coder.encode(data);
+            assertEquals(coder.encodedLength(data.length), coded.length, type.name());
+            assertArrayEquals(data, coder.decode(coded, data.length), type.name());
+        }
+    }
+
+    @Test
+    void hammingCorrectsEverySingleError() {
+        assertBlockCorrection(ChannelCoder.FecType.HAMMING_7_4, 7, 4, 1);
+    }
+
+    @Test
+    void bchCorrectsEveryDoubleError() {
+        assertBlockCorrection(ChannelCoder.FecType.BCH_15_7, 15, 7, 2);
+    }
+
+    /**
+     * Pour chaque message : tout motif de poids ≤ t est corrigé ; un motif de poids t + 1
+     * touchant le message donne un message faux (code parfait ou non, la distance
+     * minimale 2t + 1 interdit de retrouver le mot émis)
+     */
+    private static void assertBlockCorrection(ChannelCoder.FecType type, int n, int k, int t) {
+        ChannelCoder coder = new ChannelCoder(type);
+        for (int message = 0; message < (1 << k); message++) {
+            boolean[] data = new boolean[k];
+            for (int i = 0; i < k; i++) {
+                data[i] = ((message >>> (k - 1 - i)) & 1) != 0;
+            }
+            boolean[] codeword = coder.encode(data);
+            assertEquals(n, codeword.length);
+            for (int pattern = 1; pattern < (1 << n); pattern++) {
+                int weight = Integer.bitCount(pattern);
+                if (weight > t + 1) {
+                    continue;
+                }
+                boolean[] received = codeword.clone();
+                for (int i = 0; i < n; i++) {
+                    received[i] ^= ((pattern >>> i) & 1) != 0;
+                }
+                boolean[] decoded = coder.decode(received, k);
+                // Bits émis en premier = message (code systématique)
+                boolean touchesMessage = (pattern & ((1 << k) - 1)) != 0;
+                if (weight <= t) {
+                    assertArrayEquals(data, decoded, type + " message " + message + " motif " + pattern);
+                } else if (touchesMessage) {
+                    assertFalse(Arrays.equals(data, decoded), type + " message " + message + " motif " + pattern);
+                }
+            }
+        }
+    }
+
+    /**
+     * Distance libre 10 : un mot de code voisin diffère du mot émis sur les 10 bits de la
+     * réponse impulsionnelle. 4 de ces bits inversés sont corrigés (capacité ⌊(10-1)/2⌋),
+     * 6 font décoder le voisin (maximum de vraisemblance). Plusieurs événements d'erreur
+     * espacés dans une même trame sont corrigés indépendamment.
+     */
+    @Test
+    void viterbiCorrectsUpToFourErrorsPerErrorEvent() {
+        ChannelCoder coder = new ChannelCoder(ChannelCoder.FecType.CONVOLUTIONAL);
+        int numBits = 2000;
+        boolean[] data = randomBits(numBits, 2);
+        boolean[] coded = coder.encode(data);
+
+        boolean[] received = coded.clone();
+        for (int position = 50; position < numBits - 50; position += 100) {
+            int[] flipped = impulseResponsePositions(coder, numBits, position);
+            assertEquals(10, flipped.length);
+            for (int i = 0; i < 4; i++) {
+                received[flipped[(3 * i + position) % flipped.length]] ^= true;
+            }
+        }
+        assertArrayEquals(data, coder.decode(received, numBits));
+        assertArrayEquals(data, coder.decodeSoft(hardLlr(received), numBits));
+    }
+
+    @Test
+    void viterbiDecodesNeighbourBeyondCapability() {
+        ChannelCoder coder = new ChannelCoder(ChannelCoder.FecType.CONVOLUTIONAL);
+        int numBits = 500;
+        boolean[] data = randomBits(numBits, 3);
+        boolean[] coded = coder.encode(data);
+        int position = 200;
+        int[] flipped = impulseResponsePositions(coder, numBits, position);
+
+        boolean[] received = coded.clone();
+        for (int i = 0; i < 6; i++) {
+            received[flipped[i]] ^= true;
+        }
+        boolean[] expected = data.clone();
+        expected[position] ^= true;
+        assertArrayEquals(expected, coder.decode(received, numBits));
+    }
+
+    /**
+     * Positions des bits codés modifiés par l'inversion du bit utile position
+     */
+    private static int[] impulseResponsePositions(ChannelCoder coder, int numBits, int position) {
+        boolean[] impulse = new boolean[numBits];
+        impulse[position] = true;
+        boolean[] response = coder.encode(impulse);
+        int[] positions = new int[response.length];
+        int count = 0;
+        for (int i = 0; i < response.length; i++) {
+            if (response[i]) {
+                positions[count++] = i;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    private static double[] hardLlr(boolean[] bits) {
+        double[] llr = new double[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            llr[i] = bits[i] ? 1.0 : -1.0;
+        }
+        return llr;
+    }
+
+    private static boolean[] randomBits(int length, long seed) {
+        Random random = new Random(seed);
+        boolean[] bits = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            bits[i] = random.nextBoolean();
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,36 @@
+package com.transmissionnumerique.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Décision souple des codes en ligne : la variante simple précision rend les mêmes LLR
+ * que la variante double, arrondis en float
+ */
+class DecoderSoftTest {
+
+    @Test
+    void singlePrecisionLlrMatchesDoublePrecision() {
+        Random random = new Random(7);
+        double[] signal = new double[4096];
+        for (int i = 0; i < signal.length; i++) {
+            signal[i] = (random.nextBoolean() ? 1.0 : -1.0) * (i % 3 == 0 ? 0.0 : 1.0) + 0.3 * random.nextGaussian();
+        }
+        for (LineEncoder.EncodingType type : new LineEncoder.EncodingType[]{
+                LineEncoder.EncodingType.NRZ, LineEncoder.EncodingType.MANCHESTER, LineEncoder.EncodingType.AMI}) {
+            Decoder decoder = new Decoder(0.0);
+            decoder.setEncodingType(type);
+            int numBits = decoder.softOutputLength(signal.length);
+            double[] wide = new double[numBits];
+            float[] narrow = new float[numBits];
+            double variance = decoder.decodeSoft(signal, wide);
+            assertEquals(variance, decoder.decodeSoft(signal, narrow), 0.0);
+            for (int i = 0; i < numBits; i++) {
+                assertEquals((float) wide[i], narrow[i], 0.0f, type + " bit " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.transmissionnumerique.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Les modulations complexes ne retombent plus silencieusement sur l'ASK
+ */
+class ModulatorTest {
+
+    private static final double[] SIGNAL = {1.0, -1.0, 1.0, 1.0};
+
+    @Test
+    void complexModulationsRejectRealSignal() {
+        for (Modulator.ModulationType type : new Modulator.ModulationType[]{
+                Modulator.ModulationType.QPSK, Modulator.ModulationType.QAM, Modulator.ModulationType.QAM64}) {
+            Modulator modulator = new Modulator(type, 10000, 80000);
+            assertThrows(IllegalArgumentException.class, () -> modulator.modulate(SIGNAL));
+            assertThrows(IllegalArgumentException.class, () -> modulator.modulate(new float[]{1f, -1f}));
+            modulator.setPassband(true);
+            assertThrows(IllegalArgumentException.class, () -> modulator.modulate(SIGNAL));
+        }
+    }
+
+    @Test
+    void complexModulationsMapBits() {
+        Modulator modulator = new Modulator(Modulator.ModulationType.QPSK, 10000, 80000);
+        ComplexSignal symbols = modulator.modulate(new boolean[]{true, false, false, true});
+        assertEquals(2, symbols.getLength());
+    }
+
+    @Test
+    void realModulationsKeepTheirLevels() {
+        double[] ask = new Modulator(Modulator.ModulationType.ASK, 10000, 80000).modulate(SIGNAL);
+        assertEquals(0.8, ask[0], 0.0);
+        assertEquals(-0.8, ask[1], 0.0);
+        double[] psk = new Modulator(Modulator.ModulationType.PSK, 10000, 80000).modulate(SIGNAL);
+        assertEquals(-1.0, psk[1], 0.0);
+    }
+}
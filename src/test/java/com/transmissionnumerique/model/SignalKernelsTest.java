@@ -0,0 +1,92 @@
+package com.transmissionnumerique.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * L'implémentation active (vectorielle sous le profil simd) rend les mêmes résultats au
+ * bit près que l'implémentation scalaire, bords compris
+ */
+class SignalKernelsTest {
+
+    private static final int[] LENGTHS = {0, 1, 7, 63, 64, 65, 1000, 4099};
+    private static final int[] TAP_COUNTS = {1, 5, 49, 97};
+
+    @Test
+    void firMatchesScalar() {
+        Random random = new Random(5);
+        for (int length : LENGTHS) {
+            double[] signal = gaussian(random, length);
+            for (int tapCount : TAP_COUNTS) {
+                double[] taps = gaussian(random, tapCount);
+                for (int delay : new int[]{0, tapCount / 2, tapCount - 1}) {
+                    double[] expected = new double[length];
+                    double[] actual = new double[length];
+                    SignalKernels.scalar().fir(signal, taps, delay, expected);
+                    SignalKernels.get().fir(signal, taps, delay, actual);
+                    assertBitEqual(expected, actual, length + "/" + tapCount + "/" + delay);
+                }
+            }
+        }
+    }
+
+    @Test
+    void singlePrecisionFirMatchesScalar() {
+        Random random = new Random(6);
+        for (int length : LENGTHS) {
+            float[] signal = SignalKernels.narrow(gaussian(random, length));
+            for (int tapCount : TAP_COUNTS) {
+                float[] taps = SignalKernels.narrow(gaussian(random, tapCount));
+                for (int delay : new int[]{0, tapCount / 2, tapCount - 1}) {
+                    float[] expected = new float[length];
+                    float[] actual = new float[length];
+                    SignalKernels.scalar().fir(signal, taps, delay, expected);
+                    SignalKernels.get().fir(signal, taps, delay, actual);
+                    for (int i = 0; i < length; i++) {
+                        assertEquals(Float.floatToIntBits(expected[i]), Float.floatToIntBits(actual[i]),
+                                length + "/" + tapCount + "/" + delay + " échantillon " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void noiseAndDecisionsMatchScalar() {
+        Random random = new Random(7);
+        for (int length : LENGTHS) {
+            double[] signal = gaussian(random, length);
+            double[] noise = gaussian(random, length);
+            double[] expected = new double[length];
+            double[] actual = new double[length];
+            SignalKernels.scalar().addScaled(signal, noise, 0.3, expected);
+            SignalKernels.get().addScaled(signal, noise, 0.3, actual);
+            assertBitEqual(expected, actual, "bruit " + length);
+
+            boolean[] expectedDecisions = new boolean[length];
+            boolean[] actualDecisions = new boolean[length];
+            SignalKernels.scalar().slice(signal, 0.1, expectedDecisions);
+            SignalKernels.get().slice(signal, 0.1, actualDecisions);
+            assertArrayEquals(expectedDecisions, actualDecisions, "décisions " + length);
+        }
+    }
+
+    private static void assertBitEqual(double[] expected, double[] actual, String message) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]),
+                    message + " échantillon " + i);
+        }
+    }
+
+    private static double[] gaussian(Random random, int length) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+}
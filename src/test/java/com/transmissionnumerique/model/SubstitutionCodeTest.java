@@ -0,0 +1,88 @@
+package com.transmissionnumerique.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HDB3 et B8ZS : codage puis décodage sans bruit rendent les bits d'origine, et une
+ * erreur de symbole isolée ne coûte que quelques bits
+ */
+class SubstitutionCodeTest {
+
+    private static final LineEncoder.EncodingType[] TYPES = {
+            LineEncoder.EncodingType.HDB3, LineEncoder.EncodingType.B8ZS};
+
+    @Test
+    void zeroRunsRoundTrip() {
+        String[] patterns = {
+                "0000", "00000000", "10000", "100001", "1100001", "0000100001",
+                "1000010000", "1000000001", "10000000010000000001", "0000000000000000",
+                "10000000000000000", "1010000000011000000001", "000100000000000"};
+        for (LineEncoder.EncodingType type : TYPES) {
+            for (String pattern : patterns) {
+                boolean[] bits = new boolean[pattern.length()];
+                for (int i = 0; i < bits.length; i++) {
+                    bits[i] = pattern.charAt(i) == '1';
+                }
+                assertArrayEquals(bits, decode(type, new LineEncoder(type).encode(bits)), type + " " + pattern);
+            }
+        }
+    }
+
+    @Test
+    void randomSequencesRoundTrip() {
+        Random random = new Random(31);
+        for (LineEncoder.EncodingType type : TYPES) {
+            for (int trial = 0; trial < 20; trial++) {
+                // Une marque sur quatre : nombreuses suites de 4 et 8 zéros
+                boolean[] bits = new boolean[1000 + trial];
+                for (int i = 0; i < bits.length; i++) {
+                    bits[i] = random.nextInt(4) == 0;
+                }
+                assertArrayEquals(bits, decode(type, new LineEncoder(type).encode(bits)), type + " essai " + trial);
+            }
+        }
+    }
+
+    @Test
+    void isolatedSymbolErrorStaysLocal() {
+        Random random = new Random(32);
+        for (LineEncoder.EncodingType type : TYPES) {
+            int bound = type == LineEncoder.EncodingType.HDB3 ? 3 : 5;
+            boolean[] bits = new boolean[400];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = random.nextInt(3) == 0;
+            }
+            double[] clean = new LineEncoder(type).encode(bits);
+            for (int position = 0; position < clean.length; position++) {
+                for (double level : new double[]{-1.0, 0.0, 1.0}) {
+                    if (level == clean[position]) {
+                        continue;
+                    }
+                    double[] signal = clean.clone();
+                    signal[position] = level;
+                    boolean[] decoded = decode(type, signal);
+                    int errors = 0;
+                    for (int i = 0; i < bits.length; i++) {
+                        if (decoded[i] != bits[i]) {
+                            errors++;
+                        }
+                    }
+                    assertTrue(errors <= bound, type + " : " + errors + " erreurs pour le symbole " + position);
+                }
+            }
+        }
+    }
+
+    private static boolean[] decode(LineEncoder.EncodingType type, double[] signal) {
+        Decoder decoder = new Decoder(0.5);
+        decoder.setDebugMode(false);
+        decoder.setModulationType(Modulator.ModulationType.ASK);
+        decoder.setEncodingType(type);
+        return decoder.decode(signal);
+    }
+}